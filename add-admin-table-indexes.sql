@@ -0,0 +1,20 @@
+-- Indexes for the paged admin tables (orders, students).
+-- The tables are read a page at a time in (sort column, id) order, continuing after the
+-- last row seen, and jump ahead with an index-only seek. Each index matches one sortable
+-- column, so MySQL reads a page in index order and stops at LIMIT without a filesort;
+-- prefix searches (LIKE 'abc%') on codes and names use the same indexes.
+-- Orders by student use idx_orders_student_id (add-orders-student-index.sql); notification
+-- history pages use the indexes in add-notification-keyset-indexes.sql.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-admin-table-indexes.sql
+
+-- Orders table (newest first by default)
+CREATE INDEX idx_orders_created_page ON orders (created_at, id);
+CREATE INDEX idx_orders_code_page ON orders (code, id);
+CREATE INDEX idx_orders_total_page ON orders (total_amount, id);
+CREATE INDEX idx_orders_status_page ON orders (status, id);
+
+-- Students table
+CREATE INDEX idx_student_code_page ON student (Code, Id);
+CREATE INDEX idx_student_name_page ON student (Name, Id);
+CREATE INDEX idx_student_points_page ON student (Points, Id);
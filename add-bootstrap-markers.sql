@@ -0,0 +1,11 @@
+-- One-time startup tasks.
+-- The service container runs idempotent setup work (such as creating the default service
+-- managers, six COUNT queries plus inserts) only until it is recorded here, so later
+-- starts skip it. Delete a row to make its task run again on the next start.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-bootstrap-markers.sql
+
+CREATE TABLE IF NOT EXISTS bootstrap_tasks (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    completed_at DATETIME NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Indexes for keyset-paginated notification queries.
+-- Pages are ordered by (created_at DESC, id DESC) and continue from the last row seen
+-- (created_at, id) < (?, ?). Each index matches a filter + sort combination, so MySQL
+-- reads the page in index order and stops at LIMIT without a filesort.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-notification-keyset-indexes.sql
+
+-- Student notification screen (all types / one type)
+CREATE INDEX idx_notification_history_student_page ON notification_history (student_code, created_at, id);
+CREATE INDEX idx_notification_history_student_type_page ON notification_history (student_code, message_type, created_at, id);
+
+-- Admin notification screen (all students, optional type filter)
+CREATE INDEX idx_notification_history_page ON notification_history (created_at, id);
+CREATE INDEX idx_notification_history_type_page ON notification_history (message_type, created_at, id);
+
+-- Live notifications per user
+CREATE INDEX idx_notifications_user_page ON notifications (user_code, created_at, id);
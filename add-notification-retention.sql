@@ -0,0 +1,39 @@
+-- Time-partitioned notification_history for NotificationRetentionService.
+-- Rows are split into monthly RANGE COLUMNS(created_at) partitions. Queries bounded on
+-- created_at (keyset pages after the first, and the retention purge) prune old partitions,
+-- and the retention job drops whole partitions once they are older than every TTL.
+-- The service adds future monthly partitions on its own by splitting pmax.
+--
+-- Notes:
+--  * MySQL requires the partitioning column in every unique key, so the primary key
+--    becomes (id, created_at). id stays AUTO_INCREMENT and unique in practice.
+--  * RANGE COLUMNS does not accept TIMESTAMP, so created_at is converted to DATETIME.
+--  * Partitioned InnoDB tables cannot have foreign keys; drop any FK on
+--    notification_history.student_code before running this script.
+--  * notifications keeps one upserted row per user (unique user_code) and stays small,
+--    so it is purged by the retention job but not partitioned.
+--
+-- Adjust the monthly partition list to start at the current month before running.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-notification-retention.sql
+
+ALTER TABLE notification_history
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE notification_history
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE notification_history
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
+
+-- Supports the purge query: WHERE type = ? AND created_at < cutoff ORDER BY created_at, id
+-- (idx_notification_history_type_page from add-notification-keyset-indexes.sql already covers
+-- notification_history; this one serves the notifications table)
+CREATE INDEX idx_notifications_type_created ON notifications (notification_type, created_at, id);
@@ -0,0 +1,26 @@
+-- Materialised per-student unread notification counters.
+-- Badge refreshes read these rows (through UnreadCounterCache) instead of running
+-- COUNT(*) over notifications / notification_history on every refresh.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-notification-unread-counters.sql
+
+CREATE TABLE IF NOT EXISTS notification_unread_counter (
+    student_code VARCHAR(50) NOT NULL,
+    source ENUM('NOTIFICATIONS', 'HISTORY') NOT NULL,
+    unread_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (student_code, source)
+);
+
+-- Supports the reconcile job and first-time seeding of a student's counter
+CREATE INDEX idx_notifications_unread ON notifications (user_code, is_read);
+CREATE INDEX idx_notification_history_unread ON notification_history (student_code, is_read);
+
+-- Backfill from existing rows
+INSERT INTO notification_unread_counter (student_code, source, unread_count)
+SELECT user_code, 'NOTIFICATIONS', COUNT(*) FROM notifications WHERE is_read = FALSE GROUP BY user_code
+ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count);
+
+INSERT INTO notification_unread_counter (student_code, source, unread_count)
+SELECT student_code, 'HISTORY', COUNT(*) FROM notification_history WHERE is_read = FALSE GROUP BY student_code
+ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count);
@@ -0,0 +1,17 @@
+-- Order lifecycle timestamps for queue / prep time reporting.
+-- created_at already records when an order was placed; these columns record when it moved
+-- to PREPARING and to READY. OrderDAO stamps them in the same compare-and-set UPDATE that
+-- changes the status, so the timestamps always agree with the status transition.
+-- OrderLatencyTracker reads newly READY orders by ready_at, which the index keeps to a
+-- short range scan.
+--
+-- Orders that were already past NEW before this migration keep NULL timestamps and are
+-- simply left out of the percentiles.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-order-lifecycle-timestamps.sql
+
+ALTER TABLE orders
+    ADD COLUMN preparing_at DATETIME NULL,
+    ADD COLUMN ready_at DATETIME NULL;
+
+CREATE INDEX idx_orders_ready_at ON orders (ready_at);
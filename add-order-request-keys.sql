@@ -0,0 +1,17 @@
+-- Idempotent order placement and payment.
+-- request_key is the client's idempotency key for a checkout attempt. It is unique per
+-- student, so a repeated or retried "Confirm" can never create a second order, even after
+-- the in-memory key cache has forgotten the request, and a key sent by one student never
+-- returns another student's order. payment_tx records which payment owns
+-- the order; it is claimed before charging, so an order is never charged twice.
+-- Both columns are NULL for orders placed without a key / not yet paid, and unique
+-- indexes allow any number of NULLs.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-order-request-keys.sql
+
+ALTER TABLE orders
+    ADD COLUMN request_key VARCHAR(64) NULL,
+    ADD COLUMN payment_tx VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX uq_orders_request_key ON orders (student_code, request_key);
+CREATE UNIQUE INDEX uq_orders_payment_tx ON orders (payment_tx);
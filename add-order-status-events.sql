@@ -0,0 +1,17 @@
+-- Order status transitions, appended in the same transaction as the status change.
+-- Processes that keep the pending-order board (the admin application, the API server)
+-- tail this table with a cheap "id greater than last seen" query every two seconds, so a
+-- transition made in one process reaches the others' event streams and displays within
+-- seconds instead of waiting for the periodic status sweep. The boards delete rows older
+-- than a day.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-order-status-events.sql
+
+CREATE TABLE IF NOT EXISTS order_status_events (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    order_code VARCHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    changed_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_order_status_events_changed_at ON order_status_events (changed_at);
@@ -0,0 +1,9 @@
+-- Index for the pending-order board.
+-- PendingOrderBoard seeds itself from, and periodically sweeps, the NEW / PREPARING orders.
+-- (status, code) lets those queries read only the pending range of the index instead of
+-- scanning every order ever placed; the sweep (SELECT code, status) is answered from the
+-- index alone.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-orders-status-index.sql
+
+CREATE INDEX idx_orders_status_code ON orders (status, code);
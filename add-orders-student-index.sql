@@ -0,0 +1,8 @@
+-- Index for a student's most recent orders.
+-- The reorder screen reads a student's last orders newest first
+-- (WHERE student_code = ? ORDER BY id DESC LIMIT n); (student_code, id) answers that
+-- from the index instead of sorting all of the student's orders.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-orders-student-index.sql
+
+CREATE INDEX idx_orders_student_id ON orders (student_code, id);
@@ -0,0 +1,16 @@
+-- Payment attempts, one row per charge tried.
+-- Every process that takes payments (student kiosks, the API server) appends a row here,
+-- so the operations dashboard in the admin application can report the success rate per
+-- payment method across all of them. The dashboard reads today's rows once, then only
+-- rows with an id above the last one it has seen.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-payment-attempts.sql
+
+CREATE TABLE IF NOT EXISTS payment_attempts (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    method VARCHAR(64) NOT NULL,
+    success BOOLEAN NOT NULL,
+    attempted_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_payment_attempts_attempted_at ON payment_attempts (attempted_at);
@@ -0,0 +1,31 @@
+-- Pickup time-slot booking.
+-- Students can pre-order for a pickup slot instead of "as soon as possible". Each slot has
+-- an order capacity and an item capacity per menu category. PickupSlotService creates the
+-- upcoming slots with default capacities; adjust a slot by updating its capacity columns.
+--
+-- Booked counters only change through conditional UPDATEs
+-- (booked + n <= capacity), so concurrent bookings can never overfill a slot.
+-- orders.pickup_slot records which slot an order holds, so releasing it (payment failure,
+-- cancellation) happens exactly once.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-pickup-slots.sql
+
+CREATE TABLE IF NOT EXISTS pickup_slots (
+    slot_start DATETIME NOT NULL PRIMARY KEY,
+    order_capacity INT NOT NULL,
+    orders_booked INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS pickup_slot_capacity (
+    slot_start DATETIME NOT NULL,
+    category VARCHAR(32) NOT NULL,
+    item_capacity INT NOT NULL,
+    items_booked INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot_start, category),
+    CONSTRAINT fk_pickup_slot_capacity_slot FOREIGN KEY (slot_start)
+        REFERENCES pickup_slots (slot_start) ON DELETE CASCADE
+);
+
+ALTER TABLE orders ADD COLUMN pickup_slot DATETIME NULL;
+
+CREATE INDEX idx_orders_pickup_slot ON orders (pickup_slot);
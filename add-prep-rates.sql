@@ -0,0 +1,14 @@
+-- Learned prep rates for pickup ETAs.
+-- The process that keeps the pending-order board (the admin application or the API
+-- server) learns the prep time per unit of each menu item from completed orders and
+-- writes it here after each latency-tracker poll. Student kiosks estimate pickup times
+-- from these rates instead of the flat default. menu_item_id 0 holds the all-items
+-- average used for items without a rate of their own.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-prep-rates.sql
+
+CREATE TABLE IF NOT EXISTS menu_item_prep_rates (
+    menu_item_id INT NOT NULL PRIMARY KEY,
+    unit_prep_ms DOUBLE NOT NULL,
+    updated_at DATETIME NOT NULL
+);
@@ -0,0 +1,30 @@
+-- Saved carts.
+-- CartService keeps carts in memory and writes them back here shortly after each change,
+-- so a cart survives a restart or moving to another kiosk. Each line keeps the name and
+-- price the item had when it was added; checkout compares that snapshot with the menu.
+-- version counts the writes: a kiosk only saves over the version it last loaded or saved,
+-- so a stale copy of the cart on another kiosk cannot overwrite newer changes.
+-- Carts idle for longer than the cart TTL are deleted by CartService.
+--
+-- Usage: mysql -u root -p CafeteriaSystem < add-student-carts.sql
+
+CREATE TABLE IF NOT EXISTS carts (
+    student_code VARCHAR(64) NOT NULL PRIMARY KEY,
+    updated_at DATETIME NOT NULL,
+    version BIGINT NOT NULL DEFAULT 1,
+    INDEX idx_carts_updated_at (updated_at)
+);
+
+CREATE TABLE IF NOT EXISTS cart_items (
+    student_code VARCHAR(64) NOT NULL,
+    line_no INT NOT NULL,
+    menu_item_id INT NOT NULL,
+    name_snapshot VARCHAR(255) NOT NULL,
+    category VARCHAR(32) NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    unit_currency VARCHAR(8) NOT NULL,
+    quantity INT NOT NULL,
+    PRIMARY KEY (student_code, line_no),
+    CONSTRAINT fk_cart_items_cart FOREIGN KEY (student_code)
+        REFERENCES carts (student_code) ON DELETE CASCADE
+);
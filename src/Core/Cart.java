@@ -0,0 +1,149 @@
+package Core;
+
+import Values.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student's cart, one line per menu item in the order the items were added.
+ * Thread-safe: the UI mutates it while the cart service writes it back in the background.
+ *
+ * The saved version is the version of the stored cart this one was loaded from or last
+ * written as (0 if it was never saved); a write based on an older version is refused, so
+ * a kiosk holding a stale copy cannot overwrite a newer cart.
+ */
+public class Cart {
+    private final String studentCode;
+    private final Map<Integer, CartLine> lines = new LinkedHashMap<>();
+    private LocalDateTime updatedAt;
+    private long savedVersion;
+
+    public Cart(String studentCode) {
+        this(studentCode, new ArrayList<>(), LocalDateTime.now());
+    }
+
+    public Cart(String studentCode, List<CartLine> lines, LocalDateTime updatedAt) {
+        this.studentCode = studentCode;
+        for (CartLine line : lines) {
+            this.lines.put(line.getMenuItemId(), line);
+        }
+        this.updatedAt = updatedAt != null ? updatedAt : LocalDateTime.now();
+    }
+
+    public String getStudentCode() {
+        return studentCode;
+    }
+
+    public synchronized List<CartLine> getLines() {
+        return new ArrayList<>(lines.values());
+    }
+
+    public synchronized CartLine getLine(int menuItemId) {
+        return lines.get(menuItemId);
+    }
+
+    public synchronized boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public synchronized int getItemCount() {
+        int count = 0;
+        for (CartLine line : lines.values()) {
+            count += line.getQuantity();
+        }
+        return count;
+    }
+
+    public synchronized Money getSubtotal() {
+        Money total = Money.zero();
+        for (CartLine line : lines.values()) {
+            total = total.add(line.getLineTotal());
+        }
+        return total;
+    }
+
+    public synchronized LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public synchronized long getSavedVersion() {
+        return savedVersion;
+    }
+
+    public synchronized void setSavedVersion(long savedVersion) {
+        this.savedVersion = savedVersion;
+    }
+
+    /**
+     * Replace the whole cart with a saved copy, e.g. one changed at another kiosk.
+     */
+    public synchronized void reset(List<CartLine> lines, LocalDateTime updatedAt, long savedVersion) {
+        this.lines.clear();
+        for (CartLine line : lines) {
+            this.lines.put(line.getMenuItemId(), line);
+        }
+        this.updatedAt = updatedAt != null ? updatedAt : LocalDateTime.now();
+        this.savedVersion = savedVersion;
+    }
+
+    /**
+     * Add a quantity of an item; an item already in the cart keeps its price snapshot.
+     */
+    public synchronized void add(MenuItem item, int quantity) {
+        if (item == null || quantity <= 0) {
+            throw new IllegalArgumentException("Invalid item or quantity");
+        }
+        CartLine line = lines.get(item.getId());
+        lines.put(item.getId(), line == null ? CartLine.of(item, quantity) : line.withQuantity(line.getQuantity() + quantity));
+        touch();
+    }
+
+    /**
+     * Set the quantity of an item already in the cart; zero or less removes it.
+     */
+    public synchronized boolean setQuantity(int menuItemId, int quantity) {
+        CartLine line = lines.get(menuItemId);
+        if (line == null) return false;
+        if (quantity <= 0) {
+            lines.remove(menuItemId);
+        } else {
+            lines.put(menuItemId, line.withQuantity(quantity));
+        }
+        touch();
+        return true;
+    }
+
+    public synchronized boolean remove(int menuItemId) {
+        if (lines.remove(menuItemId) == null) return false;
+        touch();
+        return true;
+    }
+
+    /**
+     * Replace a line in place (keeping its position), e.g. with a fresh price snapshot.
+     */
+    public synchronized void replace(CartLine line) {
+        if (!lines.containsKey(line.getMenuItemId())) return;
+        lines.put(line.getMenuItemId(), line);
+        touch();
+    }
+
+    public synchronized void clear() {
+        if (lines.isEmpty()) return;
+        lines.clear();
+        touch();
+    }
+
+    private void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Cart{student=" + studentCode + ", lines=" + lines.values() + '}';
+    }
+}
@@ -0,0 +1,77 @@
+package Core;
+
+import Enums.Category;
+import Values.Money;
+
+/**
+ * One line of a student's cart: a menu item with the name and price it had when it was
+ * added (the price snapshot checked against the menu at checkout) and the quantity.
+ */
+public class CartLine {
+    private final int menuItemId;
+    private final String name;
+    private final Category category;
+    private final Money unitPrice;
+    private final int quantity;
+
+    public CartLine(int menuItemId, String name, Category category, Money unitPrice, int quantity) {
+        this.menuItemId = menuItemId;
+        this.name = name;
+        this.category = category;
+        this.unitPrice = unitPrice;
+        this.quantity = Math.max(1, quantity);
+    }
+
+    public static CartLine of(MenuItem item, int quantity) {
+        return new CartLine(item.getId(), item.getName(), item.getCategory(), item.getPrice(), quantity);
+    }
+
+    public int getMenuItemId() {
+        return menuItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public Money getUnitPrice() {
+        return unitPrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Money getLineTotal() {
+        return unitPrice.multiply(quantity);
+    }
+
+    public CartLine withQuantity(int quantity) {
+        return new CartLine(menuItemId, name, category, unitPrice, quantity);
+    }
+
+    /**
+     * The same line re-snapshotted from the current menu item.
+     */
+    public CartLine withItem(MenuItem item) {
+        return new CartLine(item.getId(), item.getName(), item.getCategory(), item.getPrice(), quantity);
+    }
+
+    /**
+     * The menu item as it was snapshotted (no description), for screens that take menu items.
+     */
+    public MenuItem toMenuItem() {
+        MenuItem item = new MenuItem(name, null, unitPrice, category);
+        item.setId(menuItemId);
+        return item;
+    }
+
+    @Override
+    public String toString() {
+        return "CartLine{" + name + " x" + quantity + " @ " + unitPrice + '}';
+    }
+}
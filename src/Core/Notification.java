@@ -0,0 +1,52 @@
+package Core;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of the notifications table (live per-user notices such as ORDER_STATUS).
+ */
+public class Notification {
+    private int id;
+    private String userCode;
+    private String message;
+    private String notificationType;
+    private boolean isRead;
+    private LocalDateTime createdAt;
+
+    public Notification() {}
+
+    public Notification(int id, String userCode, String message, String notificationType,
+                        boolean isRead, LocalDateTime createdAt) {
+        this.id = id;
+        this.userCode = userCode;
+        this.message = message;
+        this.notificationType = notificationType;
+        this.isRead = isRead;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getUserCode() { return userCode; }
+    public void setUserCode(String userCode) { this.userCode = userCode; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getNotificationType() { return notificationType; }
+    public void setNotificationType(String notificationType) { this.notificationType = notificationType; }
+
+    public boolean isRead() { return isRead; }
+    public void setRead(boolean read) { isRead = read; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return String.format("[%s] %s - %s (%s)",
+            notificationType, message, createdAt, isRead ? "READ" : "UNREAD");
+    }
+}
@@ -1,5 +1,6 @@
 package Core;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import Enums.OrderStatus;
@@ -11,6 +12,13 @@ public class Order {
     private String studentCode;
     private OrderStatus status;
     private List<OrderItem> items;
+    private LocalDateTime createdAt;    // placed
+    private LocalDateTime preparingAt;  // entered PREPARING
+    private LocalDateTime readyAt;      // entered READY
+    private LocalDateTime estimatedReadyAt;  // pickup ETA when placed; not persisted
+    private LocalDateTime pickupSlot;   // booked pickup slot start, null for "as soon as possible"
+    private String requestKey;          // client idempotency key of the placement, if any
+    private String paymentTxId;         // transaction id of the payment, once paid
 
     public Order() {
         this.items = new ArrayList<>();
@@ -66,6 +74,62 @@ public class Order {
         this.status = status != null ? status : OrderStatus.NEW;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getPreparingAt() {
+        return preparingAt;
+    }
+
+    public void setPreparingAt(LocalDateTime preparingAt) {
+        this.preparingAt = preparingAt;
+    }
+
+    public LocalDateTime getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(LocalDateTime readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    public LocalDateTime getEstimatedReadyAt() {
+        return estimatedReadyAt;
+    }
+
+    public void setEstimatedReadyAt(LocalDateTime estimatedReadyAt) {
+        this.estimatedReadyAt = estimatedReadyAt;
+    }
+
+    public LocalDateTime getPickupSlot() {
+        return pickupSlot;
+    }
+
+    public void setPickupSlot(LocalDateTime pickupSlot) {
+        this.pickupSlot = pickupSlot;
+    }
+
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
+
+    public String getPaymentTxId() {
+        return paymentTxId;
+    }
+
+    public void setPaymentTxId(String paymentTxId) {
+        this.paymentTxId = paymentTxId;
+    }
+
     public List<OrderItem> getItems() {
         return new ArrayList<>(items);
     }
@@ -0,0 +1,55 @@
+package DataBase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Markers for one-time setup tasks run at startup (e.g. creating the default service
+ * managers). Once a task is marked done it is skipped on later starts; delete its row
+ * from bootstrap_tasks to run it again.
+ *
+ * Without the table (add-bootstrap-markers.sql not applied) no task is ever marked, so
+ * the tasks run on every start as they did before.
+ */
+public class BootstrapMarkerDAO {
+    private static final Logger logger = Logger.getLogger(BootstrapMarkerDAO.class.getName());
+    private final Connection connection;
+
+    public BootstrapMarkerDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public BootstrapMarkerDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    public boolean isDone(String task) {
+        String sql = "SELECT 1 FROM bootstrap_tasks WHERE name = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, task);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not read bootstrap marker " + task + " (table missing?)", e);
+            return false;
+        }
+    }
+
+    public boolean markDone(String task) {
+        String sql = "INSERT IGNORE INTO bootstrap_tasks (name, completed_at) VALUES (?, NOW())";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, task);
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not mark bootstrap task " + task + " done", e);
+            return false;
+        }
+    }
+}
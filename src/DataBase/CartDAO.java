@@ -0,0 +1,202 @@
+package DataBase;
+
+import Core.Cart;
+import Core.CartLine;
+import Enums.Category;
+import Enums.Currency;
+import Values.Money;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saved carts: one carts row per student and its lines in cart_items, with the name and
+ * price each item had when it was added. A cart is always written whole, so the stored
+ * lines are exactly one version of the cart. Every write increments the row's version and
+ * only succeeds against the version the writer last saw; an emptied cart keeps its row
+ * (without lines) so versions never repeat.
+ */
+public class CartDAO {
+    private static final Logger logger = Logger.getLogger(CartDAO.class.getName());
+
+    /** {@link #save} result: the cart was changed elsewhere since the expected version. */
+    public static final long STALE = -1;
+    /** {@link #save} result: the write failed. */
+    public static final long FAILED = -2;
+
+    private final Connection connection;
+
+    public CartDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public CartDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * The saved cart of a student, or null if there is none (or on error).
+     */
+    public Cart load(String studentCode) {
+        try {
+            return find(studentCode);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to load cart of " + studentCode, e);
+            return null;
+        }
+    }
+
+    /**
+     * The saved cart of a student, or null if there is none. Unlike {@link #load}, errors
+     * are thrown, for callers that must not mistake a failed read for a missing cart.
+     */
+    public Cart find(String studentCode) throws SQLException {
+        String cartSql = "SELECT updated_at, version FROM carts WHERE student_code = ?";
+        String linesSql = "SELECT menu_item_id, name_snapshot, category, unit_price, unit_currency, quantity " +
+                          "FROM cart_items WHERE student_code = ? ORDER BY line_no";
+        LocalDateTime updatedAt;
+        long version;
+        try (PreparedStatement ps = connection.prepareStatement(cartSql)) {
+            ps.setString(1, studentCode);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+                version = rs.getLong("version");
+            }
+        }
+        List<CartLine> lines = new ArrayList<>();
+        try (PreparedStatement ls = connection.prepareStatement(linesSql)) {
+            ls.setString(1, studentCode);
+            try (ResultSet rs = ls.executeQuery()) {
+                while (rs.next()) {
+                    lines.add(new CartLine(rs.getInt("menu_item_id"), rs.getString("name_snapshot"),
+                            toCategory(rs.getString("category")),
+                            new Money(rs.getBigDecimal("unit_price"), toCurrency(rs.getString("unit_currency"))),
+                            rs.getInt("quantity")));
+                }
+            }
+        }
+        Cart cart = new Cart(studentCode, lines, updatedAt);
+        cart.setSavedVersion(version);
+        return cart;
+    }
+
+    /**
+     * Replace the saved cart of a student with the given lines, provided the stored cart is
+     * still at {@code expectedVersion} (0: no cart stored yet).
+     *
+     * @return the new version, {@link #STALE} if the stored cart has moved on, or {@link #FAILED}
+     */
+    public long save(String studentCode, List<CartLine> lines, LocalDateTime updatedAt, long expectedVersion) {
+        // An empty cart that was never stored has nothing to write
+        if (expectedVersion == 0 && (lines == null || lines.isEmpty())) return 0;
+
+        String insertSql = "INSERT INTO carts (student_code, updated_at, version) VALUES (?, ?, 1)";
+        String updateSql = "UPDATE carts SET updated_at = ?, version = version + 1 WHERE student_code = ? AND version = ?";
+        String clearSql = "DELETE FROM cart_items WHERE student_code = ?";
+        String lineSql = "INSERT INTO cart_items (student_code, line_no, menu_item_id, name_snapshot, category, " +
+                         "unit_price, unit_currency, quantity) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+
+            if (expectedVersion == 0) {
+                try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+                    ps.setString(1, studentCode);
+                    ps.setTimestamp(2, Timestamp.valueOf(updatedAt));
+                    ps.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    // Another kiosk saved a cart first
+                    rollback(originalAutoCommit);
+                    return STALE;
+                }
+            } else {
+                try (PreparedStatement ps = connection.prepareStatement(updateSql)) {
+                    ps.setTimestamp(1, Timestamp.valueOf(updatedAt));
+                    ps.setString(2, studentCode);
+                    ps.setLong(3, expectedVersion);
+                    if (ps.executeUpdate() == 0) {
+                        rollback(originalAutoCommit);
+                        return STALE;
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(clearSql)) {
+                ps.setString(1, studentCode);
+                ps.executeUpdate();
+            }
+            if (lines != null && !lines.isEmpty()) {
+                try (PreparedStatement ps = connection.prepareStatement(lineSql)) {
+                    int lineNo = 0;
+                    for (CartLine line : lines) {
+                        ps.setString(1, studentCode);
+                        ps.setInt(2, lineNo++);
+                        ps.setInt(3, line.getMenuItemId());
+                        ps.setString(4, line.getName());
+                        ps.setString(5, line.getCategory() != null ? line.getCategory().name() : null);
+                        ps.setBigDecimal(6, line.getUnitPrice().getAmount());
+                        ps.setString(7, line.getUnitPrice().getCurrency().name());
+                        ps.setInt(8, line.getQuantity());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            if (originalAutoCommit) connection.commit();
+            return expectedVersion + 1;
+        } catch (SQLException e) {
+            rollback(originalAutoCommit);
+            logger.log(Level.SEVERE, "Failed to save cart of " + studentCode, e);
+            return FAILED;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    private void rollback(boolean originalAutoCommit) {
+        try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+    }
+
+    /**
+     * Delete carts not changed since the cutoff.
+     *
+     * @return number of carts deleted, or -1 on error
+     */
+    public int deleteIdleSince(LocalDateTime cutoff) {
+        String sql = "DELETE FROM carts WHERE updated_at < ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to delete idle carts", e);
+            return -1;
+        }
+    }
+
+    private static Category toCategory(String value) {
+        try {
+            return value != null ? Category.valueOf(value.trim().toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Currency toCurrency(String value) {
+        try {
+            return value != null ? Currency.valueOf(value) : Currency.getDefault();
+        } catch (IllegalArgumentException e) {
+            return Currency.getDefault();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package DataBase;
+
+import Interfaces.IPagedSource;
+import Values.PageRequest;
+import Values.SortCursor;
+import Values.TablePage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keyset-paged reads of one table: rows are ordered by a whitelisted sort column and then
+ * by id, and each window continues strictly after (sort value, id) of the row before it, so
+ * reading deep into the table never re-reads the rows before it the way an OFFSET would.
+ *
+ * Sortable columns must be NOT NULL (a NULL never compares past the cursor) and should have
+ * an index on (column, id) so MySQL reads each window in index order and stops at LIMIT.
+ * Search is a prefix match (LIKE 'text%') so it can use the same indexes.
+ */
+final class KeysetTable<T> implements IPagedSource<T> {
+    private static final Logger logger = Logger.getLogger(KeysetTable.class.getName());
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final Connection connection;
+    private final String from;
+    private final String columns;
+    private final String idColumn;
+    private final RowMapper<T> mapper;
+    private final Map<String, String> sortColumns = new LinkedHashMap<>();
+    private final Map<String, String> filterColumns = new HashMap<>();
+    private final List<String> searchColumns = new ArrayList<>();
+    private String defaultSortKey;
+    private boolean defaultAscending;
+    private Consumer<List<T>> afterLoad = rows -> {};
+
+    /**
+     * @param from the table, or a join, as it goes after FROM
+     * @param columns the select list the mapper reads
+     */
+    KeysetTable(Connection connection, String from, String columns, String idColumn, RowMapper<T> mapper) {
+        this.connection = connection;
+        this.from = from;
+        this.columns = columns;
+        this.idColumn = idColumn;
+        this.mapper = mapper;
+        this.defaultSortKey = "id";
+        this.defaultAscending = true;
+        sortColumns.put("id", idColumn);
+    }
+
+    KeysetTable<T> sortable(String key, String column) {
+        sortColumns.put(key, column);
+        return this;
+    }
+
+    KeysetTable<T> defaultSort(String key, boolean ascending) {
+        if (!sortColumns.containsKey(key)) throw new IllegalArgumentException("Unknown sort key: " + key);
+        this.defaultSortKey = key;
+        this.defaultAscending = ascending;
+        return this;
+    }
+
+    KeysetTable<T> filter(String name, String column) {
+        filterColumns.put(name, column);
+        return this;
+    }
+
+    KeysetTable<T> searchable(String... columns) {
+        searchColumns.addAll(List.of(columns));
+        return this;
+    }
+
+    /**
+     * Post-process each window once it is read, e.g. load child rows with one batched query.
+     */
+    KeysetTable<T> afterLoad(Consumer<List<T>> afterLoad) {
+        this.afterLoad = afterLoad;
+        return this;
+    }
+
+    @Override
+    public int count(PageRequest request) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM " + from + where(request, null, params);
+        try (PreparedStatement ps = prepare(sql, params);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to count rows of " + from + " for " + request, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public TablePage<T> fetch(PageRequest request, SortCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + columns + ", " + sortColumn(request) + " AS keyset_sort, " + idColumn + " AS keyset_id"
+                + " FROM " + from + where(request, after, params) + orderBy(request) + " LIMIT ?";
+        params.add(Math.max(1, limit));
+        List<T> rows = new ArrayList<>();
+        SortCursor last = null;
+        try (PreparedStatement ps = prepare(sql, params);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
+                last = new SortCursor(rs.getObject("keyset_sort"), rs.getInt("keyset_id"));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to read a page of " + from + " for " + request, e);
+            return TablePage.empty();
+        }
+        afterLoad.accept(rows);
+        return new TablePage<>(rows, last);
+    }
+
+    @Override
+    public SortCursor seek(PageRequest request, SortCursor after, int skip) {
+        if (skip < 1) throw new IllegalArgumentException("skip must be at least 1");
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + sortColumn(request) + ", " + idColumn
+                + " FROM " + from + where(request, after, params) + orderBy(request) + " LIMIT 1 OFFSET ?";
+        params.add(skip - 1);
+        try (PreparedStatement ps = prepare(sql, params);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? new SortCursor(rs.getObject(1), rs.getInt(2)) : null;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to seek " + skip + " rows into " + from + " for " + request, e);
+            return null;
+        }
+    }
+
+    private String where(PageRequest request, SortCursor after, List<Object> params) {
+        StringBuilder sql = new StringBuilder(" WHERE 1 = 1");
+        for (Map.Entry<String, String> filter : request.getFilters().entrySet()) {
+            String column = filterColumns.get(filter.getKey());
+            if (column == null) {
+                logger.fine("Ignoring unknown filter " + filter.getKey() + " on " + from);
+                continue;
+            }
+            sql.append(" AND ").append(column).append(" = ?");
+            params.add(filter.getValue());
+        }
+        if (request.getSearch() != null && !searchColumns.isEmpty()) {
+            String pattern = escapeLike(request.getSearch()) + "%";
+            sql.append(" AND (");
+            for (int i = 0; i < searchColumns.size(); i++) {
+                if (i > 0) sql.append(" OR ");
+                sql.append(searchColumns.get(i)).append(" LIKE ?");
+                params.add(pattern);
+            }
+            sql.append(")");
+        }
+        if (after != null) {
+            String sort = sortColumn(request);
+            String op = isAscending(request) ? ">" : "<";
+            if (sort.equals(idColumn)) {
+                sql.append(" AND ").append(idColumn).append(' ').append(op).append(" ?");
+                params.add(after.getId());
+            } else {
+                sql.append(" AND (").append(sort).append(' ').append(op).append(" ? OR (")
+                   .append(sort).append(" = ? AND ").append(idColumn).append(' ').append(op).append(" ?))");
+                params.add(after.getSortValue());
+                params.add(after.getSortValue());
+                params.add(after.getId());
+            }
+        }
+        return sql.toString();
+    }
+
+    private String orderBy(PageRequest request) {
+        String direction = isAscending(request) ? " ASC" : " DESC";
+        String sort = sortColumn(request);
+        return sort.equals(idColumn)
+                ? " ORDER BY " + idColumn + direction
+                : " ORDER BY " + sort + direction + ", " + idColumn + direction;
+    }
+
+    private String sortColumn(PageRequest request) {
+        String column = request.getSortKey() != null ? sortColumns.get(request.getSortKey()) : null;
+        return column != null ? column : sortColumns.get(defaultSortKey);
+    }
+
+    private boolean isAscending(PageRequest request) {
+        boolean known = request.getSortKey() != null && sortColumns.containsKey(request.getSortKey());
+        return known ? request.isAscending() : defaultAscending;
+    }
+
+    private PreparedStatement prepare(String sql, List<Object> params) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        try {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
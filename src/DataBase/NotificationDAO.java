@@ -1,22 +1,37 @@
 package DataBase;
 
+import Core.Notification;
+import DataBase.UnreadCounterCache.Source;
+import Values.KeysetCursor;
+import Values.Page;
+
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class NotificationDAO {
     private static final Logger logger = Logger.getLogger(NotificationDAO.class.getName());
     private final Connection connection;
+    private final UnreadCounterDAO counterDAO;
+    private final UnreadCounterCache counterCache = UnreadCounterCache.getInstance();
 
     public NotificationDAO() {
         DBconnection db = new DBconnection();
         this.connection = db.getConnection();
+        this.counterDAO = new UnreadCounterDAO(connection);
     }
 
     public NotificationDAO(Connection connection) {
         this.connection = connection;
+        this.counterDAO = new UnreadCounterDAO(connection);
     }
 
     public boolean sendNotification(String userCode, String message, String notificationType) {
@@ -29,13 +44,79 @@ public class NotificationDAO {
             // update params
             ps.setString(4, message);
             ps.setString(5, notificationType);
-            return ps.executeUpdate() > 0;
+            boolean sent = ps.executeUpdate() > 0;
+            if (sent) {
+                // The upsert may revive an already-unread row, so recount this user instead of incrementing
+                counterCache.set(Source.NOTIFICATIONS, userCode, counterDAO.refresh(Source.NOTIFICATIONS, userCode));
+            }
+            return sent;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to send notification to user: " + userCode, e);
             return false;
         }
     }
 
+    /**
+     * Upsert one notification per user in a single transaction and JDBC batch.
+     * The notifications table holds one row per user, so the map carries the final
+     * message for each user.
+     */
+    public boolean sendNotificationBatch(Map<String, String> messageByUser, String notificationType) {
+        if (messageByUser.isEmpty()) return true;
+        String placeholders = String.join(", ", Collections.nCopies(messageByUser.size(), "?"));
+        String unreadSql = "SELECT user_code FROM notifications WHERE is_read = FALSE AND user_code IN (" + placeholders + ") FOR UPDATE";
+        String upsertSql = "INSERT INTO notifications (user_code, message, notification_type) VALUES (?, ?, ?) " +
+                           "ON DUPLICATE KEY UPDATE message = ?, notification_type = ?, is_read = FALSE, created_at = CURRENT_TIMESTAMP";
+
+        Set<String> alreadyUnread = new HashSet<>();
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement(unreadSql)) {
+                int i = 1;
+                for (String userCode : messageByUser.keySet()) {
+                    ps.setString(i++, userCode);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        alreadyUnread.add(rs.getString(1));
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(upsertSql)) {
+                for (Map.Entry<String, String> entry : messageByUser.entrySet()) {
+                    ps.setString(1, entry.getKey());
+                    ps.setString(2, entry.getValue());
+                    ps.setString(3, notificationType);
+                    ps.setString(4, entry.getValue());
+                    ps.setString(5, notificationType);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            if (originalAutoCommit) connection.commit();
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+            logger.log(Level.SEVERE, "Failed to send notification batch of " + messageByUser.size(), e);
+            return false;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+
+        // Every upserted row is now unread; only rows that were not unread before change the count
+        Map<String, Integer> deltas = new HashMap<>();
+        for (String userCode : messageByUser.keySet()) {
+            if (!alreadyUnread.contains(userCode)) {
+                deltas.put(userCode, 1);
+            }
+        }
+        counterDAO.adjustBatch(Source.NOTIFICATIONS, deltas);
+        deltas.forEach((userCode, delta) -> counterCache.adjust(Source.NOTIFICATIONS, userCode, delta));
+        return true;
+    }
+
     public List<String> getUnreadNotifications(String userCode) {
         String sql = "SELECT id, message, notification_type, created_at FROM notifications WHERE user_code = ? AND is_read = FALSE ORDER BY created_at DESC";
         List<String> notifications = new ArrayList<>();
@@ -78,23 +159,87 @@ public class NotificationDAO {
         return notifications;
     }
 
+    /**
+     * Keyset-paginated notifications for a user, newest first.
+     *
+     * @param userCode   the owner of the notifications
+     * @param type       notification type filter, or null for all types
+     * @param unreadOnly only return unread notifications
+     * @param after      cursor returned with the previous page, or null for the first page
+     * @param pageSize   maximum rows to return
+     */
+    public Page<Notification> findPage(String userCode, String type, boolean unreadOnly, KeysetCursor after, int pageSize) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, user_code, message, notification_type, is_read, created_at FROM notifications WHERE user_code = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userCode);
+        if (type != null) {
+            sql.append(" AND notification_type = ?");
+            params.add(type);
+        }
+        if (unreadOnly) {
+            sql.append(" AND is_read = FALSE");
+        }
+        if (after != null) {
+            sql.append(" AND (created_at < ? OR (created_at = ? AND id < ?))");
+            Timestamp ts = Timestamp.valueOf(after.getCreatedAt());
+            params.add(ts);
+            params.add(ts);
+            params.add(after.getId());
+        }
+        // Fetch one extra row to learn whether another page exists
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<Notification> rows = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapNotification(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to page notifications for user: " + userCode, e);
+            return Page.empty();
+        }
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<Notification> page = rows.subList(0, pageSize);
+        Notification last = page.get(pageSize - 1);
+        return new Page<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()));
+    }
+
     public boolean markAsRead(String userCode, int notificationId) {
-        String sql = "UPDATE notifications SET is_read = TRUE WHERE user_code = ? AND id = ?";
+        // Only the statement that flips the flag adjusts the counter, so concurrent marks count once
+        String sql = "UPDATE notifications SET is_read = TRUE WHERE user_code = ? AND id = ? AND is_read = FALSE";
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, userCode);
             ps.setInt(2, notificationId);
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() > 0) {
+                counterDAO.adjust(Source.NOTIFICATIONS, userCode, -1);
+                counterCache.adjust(Source.NOTIFICATIONS, userCode, -1);
+                return true;
+            }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to mark notification as read for user: " + userCode, e);
             return false;
         }
+        // Already read: still report success when the notification exists
+        return exists(userCode, notificationId);
     }
 
     public boolean markAllAsRead(String userCode) {
         String sql = "UPDATE notifications SET is_read = TRUE WHERE user_code = ?";
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, userCode);
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            counterDAO.store(Source.NOTIFICATIONS, userCode, 0);
+            counterCache.set(Source.NOTIFICATIONS, userCode, 0);
+            return updated;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to mark all notifications as read for user: " + userCode, e);
             return false;
@@ -102,17 +247,90 @@ public class NotificationDAO {
     }
 
     public int getUnreadCount(String userCode) {
-        String sql = "SELECT COUNT(*) FROM notifications WHERE user_code = ? AND is_read = FALSE";
+        return counterCache.get(Source.NOTIFICATIONS, userCode,
+                () -> counterDAO.loadOrSeed(Source.NOTIFICATIONS, userCode));
+    }
+
+    /**
+     * Distinct notification types present in the table.
+     */
+    public List<String> findNotificationTypes() {
+        String sql = "SELECT DISTINCT notification_type FROM notifications";
+        List<String> types = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                types.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to list notification types", e);
+        }
+        return types;
+    }
+
+    /**
+     * Oldest notifications of a type created before the cutoff, at most {@code limit} of them.
+     */
+    public List<Notification> findExpired(String type, LocalDateTime cutoff, int limit) {
+        String sql = "SELECT id, user_code, message, notification_type, is_read, created_at FROM notifications " +
+                     "WHERE notification_type = ? AND created_at < ? ORDER BY created_at, id LIMIT ?";
+        List<Notification> rows = new ArrayList<>();
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, userCode);
+            ps.setString(1, type);
+            ps.setTimestamp(2, Timestamp.valueOf(cutoff));
+            ps.setInt(3, limit);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+                while (rs.next()) {
+                    rows.add(mapNotification(rs));
                 }
             }
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get unread count for user: " + userCode, e);
+            logger.log(Level.SEVERE, "Failed to find expired notifications of type: " + type, e);
+        }
+        return rows;
+    }
+
+    /**
+     * Delete a batch of notifications by id. Unread counters are not adjusted here;
+     * callers purging unread rows should reconcile the counters afterwards.
+     */
+    public int deleteByIds(List<Integer> ids) {
+        if (ids.isEmpty()) return 0;
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "DELETE FROM notifications WHERE id IN (" + placeholders + ")";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setInt(i + 1, ids.get(i));
+            }
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to delete notification batch", e);
+            return -1;
+        }
+    }
+
+    private Notification mapNotification(ResultSet rs) throws SQLException {
+        Timestamp created = rs.getTimestamp("created_at");
+        return new Notification(
+                rs.getInt("id"),
+                rs.getString("user_code"),
+                rs.getString("message"),
+                rs.getString("notification_type"),
+                rs.getBoolean("is_read"),
+                created != null ? created.toLocalDateTime() : null);
+    }
+
+    private boolean exists(String userCode, int notificationId) {
+        String sql = "SELECT 1 FROM notifications WHERE user_code = ? AND id = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, userCode);
+            ps.setInt(2, notificationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to read notification state: " + notificationId, e);
+            return false;
         }
-        return 0;
     }
 }
@@ -1,21 +1,34 @@
 package DataBase;
 
 import Core.NotificationHistory;
+import DataBase.UnreadCounterCache.Source;
 import Interfaces.INotificationHistory;
+import Interfaces.IPagedSource;
+import Values.KeysetCursor;
+import Values.Page;
+
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NotificationHistoryDAO implements INotificationHistory {
     private final Connection conn;
+    private final UnreadCounterDAO counterDAO;
+    private final UnreadCounterCache counterCache = UnreadCounterCache.getInstance();
 
     public NotificationHistoryDAO() {
         DBconnection db = new DBconnection();
         this.conn = db.getConnection();
+        this.counterDAO = new UnreadCounterDAO(conn);
     }
 
     public NotificationHistoryDAO(Connection conn) {
         this.conn = conn;
+        this.counterDAO = new UnreadCounterDAO(conn);
     }
 
     @Override
@@ -29,6 +42,10 @@ public class NotificationHistoryDAO implements INotificationHistory {
             stmt.setTimestamp(5, Timestamp.valueOf(notification.getCreatedAt()));
             stmt.setBoolean(6, notification.isRead());
             stmt.executeUpdate();
+            if (!notification.isRead()) {
+                counterDAO.adjust(Source.HISTORY, notification.getStudentCode(), 1);
+                counterCache.adjust(Source.HISTORY, notification.getStudentCode(), 1);
+            }
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -36,6 +53,49 @@ public class NotificationHistoryDAO implements INotificationHistory {
         }
     }
 
+    /**
+     * Insert several history rows in a single transaction and JDBC batch.
+     */
+    @Override
+    public boolean saveNotificationHistoryBatch(List<NotificationHistory> notifications) {
+        if (notifications.isEmpty()) return true;
+        String sql = "INSERT INTO notification_history (student_name, student_code, notify_message, message_type, created_at, is_read) VALUES (?, ?, ?, ?, ?, ?)";
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = conn.getAutoCommit();
+            if (originalAutoCommit) conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (NotificationHistory notification : notifications) {
+                    stmt.setString(1, notification.getStudentName());
+                    stmt.setString(2, notification.getStudentCode());
+                    stmt.setString(3, notification.getNotifyMessage());
+                    stmt.setString(4, notification.getMessageType());
+                    stmt.setTimestamp(5, Timestamp.valueOf(notification.getCreatedAt()));
+                    stmt.setBoolean(6, notification.isRead());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            if (originalAutoCommit) conn.commit();
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) conn.rollback(); } catch (SQLException ignored) {}
+            e.printStackTrace();
+            return false;
+        } finally {
+            try { conn.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+
+        Map<String, Integer> deltas = new HashMap<>();
+        for (NotificationHistory notification : notifications) {
+            if (!notification.isRead()) {
+                deltas.merge(notification.getStudentCode(), 1, Integer::sum);
+            }
+        }
+        counterDAO.adjustBatch(Source.HISTORY, deltas);
+        deltas.forEach((studentCode, delta) -> counterCache.adjust(Source.HISTORY, studentCode, delta));
+        return true;
+    }
+
     @Override
     public List<NotificationHistory> getNotificationHistoryForStudent(String studentCode) {
         String sql = "SELECT * FROM notification_history WHERE student_code = ? ORDER BY created_at DESC";
@@ -72,10 +132,17 @@ public class NotificationHistoryDAO implements INotificationHistory {
 
     @Override
     public boolean markNotificationAsRead(int notificationId) {
-        String sql = "UPDATE notification_history SET is_read = TRUE WHERE id = ?";
+        String owner = findOwner(notificationId);
+        if (owner == null) return false;
+        // Only the statement that flips the flag adjusts the counter, so concurrent marks count once
+        String sql = "UPDATE notification_history SET is_read = TRUE WHERE id = ? AND is_read = FALSE";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, notificationId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                counterDAO.adjust(Source.HISTORY, owner, -1);
+                counterCache.adjust(Source.HISTORY, owner, -1);
+            }
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -87,7 +154,10 @@ public class NotificationHistoryDAO implements INotificationHistory {
         String sql = "UPDATE notification_history SET is_read = TRUE WHERE student_code = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, studentCode);
-            return stmt.executeUpdate() >= 0;
+            stmt.executeUpdate();
+            counterDAO.store(Source.HISTORY, studentCode, 0);
+            counterCache.set(Source.HISTORY, studentCode, 0);
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -96,35 +166,179 @@ public class NotificationHistoryDAO implements INotificationHistory {
 
     @Override
     public int getUnreadNotificationCount(String studentCode) {
-        String sql = "SELECT COUNT(*) FROM notification_history WHERE student_code = ? AND is_read = FALSE";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, studentCode);
+        return counterCache.get(Source.HISTORY, studentCode,
+                () -> counterDAO.loadOrSeed(Source.HISTORY, studentCode));
+    }
+
+    @Override
+    public List<NotificationHistory> getAllNotificationHistory() {
+        String sql = "SELECT * FROM notification_history ORDER BY created_at DESC";
+        List<NotificationHistory> list = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                list.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    @Override
+    public Page<NotificationHistory> findPage(String studentCode, String messageType, KeysetCursor after, int pageSize) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, student_name, student_code, notify_message, message_type, created_at, is_read FROM notification_history WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (studentCode != null) {
+            sql.append(" AND student_code = ?");
+            params.add(studentCode);
+        }
+        if (messageType != null) {
+            sql.append(" AND message_type = ?");
+            params.add(messageType);
+        }
+        if (after != null) {
+            sql.append(" AND (created_at < ? OR (created_at = ? AND id < ?))");
+            Timestamp ts = Timestamp.valueOf(after.getCreatedAt());
+            params.add(ts);
+            params.add(ts);
+            params.add(after.getId());
+        }
+        // Fetch one extra row to learn whether another page exists
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<NotificationHistory> rows = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+                while (rs.next()) {
+                    rows.add(mapRow(rs));
                 }
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            return Page.empty();
+        }
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
         }
-        return 0;
+        List<NotificationHistory> page = rows.subList(0, pageSize);
+        NotificationHistory last = page.get(pageSize - 1);
+        return new Page<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()));
     }
 
-    @Override
-    public List<NotificationHistory> getAllNotificationHistory() {
-        String sql = "SELECT * FROM notification_history ORDER BY created_at DESC";
-        List<NotificationHistory> list = new ArrayList<>();
+    /**
+     * All students' notifications as a paged table source, newest first; served by the
+     * keyset indexes of {@link #findPage}. Filters: message_type, student_code; search:
+     * student code prefix.
+     */
+    public IPagedSource<NotificationHistory> pagedHistory() {
+        return new KeysetTable<>(conn, "notification_history",
+                "id, student_name, student_code, notify_message, message_type, created_at, is_read", "id", this::mapRow)
+                .sortable("created_at", "created_at")
+                .defaultSort("created_at", false)
+                .filter("message_type", "message_type")
+                .filter("student_code", "student_code")
+                .searchable("student_code");
+    }
+
+    /**
+     * Distinct message types present in the table (a loose scan of the message_type index).
+     */
+    public List<String> findMessageTypes() {
+        String sql = "SELECT DISTINCT message_type FROM notification_history";
+        List<String> types = new ArrayList<>();
         try (PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                list.add(mapRow(rs));
+                types.add(rs.getString(1));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return types;
+    }
+
+    /**
+     * Oldest rows of a message type created before the cutoff, at most {@code limit} of them.
+     */
+    public List<NotificationHistory> findExpired(String messageType, LocalDateTime cutoff, int limit) {
+        String sql = "SELECT id, student_name, student_code, notify_message, message_type, created_at, is_read " +
+                     "FROM notification_history WHERE message_type = ? AND created_at < ? ORDER BY created_at, id LIMIT ?";
+        List<NotificationHistory> list = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, messageType);
+            stmt.setTimestamp(2, Timestamp.valueOf(cutoff));
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * Rows created before {@code before} with an id above {@code afterId}, in id order, at
+     * most {@code limit} of them; for reading whole partitions page by page.
+     */
+    public List<NotificationHistory> findCreatedBefore(LocalDateTime before, int afterId, int limit) throws SQLException {
+        String sql = "SELECT id, student_name, student_code, notify_message, message_type, created_at, is_read " +
+                     "FROM notification_history WHERE created_at < ? AND id > ? ORDER BY id LIMIT ?";
+        List<NotificationHistory> list = new ArrayList<>();
+        // Failures propagate: an empty page would read as "nothing left to archive"
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(before));
+            stmt.setInt(2, afterId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        }
         return list;
     }
 
+    /**
+     * Delete a batch of rows by id. Unread counters are not adjusted here; callers
+     * purging unread rows should reconcile the counters afterwards.
+     */
+    public int deleteByIds(List<Integer> ids) {
+        if (ids.isEmpty()) return 0;
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "DELETE FROM notification_history WHERE id IN (" + placeholders + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private String findOwner(int notificationId) {
+        String sql = "SELECT student_code FROM notification_history WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, notificationId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) return rs.getString(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     private NotificationHistory mapRow(ResultSet rs) throws SQLException {
         NotificationHistory notification = new NotificationHistory();
         notification.setId(rs.getInt("id"));
@@ -0,0 +1,207 @@
+package DataBase;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Storage-side support for notification retention: the cross-process run lock and
+ * maintenance of the monthly RANGE COLUMNS(created_at) partitions of notification_history
+ * created by add-notification-retention.sql. Partitions are named pYYYYMM and hold the
+ * rows created in that month; pmax catches anything beyond the last monthly partition.
+ * When the table is not partitioned the partition methods are no-ops.
+ */
+public class NotificationRetentionDAO {
+    private static final Logger logger = Logger.getLogger(NotificationRetentionDAO.class.getName());
+    private static final String TABLE = "notification_history";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final Connection connection;
+
+    public NotificationRetentionDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public NotificationRetentionDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Take the MySQL named lock that serialises retention runs across the student and
+     * admin processes. Returns immediately; false means another process holds it.
+     */
+    public boolean tryLock() {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK('notification_retention', 0)");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() && rs.getInt(1) == 1;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to acquire notification retention lock", e);
+            return false;
+        }
+    }
+
+    public void unlock() {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK('notification_retention')");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to release notification retention lock", e);
+        }
+    }
+
+    /** Partition name and exclusive upper bound of its created_at range. */
+    private static final class PartitionBound {
+        final String name;
+        final LocalDateTime lessThan; // null for MAXVALUE
+
+        PartitionBound(String name, LocalDateTime lessThan) {
+            this.name = name;
+            this.lessThan = lessThan;
+        }
+    }
+
+    private List<PartitionBound> loadPartitions() throws SQLException {
+        String sql = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                     "ORDER BY PARTITION_ORDINAL_POSITION";
+        List<PartitionBound> partitions = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    LocalDateTime bound = null;
+                    if (description != null && !"MAXVALUE".equalsIgnoreCase(description)) {
+                        // RANGE COLUMNS bounds are reported as quoted literals, e.g. '2026-11-01 00:00:00'
+                        String literal = description.replace("'", "").trim();
+                        bound = literal.length() > 10
+                                ? Timestamp.valueOf(literal).toLocalDateTime()
+                                : LocalDate.parse(literal).atStartOfDay();
+                    }
+                    partitions.add(new PartitionBound(rs.getString("PARTITION_NAME"), bound));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Split pmax so that monthly partitions exist up to and including {@code monthsAhead}
+     * months after the current one.
+     *
+     * @return number of partitions added
+     */
+    public int ensureFuturePartitions(int monthsAhead) {
+        try {
+            List<PartitionBound> partitions = loadPartitions();
+            if (partitions.isEmpty()) return 0;
+
+            LocalDateTime lastBound = null;
+            boolean hasMax = false;
+            for (PartitionBound p : partitions) {
+                if (p.lessThan == null) {
+                    hasMax = MAX_PARTITION.equals(p.name);
+                } else {
+                    lastBound = p.lessThan;
+                }
+            }
+            if (!hasMax || lastBound == null) {
+                logger.warning("notification_history has no " + MAX_PARTITION + " partition; skipping partition maintenance");
+                return 0;
+            }
+
+            YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+            StringBuilder definitions = new StringBuilder();
+            int added = 0;
+            YearMonth next = YearMonth.from(lastBound);
+            while (!next.isAfter(target)) {
+                LocalDate upper = next.plusMonths(1).atDay(1);
+                definitions.append("PARTITION ").append(NAME_FORMAT.format(next))
+                           .append(" VALUES LESS THAN ('").append(upper).append("'), ");
+                next = next.plusMonths(1);
+                added++;
+            }
+            if (added == 0) return 0;
+
+            String ddl = "ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                         definitions + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))";
+            try (Statement st = connection.createStatement()) {
+                st.executeUpdate(ddl);
+            }
+            logger.info("Added " + added + " notification_history partition(s) up to " + target);
+            return added;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to add notification_history partitions", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Upper bound of the newest partition {@link #dropPartitionsBefore} would drop for this
+     * cutoff, or null if it would drop none. Every row created before it goes with the drop,
+     * so callers archive those rows first.
+     */
+    public LocalDateTime droppablePartitionsBefore(LocalDateTime cutoff) {
+        try {
+            List<PartitionBound> expired = expiredPartitions(cutoff);
+            return expired.isEmpty() ? null : expired.get(expired.size() - 1).lessThan;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to read notification_history partitions", e);
+            return null;
+        }
+    }
+
+    /**
+     * Drop monthly partitions whose whole range ends at or before the cutoff.
+     * Callers must only pass a cutoff older than every retention TTL, so the
+     * partitions dropped here hold no rows that are still retained, and must have
+     * archived the rows created before {@link #droppablePartitionsBefore} if they keep archives.
+     *
+     * @return number of partitions dropped
+     */
+    public int dropPartitionsBefore(LocalDateTime cutoff) {
+        try {
+            List<String> expired = new ArrayList<>();
+            for (PartitionBound p : expiredPartitions(cutoff)) {
+                expired.add(p.name);
+            }
+            if (expired.isEmpty()) return 0;
+
+            try (Statement st = connection.createStatement()) {
+                st.executeUpdate("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+            }
+            logger.info("Dropped expired notification_history partition(s): " + expired);
+            return expired.size();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to drop expired notification_history partitions", e);
+            return 0;
+        }
+    }
+
+    /**
+     * The oldest partitions whose whole range ends at or before the cutoff, oldest first.
+     */
+    private List<PartitionBound> expiredPartitions(LocalDateTime cutoff) throws SQLException {
+        List<PartitionBound> partitions = loadPartitions();
+        List<PartitionBound> expired = new ArrayList<>();
+        for (PartitionBound p : partitions) {
+            if (p.lessThan != null && !p.lessThan.isAfter(cutoff)) {
+                expired.add(p);
+            }
+        }
+        // MySQL refuses to drop every range partition; always keep at least one besides pmax
+        long ranged = partitions.stream().filter(p -> p.lessThan != null).count();
+        if (!expired.isEmpty() && expired.size() >= ranged) {
+            expired.remove(expired.size() - 1);
+        }
+        return expired;
+    }
+}
@@ -6,15 +6,22 @@ import Enums.OrderStatus;
 import Enums.Currency;
 import Values.Money;
 import Interfaces.IOrderRepository;
+import Interfaces.IPagedSource;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class OrderDAO implements IOrderRepository {
     private static final Logger logger = Logger.getLogger(OrderDAO.class.getName());
+    private static final String ORDER_COLUMNS = "id, code, student_code, status, total_amount, created_at, preparing_at, ready_at, pickup_slot, request_key, payment_tx";
     private final Connection connection;
 
     public OrderDAO() {
@@ -33,28 +40,121 @@ public class OrderDAO implements IOrderRepository {
             order.setCode(generateOrderCode());
         }
 
-        String sql = "INSERT INTO orders (code, student_code, status, total_amount) VALUES (?, ?, ?, ?)";
+        // The order row and its items are written in one transaction, so an order is never
+        // visible without its items
+        String sql = "INSERT INTO orders (code, student_code, status, total_amount, pickup_slot, request_key) VALUES (?, ?, ?, ?, ?, ?)";
+        boolean originalAutoCommit = true;
         try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
             ps.setString(1, order.getCode());
             ps.setString(2, order.getStudentCode());
             ps.setString(3, order.getStatus().name());
             ps.setDouble(4, order.total().getAmount().doubleValue());
+            ps.setTimestamp(5, order.getPickupSlot() != null ? Timestamp.valueOf(order.getPickupSlot()) : null);
+            ps.setString(6, order.getRequestKey());
             ps.executeUpdate();
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
                     order.setId(rs.getInt(1));
+                    order.setCreatedAt(LocalDateTime.now()); // column defaults to CURRENT_TIMESTAMP
                     saveOrderItems(order);
                 }
             }
+            if (originalAutoCommit) connection.commit();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            rollback(originalAutoCommit);
+            order.setId(0);
+            // Same request key placed concurrently elsewhere: hand back the order that won
+            Order existing = order.getRequestKey() != null
+                    ? findByRequestKey(order.getStudentCode(), order.getRequestKey()) : null;
+            if (existing != null) {
+                logger.info("Order for request key " + order.getRequestKey() + " already exists: " + existing.getCode());
+                order.setId(existing.getId());
+                order.setCode(existing.getCode());
+                order.setStatus(existing.getStatus());
+                order.setCreatedAt(existing.getCreatedAt());
+                order.setPickupSlot(existing.getPickupSlot());
+                order.setPaymentTxId(existing.getPaymentTxId());
+                order.setItems(existing.getItems());
+            } else {
+                logger.log(Level.SEVERE, "Failed to save order for student: " + order.getStudentCode(), e);
+            }
         } catch (SQLException e) {
+            rollback(originalAutoCommit);
+            order.setId(0);
             logger.log(Level.SEVERE, "Failed to save order for student: " + order.getStudentCode(), e);
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    private void rollback(boolean originalAutoCommit) {
+        try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+    }
+
+    /**
+     * The order the student placed with the given client request key, or null.
+     * Keys are only unique per student.
+     */
+    @Override
+    public Order findByRequestKey(String studentCode, String requestKey) {
+        if (studentCode == null || requestKey == null) return null;
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE student_code = ? AND request_key = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, studentCode);
+            ps.setString(2, requestKey);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    Order order = mapOrder(rs);
+                    loadOrderItems(order);
+                    return order;
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find order by request key: " + requestKey, e);
+        }
+        return null;
+    }
+
+    /**
+     * Claim an unpaid order for a payment before charging, so the same order is never
+     * charged twice.
+     *
+     * @return true if this transaction id now owns the order's payment
+     */
+    @Override
+    public boolean claimPayment(String orderCode, String txId) {
+        String sql = "UPDATE orders SET payment_tx = ? WHERE code = ? AND payment_tx IS NULL";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, txId);
+            ps.setString(2, orderCode);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to claim payment of order: " + orderCode, e);
+            return false;
+        }
+    }
+
+    /**
+     * Undo {@link #claimPayment} after the charge failed, so the order can be paid again.
+     */
+    @Override
+    public void releasePaymentClaim(String orderCode, String txId) {
+        String sql = "UPDATE orders SET payment_tx = NULL WHERE code = ? AND payment_tx = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, orderCode);
+            ps.setString(2, txId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to release payment claim of order: " + orderCode, e);
         }
     }
 
     @Override
     public Order findById(int id) {
-        String sql = "SELECT id, code, student_code, status, total_amount FROM orders WHERE id = ?";
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = ?";
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
@@ -70,8 +170,9 @@ public class OrderDAO implements IOrderRepository {
         return null;
     }
 
+    @Override
     public Order findByCode(String code) {
-        String sql = "SELECT id, code, student_code, status, total_amount FROM orders WHERE code = ?";
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE code = ?";
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, code);
             try (ResultSet rs = ps.executeQuery()) {
@@ -89,23 +190,87 @@ public class OrderDAO implements IOrderRepository {
 
     @Override
     public List<Order> findPending() {
-        String sql = "SELECT id, code, student_code, status, total_amount FROM orders WHERE status IN ('NEW', 'PREPARING')";
+        return findPendingAfterId(0);
+    }
+
+    /**
+     * NEW / PREPARING orders with an id greater than {@code afterId}, oldest first.
+     * Items for all returned orders are loaded with a single query.
+     */
+    public List<Order> findPendingAfterId(int afterId) {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders " +
+                     "WHERE status IN ('NEW', 'PREPARING') AND id > ? ORDER BY id";
         List<Order> orders = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, afterId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find pending orders", e);
+        }
+        loadOrderItems(orders);
+        return orders;
+    }
+
+    /**
+     * Orders by code with their items, using two queries in total.
+     */
+    public List<Order> findByCodes(List<String> orderCodes) {
+        List<Order> orders = new ArrayList<>();
+        if (orderCodes == null || orderCodes.isEmpty()) return orders;
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE code IN (" +
+                     String.join(", ", Collections.nCopies(orderCodes.size(), "?")) + ") ORDER BY id";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < orderCodes.size(); i++) {
+                ps.setString(i + 1, orderCodes.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find " + orderCodes.size() + " order(s) by code", e);
+        }
+        loadOrderItems(orders);
+        return orders;
+    }
+
+    /**
+     * Status of every NEW / PREPARING order keyed by code, read from the (status, code) index.
+     * Returns null if the query fails.
+     */
+    public Map<String, OrderStatus> findPendingStatuses() {
+        String sql = "SELECT code, status FROM orders WHERE status IN ('NEW', 'PREPARING')";
+        Map<String, OrderStatus> statuses = new HashMap<>();
         try (PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                Order order = mapOrder(rs);
-                loadOrderItems(order);
-                orders.add(order);
+                statuses.put(rs.getString("code"), OrderStatus.valueOf(rs.getString("status")));
             }
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to find pending orders", e);
+            logger.log(Level.SEVERE, "Failed to read pending order statuses", e);
+            return null;
         }
-        return orders;
+        return statuses;
+    }
+
+    public int findMaxId() {
+        String sql = "SELECT COALESCE(MAX(id), 0) FROM orders";
+        try (PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) return rs.getInt(1);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to read latest order id", e);
+        }
+        return 0;
     }
 
     public List<Order> findByStudentCode(String studentCode) {
-        String sql = "SELECT id, code, student_code, status, total_amount FROM orders WHERE student_code = ?";
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE student_code = ?";
         List<Order> orders = new ArrayList<>();
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, studentCode);
@@ -122,6 +287,28 @@ public class OrderDAO implements IOrderRepository {
         return orders;
     }
 
+    /**
+     * A student's most recent orders with their items, newest first.
+     */
+    public List<Order> findRecentByStudentCode(String studentCode, int limit) {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE student_code = ? ORDER BY id DESC LIMIT ?";
+        List<Order> orders = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, studentCode);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find recent orders for student: " + studentCode, e);
+            return orders;
+        }
+        loadOrderItems(orders);
+        return orders;
+    }
+
     @Override
     @Deprecated
     public List<Order> findByStudentId(int studentId) {
@@ -142,9 +329,271 @@ public class OrderDAO implements IOrderRepository {
         }
     }
 
+    /** One row of order_status_events. */
+    public static final class StatusEvent {
+        public final long id;
+        public final String orderCode;
+        public final OrderStatus status;
+
+        StatusEvent(long id, String orderCode, OrderStatus status) {
+            this.id = id;
+            this.orderCode = orderCode;
+            this.status = status;
+        }
+    }
+
+    /**
+     * Move an order from {@code expected} to {@code next} in a single conditional UPDATE.
+     * Returns false if the order does not exist or is no longer in the expected status,
+     * so concurrent callers cannot both win the same transition.
+     */
+    @Override
+    public boolean compareAndSetStatus(String orderCode, OrderStatus expected, OrderStatus next) {
+        String sql = "UPDATE orders SET status = ?, " + transitionColumn(next) + " = CURRENT_TIMESTAMP WHERE code = ? AND status = ?";
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+            boolean moved;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, next.name());
+                ps.setString(2, orderCode);
+                ps.setString(3, expected.name());
+                moved = ps.executeUpdate() == 1;
+            }
+            if (moved) appendStatusEvents(Collections.singletonList(orderCode), next);
+            if (originalAutoCommit) connection.commit();
+            return moved;
+        } catch (SQLException e) {
+            rollback(originalAutoCommit);
+            logger.log(Level.SEVERE, "Failed to change status of order: " + orderCode, e);
+            return false;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    /**
+     * Set-based variant of {@link #compareAndSetStatus(String, OrderStatus, OrderStatus)}.
+     * The eligible orders are locked and moved in one transaction with one UPDATE.
+     *
+     * @return codes of the orders this call moved; orders that were missing or not in
+     *         the expected status are left out
+     */
+    @Override
+    public List<String> compareAndSetStatus(List<String> orderCodes, OrderStatus expected, OrderStatus next) {
+        List<String> moved = new ArrayList<>();
+        if (orderCodes == null || orderCodes.isEmpty()) return moved;
+
+        String placeholders = String.join(", ", Collections.nCopies(orderCodes.size(), "?"));
+        String lockSql = "SELECT code FROM orders WHERE status = ? AND code IN (" + placeholders + ") FOR UPDATE";
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement(lockSql)) {
+                ps.setString(1, expected.name());
+                for (int i = 0; i < orderCodes.size(); i++) {
+                    ps.setString(i + 2, orderCodes.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        moved.add(rs.getString(1));
+                    }
+                }
+            }
+            if (!moved.isEmpty()) {
+                String updateSql = "UPDATE orders SET status = ?, " + transitionColumn(next) + " = CURRENT_TIMESTAMP " +
+                                   "WHERE status = ? AND code IN (" +
+                                   String.join(", ", Collections.nCopies(moved.size(), "?")) + ")";
+                try (PreparedStatement ps = connection.prepareStatement(updateSql)) {
+                    ps.setString(1, next.name());
+                    ps.setString(2, expected.name());
+                    for (int i = 0; i < moved.size(); i++) {
+                        ps.setString(i + 3, moved.get(i));
+                    }
+                    ps.executeUpdate();
+                }
+                appendStatusEvents(moved, next);
+            }
+            if (originalAutoCommit) connection.commit();
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+            logger.log(Level.SEVERE, "Failed to change status of " + orderCodes.size() + " order(s)", e);
+            return new ArrayList<>();
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+        return moved;
+    }
+
+    /**
+     * Record transitions for other processes' pending-order boards, inside the caller's
+     * transaction. Without the table (add-order-status-events.sql not applied) only this
+     * statement fails and the status change still commits; the boards then rely on their
+     * status sweep.
+     */
+    private void appendStatusEvents(List<String> orderCodes, OrderStatus status) {
+        String sql = "INSERT INTO order_status_events (order_code, status, changed_at) VALUES (?, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (String code : orderCodes) {
+                ps.setString(1, code);
+                ps.setString(2, status.name());
+                ps.setTimestamp(3, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not record status events (table missing?)", e);
+        }
+    }
+
+    /**
+     * Highest status event id, or -1 if the events table cannot be read.
+     */
+    public long findMaxStatusEventId() {
+        String sql = "SELECT COALESCE(MAX(id), 0) FROM order_status_events";
+        try (PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) return rs.getLong(1);
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not read status events (table missing?)", e);
+        }
+        return -1;
+    }
+
+    /**
+     * Status events with an id above {@code afterId}, oldest first, at most {@code limit}.
+     */
+    public List<StatusEvent> findStatusEventsAfter(long afterId, int limit) {
+        String sql = "SELECT id, order_code, status FROM order_status_events WHERE id > ? ORDER BY id LIMIT ?";
+        List<StatusEvent> events = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(new StatusEvent(rs.getLong(1), rs.getString(2), OrderStatus.valueOf(rs.getString(3))));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to read status events after " + afterId, e);
+        }
+        return events;
+    }
+
+    /**
+     * Delete status events recorded before {@code before}.
+     *
+     * @return number of events deleted
+     */
+    public int deleteStatusEventsBefore(LocalDateTime before) {
+        String sql = "DELETE FROM order_status_events WHERE changed_at < ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(before));
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to delete old status events", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Column stamped when an order enters the given status.
+     */
+    private static String transitionColumn(OrderStatus status) {
+        switch (status) {
+            case PREPARING: return "preparing_at";
+            case READY: return "ready_at";
+            default: return "created_at";
+        }
+    }
+
+    /**
+     * READY orders whose ready_at is at or after {@code since}, oldest first, with their items.
+     * Used to feed prep-time statistics incrementally; page with {@code limit}.
+     */
+    public List<Order> findReadySince(LocalDateTime since, int limit) {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE ready_at >= ? ORDER BY ready_at, id LIMIT ?";
+        List<Order> orders = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(since));
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find orders ready since " + since, e);
+        }
+        loadOrderItems(orders);
+        return orders;
+    }
+
+    /**
+     * Owners of several orders in one query, keyed by order code.
+     */
+    @Override
+    public Map<String, String> findStudentCodes(List<String> orderCodes) {
+        Map<String, String> owners = new LinkedHashMap<>();
+        if (orderCodes == null || orderCodes.isEmpty()) return owners;
+        String sql = "SELECT code, student_code FROM orders WHERE code IN (" +
+                     String.join(", ", Collections.nCopies(orderCodes.size(), "?")) + ")";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < orderCodes.size(); i++) {
+                ps.setString(i + 1, orderCodes.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    owners.put(rs.getString("code"), rs.getString("student_code"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find students for " + orderCodes.size() + " order(s)", e);
+        }
+        return owners;
+    }
+
+    /**
+     * Owner of an order, without loading the order or its items.
+     */
+    @Override
+    public String findStudentCode(String orderCode) {
+        String sql = "SELECT student_code FROM orders WHERE code = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, orderCode);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getString(1);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find student for order: " + orderCode, e);
+        }
+        return null;
+    }
+
+    /**
+     * Code of an order by id, without loading the order or its items.
+     */
+    @Override
+    public String findCodeById(int id) {
+        String sql = "SELECT code FROM orders WHERE id = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getString(1);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to find order code for id: " + id, e);
+        }
+        return null;
+    }
+
     @Override
     public List<Order> findAll() {
-        String sql = "SELECT id, code, student_code, status, total_amount FROM orders";
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders";
         List<Order> orders = new ArrayList<>();
         try (PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
@@ -159,7 +608,25 @@ public class OrderDAO implements IOrderRepository {
         return orders;
     }
 
-    private void saveOrderItems(Order order) {
+    /**
+     * All orders, read a window at a time (newest first unless sorted otherwise), for tables
+     * too large to load whole. Sort keys: created_at, code, student_code, total, status;
+     * filter: status; search: order or student code prefix.
+     */
+    public IPagedSource<Order> pagedOrders() {
+        return new KeysetTable<>(connection, "orders", ORDER_COLUMNS, "id", this::mapOrder)
+                .sortable("created_at", "created_at")
+                .sortable("code", "code")
+                .sortable("student_code", "student_code")
+                .sortable("total", "total_amount")
+                .sortable("status", "status")
+                .defaultSort("created_at", false)
+                .filter("status", "status")
+                .searchable("code", "student_code")
+                .afterLoad(this::loadOrderItems);
+    }
+
+    private void saveOrderItems(Order order) throws SQLException {
         String sql = "INSERT INTO order_items (order_code, menu_item_id, name_snapshot, unit_price, unit_currency, quantity) VALUES (?, ?, ?, ?, ?, ?)";
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             for (OrderItem item : order.getItems()) {
@@ -172,8 +639,6 @@ public class OrderDAO implements IOrderRepository {
                 ps.addBatch();
             }
             ps.executeBatch();
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to save order items for order: " + order.getCode(), e);
         }
     }
 
@@ -184,24 +649,7 @@ public class OrderDAO implements IOrderRepository {
             ps.setString(1, order.getCode());
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    OrderItem item = new OrderItem();
-                    item.setMenuItemId(rs.getInt("menu_item_id"));
-                    item.setNameSnapshot(rs.getString("name_snapshot"));
-
-                    // Handle unit_currency - default to EGP if null
-                    String currencyStr = rs.getString("unit_currency");
-                    Currency currency = Currency.EGP;
-                    if (currencyStr != null) {
-                        try {
-                            currency = Currency.valueOf(currencyStr);
-                        } catch (IllegalArgumentException e) {
-                            currency = Currency.EGP;
-                        }
-                    }
-                    item.setUnitCurrency(currency);
-                    item.setUnitPrice(new Money(rs.getDouble("unit_price"), currency));
-                    item.setQty(rs.getInt("quantity"));
-                    items.add(item);
+                    items.add(mapOrderItem(rs));
                 }
             }
         } catch (SQLException e) {
@@ -210,15 +658,76 @@ public class OrderDAO implements IOrderRepository {
         order.setItems(items);
     }
 
+    /**
+     * Load the items of several orders with one query instead of one query per order.
+     */
+    private void loadOrderItems(List<Order> orders) {
+        if (orders.isEmpty()) return;
+        Map<String, List<OrderItem>> itemsByOrder = new HashMap<>();
+        for (Order order : orders) {
+            itemsByOrder.put(order.getCode(), new ArrayList<>());
+        }
+        String sql = "SELECT order_code, menu_item_id, name_snapshot, unit_price, unit_currency, quantity FROM order_items " +
+                     "WHERE order_code IN (" + String.join(", ", Collections.nCopies(itemsByOrder.size(), "?")) + ")";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int i = 1;
+            for (String code : itemsByOrder.keySet()) {
+                ps.setString(i++, code);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    List<OrderItem> items = itemsByOrder.get(rs.getString("order_code"));
+                    if (items != null) items.add(mapOrderItem(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to load order items for " + orders.size() + " order(s)", e);
+        }
+        for (Order order : orders) {
+            order.setItems(itemsByOrder.get(order.getCode()));
+        }
+    }
+
+    private OrderItem mapOrderItem(ResultSet rs) throws SQLException {
+        OrderItem item = new OrderItem();
+        item.setMenuItemId(rs.getInt("menu_item_id"));
+        item.setNameSnapshot(rs.getString("name_snapshot"));
+
+        // Handle unit_currency - default to EGP if null
+        String currencyStr = rs.getString("unit_currency");
+        Currency currency = Currency.EGP;
+        if (currencyStr != null) {
+            try {
+                currency = Currency.valueOf(currencyStr);
+            } catch (IllegalArgumentException e) {
+                currency = Currency.EGP;
+            }
+        }
+        item.setUnitCurrency(currency);
+        item.setUnitPrice(new Money(rs.getDouble("unit_price"), currency));
+        item.setQty(rs.getInt("quantity"));
+        return item;
+    }
+
     private Order mapOrder(ResultSet rs) throws SQLException {
         Order order = new Order();
         order.setId(rs.getInt("id"));
         order.setCode(rs.getString("code"));
         order.setStudentCode(rs.getString("student_code"));
         order.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        order.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        order.setPreparingAt(toLocalDateTime(rs.getTimestamp("preparing_at")));
+        order.setReadyAt(toLocalDateTime(rs.getTimestamp("ready_at")));
+        order.setPickupSlot(toLocalDateTime(rs.getTimestamp("pickup_slot")));
+        order.setRequestKey(rs.getString("request_key"));
+        order.setPaymentTxId(rs.getString("payment_tx"));
         return order;
     }
 
+    private static LocalDateTime toLocalDateTime(Timestamp ts) {
+        return ts != null ? ts.toLocalDateTime() : null;
+    }
+
     private String generateOrderCode() {
         // Generate a unique order code like ORD-20250829-001
         String datePart = java.time.LocalDate.now().toString().replace("-", "");
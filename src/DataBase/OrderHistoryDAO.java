@@ -4,6 +4,7 @@ import Core.OrderHistory;
 import Interfaces.IOrderHistory;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class OrderHistoryDAO implements IOrderHistory {
@@ -67,6 +68,23 @@ public class OrderHistoryDAO implements IOrderHistory {
         }
     }
 
+    @Override
+    public int updateOrderStatus(List<String> orderCodes, String newStatus) {
+        if (orderCodes == null || orderCodes.isEmpty()) return 0;
+        String sql = "UPDATE order_history SET order_status = ? WHERE order_code IN (" +
+                     String.join(", ", Collections.nCopies(orderCodes.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, newStatus);
+            for (int i = 0; i < orderCodes.size(); i++) {
+                stmt.setString(i + 2, orderCodes.get(i));
+            }
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
     @Override
     public OrderHistory getOrderHistoryByOrderCode(String orderCode) {
         String sql = "SELECT * FROM order_history WHERE order_code = ? ORDER BY order_date DESC LIMIT 1";
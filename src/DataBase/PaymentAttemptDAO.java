@@ -0,0 +1,83 @@
+package DataBase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Payment attempts of every process, for success rates across terminals.
+ *
+ * Without the table (add-payment-attempts.sql not applied) attempts are not recorded and
+ * the counts stay empty.
+ */
+public class PaymentAttemptDAO {
+    private static final Logger logger = Logger.getLogger(PaymentAttemptDAO.class.getName());
+    private final Connection connection;
+
+    /** Attempts and successes per payment method, and the highest id counted. */
+    public static final class Counts {
+        public final long lastId;
+        public final Map<String, long[]> byMethod;
+
+        Counts(long lastId, Map<String, long[]> byMethod) {
+            this.lastId = lastId;
+            this.byMethod = byMethod;
+        }
+    }
+
+    public PaymentAttemptDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public PaymentAttemptDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    public boolean record(String method, boolean success) {
+        String sql = "INSERT INTO payment_attempts (method, success, attempted_at) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, method);
+            ps.setBoolean(2, success);
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not record payment attempt (table missing?)", e);
+            return false;
+        }
+    }
+
+    /**
+     * Attempts per method with an id above {@code afterId}, made at or after {@code since}
+     * if it is not null. Returns null if the read failed.
+     */
+    public Counts countAfter(long afterId, LocalDateTime since) {
+        String sql = "SELECT method, COUNT(*), SUM(success), MAX(id) FROM payment_attempts WHERE id > ?"
+                   + (since != null ? " AND attempted_at >= ?" : "")
+                   + " GROUP BY method ORDER BY MIN(id)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, afterId);
+            if (since != null) ps.setTimestamp(2, Timestamp.valueOf(since));
+            long lastId = afterId;
+            Map<String, long[]> byMethod = new LinkedHashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    byMethod.put(rs.getString(1), new long[] { rs.getLong(2), rs.getLong(3) });
+                    lastId = Math.max(lastId, rs.getLong(4));
+                }
+            }
+            return new Counts(lastId, byMethod);
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not count payment attempts (table missing?)", e);
+            return null;
+        }
+    }
+}
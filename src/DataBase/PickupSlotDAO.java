@@ -0,0 +1,276 @@
+package DataBase;
+
+import Enums.Category;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pickup slot capacity. pickup_slots holds the order count per slot and
+ * pickup_slot_capacity the item count per (slot, category). Booked counters only change
+ * through conditional UPDATEs ("booked + n <= capacity"), so concurrent bookings from
+ * any number of processes can never overfill a slot.
+ */
+public class PickupSlotDAO {
+    private static final Logger logger = Logger.getLogger(PickupSlotDAO.class.getName());
+    private final Connection connection;
+
+    /** Booked and capacity counters of one slot as stored. */
+    public static final class SlotRow {
+        public final LocalDateTime start;
+        public final int orderCapacity;
+        public final int ordersBooked;
+        public final Map<Category, Integer> itemCapacity = new EnumMap<>(Category.class);
+        public final Map<Category, Integer> itemsBooked = new EnumMap<>(Category.class);
+
+        SlotRow(LocalDateTime start, int orderCapacity, int ordersBooked) {
+            this.start = start;
+            this.orderCapacity = orderCapacity;
+            this.ordersBooked = ordersBooked;
+        }
+    }
+
+    public PickupSlotDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public PickupSlotDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Create the given slots with default capacities; existing slots are left untouched.
+     */
+    public boolean ensureSlots(List<LocalDateTime> starts, int orderCapacity, Map<Category, Integer> itemCapacity) {
+        if (starts == null || starts.isEmpty()) return true;
+        String slotSql = "INSERT IGNORE INTO pickup_slots (slot_start, order_capacity, orders_booked) VALUES (?, ?, 0)";
+        String capacitySql = "INSERT IGNORE INTO pickup_slot_capacity (slot_start, category, item_capacity, items_booked) " +
+                             "VALUES (?, ?, ?, 0)";
+        try (PreparedStatement slots = connection.prepareStatement(slotSql);
+             PreparedStatement capacity = connection.prepareStatement(capacitySql)) {
+            for (LocalDateTime start : starts) {
+                slots.setTimestamp(1, Timestamp.valueOf(start));
+                slots.setInt(2, orderCapacity);
+                slots.addBatch();
+                for (Map.Entry<Category, Integer> entry : itemCapacity.entrySet()) {
+                    capacity.setTimestamp(1, Timestamp.valueOf(start));
+                    capacity.setString(2, entry.getKey().name());
+                    capacity.setInt(3, entry.getValue());
+                    capacity.addBatch();
+                }
+            }
+            slots.executeBatch();
+            capacity.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to create pickup slots", e);
+            return false;
+        }
+    }
+
+    /**
+     * Slots starting in [from, to), in order.
+     */
+    public Map<LocalDateTime, SlotRow> findSlots(LocalDateTime from, LocalDateTime to) {
+        Map<LocalDateTime, SlotRow> rows = new LinkedHashMap<>();
+        String slotSql = "SELECT slot_start, order_capacity, orders_booked FROM pickup_slots " +
+                         "WHERE slot_start >= ? AND slot_start < ? ORDER BY slot_start";
+        String capacitySql = "SELECT slot_start, category, item_capacity, items_booked FROM pickup_slot_capacity " +
+                             "WHERE slot_start >= ? AND slot_start < ?";
+        try (PreparedStatement ps = connection.prepareStatement(slotSql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LocalDateTime start = rs.getTimestamp("slot_start").toLocalDateTime();
+                    rows.put(start, new SlotRow(start, rs.getInt("order_capacity"), rs.getInt("orders_booked")));
+                }
+            }
+            try (PreparedStatement cs = connection.prepareStatement(capacitySql)) {
+                cs.setTimestamp(1, Timestamp.valueOf(from));
+                cs.setTimestamp(2, Timestamp.valueOf(to));
+                try (ResultSet rs = cs.executeQuery()) {
+                    while (rs.next()) {
+                        SlotRow row = rows.get(rs.getTimestamp("slot_start").toLocalDateTime());
+                        Category category = toCategory(rs.getString("category"));
+                        if (row == null || category == null) continue;
+                        row.itemCapacity.put(category, rs.getInt("item_capacity"));
+                        row.itemsBooked.put(category, rs.getInt("items_booked"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to load pickup slots", e);
+        }
+        return rows;
+    }
+
+    /**
+     * Book one order and its items in a slot, all or nothing.
+     *
+     * @return false if the slot (or one of the categories) is full, or on error
+     */
+    public boolean reserve(LocalDateTime slotStart, Map<Category, Integer> items) {
+        String orderSql = "UPDATE pickup_slots SET orders_booked = orders_booked + 1 " +
+                          "WHERE slot_start = ? AND orders_booked < order_capacity";
+        String itemSql = "UPDATE pickup_slot_capacity SET items_booked = items_booked + ? " +
+                         "WHERE slot_start = ? AND category = ? AND items_booked + ? <= item_capacity";
+        String limitedSql = "SELECT 1 FROM pickup_slot_capacity WHERE slot_start = ? AND category = ?";
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+
+            boolean booked;
+            try (PreparedStatement ps = connection.prepareStatement(orderSql)) {
+                ps.setTimestamp(1, Timestamp.valueOf(slotStart));
+                booked = ps.executeUpdate() == 1;
+            }
+            if (booked && items != null) {
+                try (PreparedStatement ps = connection.prepareStatement(itemSql);
+                     PreparedStatement limited = connection.prepareStatement(limitedSql)) {
+                    for (Map.Entry<Category, Integer> entry : items.entrySet()) {
+                        ps.setInt(1, entry.getValue());
+                        ps.setTimestamp(2, Timestamp.valueOf(slotStart));
+                        ps.setString(3, entry.getKey().name());
+                        ps.setInt(4, entry.getValue());
+                        if (ps.executeUpdate() == 1) continue;
+
+                        // No row means the category has no limit in this slot; a row means it is full
+                        limited.setTimestamp(1, Timestamp.valueOf(slotStart));
+                        limited.setString(2, entry.getKey().name());
+                        try (ResultSet rs = limited.executeQuery()) {
+                            if (rs.next()) {
+                                booked = false;
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            if (originalAutoCommit) {
+                if (booked) connection.commit();
+                else connection.rollback();
+            }
+            return booked;
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+            logger.log(Level.SEVERE, "Failed to reserve pickup slot " + slotStart, e);
+            return false;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    /**
+     * Give back one order and its items to a slot.
+     */
+    public boolean release(LocalDateTime slotStart, Map<Category, Integer> items) {
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+            releaseCounters(slotStart, items);
+            if (originalAutoCommit) connection.commit();
+            return true;
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+            logger.log(Level.SEVERE, "Failed to release pickup slot " + slotStart, e);
+            return false;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    /**
+     * Release the slot booked by an order and clear it from the order, exactly once.
+     * Item counts are taken from the order's lines and the menu items' categories.
+     *
+     * @return the released slot start, or null if the order had no slot (or on error)
+     */
+    public LocalDateTime releaseOrder(String orderCode) {
+        String lockSql = "SELECT pickup_slot FROM orders WHERE code = ? FOR UPDATE";
+        String itemsSql = "SELECT m.Category, SUM(oi.quantity) FROM order_items oi " +
+                          "JOIN menu_item m ON m.Id = oi.menu_item_id WHERE oi.order_code = ? GROUP BY m.Category";
+        String clearSql = "UPDATE orders SET pickup_slot = NULL WHERE code = ?";
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+
+            LocalDateTime slotStart = null;
+            try (PreparedStatement ps = connection.prepareStatement(lockSql)) {
+                ps.setString(1, orderCode);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getTimestamp(1) != null) {
+                        slotStart = rs.getTimestamp(1).toLocalDateTime();
+                    }
+                }
+            }
+            if (slotStart != null) {
+                Map<Category, Integer> items = new EnumMap<>(Category.class);
+                try (PreparedStatement ps = connection.prepareStatement(itemsSql)) {
+                    ps.setString(1, orderCode);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Category category = toCategory(rs.getString(1));
+                            if (category != null) items.put(category, rs.getInt(2));
+                        }
+                    }
+                }
+                releaseCounters(slotStart, items);
+                try (PreparedStatement ps = connection.prepareStatement(clearSql)) {
+                    ps.setString(1, orderCode);
+                    ps.executeUpdate();
+                }
+            }
+            if (originalAutoCommit) connection.commit();
+            return slotStart;
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+            logger.log(Level.SEVERE, "Failed to release pickup slot of order " + orderCode, e);
+            return null;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    private void releaseCounters(LocalDateTime slotStart, Map<Category, Integer> items) throws SQLException {
+        String orderSql = "UPDATE pickup_slots SET orders_booked = GREATEST(orders_booked - 1, 0) WHERE slot_start = ?";
+        String itemSql = "UPDATE pickup_slot_capacity SET items_booked = GREATEST(items_booked - ?, 0) " +
+                         "WHERE slot_start = ? AND category = ?";
+        try (PreparedStatement ps = connection.prepareStatement(orderSql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(slotStart));
+            ps.executeUpdate();
+        }
+        if (items == null || items.isEmpty()) return;
+        try (PreparedStatement ps = connection.prepareStatement(itemSql)) {
+            for (Map.Entry<Category, Integer> entry : items.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setTimestamp(2, Timestamp.valueOf(slotStart));
+                ps.setString(3, entry.getKey().name());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static Category toCategory(String value) {
+        try {
+            return value != null ? Category.valueOf(value.trim().toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package DataBase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Learned prep time per unit of each menu item, shared between processes through
+ * menu_item_prep_rates. Row {@link #ALL_ITEMS} holds the all-items average.
+ *
+ * Without the table (add-prep-rates.sql not applied) nothing is read or written, and
+ * processes that do not learn rates themselves keep the default estimate.
+ */
+public class PrepRateDAO {
+    private static final Logger logger = Logger.getLogger(PrepRateDAO.class.getName());
+    public static final int ALL_ITEMS = 0;
+
+    private final Connection connection;
+
+    public PrepRateDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public PrepRateDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Unit prep time in ms by menu item id; empty if none are stored or the read failed.
+     */
+    public Map<Integer, Double> findAll() {
+        Map<Integer, Double> rates = new HashMap<>();
+        String sql = "SELECT menu_item_id, unit_prep_ms FROM menu_item_prep_rates";
+        try (PreparedStatement ps = connection.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rates.put(rs.getInt(1), rs.getDouble(2));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not read prep rates (table missing?)", e);
+            rates.clear();
+        }
+        return rates;
+    }
+
+    /**
+     * Insert or overwrite the given rates in one batch.
+     */
+    public boolean saveAll(Map<Integer, Double> rates) {
+        if (rates.isEmpty()) return true;
+        String sql = "INSERT INTO menu_item_prep_rates (menu_item_id, unit_prep_ms, updated_at) VALUES (?, ?, ?) "
+                   + "ON DUPLICATE KEY UPDATE unit_prep_ms = VALUES(unit_prep_ms), updated_at = VALUES(updated_at)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Double> rate : rates.entrySet()) {
+                ps.setInt(1, rate.getKey());
+                ps.setDouble(2, rate.getValue());
+                ps.setTimestamp(3, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not save prep rates", e);
+            return false;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package DataBase;
 
 import Core.LoyaltyProgram;
 import Core.Student;
+import Interfaces.IPagedSource;
 import Interfaces.IStudentRepository;
 
 import java.sql.*;
@@ -96,6 +97,21 @@ public class StudentDAO implements IStudentRepository {
         return 0;
     }
 
+    /**
+     * All students, read a window at a time, for tables too large to load whole.
+     * Sort keys: id, code, name, points; search: student code or name prefix.
+     */
+    public IPagedSource<Student> pagedStudents() {
+        return new KeysetTable<>(conn,
+                "student s LEFT JOIN loyalty_program lp ON s.ProgramCode = lp.program_code",
+                "s.Id, s.Code, s.Name, s.Phone_Number, s.Password, s.ProgramCode, s.Points, lp.Id AS LPId, lp.Points AS LPPoints, lp.program_code AS LPCode",
+                "s.Id", this::mapStudent)
+                .sortable("code", "s.Code")
+                .sortable("name", "s.Name")
+                .sortable("points", "s.Points")
+                .searchable("s.Code", "s.Name");
+    }
+
     // Authenticate student with code and password
     public Student authenticateStudent(String code, String password) {
         if (code == null || code.trim().isEmpty() || password == null || password.trim().isEmpty()) {
@@ -0,0 +1,163 @@
+package DataBase;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide cache of per-student unread notification counts.
+ * The notification DAOs keep it in step on insert / mark-read / mark-all-read, so a badge
+ * refresh is a hash lookup. Entries older than the refresh interval are re-read from
+ * notification_unread_counter (a primary-key lookup) so writes made by the other GUI
+ * process become visible, and a periodic reconcile job rebuilds the counters from the
+ * notification tables to repair any drift.
+ */
+public final class UnreadCounterCache {
+    private static final Logger logger = Logger.getLogger(UnreadCounterCache.class.getName());
+    private static final long REFRESH_INTERVAL_MS = 15_000;
+    private static final UnreadCounterCache INSTANCE = new UnreadCounterCache();
+
+    public enum Source {
+        NOTIFICATIONS("notifications", "user_code"),
+        HISTORY("notification_history", "student_code");
+
+        final String table;
+        final String ownerColumn;
+
+        Source(String table, String ownerColumn) {
+            this.table = table;
+            this.ownerColumn = ownerColumn;
+        }
+    }
+
+    private static final class Counter {
+        final AtomicInteger value;
+        volatile long loadedAt;
+
+        Counter(int value) {
+            this.value = new AtomicInteger(Math.max(0, value));
+            this.loadedAt = System.currentTimeMillis();
+        }
+    }
+
+    private final Map<Source, ConcurrentHashMap<String, Counter>> counters = new EnumMap<>(Source.class);
+    private ScheduledExecutorService reconciler;
+
+    private UnreadCounterCache() {
+        for (Source source : Source.values()) {
+            counters.put(source, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static UnreadCounterCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the unread count for a student, using the loader on a miss or when the entry is stale.
+     */
+    public int get(Source source, String studentCode, IntSupplier loader) {
+        if (studentCode == null) return 0;
+        ConcurrentHashMap<String, Counter> map = counters.get(source);
+        Counter counter = map.get(studentCode);
+        if (counter != null && System.currentTimeMillis() - counter.loadedAt < REFRESH_INTERVAL_MS) {
+            return counter.value.get();
+        }
+        int loaded = loader.getAsInt();
+        set(source, studentCode, loaded);
+        return loaded;
+    }
+
+    /**
+     * Apply a delta to a cached counter. Students that are not cached are skipped;
+     * their next read loads the already-updated counter row.
+     */
+    public void adjust(Source source, String studentCode, int delta) {
+        if (studentCode == null) return;
+        Counter counter = counters.get(source).get(studentCode);
+        if (counter != null) {
+            counter.value.updateAndGet(v -> Math.max(0, v + delta));
+        }
+    }
+
+    public void set(Source source, String studentCode, int value) {
+        if (studentCode == null) return;
+        Counter counter = counters.get(source).computeIfAbsent(studentCode, k -> new Counter(value));
+        counter.value.set(Math.max(0, value));
+        counter.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Replace the cached counters of a source with freshly reconciled values.
+     */
+    public void replaceAll(Source source, Map<String, Integer> reconciled) {
+        ConcurrentHashMap<String, Counter> map = counters.get(source);
+        for (String studentCode : map.keySet()) {
+            set(source, studentCode, reconciled.getOrDefault(studentCode, 0));
+        }
+        for (Map.Entry<String, Integer> entry : reconciled.entrySet()) {
+            if (!map.containsKey(entry.getKey())) {
+                set(source, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public void invalidate(Source source, String studentCode) {
+        if (studentCode != null) {
+            counters.get(source).remove(studentCode);
+        }
+    }
+
+    /**
+     * Start the background reconcile job. Safe to call more than once.
+     */
+    public synchronized void startReconciler(long periodMinutes) {
+        if (reconciler != null) return;
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "unread-counter-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileNow, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+        logger.info("Unread counter reconciler scheduled every " + periodMinutes + " minute(s)");
+    }
+
+    /**
+     * Rebuild all counters from the notification tables. Uses its own connection
+     * so it never shares a JDBC connection with request threads.
+     */
+    public void reconcileNow() {
+        DBconnection db = null;
+        try {
+            db = new DBconnection();
+            UnreadCounterDAO dao = new UnreadCounterDAO(db.getConnection());
+            for (Source source : Source.values()) {
+                Map<String, Integer> reconciled = dao.reconcile(source);
+                if (reconciled != null) {
+                    replaceAll(source, reconciled);
+                }
+            }
+            logger.info("Unread counters reconciled");
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Unread counter reconcile failed", e);
+        } finally {
+            if (db != null) {
+                try { db.close(); } catch (Exception ignored) {}
+            }
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package DataBase;
+
+import DataBase.UnreadCounterCache.Source;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to the notification_unread_counter table.
+ * One row per (student, source) holding the number of unread notifications.
+ */
+public class UnreadCounterDAO {
+    private static final Logger logger = Logger.getLogger(UnreadCounterDAO.class.getName());
+    private final Connection connection;
+
+    public UnreadCounterDAO() {
+        DBconnection db = new DBconnection();
+        this.connection = db.getConnection();
+    }
+
+    public UnreadCounterDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Read the stored counter, seeding it from the source table when no row exists yet.
+     */
+    public int loadOrSeed(Source source, String studentCode) {
+        String sql = "SELECT unread_count FROM notification_unread_counter WHERE student_code = ? AND source = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, studentCode);
+            ps.setString(2, source.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to load unread counter for: " + studentCode, e);
+            return countFromSource(source, studentCode);
+        }
+        return refresh(source, studentCode);
+    }
+
+    /**
+     * Recount a single student's unread rows and store the result.
+     */
+    public int refresh(Source source, String studentCode) {
+        int count = countFromSource(source, studentCode);
+        store(source, studentCode, count);
+        return count;
+    }
+
+    public void store(Source source, String studentCode, int count) {
+        String sql = "INSERT INTO notification_unread_counter (student_code, source, unread_count) VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE unread_count = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, studentCode);
+            ps.setString(2, source.name());
+            ps.setInt(3, Math.max(0, count));
+            ps.setInt(4, Math.max(0, count));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to store unread counter for: " + studentCode, e);
+        }
+    }
+
+    public void adjust(Source source, String studentCode, int delta) {
+        String sql = "INSERT INTO notification_unread_counter (student_code, source, unread_count) VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + ?, 0)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, studentCode);
+            ps.setString(2, source.name());
+            ps.setInt(3, Math.max(0, delta));
+            ps.setInt(4, delta);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to adjust unread counter for: " + studentCode, e);
+        }
+    }
+
+    /**
+     * Apply several per-student deltas in one JDBC batch.
+     */
+    public void adjustBatch(Source source, Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) return;
+        String sql = "INSERT INTO notification_unread_counter (student_code, source, unread_count) VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + ?, 0)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+                ps.setString(1, entry.getKey());
+                ps.setString(2, source.name());
+                ps.setInt(3, Math.max(0, entry.getValue()));
+                ps.setInt(4, entry.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to adjust unread counters for " + deltas.size() + " student(s)", e);
+        }
+    }
+
+    public int countFromSource(Source source, String studentCode) {
+        String sql = "SELECT COUNT(*) FROM " + source.table + " WHERE " + source.ownerColumn + " = ? AND is_read = FALSE";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, studentCode);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to count unread rows for: " + studentCode, e);
+        }
+        return 0;
+    }
+
+    /**
+     * Rebuild every counter of a source from the underlying table in one transaction
+     * and return the resulting counts keyed by student code.
+     */
+    public Map<String, Integer> reconcile(Source source) {
+        String zeroSql = "UPDATE notification_unread_counter SET unread_count = 0 WHERE source = ? AND student_code NOT IN " +
+                         "(SELECT " + source.ownerColumn + " FROM " + source.table +
+                         " WHERE is_read = FALSE AND " + source.ownerColumn + " IS NOT NULL)";
+        String upsertSql = "INSERT INTO notification_unread_counter (student_code, source, unread_count) " +
+                           "SELECT " + source.ownerColumn + ", ?, COUNT(*) FROM " + source.table +
+                           " WHERE is_read = FALSE AND " + source.ownerColumn + " IS NOT NULL GROUP BY " + source.ownerColumn +
+                           " ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count)";
+        String selectSql = "SELECT student_code, unread_count FROM notification_unread_counter WHERE source = ?";
+
+        Map<String, Integer> counts = new HashMap<>();
+        boolean originalAutoCommit = true;
+        try {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) connection.setAutoCommit(false);
+
+            try (PreparedStatement zero = connection.prepareStatement(zeroSql);
+                 PreparedStatement upsert = connection.prepareStatement(upsertSql)) {
+                zero.setString(1, source.name());
+                zero.executeUpdate();
+                upsert.setString(1, source.name());
+                upsert.executeUpdate();
+            }
+            try (PreparedStatement ps = connection.prepareStatement(selectSql)) {
+                ps.setString(1, source.name());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(rs.getString("student_code"), rs.getInt("unread_count"));
+                    }
+                }
+            }
+            if (originalAutoCommit) connection.commit();
+        } catch (SQLException e) {
+            try { if (originalAutoCommit) connection.rollback(); } catch (SQLException ignored) {}
+            logger.log(Level.SEVERE, "Failed to reconcile unread counters for source: " + source, e);
+            return null;
+        } finally {
+            try { connection.setAutoCommit(originalAutoCommit); } catch (SQLException ignored) {}
+        }
+        return counts;
+    }
+}
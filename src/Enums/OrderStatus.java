@@ -1,7 +1,31 @@
 package Enums;
 
+/**
+ * Order lifecycle. Orders only move forward one step at a time: NEW -> PREPARING -> READY.
+ */
 public enum OrderStatus {
     NEW,
     PREPARING,
-    READY
+    READY;
+
+    private static final OrderStatus[] VALUES = values();
+
+    /**
+     * The status an order must currently have to move into this one, or null if no
+     * transition leads here.
+     */
+    public OrderStatus previous() {
+        return ordinal() == 0 ? null : VALUES[ordinal() - 1];
+    }
+
+    /**
+     * The status this one advances to, or null for the final status.
+     */
+    public OrderStatus next() {
+        return ordinal() == VALUES.length - 1 ? null : VALUES[ordinal() + 1];
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return target != null && target.previous() == this;
+    }
 }
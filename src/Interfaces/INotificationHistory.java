@@ -1,14 +1,18 @@
 package Interfaces;
 
 import Core.NotificationHistory;
+import Values.KeysetCursor;
+import Values.Page;
 import java.util.List;
 
 public interface INotificationHistory {
     boolean saveNotificationHistory(NotificationHistory notification);
+    boolean saveNotificationHistoryBatch(List<NotificationHistory> notifications);
     List<NotificationHistory> getNotificationHistoryForStudent(String studentCode);
     List<NotificationHistory> getUnreadNotificationsForStudent(String studentCode);
     boolean markNotificationAsRead(int notificationId);
     boolean markAllNotificationsAsRead(String studentCode);
     int getUnreadNotificationCount(String studentCode);
     List<NotificationHistory> getAllNotificationHistory();
+    Page<NotificationHistory> findPage(String studentCode, String messageType, KeysetCursor after, int pageSize);
 }
@@ -7,6 +7,7 @@ public interface IOrderHistory {
     public boolean saveOrderHistory(OrderHistory history);
     List<OrderHistory> getOrderHistoryByStudent(String studentCode);
     boolean updateOrderStatus(String orderCode, String newStatus);
+    int updateOrderStatus(List<String> orderCodes, String newStatus);
     OrderHistory getOrderHistoryByOrderCode(String orderCode);
     List<OrderHistory> getAllOrderHistory();
 }
@@ -1,6 +1,7 @@
 package Interfaces;
 
 import Core.Order;
+import Enums.OrderStatus;
 import Core.TopItem;
 import java.time.LocalDate;
 import java.util.List;
@@ -9,8 +10,17 @@ import java.util.Map;
 public interface IOrderRepository {
     void save(Order order);
     Order findById(int id);
+    Order findByCode(String code);
+    String findCodeById(int id);
+    String findStudentCode(String orderCode);
+    Map<String, String> findStudentCodes(List<String> orderCodes); // order code -> student code
     List<Order> findPending();
     List<Order> findByStudentId(int studentId);
     void update(Order order);
+    boolean compareAndSetStatus(String orderCode, OrderStatus expected, OrderStatus next);
+    List<String> compareAndSetStatus(List<String> orderCodes, OrderStatus expected, OrderStatus next);
     List<Order> findAll(); // Existing
+    Order findByRequestKey(String studentCode, String requestKey);
+    boolean claimPayment(String orderCode, String txId);
+    void releasePaymentClaim(String orderCode, String txId);
 }
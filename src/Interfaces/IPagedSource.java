@@ -0,0 +1,31 @@
+package Interfaces;
+
+import Values.PageRequest;
+import Values.SortCursor;
+import Values.TablePage;
+
+/**
+ * Rows of a large table read a window at a time, sorted and filtered by the database,
+ * for tables that must not load everything into memory.
+ */
+public interface IPagedSource<T> {
+    /**
+     * Number of rows matching the request's search and filters.
+     */
+    int count(PageRequest request);
+
+    /**
+     * Up to {@code limit} rows in the request's order, starting strictly after the cursor.
+     *
+     * @param after null to start at the first row
+     */
+    TablePage<T> fetch(PageRequest request, SortCursor after, int limit);
+
+    /**
+     * Cursor of the row {@code skip} rows after the cursor (skip >= 1), reading only the
+     * index, so a reader can jump ahead without fetching the rows in between.
+     *
+     * @return null if there are fewer rows than that
+     */
+    SortCursor seek(PageRequest request, SortCursor after, int skip);
+}
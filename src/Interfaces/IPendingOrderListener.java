@@ -0,0 +1,14 @@
+package Interfaces;
+
+import Core.Order;
+
+/**
+ * Change feed of the pending-order board. Callbacks run on the thread that made the
+ * change (a UI thread for local updates, the board's poller for changes made by other
+ * processes); JavaFX listeners must hop to the FX thread themselves.
+ */
+public interface IPendingOrderListener {
+    void orderAdded(Order order);
+    void orderUpdated(Order order);
+    void orderRemoved(Order order);
+}
@@ -0,0 +1,53 @@
+package Services;
+
+import Core.NotificationHistory;
+import Core.Order;
+import Core.Student;
+import DataBase.DBconnection;
+import DataBase.NotificationHistoryDAO;
+import DataBase.OrderDAO;
+import DataBase.StudentDAO;
+import Interfaces.IPagedSource;
+
+import java.sql.Connection;
+import java.util.logging.Logger;
+
+/**
+ * Paged sources behind the admin tables (orders, students, notification history), so
+ * those screens read only the rows on screen instead of loading whole tables.
+ *
+ * The sources share one connection of their own, opened on first use, so table paging
+ * never runs inside another service's transaction; the GUI reads them from its single
+ * background worker.
+ */
+public class AdminTableService {
+    private static final Logger logger = Logger.getLogger(AdminTableService.class.getName());
+
+    private Connection connection;
+    private IPagedSource<Order> orders;
+    private IPagedSource<Student> students;
+    private IPagedSource<NotificationHistory> notifications;
+
+    public synchronized IPagedSource<Order> orders() {
+        if (orders == null) orders = new OrderDAO(connection()).pagedOrders();
+        return orders;
+    }
+
+    public synchronized IPagedSource<Student> students() {
+        if (students == null) students = new StudentDAO(connection()).pagedStudents();
+        return students;
+    }
+
+    public synchronized IPagedSource<NotificationHistory> notifications() {
+        if (notifications == null) notifications = new NotificationHistoryDAO(connection()).pagedHistory();
+        return notifications;
+    }
+
+    private Connection connection() {
+        if (connection == null) {
+            connection = new DBconnection().getConnection();
+            logger.info("Opened connection for admin table paging");
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,212 @@
+package Services;
+
+import Values.AdmissionMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Admission control in front of order placement, so that under a rush latency degrades
+ * for the extra requests only instead of every kiosk slowing down together.
+ *
+ * Two checks, in order:
+ * - a token bucket per key (student or kiosk) limits how fast one client can place orders;
+ * - a global concurrency limit caps placements running against the database at once.
+ *   Requests over the limit wait in a fair queue for up to the configured max wait; when
+ *   the queue is already full, or the wait runs out, they are rejected at once.
+ * Rejections carry a retry-after estimate. Counters are exposed through {@link #metrics()}.
+ *
+ * Both checks are per process, not per database, and kiosks running their own processes
+ * are not counted against each other. A kiosk places its orders one at a time from its UI
+ * thread, and the API server runs its service calls one at a time (its DAOs share one
+ * connection each), so in both only the rate limit engages today; the concurrency limit
+ * and queue matter once placements run in parallel on separate connections.
+ */
+public class AdmissionController {
+    private static final Logger logger = Logger.getLogger(AdmissionController.class.getName());
+    private static final int DEFAULT_BURST = 5;
+    private static final double DEFAULT_TOKENS_PER_SECOND = 5.0 / 60;  // 5 orders a minute
+    private static final int DEFAULT_MAX_CONCURRENT = 8;
+    private static final int DEFAULT_MAX_QUEUE = 32;
+    private static final long DEFAULT_MAX_WAIT_MS = 2000;
+    private static final long IDLE_BUCKET_MS = 10 * 60 * 1000;
+
+    private final int burst;
+    private final double tokensPerSecond;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final Semaphore slots;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejectedRateLimited = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong maxQueueWaitMs = new AtomicLong();
+    // Moving average of how long an admitted request holds its slot, for retry-after estimates
+    private volatile double avgHoldMs = 200;
+    private volatile long lastEviction = System.currentTimeMillis();
+
+    /** Outcome of {@link #admit}; close it when the admitted work is done. */
+    public final class Permit implements AutoCloseable {
+        private final boolean admitted;
+        private final int retryAfterSeconds;
+        private final String reason;
+        private final long startedAt = System.currentTimeMillis();
+        private boolean released;
+
+        private Permit(boolean admitted, int retryAfterSeconds, String reason) {
+            this.admitted = admitted;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.reason = reason;
+        }
+
+        public boolean isAdmitted() {
+            return admitted;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!admitted || released) return;
+            released = true;
+            long held = System.currentTimeMillis() - startedAt;
+            avgHoldMs = avgHoldMs + 0.1 * (held - avgHoldMs);
+            slots.release();
+        }
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int burst, long now) {
+            this.tokens = burst;
+            this.lastRefill = now;
+        }
+
+        /**
+         * Take one token, or return the milliseconds until one is available.
+         */
+        synchronized long tryTake(int burst, double perSecond, long now) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) / 1000.0 * perSecond);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / perSecond * 1000);
+        }
+
+        synchronized void refund(int burst) {
+            tokens = Math.min(burst, tokens + 1);
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastRefill > IDLE_BUCKET_MS;
+        }
+    }
+
+    public AdmissionController() {
+        this(DEFAULT_BURST, DEFAULT_TOKENS_PER_SECOND, DEFAULT_MAX_CONCURRENT, DEFAULT_MAX_QUEUE, DEFAULT_MAX_WAIT_MS);
+    }
+
+    /**
+     * @param burst           orders one key may place back to back
+     * @param tokensPerSecond sustained placement rate per key
+     * @param maxConcurrent   placements allowed to run at once
+     * @param maxQueue        requests allowed to wait for a free slot
+     * @param maxWaitMs       longest a request waits for a free slot before it is rejected
+     */
+    public AdmissionController(int burst, double tokensPerSecond, int maxConcurrent, int maxQueue, long maxWaitMs) {
+        this.burst = Math.max(1, burst);
+        this.tokensPerSecond = tokensPerSecond > 0 ? tokensPerSecond : DEFAULT_TOKENS_PER_SECOND;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+        this.slots = new Semaphore(this.maxConcurrent, true);
+    }
+
+    /**
+     * Ask to run one placement for the given key. Blocks for at most the configured max wait.
+     * Always returns a permit; check {@link Permit#isAdmitted()} and close it when done.
+     */
+    public Permit admit(String key) {
+        long now = System.currentTimeMillis();
+        evictIdleBuckets(now);
+
+        TokenBucket bucket = null;
+        if (key != null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(burst, now));
+            long waitMs = bucket.tryTake(burst, tokensPerSecond, now);
+            if (waitMs > 0) {
+                rejectedRateLimited.incrementAndGet();
+                logger.info("Order placement rate limited for " + key);
+                return new Permit(false, toSeconds(waitMs), "Too many orders in a short time");
+            }
+        }
+
+        if (slots.tryAcquire()) {
+            admitted.incrementAndGet();
+            return new Permit(true, 0, null);
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return rejectBusy(bucket);
+        }
+        long queuedAt = System.currentTimeMillis();
+        try {
+            if (slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                long waited = System.currentTimeMillis() - queuedAt;
+                maxQueueWaitMs.accumulateAndGet(waited, Math::max);
+                queued.incrementAndGet();
+                admitted.incrementAndGet();
+                return new Permit(true, 0, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        return rejectBusy(bucket);
+    }
+
+    private Permit rejectBusy(TokenBucket bucket) {
+        // The client was not served, so it should not pay for the attempt
+        if (bucket != null) bucket.refund(burst);
+        rejectedBusy.incrementAndGet();
+        // Roughly: everyone queued ahead must get a turn on one of the slots
+        long estimateMs = (long) ((waiting.get() + 1) * avgHoldMs / maxConcurrent);
+        logger.warning("Order placement rejected: system busy (" + metrics() + ")");
+        return new Permit(false, toSeconds(estimateMs), "The cafeteria is busy");
+    }
+
+    private static int toSeconds(long ms) {
+        return (int) Math.max(1, (ms + 999) / 1000);
+    }
+
+    private void evictIdleBuckets(long now) {
+        if (now - lastEviction < IDLE_BUCKET_MS) return;
+        lastEviction = now;
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    public AdmissionMetrics metrics() {
+        return new AdmissionMetrics(admitted.get(), queued.get(), rejectedRateLimited.get(), rejectedBusy.get(),
+                maxConcurrent - slots.availablePermits(), waiting.get(), maxQueueWaitMs.get());
+    }
+}
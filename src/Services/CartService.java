@@ -0,0 +1,421 @@
+package Services;
+
+import Core.Cart;
+import Core.CartLine;
+import Core.MenuItem;
+import Core.Student;
+import DataBase.CartDAO;
+import Interfaces.IMenuProvider;
+import Values.CartValidation;
+import Values.PlacementResult;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Student carts, kept outside the UI so they survive navigation, a restart or a change of
+ * kiosk, and converted to orders without resolving every item again.
+ *
+ * Carts live in a bounded in-memory LRU map by student code; a cart not changed for the
+ * idle TTL is emptied on its next access. Changes are written behind to the carts tables:
+ * the first change after a write schedules one save shortly after, so a burst of clicks
+ * costs one write. A cart evicted from memory before its save stays queued, and is served
+ * from the queue rather than reloaded. Without DAOs the service keeps carts in memory only.
+ *
+ * Every kiosk process (and the API) keeps its own copy, so saves are versioned: a write
+ * based on a cart that was changed elsewhere in the meantime is refused, and the copy is
+ * replaced by the saved cart instead. {@link #refresh} reloads a student's cart at login,
+ * and {@link #checkout} reloads it before placing the order and stops if it changed.
+ *
+ * Each line keeps the price the item had when it was added. {@link #validate} brings the
+ * cart in line with the current menu (one menu query) and reports what changed, and
+ * {@link #checkout} only places the order when nothing did, so the total the student
+ * confirmed is the total charged.
+ */
+public class CartService {
+    private static final Logger logger = Logger.getLogger(CartService.class.getName());
+    private static final int DEFAULT_MAX_CARTS = 256;
+    private static final long DEFAULT_IDLE_TTL_MS = 2 * 60 * 60 * 1000;
+    private static final long WRITE_DELAY_MS = 1000;
+    private static final long IDLE_PURGE_MINUTES = 60;
+
+    private final IMenuProvider menu;
+    private final OrderProcessor orderProcessor;
+    private final CartDAO loader;
+    private final CartDAO writer;
+    private final int maxCarts;
+    private final long idleTtlMs;
+    private final LinkedHashMap<String, Cart> carts = new LinkedHashMap<>(16, 0.75f, true);
+    private final ScheduledExecutorService flusher;
+    private Thread shutdownHook;
+
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private LinkedHashMap<String, Cart> dirty = new LinkedHashMap<>();
+    private volatile boolean closed;
+
+    public CartService(IMenuProvider menu, OrderProcessor orderProcessor) {
+        this(menu, orderProcessor, new CartDAO(), new CartDAO(), DEFAULT_MAX_CARTS, DEFAULT_IDLE_TTL_MS);
+    }
+
+    /**
+     * @param loader    DAO for loading carts on request threads, or null to keep carts in memory only
+     * @param writer    DAO for the background writer (its own connection), or null
+     * @param maxCarts  carts kept in memory
+     * @param idleTtlMs how long an unchanged cart is kept
+     */
+    public CartService(IMenuProvider menu, OrderProcessor orderProcessor, CartDAO loader, CartDAO writer,
+                       int maxCarts, long idleTtlMs) {
+        this.menu = menu;
+        this.orderProcessor = orderProcessor;
+        this.loader = loader;
+        this.writer = writer;
+        this.maxCarts = Math.max(1, maxCarts);
+        this.idleTtlMs = idleTtlMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cart-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start the hourly idle-cart purge and register the shutdown hook that saves carts
+     * still queued if the process exits without {@link #close()}. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (shutdownHook != null || closed) return;
+        if (writer != null) {
+            flusher.scheduleWithFixedDelay(this::purgeIdle, IDLE_PURGE_MINUTES, IDLE_PURGE_MINUTES, TimeUnit.MINUTES);
+        }
+        shutdownHook = new Thread(this::flush, "cart-final-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * The student's cart, restored from the database if it is not in memory.
+     * The returned cart is live; change it through this service so the change is saved.
+     */
+    public Cart getCart(String studentCode) {
+        if (studentCode == null) {
+            throw new IllegalArgumentException("Student code cannot be null");
+        }
+        Cart cart;
+        synchronized (carts) {
+            cart = carts.get(studentCode);
+        }
+        if (cart == null) {
+            Cart restored = restore(studentCode);
+            synchronized (carts) {
+                cart = carts.get(studentCode);
+                if (cart == null) {
+                    cart = restored != null ? restored : new Cart(studentCode);
+                    carts.put(studentCode, cart);
+                    evictOverflow();
+                }
+            }
+        }
+        if (!cart.isEmpty() && isIdle(cart, LocalDateTime.now())) {
+            logger.info("Cart of " + studentCode + " expired after being idle");
+            cart.clear();
+            markDirty(cart);
+        }
+        return cart;
+    }
+
+    public Cart addItem(String studentCode, MenuItem item, int quantity) {
+        Cart cart = getCart(studentCode);
+        cart.add(item, quantity);
+        markDirty(cart);
+        return cart;
+    }
+
+    /**
+     * Set the quantity of an item in the cart; zero or less removes it.
+     */
+    public Cart setQuantity(String studentCode, int menuItemId, int quantity) {
+        Cart cart = getCart(studentCode);
+        if (cart.setQuantity(menuItemId, quantity)) markDirty(cart);
+        return cart;
+    }
+
+    public Cart removeItem(String studentCode, int menuItemId) {
+        Cart cart = getCart(studentCode);
+        if (cart.remove(menuItemId)) markDirty(cart);
+        return cart;
+    }
+
+    public void clear(String studentCode) {
+        Cart cart = getCart(studentCode);
+        cart.clear();
+        markDirty(cart);
+    }
+
+    /**
+     * Save the student's queued changes, then reload the cart from the database so it shows
+     * what was done at other kiosks; call it when the student logs in.
+     */
+    public Cart refresh(String studentCode) {
+        Cart cart;
+        synchronized (carts) {
+            cart = carts.get(studentCode);
+        }
+        if (cart == null || writer == null) return getCart(studentCode);
+        flush();
+        synchronized (flushLock) {
+            try {
+                replaceWithSaved(cart, writer.find(studentCode));
+            } catch (SQLException e) {
+                // Keep the copy we have; the versioned save still guards against overwriting
+                logger.log(Level.WARNING, "Could not reload the cart of " + studentCode, e);
+            }
+        }
+        return getCart(studentCode);
+    }
+
+    /**
+     * Check the cart's price snapshots against the current menu. Lines whose item is gone
+     * are removed and repriced lines take the current price; each is reported as a change.
+     */
+    public CartValidation validate(String studentCode) {
+        Cart cart = getCart(studentCode);
+        List<CartLine> lines = cart.getLines();
+        Map<MenuItem, Integer> items = new LinkedHashMap<>();
+        List<String> changes = new ArrayList<>();
+        if (lines.isEmpty()) {
+            return new CartValidation(items, changes);
+        }
+
+        Map<Integer, MenuItem> current = new HashMap<>();
+        for (MenuItem item : menu.listItems()) {
+            current.put(item.getId(), item);
+        }
+        boolean changed = false;
+        for (CartLine line : lines) {
+            MenuItem item = current.get(line.getMenuItemId());
+            if (item == null || !item.isActive()) {
+                cart.remove(line.getMenuItemId());
+                changes.add(line.getName() + " is no longer available");
+                changed = true;
+                continue;
+            }
+            if (!item.getPrice().equals(line.getUnitPrice())) {
+                changes.add(String.format("%s: %s -> %s", line.getName(), line.getUnitPrice(), item.getPrice()));
+                cart.replace(line.withItem(item));
+                changed = true;
+            } else if (!item.getName().equals(line.getName()) || item.getCategory() != line.getCategory()) {
+                cart.replace(line.withItem(item));
+                changed = true;
+            }
+            items.put(item, line.getQuantity());
+        }
+        if (changed) markDirty(cart);
+        if (!changes.isEmpty()) {
+            logger.info("Cart of " + studentCode + " updated to the current menu: " + changes);
+        }
+        return new CartValidation(items, changes);
+    }
+
+    /**
+     * Place the cart as an order through the placement pipeline (admission control and
+     * request-key idempotency included), using the menu items resolved by validation.
+     * If the cart was changed at another kiosk, or validation changed it, the order is not
+     * placed, so the student can review the new total first. The cart is kept until the caller clears it once the order is
+     * paid; a retried checkout with the same request key returns the same order.
+     */
+    public PlacementResult checkout(Student student, LocalDateTime pickupSlot, String requestKey) {
+        if (student == null) {
+            throw new IllegalArgumentException("Student cannot be null");
+        }
+        List<CartLine> confirmed = getCart(student.getStudentCode()).getLines();
+        if (!sameLines(confirmed, refresh(student.getStudentCode()).getLines())) {
+            return PlacementResult.rejected("Your cart was changed on another kiosk or device; please review it");
+        }
+        CartValidation validation = validate(student.getStudentCode());
+        if (validation.isEmpty()) {
+            return PlacementResult.rejected("Your cart is empty");
+        }
+        if (!validation.isUnchanged()) {
+            return PlacementResult.rejected("Your cart was updated to the current menu:\n"
+                    + String.join("\n", validation.getChanges()));
+        }
+        return orderProcessor.tryPlaceOrderItems(student, validation.getItems(), pickupSlot, requestKey);
+    }
+
+    public int size() {
+        synchronized (carts) {
+            return carts.size();
+        }
+    }
+
+    /**
+     * A cart evicted but not yet written is still queued; otherwise load the saved one.
+     */
+    private Cart restore(String studentCode) {
+        synchronized (lock) {
+            Cart queued = dirty.get(studentCode);
+            if (queued != null) return queued;
+        }
+        if (loader == null) return null;
+        synchronized (loader) {
+            return loader.load(studentCode);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Cart> eldest = carts.values().iterator();
+        while (carts.size() > maxCarts && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private boolean isIdle(Cart cart, LocalDateTime now) {
+        return Duration.between(cart.getUpdatedAt(), now).toMillis() > idleTtlMs;
+    }
+
+    private void markDirty(Cart cart) {
+        if (writer == null) return;
+        boolean scheduleWrite;
+        synchronized (lock) {
+            scheduleWrite = dirty.isEmpty();
+            dirty.put(cart.getStudentCode(), cart);
+        }
+        if (closed) {
+            flush();
+        } else if (scheduleWrite) {
+            try {
+                flusher.schedule(this::flush, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Closed concurrently; write through instead
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Write every changed cart now. Safe to call from any thread.
+     */
+    public void flush() {
+        if (writer == null) return;
+        synchronized (flushLock) {
+            List<Cart> drained;
+            synchronized (lock) {
+                if (dirty.isEmpty()) return;
+                drained = new ArrayList<>(dirty.values());
+                dirty = new LinkedHashMap<>();
+            }
+            for (Cart cart : drained) {
+                List<CartLine> lines;
+                LocalDateTime updatedAt;
+                long savedVersion;
+                synchronized (cart) {
+                    lines = cart.getLines();
+                    updatedAt = cart.getUpdatedAt();
+                    savedVersion = cart.getSavedVersion();
+                }
+                long saved = writer.save(cart.getStudentCode(), lines, updatedAt, savedVersion);
+                if (saved == CartDAO.FAILED) {
+                    // Retried with the next change or at close
+                    synchronized (lock) {
+                        dirty.putIfAbsent(cart.getStudentCode(), cart);
+                    }
+                    logger.warning("Cart of " + cart.getStudentCode() + " could not be saved; will retry");
+                } else if (saved == CartDAO.STALE) {
+                    logger.warning("Cart of " + cart.getStudentCode() + " was changed elsewhere; "
+                            + "replacing this copy with the saved cart");
+                    try {
+                        replaceWithSaved(cart, writer.find(cart.getStudentCode()));
+                    } catch (SQLException e) {
+                        logger.log(Level.WARNING, "Could not reload the cart of " + cart.getStudentCode(), e);
+                    }
+                } else {
+                    cart.setSavedVersion(saved);
+                }
+            }
+        }
+    }
+
+    /**
+     * Make the in-memory cart the saved one (empty if none is saved). Caller holds flushLock.
+     */
+    private static void replaceWithSaved(Cart cart, Cart saved) {
+        if (saved != null) {
+            cart.reset(saved.getLines(), saved.getUpdatedAt(), saved.getSavedVersion());
+        } else {
+            cart.reset(List.of(), LocalDateTime.now(), 0);
+        }
+    }
+
+    private static boolean sameLines(List<CartLine> a, List<CartLine> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            CartLine x = a.get(i);
+            CartLine y = b.get(i);
+            if (x.getMenuItemId() != y.getMenuItemId() || x.getQuantity() != y.getQuantity()
+                    || !x.getUnitPrice().equals(y.getUnitPrice())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop carts idle for longer than the TTL, in memory and in the database.
+     */
+    private void purgeIdle() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            synchronized (carts) {
+                carts.values().removeIf(cart -> isIdle(cart, now));
+            }
+            int deleted;
+            synchronized (flushLock) {
+                deleted = writer.deleteIdleSince(now.minus(Duration.ofMillis(idleTtlMs)));
+            }
+            if (deleted > 0) {
+                logger.info("Deleted " + deleted + " idle cart(s)");
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Idle cart purge failed", e);
+        }
+    }
+
+    /**
+     * Stop the background writer and save whatever is still queued.
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        Thread hook;
+        synchronized (this) {
+            hook = shutdownHook;
+        }
+        if (hook == null) return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException ignored) {
+            // JVM already shutting down; the hook will run and find nothing to write
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package Services;
+
+import Core.Order;
+import Core.OrderItem;
+import DataBase.PrepRateDAO;
+import Enums.OrderStatus;
+import Interfaces.IPendingOrderListener;
+import Values.PickupEta;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pickup ETA for pending orders.
+ *
+ * Prep time is modelled per unit of each menu item as an exponentially weighted moving
+ * average, learned from completed orders (PREPARING -> READY timestamps). An order's
+ * observed prep time is split across its items in proportion to their current estimates,
+ * so learning from one order costs O(items).
+ *
+ * Queue depth comes from the pending-order board. Every order entering the board is given
+ * a ticket holding its estimated work and the total work enqueued before it; the board's
+ * removals add to a drained-work counter. Work still ahead of an order is therefore
+ * "enqueued before it" minus "drained so far", an O(1) read that moves as the queue does.
+ * This assumes the kitchen works roughly first-come first-served: orders finished out of
+ * turn count as progress for everyone placed earlier, clamped at zero.
+ * Orders booked for a pickup slot are never estimated before the slot starts.
+ *
+ * Processes that do not keep the board (the student kiosks) estimate from a queue read
+ * instead, see {@link #estimate(String, List)}. They do not see orders complete either, so
+ * the process that learns the rates publishes them to menu_item_prep_rates after each
+ * tracker poll ({@link #publishTo}) and the others load them from there ({@link #useRates}).
+ */
+public class EtaEstimator implements IPendingOrderListener {
+    private static final double ALPHA = 0.2;
+    private static final double DEFAULT_UNIT_PREP_MS = 120_000;
+    private static final int DEFAULT_STATIONS = 2;
+
+    private static final class Ticket {
+        final long workMs;
+        final long workBefore;
+        final long countBefore;
+        LocalDateTime preparingAt;
+        LocalDateTime pickupSlot;
+
+        Ticket(long workMs, long workBefore, long countBefore) {
+            this.workMs = workMs;
+            this.workBefore = workBefore;
+            this.countBefore = countBefore;
+        }
+    }
+
+    // Learned prep time per unit, by menu item id, plus an all-items average for unseen items
+    private final Map<Integer, Double> unitPrepMs = new HashMap<>();
+    private double globalUnitPrepMs = DEFAULT_UNIT_PREP_MS;
+    private boolean learnedGlobal;
+
+    private final Map<String, Ticket> tickets = new HashMap<>();
+    private long enqueuedWork;
+    private long drainedWork;
+    private long enqueuedCount;
+    private long drainedCount;
+    private int stations = DEFAULT_STATIONS;
+
+    private OrderLatencyTracker learningSource;
+    private PrepRateDAO rateStore;
+    private boolean ratesChanged;
+
+    /**
+     * Learn prep times from the orders the tracker sees complete. The tracker is started
+     * in the background when the estimator is first attached to a board.
+     */
+    public synchronized void learnFrom(OrderLatencyTracker tracker) {
+        if (tracker == null || tracker == learningSource) return;
+        learningSource = tracker;
+        tracker.addCompletionListener(this::orderCompleted);
+        tracker.addPollListener(this::publishRates);
+    }
+
+    /**
+     * Write the learned rates to the store after each tracker poll that changed them,
+     * for processes that estimate without learning.
+     */
+    public synchronized void publishTo(PrepRateDAO store) {
+        rateStore = store;
+        ratesChanged = learnedGlobal;
+    }
+
+    /**
+     * Write the learned rates if they changed since they were last written. The store is
+     * written outside the estimator's lock, so estimates do not wait for it.
+     */
+    public void publishRates() {
+        PrepRateDAO store;
+        Map<Integer, Double> rates;
+        synchronized (this) {
+            if (rateStore == null || !ratesChanged) return;
+            store = rateStore;
+            rates = new HashMap<>(unitPrepMs);
+            rates.put(PrepRateDAO.ALL_ITEMS, globalUnitPrepMs);
+            ratesChanged = false;
+        }
+        if (!store.saveAll(rates)) {
+            synchronized (this) {
+                ratesChanged = true;
+            }
+        }
+    }
+
+    /**
+     * Replace the per-item rates with ones learned elsewhere (see {@link #publishTo}).
+     * An empty map (nothing published yet) keeps the current rates.
+     */
+    public synchronized void useRates(Map<Integer, Double> rates) {
+        if (rates.isEmpty()) return;
+        unitPrepMs.clear();
+        for (Map.Entry<Integer, Double> rate : rates.entrySet()) {
+            if (rate.getKey() == PrepRateDAO.ALL_ITEMS) {
+                globalUnitPrepMs = rate.getValue();
+                learnedGlobal = true;
+            } else {
+                unitPrepMs.put(rate.getKey(), rate.getValue());
+            }
+        }
+    }
+
+    /**
+     * Number of orders the kitchen prepares at the same time.
+     */
+    public synchronized void setKitchenStations(int stations) {
+        this.stations = Math.max(1, stations);
+    }
+
+    /**
+     * Subscribe to the board and queue the orders already on it, oldest first.
+     */
+    public void attach(PendingOrderBoard board) {
+        board.addListener(this, seed -> seed.forEach(this::orderAdded));
+        OrderLatencyTracker source;
+        synchronized (this) {
+            source = learningSource;
+        }
+        if (source != null) source.startInBackground();
+    }
+
+    @Override
+    public synchronized void orderAdded(Order order) {
+        if (order.getCode() == null || tickets.containsKey(order.getCode())) return;
+        long work = estimateWork(order);
+        Ticket ticket = new Ticket(work, enqueuedWork, enqueuedCount);
+        ticket.preparingAt = order.getPreparingAt();
+        ticket.pickupSlot = order.getPickupSlot();
+        tickets.put(order.getCode(), ticket);
+        enqueuedWork += work;
+        enqueuedCount++;
+    }
+
+    @Override
+    public synchronized void orderUpdated(Order order) {
+        Ticket ticket = tickets.get(order.getCode());
+        if (ticket != null && order.getStatus() == OrderStatus.PREPARING && ticket.preparingAt == null) {
+            ticket.preparingAt = order.getPreparingAt() != null ? order.getPreparingAt() : LocalDateTime.now();
+        }
+    }
+
+    @Override
+    public synchronized void orderRemoved(Order order) {
+        Ticket ticket = tickets.remove(order.getCode());
+        if (ticket != null) {
+            drainedWork += ticket.workMs;
+            drainedCount++;
+        }
+    }
+
+    /**
+     * Fold a completed order into the per-item averages.
+     */
+    public synchronized void orderCompleted(Order order) {
+        if (order.getPreparingAt() == null || order.getReadyAt() == null) return;
+        long prepMs = Duration.between(order.getPreparingAt(), order.getReadyAt()).toMillis();
+        if (prepMs < 0) return;
+
+        int totalQty = 0;
+        double predicted = 0;
+        for (OrderItem item : order.getItems()) {
+            totalQty += item.getQty();
+            predicted += item.getQty() * unitEstimate(item.getMenuItemId());
+        }
+        if (totalQty <= 0 || predicted <= 0) return;
+
+        // Each item's share of the observed time is proportional to its share of the prediction
+        double scale = prepMs / predicted;
+        for (OrderItem item : order.getItems()) {
+            double current = unitEstimate(item.getMenuItemId());
+            unitPrepMs.put(item.getMenuItemId(), current + ALPHA * (current * scale - current));
+        }
+        double observedUnit = (double) prepMs / totalQty;
+        globalUnitPrepMs = learnedGlobal ? globalUnitPrepMs + ALPHA * (observedUnit - globalUnitPrepMs) : observedUnit;
+        learnedGlobal = true;
+        ratesChanged = true;
+    }
+
+    /**
+     * Current ETA of a pending order, or null if it is not on the board (unknown or already READY).
+     */
+    public synchronized PickupEta estimate(String orderCode) {
+        Ticket ticket = tickets.get(orderCode);
+        if (ticket == null) return null;
+
+        int ordersAhead = (int) Math.max(0, ticket.countBefore - drainedCount);
+        long aheadMs = Math.max(0, ticket.workBefore - drainedWork);
+        return eta(orderCode, ticket.workMs, aheadMs, ordersAhead, ticket.preparingAt, ticket.pickupSlot);
+    }
+
+    /**
+     * ETA of a pending order from a queue read rather than the board's tickets.
+     * {@code queue} holds the NEW / PREPARING orders oldest first; the orders before this
+     * one are the work ahead of it, those already PREPARING only for what is left of their
+     * estimate. Returns null if the order is not in the queue.
+     */
+    public synchronized PickupEta estimate(String orderCode, List<Order> queue) {
+        return queueEta(orderCode, queue, null);
+    }
+
+    /**
+     * ETA of an order just placed, from a queue read that may be older than the order:
+     * if it is not in {@code queue} it counts as the last order in it.
+     */
+    public synchronized PickupEta estimate(Order placed, List<Order> queue) {
+        return queueEta(placed.getCode(), queue, placed);
+    }
+
+    private PickupEta queueEta(String orderCode, List<Order> queue, Order appended) {
+        LocalDateTime now = LocalDateTime.now();
+        long aheadMs = 0;
+        int ordersAhead = 0;
+        for (Order order : queue) {
+            long work = estimateWork(order);
+            if (orderCode.equals(order.getCode())) {
+                LocalDateTime preparingAt = order.getPreparingAt();
+                if (preparingAt == null && order.getStatus() == OrderStatus.PREPARING) preparingAt = now;
+                return eta(orderCode, work, aheadMs, ordersAhead, preparingAt, order.getPickupSlot());
+            }
+            if (order.getPreparingAt() != null) {
+                work = Math.max(0, work - Duration.between(order.getPreparingAt(), now).toMillis());
+            }
+            aheadMs += work;
+            ordersAhead++;
+        }
+        if (appended == null) return null;
+        return eta(orderCode, estimateWork(appended), aheadMs, ordersAhead, null, appended.getPickupSlot());
+    }
+
+    private PickupEta eta(String orderCode, long workMs, long aheadMs, int ordersAhead,
+                          LocalDateTime preparingAt, LocalDateTime pickupSlot) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime readyAt;
+        if (preparingAt != null) {
+            readyAt = preparingAt.plus(Duration.ofMillis(workMs));
+        } else {
+            readyAt = now.plus(Duration.ofMillis(aheadMs / stations + workMs));
+        }
+        if (pickupSlot != null && readyAt.isBefore(pickupSlot)) readyAt = pickupSlot;
+        if (readyAt.isBefore(now)) readyAt = now;
+        return new PickupEta(orderCode, readyAt, ordersAhead, preparingAt != null);
+    }
+
+    /**
+     * Estimated prep time of an order from the learned per-item averages.
+     */
+    public synchronized long estimateWork(Order order) {
+        double work = 0;
+        for (OrderItem item : order.getItems()) {
+            work += item.getQty() * unitEstimate(item.getMenuItemId());
+        }
+        return Math.round(work);
+    }
+
+    private double unitEstimate(int menuItemId) {
+        Double learned = unitPrepMs.get(menuItemId);
+        return learned != null ? learned : globalUnitPrepMs;
+    }
+}
@@ -0,0 +1,118 @@
+package Services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory cache of results by client request key, so a repeated request
+ * (double click, retry after a timeout) gets the original result instead of running again.
+ *
+ * A repeat that arrives while the first request is still running waits for it. Results
+ * the caller marks as not worth keeping (e.g. a rejection the client should retry) and
+ * failures are forgotten, so the next attempt runs for real. Entries expire after a TTL
+ * and the least recently used entries are evicted beyond the size bound; the unique
+ * database columns behind each operation remain the backstop once an entry is gone.
+ */
+public class IdempotencyCache {
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+    private static final long DEFAULT_TTL_MS = 15 * 60 * 1000;
+    private static final long SWEEP_INTERVAL_MS = 10_000;
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long lastSweep;
+
+    private static final class Entry {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final long createdAt = System.currentTimeMillis();
+    }
+
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    public IdempotencyCache(int maxEntries, long ttlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Run the action once per key; repeats return (or wait for) the first result.
+     *
+     * @param keep whether a result should be remembered; results failing it are not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> action, Predicate<T> keep) {
+        if (key == null) return action.get();
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            evictExpired(now);
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                owner = true;
+                if (entries.size() > maxEntries) {
+                    Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+
+        if (!owner) {
+            try {
+                return (T) entry.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+
+        try {
+            T result = action.get();
+            if (keep != null && !keep.test(result)) {
+                forget(key, entry);
+            }
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            forget(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void forget(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private void evictExpired(long now) {
+        if (now - lastSweep < SWEEP_INTERVAL_MS) return;
+        lastSweep = now;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (now - entry.createdAt > ttlMs && entry.result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package Services;
+
+import Core.Order;
+import Core.OrderItem;
+import Enums.OrderStatus;
+import Interfaces.IPendingOrderListener;
+import Values.KitchenItemTotal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running per-menu-item quantities across NEW and PREPARING orders ("14x coffee, 6x sandwich").
+ * Fed by the pending-order board: each added / updated / removed order adjusts only the
+ * counters of its own items, so reading the totals never scans the open orders.
+ */
+public class KitchenAggregation implements IPendingOrderListener {
+    private static final class Counter {
+        String name;
+        int newQty;
+        int preparingQty;
+    }
+
+    // Orders currently counted, so updates and removals subtract exactly what was added
+    private final Map<String, Order> counted = new HashMap<>();
+    private final Map<Integer, Counter> counters = new HashMap<>();
+
+    /**
+     * Subscribe to the board and count the orders already on it.
+     */
+    public void attach(PendingOrderBoard board) {
+        board.addListener(this, seed -> seed.forEach(this::orderAdded));
+    }
+
+    @Override
+    public synchronized void orderAdded(Order order) {
+        if (order.getCode() == null || counted.containsKey(order.getCode())) return;
+        counted.put(order.getCode(), order);
+        apply(order, +1);
+    }
+
+    @Override
+    public synchronized void orderUpdated(Order order) {
+        Order previous = counted.put(order.getCode(), order);
+        if (previous != null) apply(previous, -1);
+        apply(order, +1);
+    }
+
+    @Override
+    public synchronized void orderRemoved(Order order) {
+        Order previous = counted.remove(order.getCode());
+        if (previous != null) apply(previous, -1);
+    }
+
+    private void apply(Order order, int sign) {
+        boolean preparing = order.getStatus() == OrderStatus.PREPARING;
+        for (OrderItem item : order.getItems()) {
+            Counter counter = counters.computeIfAbsent(item.getMenuItemId(), id -> new Counter());
+            if (item.getNameSnapshot() != null) counter.name = item.getNameSnapshot();
+            if (preparing) {
+                counter.preparingQty += sign * item.getQty();
+            } else {
+                counter.newQty += sign * item.getQty();
+            }
+            if (counter.newQty <= 0 && counter.preparingQty <= 0) {
+                counters.remove(item.getMenuItemId());
+            }
+        }
+    }
+
+    /**
+     * Current totals, largest first.
+     */
+    public synchronized List<KitchenItemTotal> getTotals() {
+        List<KitchenItemTotal> totals = new ArrayList<>(counters.size());
+        for (Map.Entry<Integer, Counter> entry : counters.entrySet()) {
+            Counter c = entry.getValue();
+            totals.add(new KitchenItemTotal(entry.getKey(), c.name, c.newQty, c.preparingQty));
+        }
+        totals.sort(Comparator.comparingInt(KitchenItemTotal::getTotalQty).reversed()
+                .thenComparing(KitchenItemTotal::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return totals;
+    }
+}
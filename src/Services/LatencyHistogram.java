@@ -0,0 +1,67 @@
+package Services;
+
+/**
+ * Fixed-memory latency histogram in the style of HdrHistogram.
+ * Values (milliseconds) below 64 are counted exactly; above that each power of two is
+ * split into 32 linear sub-buckets, so any recorded value is reported within ~3% of its
+ * true value. Recording is O(1) and percentiles walk a ~1.2k-entry array, independent
+ * of how many values were recorded.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;      // 64
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;        // 32
+    private static final long MAX_TRACKABLE = (1L << 40) - 1;               // ~34 years in ms
+
+    private final long[] counts = new long[indexOf(MAX_TRACKABLE) + 1];
+    private long totalCount;
+    private long maxValue;
+
+    public synchronized void record(long valueMs) {
+        long value = Math.max(0, Math.min(valueMs, MAX_TRACKABLE));
+        counts[indexOf(value)]++;
+        totalCount++;
+        maxValue = Math.max(maxValue, value);
+    }
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Value at the given percentile (0-100), reported as the highest value of its bucket
+     * (never above the largest recorded value). Returns 0 when nothing was recorded.
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double p = Math.max(0, Math.min(percentile, 100));
+        long target = Math.max(1, (long) Math.ceil(p / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);  // in [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
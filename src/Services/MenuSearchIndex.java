@@ -0,0 +1,90 @@
+package Services;
+
+import Core.MenuItem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Prefix index over a snapshot of the menu, so the menu can be filtered as the user types
+ * without querying the database.
+ *
+ * Names, descriptions and categories are split into lower-case words. A query matches an
+ * item when every word of the query starts one of the item's words ("chi sand" matches
+ * "Chicken sandwich"). Each distinct word maps to the set of items containing it, so a
+ * query costs one sorted-map range scan per query word, however large the menu.
+ *
+ * Immutable once built; safe to share between threads.
+ */
+public class MenuSearchIndex {
+    private final List<MenuItem> items;
+    private final TreeMap<String, BitSet> postings = new TreeMap<>();
+
+    public MenuSearchIndex(List<MenuItem> items) {
+        this.items = List.copyOf(items);
+        for (int i = 0; i < this.items.size(); i++) {
+            MenuItem item = this.items.get(i);
+            addWords(i, item.getName());
+            addWords(i, item.getDescription());
+            if (item.getCategory() != null) addWords(i, item.getCategory().name());
+        }
+    }
+
+    /**
+     * Items matching the query, as a predicate for a filtered list; a blank query matches all.
+     */
+    public Predicate<MenuItem> matcher(String query) {
+        List<String> words = words(query);
+        if (words.isEmpty()) return item -> true;
+        BitSet matches = null;
+        for (String word : words) {
+            BitSet withPrefix = new BitSet(items.size());
+            SortedMap<String, BitSet> range = postings.subMap(word, word + Character.MAX_VALUE);
+            for (BitSet posting : range.values()) {
+                withPrefix.or(posting);
+            }
+            if (matches == null) {
+                matches = withPrefix;
+            } else {
+                matches.and(withPrefix);
+            }
+            if (matches.isEmpty()) break;
+        }
+        // Items are matched by identity: the filtered list holds the snapshot's own objects
+        Map<MenuItem, Boolean> matched = new IdentityHashMap<>();
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            matched.put(items.get(i), Boolean.TRUE);
+        }
+        return matched::containsKey;
+    }
+
+    /**
+     * The query's words, lower case, in the form the index matches them (e.g. for highlighting).
+     */
+    public static List<String> words(String text) {
+        if (text == null || text.isBlank()) return Collections.emptyList();
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private void addWords(int item, String text) {
+        for (String word : words(text)) {
+            postings.computeIfAbsent(word, w -> new BitSet()).set(item);
+        }
+    }
+}
@@ -4,8 +4,12 @@ import Core.NotificationHistory;
 import Core.Student;
 import DataBase.NotificationHistoryDAO;
 import Interfaces.INotificationHistory;
+import Values.KeysetCursor;
+import Values.Page;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class NotificationHistoryService {
     private final INotificationHistory notificationHistoryDAO;
@@ -39,7 +43,7 @@ public class NotificationHistoryService {
     // Send order ready notification to student and save to history
     public boolean sendOrderReadyNotification(Student student, String orderCode) {
         try {
-            String message = "Your order " + orderCode + " is ready for pickup!";
+            String message = orderReadyMessage(orderCode);
             NotificationHistory notification = new NotificationHistory(
                 student.getName(),
                 student.getStudentCode(),
@@ -55,6 +59,35 @@ public class NotificationHistoryService {
         }
     }
 
+    /**
+     * Send "being prepared" notifications for several orders as one batch insert.
+     *
+     * @param studentByOrder student code keyed by order code
+     */
+    public boolean sendOrderPreparingNotifications(Map<String, String> studentByOrder) {
+        try {
+            List<NotificationHistory> notifications = new ArrayList<>();
+            for (Map.Entry<String, String> entry : studentByOrder.entrySet()) {
+                notifications.add(new NotificationHistory(
+                    entry.getValue(), // student code stands in for the name, as in sendNotification
+                    entry.getValue(),
+                    "Your order " + entry.getKey() + " is now being prepared",
+                    "ORDER_PREPARING",
+                    LocalDateTime.now(),
+                    false
+                ));
+            }
+            return notificationHistoryDAO.saveNotificationHistoryBatch(notifications);
+        } catch (Exception e) {
+            System.err.println("Error sending preparing notifications: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static String orderReadyMessage(String orderCode) {
+        return "Your order " + orderCode + " is ready for pickup!";
+    }
+
     // Send general notification to student and save to history
     public boolean sendGeneralNotification(Student student, String message) {
         try {
@@ -103,6 +136,29 @@ public class NotificationHistoryService {
         return notificationHistoryDAO.getAllNotificationHistory();
     }
 
+    /**
+     * Get one page of a student's notifications, newest first.
+     *
+     * @param studentCode The student code
+     * @param messageType Message type filter, or null for all types
+     * @param after Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum number of notifications to return
+     * @return The page and the cursor for the next one
+     */
+    public Page<NotificationHistory> getNotificationPage(String studentCode, String messageType, KeysetCursor after, int pageSize) {
+        if (studentCode == null) {
+            return Page.empty();
+        }
+        return notificationHistoryDAO.findPage(studentCode, messageType, after, Math.max(1, pageSize));
+    }
+
+    /**
+     * Get one page of all students' notifications, newest first (for admin use).
+     */
+    public Page<NotificationHistory> getAllNotificationPage(String messageType, KeysetCursor after, int pageSize) {
+        return notificationHistoryDAO.findPage(null, messageType, after, Math.max(1, pageSize));
+    }
+
     /**
      * Send a notification to a student with custom message and type.
      * This is a generic method that can be used by admin controllers.
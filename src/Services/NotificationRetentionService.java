@@ -0,0 +1,328 @@
+package Services;
+
+import Core.Notification;
+import Core.NotificationHistory;
+import DataBase.DBconnection;
+import DataBase.NotificationDAO;
+import DataBase.NotificationHistoryDAO;
+import DataBase.NotificationRetentionDAO;
+import DataBase.UnreadCounterCache;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retention for the notifications and notification_history tables.
+ * Each message type has a TTL (falling back to a default); a background job deletes
+ * expired rows oldest-first in small batches, pausing between batches so no single
+ * DELETE holds row locks for long. Purged rows can optionally be archived to gzip'd
+ * CSV files before they are deleted. After the purge the job keeps the monthly
+ * notification_history partitions rolling forward and drops partitions that are
+ * older than every TTL, archiving whatever rows are still in them first.
+ */
+public class NotificationRetentionService {
+    private static final Logger logger = Logger.getLogger(NotificationRetentionService.class.getName());
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long DEFAULT_BATCH_PAUSE_MS = 200;
+    private static final int PARTITION_MONTHS_AHEAD = 2;
+    private static final DateTimeFormatter ARCHIVE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Map<String, Duration> ttlByType = new ConcurrentHashMap<>();
+    private volatile Duration defaultTtl = Duration.ofDays(180);
+    private volatile Path archiveDirectory;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile long batchPauseMs = DEFAULT_BATCH_PAUSE_MS;
+    private ScheduledExecutorService scheduler;
+
+    public NotificationRetentionService() {
+        // Order status rows are only useful while the order is in flight
+        ttlByType.put("ORDER_STATUS", Duration.ofDays(14));
+        ttlByType.put("ORDER_PREPARING", Duration.ofDays(30));
+        ttlByType.put("ORDER_READY", Duration.ofDays(90));
+        ttlByType.put("SALE", Duration.ofDays(30));
+        ttlByType.put("GENERAL", Duration.ofDays(180));
+    }
+
+    public void setTtl(String messageType, Duration ttl) {
+        if (messageType == null) return;
+        if (ttl == null) {
+            ttlByType.remove(messageType);
+        } else {
+            ttlByType.put(messageType, ttl);
+        }
+    }
+
+    public Duration getTtl(String messageType) {
+        Duration ttl = messageType != null ? ttlByType.get(messageType) : null;
+        return ttl != null ? ttl : defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        if (defaultTtl != null) this.defaultTtl = defaultTtl;
+    }
+
+    /**
+     * Directory that receives gzip'd CSV archives of purged rows, or null to purge without archiving.
+     */
+    public void setArchiveDirectory(Path archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize > 0) this.batchSize = batchSize;
+    }
+
+    public void setBatchPauseMillis(long batchPauseMs) {
+        if (batchPauseMs >= 0) this.batchPauseMs = batchPauseMs;
+    }
+
+    /**
+     * Start the background purge job. Safe to call more than once.
+     */
+    public synchronized void start(long periodMinutes) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-retention");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeNow, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+        logger.info("Notification retention scheduled every " + periodMinutes + " minute(s)");
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Run one retention pass on a dedicated connection.
+     *
+     * @return number of rows purged, or -1 if the pass was skipped or failed
+     */
+    public int purgeNow() {
+        DBconnection db = null;
+        NotificationRetentionDAO retentionDAO = null;
+        boolean locked = false;
+        try {
+            db = new DBconnection();
+            retentionDAO = new NotificationRetentionDAO(db.getConnection());
+            // Both GUI processes run this job; only one of them purges at a time
+            locked = retentionDAO.tryLock();
+            if (!locked) {
+                logger.fine("Notification retention already running in another process");
+                return -1;
+            }
+
+            NotificationHistoryDAO historyDAO = new NotificationHistoryDAO(db.getConnection());
+            NotificationDAO notificationDAO = new NotificationDAO(db.getConnection());
+            LocalDateTime now = LocalDateTime.now();
+            PurgeCount total = new PurgeCount();
+
+            try (ArchiveWriter archive = new ArchiveWriter("notification_history", now)) {
+                for (String type : historyDAO.findMessageTypes()) {
+                    LocalDateTime cutoff = now.minus(getTtl(type));
+                    total.add(purgeInBatches(
+                            () -> historyDAO.findExpired(type, cutoff, batchSize),
+                            NotificationHistory::getId,
+                            n -> !n.isRead(),
+                            NotificationRetentionService::historyColumns,
+                            historyDAO::deleteByIds,
+                            archive));
+                }
+            }
+            try (ArchiveWriter archive = new ArchiveWriter("notifications", now)) {
+                for (String type : notificationDAO.findNotificationTypes()) {
+                    LocalDateTime cutoff = now.minus(getTtl(type));
+                    total.add(purgeInBatches(
+                            () -> notificationDAO.findExpired(type, cutoff, batchSize),
+                            Notification::getId,
+                            n -> !n.isRead(),
+                            n -> new String[] { String.valueOf(n.getId()), n.getUserCode(), n.getNotificationType(),
+                                    String.valueOf(n.getCreatedAt()), String.valueOf(n.isRead()), n.getMessage() },
+                            notificationDAO::deleteByIds,
+                            archive));
+                }
+            }
+
+            retentionDAO.ensureFuturePartitions(PARTITION_MONTHS_AHEAD);
+            LocalDateTime dropBefore = retentionDAO.droppablePartitionsBefore(now.minus(longestTtl()));
+            if (dropBefore != null) {
+                // Same as the batch purge: rows reach the archive before their partition is dropped
+                try (ArchiveWriter archive = new ArchiveWriter("notification_history-partitions", now)) {
+                    total.unread += archiveCreatedBefore(historyDAO, dropBefore, archive);
+                }
+                retentionDAO.dropPartitionsBefore(dropBefore);
+            }
+
+            // Purged unread rows leave the materialised counters too high
+            if (total.unread > 0) {
+                UnreadCounterCache.getInstance().reconcileNow();
+            }
+            logger.info("Notification retention purged " + total.rows + " row(s)");
+            return total.rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Notification retention interrupted");
+            return -1;
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Notification retention failed", e);
+            return -1;
+        } finally {
+            if (locked) retentionDAO.unlock();
+            if (db != null) {
+                try { db.close(); } catch (Exception ignored) {}
+            }
+        }
+    }
+
+    private Duration longestTtl() {
+        Duration longest = defaultTtl;
+        for (Duration ttl : ttlByType.values()) {
+            if (ttl.compareTo(longest) > 0) longest = ttl;
+        }
+        return longest;
+    }
+
+    /**
+     * Archive every notification_history row created before the bound, page by page, and
+     * return how many of them are unread. Nothing is deleted here; the caller drops the
+     * partitions afterwards.
+     */
+    private int archiveCreatedBefore(NotificationHistoryDAO historyDAO, LocalDateTime before,
+                                     ArchiveWriter archive) throws SQLException, IOException {
+        int unread = 0;
+        int afterId = 0;
+        while (true) {
+            List<NotificationHistory> page = historyDAO.findCreatedBefore(before, afterId, batchSize);
+            for (NotificationHistory n : page) {
+                archive.write(historyColumns(n));
+                if (!n.isRead()) unread++;
+                afterId = n.getId();
+            }
+            archive.flush();
+            if (page.size() < batchSize) return unread;
+        }
+    }
+
+    private static String[] historyColumns(NotificationHistory n) {
+        return new String[] { String.valueOf(n.getId()), n.getStudentCode(), n.getStudentName(),
+                n.getMessageType(), String.valueOf(n.getCreatedAt()), String.valueOf(n.isRead()),
+                n.getNotifyMessage() };
+    }
+
+    /**
+     * Repeatedly fetch, archive and delete one batch until the supplier runs dry.
+     * Rows are archived (and flushed) before their batch is deleted, so an archive
+     * failure stops the purge without losing data.
+     */
+    private <T> PurgeCount purgeInBatches(Supplier<List<T>> nextBatch,
+                                          Function<T, Integer> idOf,
+                                          Predicate<T> unread,
+                                          Function<T, String[]> columns,
+                                          Function<List<Integer>, Integer> delete,
+                                          ArchiveWriter archive) throws IOException, InterruptedException {
+        PurgeCount count = new PurgeCount();
+        while (true) {
+            List<T> batch = nextBatch.get();
+            if (batch.isEmpty()) break;
+
+            List<Integer> ids = new ArrayList<>(batch.size());
+            for (T row : batch) {
+                ids.add(idOf.apply(row));
+                archive.write(columns.apply(row));
+                if (unread.test(row)) count.unread++;
+            }
+            archive.flush();
+
+            int deleted = delete.apply(ids);
+            if (deleted <= 0) break;
+            count.rows += deleted;
+            if (batch.size() < batchSize) break;
+            Thread.sleep(batchPauseMs);
+        }
+        return count;
+    }
+
+    private static final class PurgeCount {
+        int rows;
+        int unread;
+
+        void add(PurgeCount other) {
+            rows += other.rows;
+            unread += other.unread;
+        }
+    }
+
+    /**
+     * Lazily opened gzip'd CSV file for one table and run; a no-op when archiving is disabled.
+     */
+    private final class ArchiveWriter implements Closeable {
+        private final String table;
+        private final LocalDateTime runAt;
+        private final Path directory = archiveDirectory;
+        private BufferedWriter writer;
+
+        ArchiveWriter(String table, LocalDateTime runAt) {
+            this.table = table;
+            this.runAt = runAt;
+        }
+
+        void write(String[] columns) throws IOException {
+            if (directory == null) return;
+            if (writer == null) {
+                Files.createDirectories(directory);
+                Path file = directory.resolve(table + "-" + ARCHIVE_STAMP.format(runAt) + ".csv.gz");
+                // syncFlush so flush() pushes complete rows to disk before the batch is deleted
+                writer = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(csv(columns[i]));
+            }
+            writer.newLine();
+        }
+
+        void flush() throws IOException {
+            if (writer != null) writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) writer.close();
+        }
+
+        private String csv(String value) {
+            if (value == null) return "";
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
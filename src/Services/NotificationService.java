@@ -1,7 +1,10 @@
 package Services;
 
+import Core.Notification;
 import Interfaces.INotifier;
 import DataBase.NotificationDAO;
+import Values.KeysetCursor;
+import Values.Page;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -48,6 +51,11 @@ public class NotificationService implements INotifier {
         return notificationDAO.getUnreadNotifications(userCode);
     }
 
+    public Page<Notification> getNotificationPage(String userCode, String notificationType, boolean unreadOnly,
+                                                  KeysetCursor after, int pageSize) {
+        return notificationDAO.findPage(userCode, notificationType, unreadOnly, after, Math.max(1, pageSize));
+    }
+
     public void clearNotifications(int userId) {
         String userCode = "USER_" + userId;
         notificationDAO.markAllAsRead(userCode);
@@ -0,0 +1,193 @@
+package Services;
+
+import Core.Order;
+import DataBase.PaymentAttemptDAO;
+import Enums.OrderStatus;
+import Interfaces.IPendingOrderListener;
+import Values.AdmissionMetrics;
+import Values.LatencyPercentiles;
+import Values.OperationsSnapshot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process operations counters behind the live operations dashboard, updated as events
+ * happen instead of read from the database:
+ * <ul>
+ *   <li>orders placed and made READY, from the pending-order board's change feed (which
+ *       also sees orders placed and advanced by other processes);</li>
+ *   <li>the NEW / PREPARING queue, from the same feed;</li>
+ *   <li>payment attempts and successes per method since the start of the day, from the
+ *       payment_attempts table that every process taking payments appends to, tailed on
+ *       the board's poller;</li>
+ *   <li>database call latency, as OrderProcessor records it in this process;</li>
+ *   <li>prep time percentiles, from the order latency tracker.</li>
+ * </ul>
+ * Change listeners are called on the thread of the event and must only note that
+ * something changed; views read a {@link #snapshot} at their own pace.
+ */
+public class OperationsMetrics implements IPendingOrderListener {
+    private static final Logger logger = Logger.getLogger(OperationsMetrics.class.getName());
+    private static final int WINDOW_SECONDS = 60;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final SlidingWindow placed = new SlidingWindow(WINDOW_SECONDS);
+    private final SlidingWindow ready = new SlidingWindow(WINDOW_SECONDS);
+    private final SlidingWindow dbCalls = new SlidingWindow(WINDOW_SECONDS);
+    private final Map<String, OrderStatus> queue = new ConcurrentHashMap<>();
+    // attempts, successes per payment method today, in first-seen order
+    private final Map<String, long[]> payments = new LinkedHashMap<>();
+    // Board poller thread only: where the payment_attempts tail has got to
+    private PaymentAttemptDAO paymentAttempts;
+    private LocalDate paymentDay;
+    private long lastPaymentId;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile OrderLatencyTracker latencyTracker;
+
+    /**
+     * Follow the board and count the orders already on it.
+     */
+    public void attach(PendingOrderBoard board) {
+        board.addListener(this, seed -> {
+            for (Order order : seed) {
+                queue.put(order.getCode(), order.getStatus());
+            }
+        });
+        board.setQueryTimer(this::dbCall);
+        board.addPollTask(this::pollPayments);
+        changed();
+    }
+
+    /**
+     * Source of the prep time percentiles; without one they are reported as unknown.
+     */
+    public void setLatencyTracker(OrderLatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
+    public void addChangeListener(Runnable listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        queue.put(order.getCode(), order.getStatus());
+        placed.record(1);
+        changed();
+    }
+
+    @Override
+    public void orderUpdated(Order order) {
+        queue.put(order.getCode(), order.getStatus());
+        changed();
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        // Orders leave the board when they become READY
+        queue.remove(order.getCode());
+        ready.record(1);
+        changed();
+    }
+
+    /**
+     * Board poller: count the payment attempts recorded since the last poll, by any
+     * process. The first poll of a day starts over from that day's attempts.
+     */
+    private void pollPayments() {
+        if (paymentAttempts == null) paymentAttempts = new PaymentAttemptDAO();
+        LocalDate today = LocalDate.now();
+        boolean newDay = !today.equals(paymentDay);
+        long started = System.nanoTime();
+        PaymentAttemptDAO.Counts counts = newDay
+                ? paymentAttempts.countAfter(0, today.atStartOfDay())
+                : paymentAttempts.countAfter(lastPaymentId, null);
+        dbCall(System.nanoTime() - started);
+        if (counts == null) return;
+
+        synchronized (payments) {
+            if (newDay) payments.clear();
+            for (Map.Entry<String, long[]> entry : counts.byMethod.entrySet()) {
+                long[] total = payments.computeIfAbsent(entry.getKey(), m -> new long[2]);
+                total[0] += entry.getValue()[0];
+                total[1] += entry.getValue()[1];
+            }
+        }
+        paymentDay = today;
+        lastPaymentId = counts.lastId;
+        if (newDay || !counts.byMethod.isEmpty()) changed();
+    }
+
+    /**
+     * Record one database round trip.
+     */
+    public void dbCall(long nanos) {
+        dbCalls.record(nanos);
+        changed();
+    }
+
+    /**
+     * @param admission the admission controller's counters, or null
+     */
+    public OperationsSnapshot snapshot(AdmissionMetrics admission) {
+        long now = System.currentTimeMillis();
+        int newOrders = 0;
+        int preparing = 0;
+        for (OrderStatus status : queue.values()) {
+            if (status == OrderStatus.PREPARING) {
+                preparing++;
+            } else {
+                newOrders++;
+            }
+        }
+
+        long prepP50 = -1;
+        long prepP95 = -1;
+        OrderLatencyTracker tracker = latencyTracker;
+        if (tracker != null) {
+            for (LatencyPercentiles p : tracker.overall()) {
+                if (OrderLatencyTracker.PREP_TIME.equals(p.getMetric()) && p.getCount() > 0) {
+                    prepP50 = p.getP50Ms();
+                    prepP95 = p.getP95Ms();
+                }
+            }
+        }
+
+        List<OperationsSnapshot.PaymentMethodStats> paymentStats = new ArrayList<>();
+        synchronized (payments) {
+            for (Map.Entry<String, long[]> entry : payments.entrySet()) {
+                paymentStats.add(new OperationsSnapshot.PaymentMethodStats(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+            }
+        }
+
+        SlidingWindow.Totals db = dbCalls.totals(now);
+        return new OperationsSnapshot(LocalDateTime.now(),
+                placed.totals(now).count, ready.totals(now).count,
+                newOrders, preparing, prepP50, prepP95,
+                db.count, db.average() / NANOS_PER_MS, db.max / NANOS_PER_MS,
+                paymentStats, admission);
+    }
+
+    private void changed() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Operations metrics listener failed", e);
+            }
+        }
+    }
+}
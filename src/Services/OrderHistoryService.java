@@ -61,6 +61,13 @@ public class OrderHistoryService {
         return orderHistoryDAO.updateOrderStatus(orderCode, newStatus);
     }
 
+    /**
+     * Update the status of several orders in history with one statement
+     */
+    public int updateOrderStatus(List<String> orderCodes, String newStatus) {
+        return orderHistoryDAO.updateOrderStatus(orderCodes, newStatus);
+    }
+
     /**
      * Get specific order history by order code
      */
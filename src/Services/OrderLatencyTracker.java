@@ -0,0 +1,242 @@
+package Services;
+
+import Core.Order;
+import Core.OrderItem;
+import DataBase.OrderDAO;
+import Values.LatencyPercentiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queue time (placed -> PREPARING) and prep time (PREPARING -> READY) histograms built from
+ * the lifecycle timestamps on the orders table, overall, per hour of day the order was placed
+ * and per menu item. An order's times are attributed to every item it contains.
+ *
+ * Completed orders are read incrementally by ready_at, so each order is recorded once no
+ * matter which process advanced it. The tracker starts on first use: it loads the last
+ * {@value #SEED_DAYS} days and then polls for newly READY orders on its own connection.
+ * Other components (the ETA estimator) can subscribe to each completed order and to the
+ * end of each poll.
+ */
+public class OrderLatencyTracker {
+    private static final Logger logger = Logger.getLogger(OrderLatencyTracker.class.getName());
+    private static final int SEED_DAYS = 28;
+    private static final long POLL_SECONDS = 30;
+    private static final int BATCH_SIZE = 500;
+
+    public static final String QUEUE_TIME = "Queue time";
+    public static final String PREP_TIME = "Prep time";
+
+    private final LatencyHistogram queueOverall = new LatencyHistogram();
+    private final LatencyHistogram prepOverall = new LatencyHistogram();
+    private final LatencyHistogram[] queueByHour = new LatencyHistogram[24];
+    private final LatencyHistogram[] prepByHour = new LatencyHistogram[24];
+    private final Map<String, LatencyHistogram> queueByItem = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> prepByItem = new ConcurrentHashMap<>();
+    private final List<Consumer<Order>> completionListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pollListeners = new CopyOnWriteArrayList<>();
+
+    private OrderDAO dao;
+    private ScheduledExecutorService poller;
+    private volatile boolean started;
+    // ready_at watermark plus the orders already seen at exactly that timestamp
+    private LocalDateTime watermark;
+    private final Set<String> seenAtWatermark = new HashSet<>();
+
+    public OrderLatencyTracker() {
+        for (int h = 0; h < 24; h++) {
+            queueByHour[h] = new LatencyHistogram();
+            prepByHour[h] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Load recent history and start polling. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (started) return;
+        try {
+            dao = new OrderDAO();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to start order latency tracker", e);
+            return;
+        }
+        watermark = LocalDateTime.now().minusDays(SEED_DAYS);
+        started = true;
+        int seeded = poll();
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-latency-tracker");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, POLL_SECONDS, POLL_SECONDS, TimeUnit.SECONDS);
+        logger.info("Order latency tracker seeded with " + seeded + " completed order(s)");
+    }
+
+    /**
+     * Start on a background thread so callers never wait for the history to load.
+     */
+    public void startInBackground() {
+        if (started) return;
+        Thread seeder = new Thread(this::start, "order-latency-seed");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        started = false;
+    }
+
+    /**
+     * Called with every completed order as it is recorded (on the tracker's thread).
+     */
+    public void addCompletionListener(Consumer<Order> listener) {
+        if (listener != null) completionListeners.add(listener);
+    }
+
+    /**
+     * Called after each poll that recorded completed orders, once their completion
+     * listeners have run (on the tracker's thread).
+     */
+    public void addPollListener(Runnable listener) {
+        if (listener != null) pollListeners.add(listener);
+    }
+
+    /**
+     * Read orders that became READY since the last poll.
+     *
+     * @return number of orders recorded
+     */
+    public synchronized int poll() {
+        if (!started) return 0;
+        int recorded = 0;
+        try {
+            while (true) {
+                List<Order> batch = dao.findReadySince(watermark, BATCH_SIZE);
+                int fresh = 0;
+                for (Order order : batch) {
+                    LocalDateTime readyAt = order.getReadyAt();
+                    if (readyAt.isAfter(watermark)) {
+                        watermark = readyAt;
+                        seenAtWatermark.clear();
+                    }
+                    if (!seenAtWatermark.add(order.getCode())) continue;
+                    record(order);
+                    fresh++;
+                }
+                recorded += fresh;
+                // A full batch of already-seen rows at one timestamp cannot advance; stop rather than spin
+                if (batch.size() < BATCH_SIZE || fresh == 0) break;
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Order latency poll failed", e);
+        }
+        if (recorded > 0) {
+            for (Runnable listener : pollListeners) {
+                try {
+                    listener.run();
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Order latency poll listener failed", e);
+                }
+            }
+        }
+        return recorded;
+    }
+
+    private void record(Order order) {
+        Long queueMs = between(order.getCreatedAt(), order.getPreparingAt());
+        Long prepMs = between(order.getPreparingAt(), order.getReadyAt());
+        int hour = order.getCreatedAt() != null ? order.getCreatedAt().getHour() : -1;
+
+        if (queueMs != null) {
+            queueOverall.record(queueMs);
+            if (hour >= 0) queueByHour[hour].record(queueMs);
+        }
+        if (prepMs != null) {
+            prepOverall.record(prepMs);
+            if (hour >= 0) prepByHour[hour].record(prepMs);
+        }
+        for (OrderItem item : order.getItems()) {
+            String name = item.getNameSnapshot();
+            if (name == null) continue;
+            if (queueMs != null) queueByItem.computeIfAbsent(name, k -> new LatencyHistogram()).record(queueMs);
+            if (prepMs != null) prepByItem.computeIfAbsent(name, k -> new LatencyHistogram()).record(prepMs);
+        }
+
+        for (Consumer<Order> listener : completionListeners) {
+            try {
+                listener.accept(order);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Order completion listener failed", e);
+            }
+        }
+    }
+
+    private static Long between(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || to.isBefore(from)) return null;
+        return Duration.between(from, to).toMillis();
+    }
+
+    /**
+     * Overall queue and prep time percentiles.
+     */
+    public List<LatencyPercentiles> overall() {
+        start();
+        List<LatencyPercentiles> rows = new ArrayList<>();
+        rows.add(percentiles("All orders", QUEUE_TIME, queueOverall));
+        rows.add(percentiles("All orders", PREP_TIME, prepOverall));
+        return rows;
+    }
+
+    /**
+     * Percentiles per hour of day the order was placed; hours without orders are skipped.
+     */
+    public List<LatencyPercentiles> byHour() {
+        start();
+        List<LatencyPercentiles> rows = new ArrayList<>();
+        for (int h = 0; h < 24; h++) {
+            String scope = String.format("%02d:00-%02d:59", h, h);
+            if (queueByHour[h].getTotalCount() > 0) rows.add(percentiles(scope, QUEUE_TIME, queueByHour[h]));
+            if (prepByHour[h].getTotalCount() > 0) rows.add(percentiles(scope, PREP_TIME, prepByHour[h]));
+        }
+        return rows;
+    }
+
+    /**
+     * Percentiles per menu item, alphabetically.
+     */
+    public List<LatencyPercentiles> byItem() {
+        start();
+        List<LatencyPercentiles> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(queueByItem).entrySet()) {
+            rows.add(percentiles(entry.getKey(), QUEUE_TIME, entry.getValue()));
+            LatencyHistogram prep = prepByItem.get(entry.getKey());
+            if (prep != null) rows.add(percentiles(entry.getKey(), PREP_TIME, prep));
+        }
+        return rows;
+    }
+
+    private static LatencyPercentiles percentiles(String scope, String metric, LatencyHistogram h) {
+        return new LatencyPercentiles(scope, metric, h.getTotalCount(),
+                h.getValueAtPercentile(50), h.getValueAtPercentile(95), h.getValueAtPercentile(99));
+    }
+}
@@ -2,16 +2,34 @@ package Services;
 
 import Core.*;
 import DataBase.NotificationDAO;
+import DataBase.PaymentAttemptDAO;
+import DataBase.PrepRateDAO;
 import Interfaces.*;
 import Enums.OrderStatus;
+import Values.KitchenItemTotal;
+import Values.OperationsSnapshot;
+import Values.PickupEta;
+import Values.PlacementResult;
 import Values.Selection;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class OrderProcessor {
     private static final Logger logger = Logger.getLogger(OrderProcessor.class.getName());
+    private static final long QUEUE_READ_SECONDS = 15;
+    private static final long PREP_RATES_READ_SECONDS = 300;
 
     private final IOrderRepository orders;
     private final IMenuProvider menu;
@@ -19,6 +37,25 @@ public class OrderProcessor {
     private final OrderHistoryService orderHistoryService;
     private final NotificationHistoryService notificationHistoryService;
     private final NotificationDAO notificationDAO;
+    private final OrderStatusNotificationBuffer statusNotifications;
+    private final PendingOrderBoard pendingBoard = new PendingOrderBoard();
+    private final KitchenAggregation kitchenAggregation = new KitchenAggregation();
+    private final EtaEstimator etaEstimator = new EtaEstimator();
+    private final OperationsMetrics operationsMetrics = new OperationsMetrics();
+    private final OrderStatusFeed statusFeed = new OrderStatusFeed();
+    private volatile AdmissionController admission;
+    private volatile boolean boardEnabled;
+    // Kiosk ETAs: NEW / PREPARING orders read at most every QUEUE_READ_SECONDS, oldest first
+    private final Object queueReadLock = new Object();
+    private List<Order> queueRead;
+    private long queueReadAt;
+    // Kiosk ETAs: prep rates learned by the board's process, read at most every PREP_RATES_READ_SECONDS
+    private PrepRateDAO prepRates;
+    private long prepRatesReadAt;
+    private final IdempotencyCache requestCache = new IdempotencyCache();
+    private final Object paymentAttemptsLock = new Object();
+    private PaymentAttemptDAO paymentAttempts;
+    private final List<Consumer<Order>> placementListeners = new CopyOnWriteArrayList<>();
 
     public OrderProcessor(IOrderRepository orders, IMenuProvider menu, LoyaltyProgramService loyalty) {
         this.orders = orders;
@@ -27,6 +64,7 @@ public class OrderProcessor {
         this.orderHistoryService = null; // backward compatible
         this.notificationHistoryService = null; // backward compatible
         this.notificationDAO = new NotificationDAO();
+        this.statusNotifications = null; // write through
     }
 
     public OrderProcessor(IOrderRepository orders, IMenuProvider menu, LoyaltyProgramService loyalty, OrderHistoryService orderHistoryService) {
@@ -36,45 +74,173 @@ public class OrderProcessor {
         this.orderHistoryService = orderHistoryService;
         this.notificationHistoryService = null; // backward compatible
         this.notificationDAO = new NotificationDAO();
+        this.statusNotifications = null; // write through
     }
 
     public OrderProcessor(IOrderRepository orders, IMenuProvider menu, LoyaltyProgramService loyalty,
                           OrderHistoryService orderHistoryService, NotificationHistoryService notificationHistoryService) {
+        this(orders, menu, loyalty, orderHistoryService, notificationHistoryService, null);
+    }
+
+    /**
+     * @param statusNotifications write-behind buffer for ORDER_STATUS / ORDER_READY notifications,
+     *                            or null to write them synchronously
+     */
+    public OrderProcessor(IOrderRepository orders, IMenuProvider menu, LoyaltyProgramService loyalty,
+                          OrderHistoryService orderHistoryService, NotificationHistoryService notificationHistoryService,
+                          OrderStatusNotificationBuffer statusNotifications) {
         this.orders = orders;
         this.menu = menu;
         this.loyalty = loyalty;
         this.orderHistoryService = orderHistoryService;
         this.notificationHistoryService = notificationHistoryService;
         this.notificationDAO = new NotificationDAO();
+        this.statusNotifications = statusNotifications;
     }
 
-    public Order placeOrder(Student student, List<Selection> selections) {
+    /**
+     * Put an admission controller in front of {@link #tryPlaceOrder}; null admits everything.
+     */
+    public void setAdmissionController(AdmissionController admission) {
+        this.admission = admission;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admission;
+    }
+
+    /**
+     * Called with every order this processor places (on the placing thread).
+     */
+    public void addPlacementListener(Consumer<Order> listener) {
+        if (listener != null) placementListeners.add(listener);
+    }
+
+    /**
+     * Place an order through admission control: rate limited per student and capped in
+     * concurrency, returning a "busy, retry in N s" result instead of queueing forever.
+     * Ordering front ends should use this rather than {@link #placeOrder}.
+     */
+    public PlacementResult tryPlaceOrder(Student student, List<Selection> selections, LocalDateTime pickupSlot) {
+        return tryPlaceOrder(student, selections, pickupSlot, null);
+    }
+
+    /**
+     * Idempotent variant: repeats with the same client request key (double click, retry
+     * after a timeout) return the order the first request placed instead of a new one.
+     * Keys are remembered in memory and stored on the order, so a repeat is also caught
+     * after the in-memory entry is gone. Keys are scoped to the student: the same key from
+     * another student is a different request.
+     */
+    public PlacementResult tryPlaceOrder(Student student, List<Selection> selections, LocalDateTime pickupSlot,
+                                         String requestKey) {
         if (student == null || selections == null || selections.isEmpty()) {
             throw new IllegalArgumentException("Invalid student or selections");
         }
+        return requestCache.execute(placementKey(student, requestKey),
+                () -> admitAndPlace(student, requestKey,
+                        () -> placeOrder(student, selections, pickupSlot, requestKey)),
+                PlacementResult::isPlaced);
+    }
+
+    /**
+     * Fast path for callers that already hold the current menu items (e.g. a validated cart):
+     * same admission control and idempotency as {@link #tryPlaceOrder}, but the items are not
+     * looked up again one by one.
+     */
+    public PlacementResult tryPlaceOrderItems(Student student, Map<MenuItem, Integer> items, LocalDateTime pickupSlot,
+                                              String requestKey) {
+        if (student == null || items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Invalid student or items");
+        }
+        return requestCache.execute(placementKey(student, requestKey),
+                () -> admitAndPlace(student, requestKey,
+                        () -> placeResolved(student, items, pickupSlot, requestKey)),
+                PlacementResult::isPlaced);
+    }
 
-        Order order = new Order(student.getStudentCode());
+    private static String placementKey(Student student, String requestKey) {
+        return requestKey != null ? "place:" + student.getStudentCode() + ":" + requestKey : null;
+    }
+
+    private PlacementResult admitAndPlace(Student student, String requestKey, Supplier<Order> placement) {
+        Order existing = requestKey != null ? orders.findByRequestKey(student.getStudentCode(), requestKey) : null;
+        if (existing != null) {
+            logger.info("Repeated placement request " + requestKey + " returns order " + existing.getCode());
+            PickupEta eta = estimateReadyTime(existing.getCode());
+            if (eta != null) existing.setEstimatedReadyAt(eta.getEstimatedReadyAt());
+            return PlacementResult.placed(existing);
+        }
+
+        AdmissionController controller = admission;
+        if (controller == null) {
+            return PlacementResult.placed(placement.get());
+        }
+        try (AdmissionController.Permit permit = controller.admit(student.getStudentCode())) {
+            if (!permit.isAdmitted()) {
+                return PlacementResult.busy(permit.getRetryAfterSeconds(), permit.getReason());
+            }
+            return PlacementResult.placed(placement.get());
+        }
+    }
+
+    public Order placeOrder(Student student, List<Selection> selections) {
+        return placeOrder(student, selections, null);
+    }
+
+    /**
+     * Place an order for pickup in a slot reserved through {@link PickupSlotService}
+     * (null pickupSlot means as soon as possible).
+     */
+    public Order placeOrder(Student student, List<Selection> selections, LocalDateTime pickupSlot) {
+        return placeOrder(student, selections, pickupSlot, null);
+    }
+
+    private Order placeOrder(Student student, List<Selection> selections, LocalDateTime pickupSlot, String requestKey) {
+        if (student == null || selections == null || selections.isEmpty()) {
+            throw new IllegalArgumentException("Invalid student or selections");
+        }
 
-        // Add items to order
+        // Resolve items against the menu
+        Map<MenuItem, Integer> items = new LinkedHashMap<>();
         for (Selection selection : selections) {
             MenuItem item = menu.findById(selection.getItemId());
             if (item != null) {
-                order.addItem(item, selection.getQty());
+                items.put(item, selection.getQty());
             } else {
                 logger.log(Level.WARNING, "Menu item not found: " + selection.getItemId());
             }
         }
+        return placeResolved(student, items, pickupSlot, requestKey);
+    }
+
+    private Order placeResolved(Student student, Map<MenuItem, Integer> items, LocalDateTime pickupSlot,
+                                String requestKey) {
+        Order order = new Order(student.getStudentCode());
+        order.setPickupSlot(pickupSlot);
+        order.setRequestKey(requestKey);
+        for (Map.Entry<MenuItem, Integer> entry : items.entrySet()) {
+            order.addItem(entry.getKey(), entry.getValue());
+        }
 
         // Save order - this will generate the order code
-        orders.save(order);
+        timed(() -> orders.save(order));
 
         // Record an ORDER_STATUS notification for the student (code + status only)
-        try {
-
-            String concise = String.format("Order: %s | Status: %s", order.getCode(), order.getStatus());
-            notificationDAO.sendNotification(student.getStudentCode(), concise, "ORDER_STATUS");
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Failed to insert order notification", e);
+        recordStatusNotification(student.getStudentCode(), order.getCode(), order.getStatus());
+        if (order.getId() > 0) {
+            pendingBoard.orderPlaced(order);
+            PickupEta eta = estimatePlacedOrder(order);
+            if (eta != null) {
+                order.setEstimatedReadyAt(eta.getEstimatedReadyAt());
+            }
+            for (Consumer<Order> listener : placementListeners) {
+                try {
+                    listener.accept(order);
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Order placement listener failed", e);
+                }
+            }
         }
 
         logger.log(Level.INFO, "Order placed: " + order.getCode() + " for student: " + student.getStudentCode());
@@ -88,13 +254,26 @@ public class OrderProcessor {
 
         try {
             boolean paymentSuccess = payment.getProcessor().processPayment(payment.getAmount());
+            recordPaymentAttempt(getPaymentMethodName(payment.getProcessor()), paymentSuccess);
             return new PaymentResult(paymentSuccess, paymentSuccess ? payment.getPaymentID() : null);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Payment processing failed", e);
+            recordPaymentAttempt(getPaymentMethodName(payment.getProcessor()), false);
             return new PaymentResult(false, "Payment processing error: " + e.getMessage());
         }
     }
 
+    /**
+     * Append the attempt to payment_attempts, where the operations dashboard of whichever
+     * process keeps the pending-order board counts it.
+     */
+    private void recordPaymentAttempt(String method, boolean success) {
+        synchronized (paymentAttemptsLock) {
+            if (paymentAttempts == null) paymentAttempts = new PaymentAttemptDAO();
+            timed(() -> paymentAttempts.record(method, success));
+        }
+    }
+
     private String toPaymentMethodEnum(IPaymentProcessor p) {
         // Must match DB enum: ENUM('CASH','CREDIT_CARD','MOBILE_WALLET')
         if (p == null) return "CASH";
@@ -110,63 +289,143 @@ public class OrderProcessor {
         return "CASH";
     }
 
-    public void advanceStatus(int orderId, OrderStatus newStatus) {
-        Order order = orders.findById(orderId);
-        if (order == null) {
+    /**
+     * Advance an order by id. See {@link #advanceStatusByCode(String, OrderStatus)}.
+     */
+    public boolean advanceStatus(int orderId, OrderStatus newStatus) {
+        String orderCode = orders.findCodeById(orderId);
+        if (orderCode == null) {
             logger.log(Level.WARNING, "Order not found: " + orderId);
-            return;
+            return false;
         }
-        advanceStatusByCode(order.getCode(), newStatus);
+        return advanceStatusByCode(orderCode, newStatus);
     }
 
-    public void advanceStatusByCode(String orderCode, OrderStatus newStatus) {
-        Order order = ((DataBase.OrderDAO) orders).findByCode(orderCode);
-        if (order == null) {
-            logger.log(Level.WARNING, "Order not found: " + orderCode);
-            return;
+    /**
+     * Move an order one step along NEW -> PREPARING -> READY with a single conditional
+     * UPDATE. Order items are never loaded.
+     *
+     * @return true if this call performed the transition; false if the transition is not
+     *         allowed, the order does not exist, or it is no longer in the required status
+     */
+    public boolean advanceStatusByCode(String orderCode, OrderStatus newStatus) {
+        OrderStatus expected = newStatus != null ? newStatus.previous() : null;
+        if (orderCode == null || expected == null) {
+            logger.log(Level.WARNING, "Illegal status transition requested: " + orderCode + " -> " + newStatus);
+            return false;
         }
 
         try {
-            order.setStatus(newStatus);
-            orders.update(order);
+            if (!timed(() -> orders.compareAndSetStatus(orderCode, expected, newStatus))) {
+                logger.log(Level.INFO, "Status transition rejected (order missing or not " + expected + "): "
+                        + orderCode + " -> " + newStatus);
+                return false;
+            }
+
+            pendingBoard.statusChanged(orderCode, newStatus);
 
             // Update order status in history if service is available
             if (orderHistoryService != null) {
                 orderHistoryService.updateOrderStatus(orderCode, newStatus.toString());
             }
 
-            // Persist to per-student notification history if READY
-            if (newStatus == OrderStatus.READY && notificationHistoryService != null) {
-                Student student = findStudentByCode(order.getStudentCode());
-                if (student != null) {
-                    notificationHistoryService.sendOrderReadyNotification(student, orderCode);
-                }
+            // ORDER_STATUS row so the student sees the current state, plus ORDER_READY history on READY
+            String studentCode = orders.findStudentCode(orderCode);
+            recordStatusNotification(studentCode, orderCode, newStatus);
+
+            logger.log(Level.INFO, "Order status updated: " + orderCode + " -> " + newStatus);
+            return true;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to advance order status", e);
+            return false;
+        }
+    }
+
+    /**
+     * Move several orders to {@code newStatus} at once: one conditional set-based UPDATE,
+     * one order_history UPDATE and the status notifications queued as one batch.
+     * Orders that are missing or not in the required status are skipped.
+     *
+     * @return codes of the orders that were moved
+     */
+    public List<String> advanceStatusBulk(List<String> orderCodes, OrderStatus newStatus) {
+        OrderStatus expected = newStatus != null ? newStatus.previous() : null;
+        if (orderCodes == null || orderCodes.isEmpty() || expected == null) {
+            return new ArrayList<>();
+        }
+
+        try {
+            List<String> moved = timed(() -> orders.compareAndSetStatus(new ArrayList<>(new LinkedHashSet<>(orderCodes)), expected, newStatus));
+            if (moved.isEmpty()) {
+                logger.log(Level.INFO, "Bulk transition to " + newStatus + " moved no orders");
+                return moved;
             }
 
-            // Also record/update concise ORDER_STATUS notification in DB so student sees current state
-            try {
-                String concise = String.format("Order: %s | Status: %s", order.getCode(), order.getStatus());
-                notificationDAO.sendNotification(order.getStudentCode(), concise, "ORDER_STATUS");
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Failed to update DB notification for status change", e);
+            for (String code : moved) {
+                pendingBoard.statusChanged(code, newStatus);
             }
 
-            logger.log(Level.INFO, "Order status updated: " + orderCode + " -> " + newStatus);
+            if (orderHistoryService != null) {
+                orderHistoryService.updateOrderStatus(moved, newStatus.toString());
+            }
+
+            Map<String, String> studentByOrder = orders.findStudentCodes(moved);
+            for (Map.Entry<String, String> entry : studentByOrder.entrySet()) {
+                recordStatusNotification(entry.getValue(), entry.getKey(), newStatus);
+            }
+
+            logger.log(Level.INFO, "Bulk status update: " + moved.size() + " of " + orderCodes.size()
+                    + " order(s) -> " + newStatus);
+            return moved;
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to advance order status", e);
+            logger.log(Level.SEVERE, "Failed to advance order statuses in bulk", e);
+            return new ArrayList<>();
         }
     }
 
     public PaymentResult completeOrderWithLoyalty(String orderCode, Payment payment) {
-        Order order = ((DataBase.OrderDAO) orders).findByCode(orderCode);
+        return completeOrderWithLoyalty(orderCode, payment, null);
+    }
+
+    /**
+     * Idempotent variant: repeats with the same client request key return the first
+     * successful result. Independently of keys, an order is claimed for one payment before
+     * it is charged, so it can never be charged twice.
+     */
+    public PaymentResult completeOrderWithLoyalty(String orderCode, Payment payment, String requestKey) {
+        return requestCache.execute(requestKey != null ? "pay:" + orderCode + ":" + requestKey : null,
+                () -> completeOrder(orderCode, payment),
+                PaymentResult::isSuccess);
+    }
+
+    private PaymentResult completeOrder(String orderCode, Payment payment) {
+        Order order = orders.findByCode(orderCode);
         if (order == null) {
             logger.log(Level.WARNING, "Order not found for loyalty completion: " + orderCode);
             return new PaymentResult(false, "Order not found: " + orderCode);
         }
+        if (order.getPaymentTxId() != null) {
+            logger.info("Order " + orderCode + " already paid (" + order.getPaymentTxId() + ")");
+            return new PaymentResult(true, order.getPaymentTxId());
+        }
+        if (payment == null) {
+            return new PaymentResult(false, "Invalid payment");
+        }
+        if (!timed(() -> orders.claimPayment(orderCode, payment.getPaymentID()))) {
+            Order current = orders.findByCode(orderCode);
+            if (current != null && current.getPaymentTxId() != null) {
+                logger.info("Order " + orderCode + " was paid concurrently (" + current.getPaymentTxId() + ")");
+                return new PaymentResult(true, current.getPaymentTxId());
+            }
+            return new PaymentResult(false, "Payment could not be recorded for order " + orderCode);
+        }
 
         try {
             // Process payment
             PaymentResult result = handlePayment(payment);
+            if (!result.isSuccess()) {
+                orders.releasePaymentClaim(orderCode, payment.getPaymentID());
+            }
 
             if (result.isSuccess()) {
                 // Award loyalty points for successful payment
@@ -201,9 +460,186 @@ public class OrderProcessor {
         }
     }
 
+    /**
+     * Queue the student's status notifications on the write-behind buffer, or write them
+     * directly when no buffer is configured.
+     */
+    private void recordStatusNotification(String studentCode, String orderCode, OrderStatus status) {
+        if (studentCode == null) return;
+        if (statusNotifications != null) {
+            statusNotifications.enqueue(studentCode, orderCode, status);
+            return;
+        }
+
+        // Persist to per-student notification history if READY
+        if (status == OrderStatus.READY && notificationHistoryService != null) {
+            Student student = findStudentByCode(studentCode);
+            if (student != null) {
+                notificationHistoryService.sendOrderReadyNotification(student, orderCode);
+            }
+        }
+        try {
+            String concise = String.format("Order: %s | Status: %s", orderCode, status);
+            notificationDAO.sendNotification(studentCode, concise, "ORDER_STATUS");
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to record ORDER_STATUS notification", e);
+        }
+    }
+
     // Add missing method for OrderManagerConsole compatibility
     public List<Order> trackPendingOrders() {
-        return orders.findPending();
+        PendingOrderBoard board = getPendingOrderBoard();
+        return board.isStarted() ? board.snapshot() : orders.findPending();
+    }
+
+    /**
+     * Keep the pending-order board in this process. The board costs a seed query and two
+     * background pollers, so only processes that watch the whole queue (the admin
+     * application, the API server) enable it; elsewhere it is never started and pickup
+     * estimates come from a periodic queue read instead.
+     */
+    public void enablePendingOrderBoard() {
+        boardEnabled = true;
+    }
+
+    /**
+     * Live NEW / PREPARING orders kept in memory. Seeded from the database on first use
+     * once {@link #enablePendingOrderBoard() enabled}; until then it stays empty and stopped.
+     */
+    public PendingOrderBoard getPendingOrderBoard() {
+        if (!boardEnabled) return pendingBoard;
+        synchronized (pendingBoard) {
+            if (!pendingBoard.isStarted()) {
+                pendingBoard.start();
+                if (pendingBoard.isStarted()) {
+                    kitchenAggregation.attach(pendingBoard);
+                    operationsMetrics.attach(pendingBoard);
+                    // Kiosks without the board estimate from the rates learned here
+                    etaEstimator.publishTo(new PrepRateDAO());
+                    etaEstimator.attach(pendingBoard);
+                    statusFeed.attach(pendingBoard);
+                }
+            }
+        }
+        return pendingBoard;
+    }
+
+    /**
+     * Quantities per menu item across all NEW / PREPARING orders, largest first.
+     * Maintained incrementally from the pending-order board.
+     */
+    public List<KitchenItemTotal> getKitchenTotals() {
+        getPendingOrderBoard();
+        return kitchenAggregation.getTotals();
+    }
+
+    /**
+     * The order with this code, with its items, or null if there is none.
+     */
+    public Order findOrder(String orderCode) {
+        if (orderCode == null) return null;
+        return timed(() -> orders.findByCode(orderCode));
+    }
+
+    /**
+     * Estimated pickup time of a NEW / PREPARING order, or null if it is not pending.
+     * Moves with the queue, so calling it again later gives an updated estimate.
+     */
+    public PickupEta estimateReadyTime(String orderCode) {
+        if (orderCode == null) return null;
+        if (boardEnabled) {
+            getPendingOrderBoard();
+            return etaEstimator.estimate(orderCode);
+        }
+        return etaEstimator.estimate(orderCode, readQueue());
+    }
+
+    /**
+     * Estimated pickup time of an order just placed. Without the board the shared queue
+     * read is used as it is: if it predates the order, the order counts as the last in it.
+     */
+    private PickupEta estimatePlacedOrder(Order order) {
+        if (boardEnabled) return estimateReadyTime(order.getCode());
+        return etaEstimator.estimate(order, readQueue());
+    }
+
+    /**
+     * NEW / PREPARING orders for estimates without the board, re-read when older than
+     * {@link #QUEUE_READ_SECONDS}. The learned prep rates are refreshed along with it.
+     */
+    private List<Order> readQueue() {
+        synchronized (queueReadLock) {
+            long now = System.currentTimeMillis();
+            if (now - prepRatesReadAt > TimeUnit.SECONDS.toMillis(PREP_RATES_READ_SECONDS)) {
+                if (prepRates == null) prepRates = new PrepRateDAO();
+                etaEstimator.useRates(prepRates.findAll());
+                prepRatesReadAt = now;
+            }
+            if (queueRead == null || now - queueReadAt > TimeUnit.SECONDS.toMillis(QUEUE_READ_SECONDS)) {
+                List<Order> pending = new ArrayList<>(timed(orders::findPending));
+                pending.sort(Comparator.comparingInt(Order::getId));
+                queueRead = pending;
+                queueReadAt = now;
+            }
+            return queueRead;
+        }
+    }
+
+    public EtaEstimator getEtaEstimator() {
+        return etaEstimator;
+    }
+
+    /**
+     * Push feed of status transitions for live clients. Starts the pending-order board
+     * if needed, so the first call may query the database.
+     */
+    public OrderStatusFeed getOrderStatusFeed() {
+        getPendingOrderBoard();
+        return statusFeed;
+    }
+
+    /**
+     * Live counters for the operations dashboard; order and queue figures follow the
+     * pending-order board once it is started (see {@link #operationsSnapshot()}).
+     */
+    public OperationsMetrics getOperationsMetrics() {
+        return operationsMetrics;
+    }
+
+    /**
+     * Current operations figures. Starts the pending-order board if needed, so the first
+     * call may query the database.
+     */
+    public OperationsSnapshot operationsSnapshot() {
+        getPendingOrderBoard();
+        AdmissionController current = admission;
+        return operationsMetrics.snapshot(current != null ? current.metrics() : null);
+    }
+
+    /**
+     * Run a repository call, recording its latency in the operations metrics.
+     */
+    private <T> T timed(Supplier<T> call) {
+        long started = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            operationsMetrics.dbCall(System.nanoTime() - started);
+        }
+    }
+
+    private void timed(Runnable call) {
+        timed(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stop background work owned by the processor.
+     */
+    public void shutdown() {
+        pendingBoard.shutdown();
     }
 
     // Helper method to get payment method name for history
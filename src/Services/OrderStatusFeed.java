@@ -0,0 +1,253 @@
+package Services;
+
+import Core.Order;
+import Enums.OrderStatus;
+import Interfaces.IPendingOrderListener;
+import Values.OrderStatusEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Order status transitions as a push feed for live clients (phones, the pickup display),
+ * built from the pending-order board's change feed: NEW when an order appears, PREPARING
+ * when it moves on, READY when it leaves the board. Transitions made in this process are
+ * published as they happen; those made by other processes as soon as the board's poll
+ * sees them.
+ *
+ * Events get increasing ids ("epoch:sequence"; the epoch changes with every process) and
+ * the last {@link #DEFAULT_HISTORY} are kept, so a client reconnecting with the id of the
+ * last event it saw is replayed what it missed. A new client, or one whose id the feed
+ * no longer has (too old, or from before a restart), gets a snapshot instead: every order
+ * still NEW or PREPARING (seeded from the board when the feed is attached, so orders
+ * pending before this process started are included) and the orders made READY in the
+ * last {@link #RECENT_READY_MINUTES} minutes. The client replaces its state with it.
+ *
+ * Each subscription buffers at most its capacity of undelivered events. A subscriber that
+ * falls further behind is dropped rather than let the buffer grow; it reconnects with its
+ * last id and catches up from the history.
+ */
+public class OrderStatusFeed implements IPendingOrderListener {
+    private static final Logger logger = Logger.getLogger(OrderStatusFeed.class.getName());
+    private static final int DEFAULT_HISTORY = 1024;
+    private static final int RECENT_READY_MINUTES = 15;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int historySize;
+    private final ArrayDeque<OrderStatusEvent> history = new ArrayDeque<>();
+    // Latest event of every NEW / PREPARING order, in the order they became pending
+    private final Map<String, OrderStatusEvent> pending = new LinkedHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long nextSequence = 1;
+
+    /** A live view of the feed; read it from one thread and close it when the client leaves. */
+    public final class Subscription implements AutoCloseable {
+        private final Predicate<OrderStatusEvent> filter;
+        private final ArrayBlockingQueue<OrderStatusEvent> buffer;
+        private final List<OrderStatusEvent> replay;
+        private final List<OrderStatusEvent> snapshot;
+        private final String snapshotId;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        private Subscription(Predicate<OrderStatusEvent> filter, int capacity, List<OrderStatusEvent> replay,
+                             List<OrderStatusEvent> snapshot, String snapshotId) {
+            this.filter = filter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.replay = replay;
+            this.snapshot = snapshot;
+            this.snapshotId = snapshotId;
+        }
+
+        /**
+         * Events a resuming client missed, oldest first; empty when it gets a snapshot.
+         */
+        public List<OrderStatusEvent> getReplay() {
+            return replay;
+        }
+
+        /**
+         * For a new or reset client, the latest event of each order it should show (recently
+         * READY orders first, then the pending ones); null for a client that resumed.
+         */
+        public List<OrderStatusEvent> getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Id of the last event the snapshot includes, for the client to resume after.
+         */
+        public String getSnapshotId() {
+            return snapshotId;
+        }
+
+        /**
+         * The next event, or null if none arrived within the timeout or the subscription ended.
+         */
+        public OrderStatusEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+            if (closed) return buffer.poll();
+            return buffer.poll(timeout, unit);
+        }
+
+        /**
+         * True once the subscriber fell too far behind and was dropped.
+         */
+        public boolean isOverflowed() {
+            return overflowed;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Called with the feed locked, so events reach every subscriber in one order.
+         */
+        private void offer(OrderStatusEvent event) {
+            if (closed || !filter.test(event)) return;
+            if (!buffer.offer(event)) {
+                overflowed = true;
+                close();
+                logger.info("Dropped a status subscriber " + buffer.size() + " events behind");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+
+    public OrderStatusFeed() {
+        this(DEFAULT_HISTORY);
+    }
+
+    public OrderStatusFeed(int historySize) {
+        this.historySize = Math.max(1, historySize);
+    }
+
+    /**
+     * Follow the board's changes, starting from the orders already on it.
+     */
+    public void attach(PendingOrderBoard board) {
+        board.addListener(this, this::seed);
+    }
+
+    private synchronized void seed(List<Order> orders) {
+        for (Order order : orders) {
+            LocalDateTime at = order.getStatus() == OrderStatus.PREPARING ? order.getPreparingAt() : order.getCreatedAt();
+            // Not a transition, so it takes no sequence; it only appears in snapshots
+            pending.put(order.getCode(), new OrderStatusEvent(epoch + ":0", 0, order.getCode(), order.getStudentCode(),
+                    order.getStatus(), at != null ? at : LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Subscribe to the events matching the filter.
+     *
+     * @param lastEventId id of the last event the client saw, or null for a new client
+     * @param capacity    undelivered events buffered before the subscriber is dropped
+     */
+    public synchronized Subscription subscribe(Predicate<OrderStatusEvent> filter, String lastEventId, int capacity) {
+        long after = resumePoint(lastEventId);
+        List<OrderStatusEvent> replay = new ArrayList<>();
+        List<OrderStatusEvent> snapshot = null;
+        if (after >= 0) {
+            for (OrderStatusEvent event : history) {
+                if (event.getSequence() > after && filter.test(event)) replay.add(event);
+            }
+        } else {
+            snapshot = new ArrayList<>();
+            LocalDateTime readySince = LocalDateTime.now().minusMinutes(RECENT_READY_MINUTES);
+            for (OrderStatusEvent event : history) {
+                if (event.getStatus() == OrderStatus.READY && !event.getAt().isBefore(readySince)
+                        && filter.test(event)) {
+                    snapshot.add(event);
+                }
+            }
+            for (OrderStatusEvent event : pending.values()) {
+                if (filter.test(event)) snapshot.add(event);
+            }
+            snapshot = List.copyOf(snapshot);
+        }
+        Subscription subscription = new Subscription(filter, Math.max(1, capacity), List.copyOf(replay),
+                snapshot, latestId());
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Id of the latest event, for clients that only want what happens from now on.
+     */
+    public synchronized String latestId() {
+        OrderStatusEvent last = history.peekLast();
+        return last != null ? last.getId() : epoch + ":0";
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        publish(order, OrderStatus.NEW);
+    }
+
+    @Override
+    public void orderUpdated(Order order) {
+        publish(order, order.getStatus());
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        publish(order, OrderStatus.READY);
+    }
+
+    private synchronized void publish(Order order, OrderStatus status) {
+        long sequence = nextSequence++;
+        OrderStatusEvent event = new OrderStatusEvent(epoch + ":" + sequence, sequence,
+                order.getCode(), order.getStudentCode(), status, LocalDateTime.now());
+        history.addLast(event);
+        if (status == OrderStatus.READY) {
+            pending.remove(event.getOrderCode());
+        } else {
+            pending.put(event.getOrderCode(), event);
+        }
+        while (history.size() > historySize) {
+            history.removeFirst();
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Sequence number to replay after, or -1 if the id is missing or no longer in the history.
+     */
+    private long resumePoint(String lastEventId) {
+        if (lastEventId == null) return -1;
+        int colon = lastEventId.indexOf(':');
+        if (colon < 0 || !lastEventId.substring(0, colon).equals(epoch)) return -1;
+        long sequence;
+        try {
+            sequence = Long.parseLong(lastEventId.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (sequence >= nextSequence) return -1;
+        OrderStatusEvent oldest = history.peekFirst();
+        long oldestSequence = oldest != null ? oldest.getSequence() : nextSequence;
+        // Everything after the client's event must still be here
+        return sequence >= oldestSequence - 1 ? sequence : -1;
+    }
+}
@@ -0,0 +1,266 @@
+package Services;
+
+import Core.NotificationHistory;
+import Core.Student;
+import DataBase.NotificationDAO;
+import DataBase.NotificationHistoryDAO;
+import DataBase.StudentDAO;
+import Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind buffer for order status notifications.
+ * Status changes are queued per (student, order) and coalesced: within the flush window
+ * only the latest status of an order is kept, and since the notifications table holds a
+ * single ORDER_STATUS row per student only that student's most recent change is upserted.
+ * A flush writes everything queued as one upsert batch plus one notification_history batch
+ * for orders that reached READY. The window starts with the first queued change; a full
+ * buffer flushes early. {@link #close()} (and, once {@link #start()} has registered it, a
+ * JVM shutdown hook as a backstop) flushes whatever is still queued.
+ *
+ * The buffer owns its DAOs and therefore its own JDBC connections, so flushes never
+ * share a connection with request threads.
+ */
+public class OrderStatusNotificationBuffer {
+    private static final Logger logger = Logger.getLogger(OrderStatusNotificationBuffer.class.getName());
+    private static final long DEFAULT_WINDOW_MS = 500;
+    private static final int MAX_PENDING = 256;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NotificationDAO notificationDAO;
+    private final NotificationHistoryDAO historyDAO;
+    private final StudentDAO studentDAO;
+    private final long windowMs;
+    private final ScheduledExecutorService flusher;
+    private Thread shutdownHook;
+
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private LinkedHashMap<String, PendingStatus> pending = new LinkedHashMap<>();
+    private long sequence;
+    private volatile boolean closed;
+
+    private static final class PendingStatus {
+        final String studentCode;
+        final String orderCode;
+        OrderStatus status;
+        boolean ready;
+        boolean statusPending = true;
+        long updatedSeq;
+        int attempts;
+
+        PendingStatus(String studentCode, String orderCode) {
+            this.studentCode = studentCode;
+            this.orderCode = orderCode;
+        }
+    }
+
+    public OrderStatusNotificationBuffer() {
+        this(new NotificationDAO(), new NotificationHistoryDAO(), new StudentDAO(), DEFAULT_WINDOW_MS);
+    }
+
+    public OrderStatusNotificationBuffer(NotificationDAO notificationDAO, NotificationHistoryDAO historyDAO,
+                                         StudentDAO studentDAO, long windowMs) {
+        this.notificationDAO = notificationDAO;
+        this.historyDAO = historyDAO;
+        this.studentDAO = studentDAO;
+        this.windowMs = windowMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-status-notification-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Register the JVM shutdown hook that flushes what is still queued if the process exits
+     * without {@link #close()}. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (shutdownHook != null || closed) return;
+        shutdownHook = new Thread(this::flush, "order-status-notification-final-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queue a status notification. READY also queues the per-student history entry.
+     * After {@link #close()} the notification is written through immediately.
+     */
+    public void enqueue(String studentCode, String orderCode, OrderStatus status) {
+        if (studentCode == null || orderCode == null || status == null) return;
+
+        boolean scheduleFlush;
+        boolean flushNow;
+        synchronized (lock) {
+            scheduleFlush = pending.isEmpty();
+            String key = studentCode + '|' + orderCode;
+            PendingStatus entry = pending.computeIfAbsent(key, k -> new PendingStatus(studentCode, orderCode));
+            entry.status = status;
+            entry.ready |= status == OrderStatus.READY;
+            entry.statusPending = true;
+            entry.updatedSeq = ++sequence;
+            flushNow = pending.size() >= MAX_PENDING;
+        }
+
+        if (closed) {
+            flush();
+        } else if (flushNow) {
+            submit(0);
+        } else if (scheduleFlush) {
+            submit(windowMs);
+        }
+    }
+
+    private void submit(long delayMs) {
+        try {
+            flusher.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently; write through instead
+            flush();
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Write everything queued so far. Safe to call from any thread.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<PendingStatus> drained;
+            synchronized (lock) {
+                if (pending.isEmpty()) return;
+                drained = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+            write(drained);
+        }
+    }
+
+    private void write(List<PendingStatus> entries) {
+        // Latest change per student becomes that student's ORDER_STATUS row
+        Map<String, PendingStatus> latestByStudent = new HashMap<>();
+        for (PendingStatus entry : entries) {
+            if (!entry.statusPending) continue;
+            latestByStudent.merge(entry.studentCode, entry,
+                    (a, b) -> a.updatedSeq >= b.updatedSeq ? a : b);
+        }
+        Map<String, String> messageByStudent = new LinkedHashMap<>();
+        for (PendingStatus entry : latestByStudent.values()) {
+            messageByStudent.put(entry.studentCode,
+                    String.format("Order: %s | Status: %s", entry.orderCode, entry.status));
+        }
+
+        List<PendingStatus> readyEntries = new ArrayList<>();
+        List<NotificationHistory> readyNotices = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        for (PendingStatus entry : entries) {
+            if (!entry.ready) continue;
+            String name = names.computeIfAbsent(entry.studentCode, this::studentName);
+            readyEntries.add(entry);
+            readyNotices.add(new NotificationHistory(name, entry.studentCode,
+                    NotificationHistoryService.orderReadyMessage(entry.orderCode), "ORDER_READY",
+                    LocalDateTime.now(), false));
+        }
+
+        boolean statusWritten = messageByStudent.isEmpty()
+                || notificationDAO.sendNotificationBatch(messageByStudent, "ORDER_STATUS");
+        boolean historyWritten = historyDAO.saveNotificationHistoryBatch(readyNotices);
+        logger.fine("Flushed " + entries.size() + " order status change(s) as " + messageByStudent.size()
+                + " notification(s) and " + readyNotices.size() + " history row(s)");
+
+        if (historyWritten) {
+            // Never insert the same READY history row twice if the status batch is retried
+            for (PendingStatus entry : readyEntries) entry.ready = false;
+        }
+        if (!statusWritten) {
+            requeue(entries, false);
+        } else if (!historyWritten) {
+            requeue(readyEntries, true);
+        }
+    }
+
+    private String studentName(String studentCode) {
+        try {
+            Student student = studentDAO.FindByCode(studentCode);
+            if (student != null) return student.getName();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Could not find student: " + studentCode, e);
+        }
+        return studentCode;
+    }
+
+    /**
+     * Put failed entries back so the next flush retries them. Newer changes queued
+     * meanwhile win over the failed ones.
+     */
+    private void requeue(List<PendingStatus> failed, boolean historyOnly) {
+        boolean scheduleFlush;
+        synchronized (lock) {
+            scheduleFlush = pending.isEmpty();
+            for (PendingStatus entry : failed) {
+                if (!entry.statusPending && !entry.ready) continue;
+                if (++entry.attempts >= MAX_ATTEMPTS) {
+                    logger.severe("Dropping order status notification after " + MAX_ATTEMPTS
+                            + " failed attempts: " + entry.orderCode + " -> " + entry.status);
+                    continue;
+                }
+                String key = entry.studentCode + '|' + entry.orderCode;
+                PendingStatus newer = pending.get(key);
+                if (newer == null) {
+                    entry.statusPending &= !historyOnly;
+                    pending.put(key, entry);
+                } else {
+                    newer.ready |= entry.ready;
+                }
+            }
+            scheduleFlush &= !pending.isEmpty();
+        }
+        logger.warning("Order status notification flush failed; " + failed.size() + " change(s) requeued"
+                + (historyOnly ? " for history" : ""));
+        if (scheduleFlush && !closed) {
+            submit(windowMs);
+        }
+    }
+
+    /**
+     * Stop the background flusher and write whatever is still queued.
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        Thread hook;
+        synchronized (this) {
+            hook = shutdownHook;
+        }
+        if (hook == null) return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException ignored) {
+            // JVM already shutting down; the hook will run and find nothing to flush
+        }
+    }
+}
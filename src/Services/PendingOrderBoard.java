@@ -0,0 +1,359 @@
+package Services;
+
+import Core.Order;
+import DataBase.OrderDAO;
+import Enums.OrderStatus;
+import Interfaces.IPendingOrderListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of NEW / PREPARING orders with a change feed.
+ * OrderProcessor updates the board when orders are placed or advanced, so views read
+ * {@link #snapshot()} and apply added / updated / removed events instead of querying.
+ *
+ * The board is seeded from the database the first time it is used. Orders placed or
+ * advanced by other processes (the student app, another admin) are picked up by a
+ * background poller on its own connection: cheap "id greater than last seen" queries
+ * for new orders and for the order_status_events table that status changes append to,
+ * and a periodic status sweep over the (status, code) index. The sweep is only a
+ * backstop (e.g. for changes made straight in the database) while the events table is
+ * there, so it then runs less often.
+ * Events carry copies, so listeners never share mutable orders with the board. Each
+ * change and its events happen under one lock, so a listener that seeds itself through
+ * {@link #addListener(IPendingOrderListener, Consumer)} sees every order exactly once.
+ */
+public class PendingOrderBoard {
+    private static final Logger logger = Logger.getLogger(PendingOrderBoard.class.getName());
+    private static final long NEW_ORDER_POLL_SECONDS = 2;
+    private static final long STATUS_SWEEP_SECONDS = 10;
+    private static final long BACKSTOP_SWEEP_SECONDS = 60;
+    private static final int STATUS_EVENT_BATCH = 500;
+    private static final long STATUS_EVENT_RETENTION_HOURS = 24;
+    private static final long STATUS_EVENT_PRUNE_MINUTES = 60;
+
+    private final ConcurrentHashMap<String, Entry> pending = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final List<IPendingOrderListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pollTasks = new CopyOnWriteArrayList<>();
+    // Held while an order changes and its events fire, and while a listener seeds itself
+    private final Object changeLock = new Object();
+    private OrderDAO pollDAO;
+    private ScheduledExecutorService poller;
+    private volatile boolean started;
+    private volatile int lastPolledId;
+    // Last order_status_events id applied, or -1 without the table
+    private volatile long lastEventId = -1;
+    private volatile LongConsumer queryTimer;
+
+    /** Board entry stamped with the version of its last change, so stale polls never undo newer local changes. */
+    private static final class Entry {
+        final Order order;
+        final long version;
+
+        Entry(Order order, long version) {
+            this.order = order;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Seed the board and start polling for changes made by other processes. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (started) return;
+        try {
+            pollDAO = new OrderDAO();
+            // Read the high-water marks first so changes made during seeding are polled, not missed
+            lastPolledId = pollDAO.findMaxId();
+            lastEventId = pollDAO.findMaxStatusEventId();
+            List<Order> seed = pollDAO.findPending();
+            synchronized (changeLock) {
+                for (Order order : seed) {
+                    pending.put(order.getCode(), new Entry(order, version.incrementAndGet()));
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to seed pending order board", e);
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pending-order-board");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::pollNewOrders, NEW_ORDER_POLL_SECONDS, NEW_ORDER_POLL_SECONDS, TimeUnit.SECONDS);
+        long sweepSeconds = lastEventId >= 0 ? BACKSTOP_SWEEP_SECONDS : STATUS_SWEEP_SECONDS;
+        poller.scheduleWithFixedDelay(this::sweepStatuses, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+        if (lastEventId >= 0) {
+            poller.scheduleWithFixedDelay(this::pruneStatusEvents, 1, STATUS_EVENT_PRUNE_MINUTES, TimeUnit.MINUTES);
+        }
+        started = true;
+        logger.info("Pending order board seeded with " + pending.size() + " order(s)");
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        started = false;
+    }
+
+    public void addListener(IPendingOrderListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    /**
+     * Register a listener and hand it the current pending orders in one step: no change
+     * can land between the snapshot and the first event, so nothing is missed or applied
+     * twice. {@code seed} runs under the board's lock and must not block.
+     */
+    public void addListener(IPendingOrderListener listener, Consumer<List<Order>> seed) {
+        if (listener == null) return;
+        synchronized (changeLock) {
+            seed.accept(snapshot());
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(IPendingOrderListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Run a task on the board's poller after each new-order poll, e.g. to tail another
+     * shared table on the same schedule. Tasks use their own connection.
+     */
+    public void addPollTask(Runnable task) {
+        if (task != null) pollTasks.add(task);
+    }
+
+    /**
+     * Report how long each poll query takes (in nanoseconds), e.g. to the operations metrics.
+     */
+    public void setQueryTimer(LongConsumer queryTimer) {
+        this.queryTimer = queryTimer;
+    }
+
+    /**
+     * Copies of the pending orders, oldest first.
+     */
+    public List<Order> snapshot() {
+        List<Order> orders = new ArrayList<>();
+        for (Entry entry : pending.values()) {
+            orders.add(copy(entry.order));
+        }
+        orders.sort(Comparator.comparingInt(Order::getId));
+        return orders;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Record a newly placed order.
+     */
+    public void orderPlaced(Order order) {
+        if (!started || order == null || order.getCode() == null) return;
+        if (order.getStatus() == OrderStatus.READY) return;
+        add(copy(order));
+    }
+
+    private void add(Order order) {
+        synchronized (changeLock) {
+            if (pending.putIfAbsent(order.getCode(), new Entry(order, version.incrementAndGet())) == null) {
+                fireAdded(order);
+            }
+        }
+    }
+
+    /**
+     * Record a status change. READY orders leave the board.
+     */
+    public void statusChanged(String orderCode, OrderStatus newStatus) {
+        if (!started || orderCode == null || newStatus == null) return;
+        applyStatus(orderCode, newStatus, Long.MAX_VALUE);
+    }
+
+    /**
+     * Apply a status unless the entry changed after {@code observedVersion}.
+     */
+    private void applyStatus(String orderCode, OrderStatus newStatus, long observedVersion) {
+        synchronized (changeLock) {
+            Order[] removed = new Order[1];
+            Order[] updated = new Order[1];
+            pending.computeIfPresent(orderCode, (code, current) -> {
+                if (current.version > observedVersion || current.order.getStatus() == newStatus) return current;
+                if (newStatus == OrderStatus.READY) {
+                    removed[0] = current.order;
+                    return null;
+                }
+                Order next = copy(current.order);
+                next.setStatus(newStatus);
+                if (newStatus == OrderStatus.PREPARING && next.getPreparingAt() == null) {
+                    next.setPreparingAt(LocalDateTime.now());
+                }
+                updated[0] = next;
+                return new Entry(next, version.incrementAndGet());
+            });
+            if (removed[0] != null) fireRemoved(removed[0]);
+            if (updated[0] != null) fireUpdated(updated[0]);
+        }
+    }
+
+    /**
+     * Run both polls now, e.g. for an explicit refresh.
+     */
+    public void refreshNow() {
+        if (!started) return;
+        ScheduledExecutorService executor = poller;
+        if (executor != null) {
+            executor.execute(this::pollNewOrders);
+            executor.execute(this::sweepStatuses);
+        }
+    }
+
+    private void timed(long startedNanos) {
+        LongConsumer timer = queryTimer;
+        if (timer != null) timer.accept(System.nanoTime() - startedNanos);
+    }
+
+    private void pollNewOrders() {
+        try {
+            long started = System.nanoTime();
+            List<Order> fresh = pollDAO.findPendingAfterId(lastPolledId);
+            timed(started);
+            for (Order order : fresh) {
+                lastPolledId = Math.max(lastPolledId, order.getId());
+                add(order);
+            }
+            if (lastEventId >= 0) applyStatusEvents();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Pending order poll failed", e);
+        }
+        for (Runnable task : pollTasks) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Pending order board poll task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Apply the transitions other processes recorded since the last poll. Statuses only
+     * move forward and READY orders leave the board, so an event for a change this board
+     * already made is a no-op.
+     */
+    private void applyStatusEvents() {
+        while (true) {
+            long started = System.nanoTime();
+            List<OrderDAO.StatusEvent> events = pollDAO.findStatusEventsAfter(lastEventId, STATUS_EVENT_BATCH);
+            timed(started);
+            for (OrderDAO.StatusEvent event : events) {
+                lastEventId = Math.max(lastEventId, event.id);
+                applyStatus(event.orderCode, event.status, Long.MAX_VALUE);
+            }
+            if (events.size() < STATUS_EVENT_BATCH) return;
+        }
+    }
+
+    private void pruneStatusEvents() {
+        try {
+            int deleted = pollDAO.deleteStatusEventsBefore(LocalDateTime.now().minusHours(STATUS_EVENT_RETENTION_HOURS));
+            if (deleted > 0) logger.info("Deleted " + deleted + " old order status event(s)");
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Order status event cleanup failed", e);
+        }
+    }
+
+    private void sweepStatuses() {
+        try {
+            long observed = version.get();
+            long started = System.nanoTime();
+            Map<String, OrderStatus> statuses = pollDAO.findPendingStatuses();
+            timed(started);
+            if (statuses == null) return;
+
+            for (String code : new ArrayList<>(pending.keySet())) {
+                OrderStatus status = statuses.get(code);
+                // Gone from NEW / PREPARING means another process moved it to READY
+                applyStatus(code, status != null ? status : OrderStatus.READY, observed);
+            }
+            List<String> missing = new ArrayList<>();
+            for (String code : statuses.keySet()) {
+                if (!pending.containsKey(code)) missing.add(code);
+            }
+            if (!missing.isEmpty()) {
+                for (Order order : pollDAO.findByCodes(missing)) {
+                    if (order.getStatus() != OrderStatus.READY) add(order);
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Pending order status sweep failed", e);
+        }
+    }
+
+    private void fireAdded(Order order) {
+        for (IPendingOrderListener listener : listeners) {
+            try {
+                listener.orderAdded(copy(order));
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Pending order listener failed", e);
+            }
+        }
+    }
+
+    private void fireUpdated(Order order) {
+        for (IPendingOrderListener listener : listeners) {
+            try {
+                listener.orderUpdated(copy(order));
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Pending order listener failed", e);
+            }
+        }
+    }
+
+    private void fireRemoved(Order order) {
+        for (IPendingOrderListener listener : listeners) {
+            try {
+                listener.orderRemoved(copy(order));
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Pending order listener failed", e);
+            }
+        }
+    }
+
+    private static Order copy(Order order) {
+        Order copy = new Order(order.getStudentCode());
+        copy.setId(order.getId());
+        copy.setCode(order.getCode());
+        copy.setStatus(order.getStatus());
+        copy.setItems(order.getItems());
+        copy.setCreatedAt(order.getCreatedAt());
+        copy.setPreparingAt(order.getPreparingAt());
+        copy.setReadyAt(order.getReadyAt());
+        copy.setPickupSlot(order.getPickupSlot());
+        return copy;
+    }
+}
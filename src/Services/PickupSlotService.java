@@ -0,0 +1,265 @@
+package Services;
+
+import Core.MenuItem;
+import DataBase.PickupSlotDAO;
+import Enums.Category;
+import Values.PickupSlot;
+import Values.SlotReservation;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pre-orders for a chosen pickup slot, with a capacity per slot for orders and for items
+ * of each category. This spreads the lunch rush across the hour instead of everyone
+ * ordering "now".
+ *
+ * Each slot has in-memory counters updated with compare-and-set, so a full slot is
+ * rejected without a database round trip and concurrent bookings in this process never
+ * block each other. The slot tables are the authority across processes: a booking that
+ * passes the in-memory check is confirmed with conditional UPDATEs, and if another
+ * process took the last place the local counters are rolled back and reloaded.
+ */
+public class PickupSlotService {
+    private static final Logger logger = Logger.getLogger(PickupSlotService.class.getName());
+    private static final int DEFAULT_SLOT_MINUTES = 15;
+    private static final int DEFAULT_SLOTS_AHEAD = 8;
+    private static final int DEFAULT_LEAD_MINUTES = 10;
+    private static final int DEFAULT_ORDER_CAPACITY = 20;
+    private static final int DEFAULT_ITEM_CAPACITY = 40;
+
+    private final PickupSlotDAO dao;
+    private final Map<LocalDateTime, SlotCounters> counters = new ConcurrentHashMap<>();
+    private final Map<Category, Integer> itemCapacity = new EnumMap<>(Category.class);
+    private volatile int slotMinutes = DEFAULT_SLOT_MINUTES;
+    private volatile int slotsAhead = DEFAULT_SLOTS_AHEAD;
+    private volatile int leadMinutes = DEFAULT_LEAD_MINUTES;
+    private volatile int orderCapacity = DEFAULT_ORDER_CAPACITY;
+
+    /** Lock-free booked counters of one slot; capacities are replaced wholesale on reload. */
+    private static final class SlotCounters {
+        final AtomicInteger ordersBooked = new AtomicInteger();
+        final Map<Category, AtomicInteger> itemsBooked = new EnumMap<>(Category.class);
+        volatile int orderCapacity;
+        volatile Map<Category, Integer> itemCapacity = new EnumMap<>(Category.class);
+
+        SlotCounters() {
+            for (Category category : Category.values()) {
+                itemsBooked.put(category, new AtomicInteger());
+            }
+        }
+
+        void load(PickupSlotDAO.SlotRow row) {
+            orderCapacity = row.orderCapacity;
+            itemCapacity = new EnumMap<>(row.itemCapacity);
+            ordersBooked.set(row.ordersBooked);
+            for (Category category : Category.values()) {
+                itemsBooked.get(category).set(row.itemsBooked.getOrDefault(category, 0));
+            }
+        }
+
+        boolean tryReserve(Map<Category, Integer> items) {
+            if (!tryAdd(ordersBooked, 1, orderCapacity)) return false;
+            List<Category> taken = new ArrayList<>();
+            for (Map.Entry<Category, Integer> entry : items.entrySet()) {
+                Integer capacity = itemCapacity.get(entry.getKey());
+                if (capacity == null) continue;
+                if (!tryAdd(itemsBooked.get(entry.getKey()), entry.getValue(), capacity)) {
+                    for (Category category : taken) {
+                        itemsBooked.get(category).addAndGet(-items.get(category));
+                    }
+                    ordersBooked.decrementAndGet();
+                    return false;
+                }
+                taken.add(entry.getKey());
+            }
+            return true;
+        }
+
+        void release(Map<Category, Integer> items) {
+            ordersBooked.updateAndGet(v -> Math.max(0, v - 1));
+            for (Map.Entry<Category, Integer> entry : items.entrySet()) {
+                if (itemCapacity.containsKey(entry.getKey())) {
+                    itemsBooked.get(entry.getKey()).updateAndGet(v -> Math.max(0, v - entry.getValue()));
+                }
+            }
+        }
+
+        PickupSlot toSlot(LocalDateTime start, int slotMinutes) {
+            Map<Category, Integer> remaining = new EnumMap<>(Category.class);
+            for (Map.Entry<Category, Integer> entry : itemCapacity.entrySet()) {
+                remaining.put(entry.getKey(), Math.max(0, entry.getValue() - itemsBooked.get(entry.getKey()).get()));
+            }
+            return new PickupSlot(start, start.plusMinutes(slotMinutes), orderCapacity, ordersBooked.get(), remaining);
+        }
+
+        private static boolean tryAdd(AtomicInteger counter, int amount, int capacity) {
+            while (true) {
+                int current = counter.get();
+                if (current + amount > capacity) return false;
+                if (counter.compareAndSet(current, current + amount)) return true;
+            }
+        }
+    }
+
+    public PickupSlotService() {
+        this(new PickupSlotDAO());
+    }
+
+    public PickupSlotService(PickupSlotDAO dao) {
+        this.dao = dao;
+        for (Category category : Category.values()) {
+            itemCapacity.put(category, DEFAULT_ITEM_CAPACITY);
+        }
+    }
+
+    public void setSlotMinutes(int minutes) {
+        this.slotMinutes = Math.max(5, minutes);
+    }
+
+    public void setSlotsAhead(int slots) {
+        this.slotsAhead = Math.max(1, slots);
+    }
+
+    /**
+     * Minimum time between ordering and the start of the earliest slot offered.
+     */
+    public void setLeadMinutes(int minutes) {
+        this.leadMinutes = Math.max(0, minutes);
+    }
+
+    /**
+     * Default capacities for slots created from now on; existing slots keep theirs.
+     */
+    public void setOrderCapacity(int capacity) {
+        this.orderCapacity = Math.max(1, capacity);
+    }
+
+    public synchronized void setItemCapacity(Category category, int capacity) {
+        itemCapacity.put(category, Math.max(0, capacity));
+    }
+
+    /**
+     * Items per category of a cart, for {@link #reserve} and {@link PickupSlot#canFit}.
+     */
+    public static Map<Category, Integer> itemsByCategory(Map<MenuItem, Integer> quantities) {
+        Map<Category, Integer> items = new EnumMap<>(Category.class);
+        for (Map.Entry<MenuItem, Integer> entry : quantities.entrySet()) {
+            if (entry.getKey().getCategory() != null && entry.getValue() > 0) {
+                items.merge(entry.getKey().getCategory(), entry.getValue(), Integer::sum);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * The next slots from now (after the lead time), creating them if needed and refreshing
+     * the local counters from the slot tables. Full slots are included.
+     */
+    public List<PickupSlot> upcomingSlots() {
+        LocalDateTime first = firstSlotStart(LocalDateTime.now());
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (int i = 0; i < slotsAhead; i++) {
+            starts.add(first.plusMinutes((long) i * slotMinutes));
+        }
+        Map<Category, Integer> defaults;
+        synchronized (this) {
+            defaults = new EnumMap<>(itemCapacity);
+        }
+        dao.ensureSlots(starts, orderCapacity, defaults);
+
+        Map<LocalDateTime, PickupSlotDAO.SlotRow> rows = dao.findSlots(first, first.plusMinutes((long) slotsAhead * slotMinutes));
+        List<PickupSlot> slots = new ArrayList<>();
+        for (PickupSlotDAO.SlotRow row : rows.values()) {
+            SlotCounters slot = counters.computeIfAbsent(row.start, s -> new SlotCounters());
+            slot.load(row);
+            slots.add(slot.toSlot(row.start, slotMinutes));
+        }
+        // Past slots can no longer be booked; drop their counters
+        counters.keySet().removeIf(start -> start.isBefore(first));
+        return slots;
+    }
+
+    /**
+     * Hold capacity in a slot for one order.
+     *
+     * @return the reservation, or null if the slot is full or no longer offered
+     */
+    public SlotReservation reserve(LocalDateTime slotStart, Map<Category, Integer> items) {
+        if (slotStart == null) return null;
+        Map<Category, Integer> wanted = items != null ? items : new EnumMap<>(Category.class);
+        if (slotStart.isBefore(firstSlotStart(LocalDateTime.now()))) {
+            return null;
+        }
+        SlotCounters slot = counters.get(slotStart);
+        if (slot == null) {
+            upcomingSlots();
+            slot = counters.get(slotStart);
+            if (slot == null) return null;
+        }
+        if (!slot.tryReserve(wanted)) {
+            return null;
+        }
+        if (!dao.reserve(slotStart, wanted)) {
+            // Another process filled it first (or the write failed): undo and resync
+            slot.release(wanted);
+            reload(slotStart);
+            return null;
+        }
+        logger.info("Reserved pickup slot " + slotStart + " for " + wanted);
+        return new SlotReservation(slotStart, wanted);
+    }
+
+    /**
+     * Give back a reservation that did not turn into an order.
+     */
+    public void release(SlotReservation reservation) {
+        if (reservation == null) return;
+        SlotCounters slot = counters.get(reservation.getSlotStart());
+        if (slot != null) slot.release(reservation.getItems());
+        if (!dao.release(reservation.getSlotStart(), reservation.getItems())) {
+            logger.warning("Pickup slot " + reservation.getSlotStart() + " could not be released");
+        }
+    }
+
+    /**
+     * Release the slot booked by a placed order (e.g. when the order is cancelled or its
+     * payment fails). Safe to call more than once.
+     */
+    public void releaseOrder(String orderCode) {
+        if (orderCode == null) return;
+        try {
+            LocalDateTime slotStart = dao.releaseOrder(orderCode);
+            if (slotStart != null) {
+                reload(slotStart);
+                logger.info("Released pickup slot " + slotStart + " of order " + orderCode);
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to release pickup slot of order " + orderCode, e);
+        }
+    }
+
+    private void reload(LocalDateTime slotStart) {
+        SlotCounters slot = counters.get(slotStart);
+        if (slot == null) return;
+        PickupSlotDAO.SlotRow row = dao.findSlots(slotStart, slotStart.plusMinutes(1)).get(slotStart);
+        if (row != null) slot.load(row);
+    }
+
+    private LocalDateTime firstSlotStart(LocalDateTime now) {
+        LocalDateTime earliest = now.plusMinutes(leadMinutes);
+        LocalDateTime hour = earliest.truncatedTo(ChronoUnit.HOURS);
+        long minutesIn = ChronoUnit.MINUTES.between(hour, earliest);
+        long slotIndex = (minutesIn + slotMinutes - 1) / slotMinutes;
+        LocalDateTime start = hour.plusMinutes(slotIndex * slotMinutes);
+        return start.isBefore(earliest) ? start.plusMinutes(slotMinutes) : start;
+    }
+}
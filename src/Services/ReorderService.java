@@ -0,0 +1,197 @@
+package Services;
+
+import Core.MenuItem;
+import Core.Order;
+import Core.OrderItem;
+import DataBase.OrderDAO;
+import Interfaces.IMenuProvider;
+import Values.CartValidation;
+import Values.RecentOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * "Order the same again": each student's last few distinct orders, kept in memory so a
+ * reorder needs no history query and no per-item menu lookups.
+ *
+ * A student's recent orders are loaded from the database the first time they are asked
+ * for (one query for the orders, one for their items), then kept up to date from the
+ * order processor's placements. Students are kept in a bounded LRU map.
+ *
+ * Availability and prices are checked against a menu snapshot refreshed at most every
+ * {@link #MENU_TTL_MS} ms, so a menu change can take that long to show up here.
+ */
+public class ReorderService {
+    private static final Logger logger = Logger.getLogger(ReorderService.class.getName());
+    private static final int RECENT_ORDERS = 5;
+    private static final int SEED_ORDERS = 20;
+    private static final int MAX_STUDENTS = 256;
+    private static final long MENU_TTL_MS = 30_000;
+
+    private final IMenuProvider menu;
+    private final OrderProcessor orderProcessor;
+    private final OrderDAO orders;
+    private final LinkedHashMap<String, List<RecentOrder>> recent = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Object menuLock = new Object();
+    private Map<Integer, MenuItem> menuSnapshot;
+    private long menuLoadedAt;
+
+    public ReorderService(IMenuProvider menu, OrderProcessor orderProcessor) {
+        this(menu, orderProcessor, new OrderDAO());
+    }
+
+    public ReorderService(IMenuProvider menu, OrderProcessor orderProcessor, OrderDAO orders) {
+        this.menu = menu;
+        this.orderProcessor = orderProcessor;
+        this.orders = orders;
+        orderProcessor.addPlacementListener(this::orderPlaced);
+    }
+
+    /**
+     * The student's recent distinct orders, newest first.
+     */
+    public List<RecentOrder> recentOrders(String studentCode) {
+        if (studentCode == null) return Collections.emptyList();
+        synchronized (recent) {
+            List<RecentOrder> cached = recent.get(studentCode);
+            if (cached != null) return new ArrayList<>(cached);
+        }
+        List<RecentOrder> loaded = new ArrayList<>();
+        List<Order> placed;
+        synchronized (orders) {
+            placed = orders.findRecentByStudentCode(studentCode, SEED_ORDERS);
+        }
+        for (Order order : placed) {
+            if (!order.getItems().isEmpty()) addDistinct(loaded, toRecent(order), false);
+        }
+        synchronized (recent) {
+            List<RecentOrder> cached = recent.get(studentCode);
+            if (cached == null) {
+                cached = loaded;
+                recent.put(studentCode, cached);
+                evictOverflow();
+            }
+            return new ArrayList<>(cached);
+        }
+    }
+
+    /**
+     * The student's most recent order, or null if they have none.
+     */
+    public RecentOrder lastOrder(String studentCode) {
+        List<RecentOrder> orders = recentOrders(studentCode);
+        return orders.isEmpty() ? null : orders.get(0);
+    }
+
+    /**
+     * What reordering would place now: the items still on the menu at their current prices,
+     * plus the differences from the original order (items gone, prices changed).
+     *
+     * @param orderCode one of the student's recent orders, or null for the last one
+     * @return null if there is no such recent order
+     */
+    public CartValidation preview(String studentCode, String orderCode) {
+        RecentOrder order = find(studentCode, orderCode);
+        if (order == null) return null;
+
+        Map<Integer, MenuItem> current = currentMenu();
+        Map<MenuItem, Integer> items = new LinkedHashMap<>();
+        Map<Integer, MenuItem> byId = new HashMap<>();
+        List<String> changes = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            MenuItem menuItem = current.get(item.getMenuItemId());
+            if (menuItem == null || !menuItem.isActive()) {
+                changes.add(item.getNameSnapshot() + " is no longer available");
+                continue;
+            }
+            if (item.getUnitPrice() != null && !menuItem.getPrice().equals(item.getUnitPrice())) {
+                changes.add(String.format("%s: %s -> %s", item.getNameSnapshot(), item.getUnitPrice(), menuItem.getPrice()));
+            }
+            // The same item on two lines becomes one line
+            MenuItem key = byId.computeIfAbsent(menuItem.getId(), id -> menuItem);
+            items.merge(key, item.getQty(), Integer::sum);
+        }
+        return new CartValidation(items, changes);
+    }
+
+    /**
+     * Forget the menu snapshot, e.g. after the menu was edited in this process.
+     */
+    public void invalidateMenu() {
+        synchronized (menuLock) {
+            menuSnapshot = null;
+        }
+    }
+
+    private RecentOrder find(String studentCode, String orderCode) {
+        for (RecentOrder order : recentOrders(studentCode)) {
+            if (orderCode == null || orderCode.equals(order.getOrderCode())) return order;
+        }
+        return null;
+    }
+
+    private Map<Integer, MenuItem> currentMenu() {
+        synchronized (menuLock) {
+            long now = System.currentTimeMillis();
+            if (menuSnapshot == null || now - menuLoadedAt > MENU_TTL_MS) {
+                Map<Integer, MenuItem> snapshot = new HashMap<>();
+                for (MenuItem item : menu.listItems()) {
+                    snapshot.put(item.getId(), item);
+                }
+                menuSnapshot = snapshot;
+                menuLoadedAt = now;
+            }
+            return menuSnapshot;
+        }
+    }
+
+    private void orderPlaced(Order order) {
+        if (order.getStudentCode() == null || order.getItems().isEmpty()) return;
+        synchronized (recent) {
+            // Students not cached yet will load this order with the rest of their history
+            List<RecentOrder> cached = recent.get(order.getStudentCode());
+            if (cached != null) addDistinct(cached, toRecent(order), true);
+        }
+        logger.fine("Recorded order " + order.getCode() + " for reordering");
+    }
+
+    /**
+     * Add an order unless one with the same items is already listed. Newer orders replace
+     * the older listing of the same items and go first.
+     */
+    private static void addDistinct(List<RecentOrder> list, RecentOrder order, boolean newest) {
+        Iterator<RecentOrder> it = list.iterator();
+        while (it.hasNext()) {
+            if (it.next().sameItemsAs(order)) {
+                if (!newest) return;
+                it.remove();
+            }
+        }
+        if (newest) {
+            list.add(0, order);
+            while (list.size() > RECENT_ORDERS) list.remove(list.size() - 1);
+        } else if (list.size() < RECENT_ORDERS) {
+            list.add(order);
+        }
+    }
+
+    private static RecentOrder toRecent(Order order) {
+        return new RecentOrder(order.getCode(), order.getCreatedAt(), order.getItems());
+    }
+
+    private void evictOverflow() {
+        Iterator<List<RecentOrder>> eldest = recent.values().iterator();
+        while (recent.size() > MAX_STUDENTS && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
@@ -3,8 +3,10 @@ package Services;
 import Core.*;
 import Interfaces.*;
 import Values.DateRange;
+import Values.LatencyPercentiles;
 import Values.Money;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,11 +15,18 @@ public class ReportService implements IReportingService {
     private final IOrderRepository orders;
     private final IMenuProvider menu;
     private final IStudentRepository students;
+    private final OrderLatencyTracker latencyTracker;
 
     public ReportService(IOrderRepository orders, IMenuProvider menu, IStudentRepository students) {
+        this(orders, menu, students, null);
+    }
+
+    public ReportService(IOrderRepository orders, IMenuProvider menu, IStudentRepository students,
+                         OrderLatencyTracker latencyTracker) {
         this.orders = orders;
         this.menu = menu;
         this.students = students;
+        this.latencyTracker = latencyTracker;
     }
 
     @Override
@@ -84,4 +93,28 @@ public class ReportService implements IReportingService {
         map.put("totalOrders", allOrders.size());
         return map;
     }
+
+    /**
+     * Queue and prep time p50 / p95 / p99: overall, per hour of day and per menu item.
+     * Empty when no latency tracker is configured.
+     */
+    public List<LatencyPercentiles> latencyPercentiles() {
+        List<LatencyPercentiles> rows = new ArrayList<>();
+        if (latencyTracker == null) return rows;
+        rows.addAll(latencyTracker.overall());
+        rows.addAll(latencyTracker.byHour());
+        rows.addAll(latencyTracker.byItem());
+        return rows;
+    }
+
+    /**
+     * Overall queue and prep time percentiles only.
+     */
+    public List<LatencyPercentiles> overallLatencyPercentiles() {
+        return latencyTracker != null ? latencyTracker.overall() : new ArrayList<>();
+    }
+
+    public OrderLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
 }
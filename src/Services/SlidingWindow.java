@@ -0,0 +1,76 @@
+package Services;
+
+/**
+ * Count, sum and maximum of the values recorded in the last N seconds, kept in one bucket
+ * per second: recording is O(1), reading walks N buckets, and memory never grows.
+ */
+public class SlidingWindow {
+    private final int seconds;
+    private final long[] bucketSecond;
+    private final long[] counts;
+    private final long[] sums;
+    private final long[] maxes;
+
+    /** Totals over the window at the time they were read. */
+    public static final class Totals {
+        public final long count;
+        public final long sum;
+        public final long max;
+
+        Totals(long count, long sum, long max) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public double average() {
+            return count > 0 ? (double) sum / count : 0;
+        }
+    }
+
+    public SlidingWindow(int seconds) {
+        if (seconds < 1) throw new IllegalArgumentException("Window must be at least one second");
+        this.seconds = seconds;
+        this.bucketSecond = new long[seconds];
+        this.counts = new long[seconds];
+        this.sums = new long[seconds];
+        this.maxes = new long[seconds];
+    }
+
+    public void record(long value) {
+        record(System.currentTimeMillis(), value);
+    }
+
+    public synchronized void record(long nowMillis, long value) {
+        long second = nowMillis / 1000;
+        int i = (int) (second % seconds);
+        if (bucketSecond[i] != second) {
+            // The bucket still holds a second that has slid out of the window
+            bucketSecond[i] = second;
+            counts[i] = 0;
+            sums[i] = 0;
+            maxes[i] = 0;
+        }
+        counts[i]++;
+        sums[i] += value;
+        maxes[i] = Math.max(maxes[i], value);
+    }
+
+    public Totals totals() {
+        return totals(System.currentTimeMillis());
+    }
+
+    public synchronized Totals totals(long nowMillis) {
+        long oldest = nowMillis / 1000 - seconds + 1;
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < seconds; i++) {
+            if (bucketSecond[i] < oldest) continue;
+            count += counts[i];
+            sum += sums[i];
+            max = Math.max(max, maxes[i]);
+        }
+        return new Totals(count, sum, max);
+    }
+}
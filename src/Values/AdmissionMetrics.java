@@ -0,0 +1,63 @@
+package Values;
+
+/**
+ * Counters of the order admission controller since startup, plus current load.
+ */
+public class AdmissionMetrics {
+    private final long admitted;
+    private final long queued;
+    private final long rejectedRateLimited;
+    private final long rejectedBusy;
+    private final int inFlight;
+    private final int waiting;
+    private final long maxQueueWaitMs;
+
+    public AdmissionMetrics(long admitted, long queued, long rejectedRateLimited, long rejectedBusy,
+                            int inFlight, int waiting, long maxQueueWaitMs) {
+        this.admitted = admitted;
+        this.queued = queued;
+        this.rejectedRateLimited = rejectedRateLimited;
+        this.rejectedBusy = rejectedBusy;
+        this.inFlight = inFlight;
+        this.waiting = waiting;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * Admitted requests that had to wait for a free slot.
+     */
+    public long getQueued() {
+        return queued;
+    }
+
+    public long getRejectedRateLimited() {
+        return rejectedRateLimited;
+    }
+
+    public long getRejectedBusy() {
+        return rejectedBusy;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getMaxQueueWaitMs() {
+        return maxQueueWaitMs;
+    }
+
+    @Override
+    public String toString() {
+        return "admitted=" + admitted + ", queued=" + queued + ", rejected(rate)=" + rejectedRateLimited
+                + ", rejected(busy)=" + rejectedBusy + ", inFlight=" + inFlight + ", waiting=" + waiting
+                + ", maxQueueWaitMs=" + maxQueueWaitMs;
+    }
+}
@@ -0,0 +1,49 @@
+package Values;
+
+import Core.MenuItem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of checking a cart's price snapshots against the current menu: the cart's items
+ * as they are on the menu now, and what had to change (repriced or no longer available).
+ */
+public class CartValidation {
+    private final Map<MenuItem, Integer> items;
+    private final List<String> changes;
+
+    public CartValidation(Map<MenuItem, Integer> items, List<String> changes) {
+        this.items = Collections.unmodifiableMap(new LinkedHashMap<>(items));
+        this.changes = List.copyOf(changes);
+    }
+
+    /**
+     * Current menu items and quantities, in cart order.
+     */
+    public Map<MenuItem, Integer> getItems() {
+        return items;
+    }
+
+    public List<String> getChanges() {
+        return changes;
+    }
+
+    /**
+     * True if every line still matched the menu, i.e. the totals the student saw are still right.
+     */
+    public boolean isUnchanged() {
+        return changes.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CartValidation{items=" + items.size() + ", changes=" + changes + '}';
+    }
+}
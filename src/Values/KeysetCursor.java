@@ -0,0 +1,46 @@
+package Values;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Position in a list ordered by (created_at DESC, id DESC).
+ * The next page starts strictly after this row, so paging never re-reads
+ * earlier rows the way an OFFSET would.
+ */
+public class KeysetCursor {
+    private final LocalDateTime createdAt;
+    private final int id;
+
+    public KeysetCursor(LocalDateTime createdAt, int id) {
+        if (createdAt == null) throw new IllegalArgumentException("Cursor timestamp cannot be null");
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        KeysetCursor other = (KeysetCursor) obj;
+        return id == other.id && createdAt.equals(other.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{createdAt=" + createdAt + ", id=" + id + '}';
+    }
+}
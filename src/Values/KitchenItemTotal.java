@@ -0,0 +1,43 @@
+package Values;
+
+/**
+ * Quantity of one menu item still to be served across all NEW and PREPARING orders.
+ */
+public class KitchenItemTotal {
+    private final int menuItemId;
+    private final String name;
+    private final int newQty;
+    private final int preparingQty;
+
+    public KitchenItemTotal(int menuItemId, String name, int newQty, int preparingQty) {
+        this.menuItemId = menuItemId;
+        this.name = name;
+        this.newQty = newQty;
+        this.preparingQty = preparingQty;
+    }
+
+    public int getMenuItemId() {
+        return menuItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNewQty() {
+        return newQty;
+    }
+
+    public int getPreparingQty() {
+        return preparingQty;
+    }
+
+    public int getTotalQty() {
+        return newQty + preparingQty;
+    }
+
+    @Override
+    public String toString() {
+        return getTotalQty() + "x " + name + " (" + newQty + " new, " + preparingQty + " preparing)";
+    }
+}
@@ -0,0 +1,65 @@
+package Values;
+
+/**
+ * p50 / p95 / p99 of one latency series (e.g. prep time of "Coffee", or queue time for orders placed at 12:00).
+ */
+public class LatencyPercentiles {
+    private final String scope;
+    private final String metric;
+    private final long count;
+    private final long p50Ms;
+    private final long p95Ms;
+    private final long p99Ms;
+
+    public LatencyPercentiles(String scope, String metric, long count, long p50Ms, long p95Ms, long p99Ms) {
+        this.scope = scope;
+        this.metric = metric;
+        this.count = count;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getP50Ms() {
+        return p50Ms;
+    }
+
+    public long getP95Ms() {
+        return p95Ms;
+    }
+
+    public long getP99Ms() {
+        return p99Ms;
+    }
+
+    /**
+     * Format a duration in milliseconds as m:ss (or h:mm:ss past an hour).
+     */
+    public static String formatMillis(long ms) {
+        long seconds = ms / 1000;
+        long hours = seconds / 3600;
+        long minutes = (seconds % 3600) / 60;
+        long secs = seconds % 60;
+        return hours > 0
+                ? String.format("%d:%02d:%02d", hours, minutes, secs)
+                : String.format("%d:%02d", minutes, secs);
+    }
+
+    @Override
+    public String toString() {
+        return scope + " " + metric + " (n=" + count + "): p50 " + formatMillis(p50Ms)
+                + ", p95 " + formatMillis(p95Ms) + ", p99 " + formatMillis(p99Ms);
+    }
+}
@@ -0,0 +1,131 @@
+package Values;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Live operations figures at one moment, for the operations dashboard. Rates cover the
+ * last minute; -1 means not known yet (e.g. no completed orders to time).
+ */
+public class OperationsSnapshot {
+    private final LocalDateTime takenAt;
+    private final long ordersPlacedPerMinute;
+    private final long ordersReadyPerMinute;
+    private final int newOrders;
+    private final int preparingOrders;
+    private final long prepP50Ms;
+    private final long prepP95Ms;
+    private final long dbCallsPerMinute;
+    private final double dbAverageMs;
+    private final double dbMaxMs;
+    private final List<PaymentMethodStats> payments;
+    private final AdmissionMetrics admission;
+
+    /** Payments through one method since startup. */
+    public static final class PaymentMethodStats {
+        private final String method;
+        private final long attempts;
+        private final long successes;
+
+        public PaymentMethodStats(String method, long attempts, long successes) {
+            this.method = method;
+            this.attempts = attempts;
+            this.successes = successes;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        /**
+         * Share of attempts that succeeded, 0..1; -1 without attempts.
+         */
+        public double getSuccessRate() {
+            return attempts > 0 ? (double) successes / attempts : -1;
+        }
+    }
+
+    public OperationsSnapshot(LocalDateTime takenAt, long ordersPlacedPerMinute, long ordersReadyPerMinute,
+                              int newOrders, int preparingOrders, long prepP50Ms, long prepP95Ms,
+                              long dbCallsPerMinute, double dbAverageMs, double dbMaxMs,
+                              List<PaymentMethodStats> payments, AdmissionMetrics admission) {
+        this.takenAt = takenAt;
+        this.ordersPlacedPerMinute = ordersPlacedPerMinute;
+        this.ordersReadyPerMinute = ordersReadyPerMinute;
+        this.newOrders = newOrders;
+        this.preparingOrders = preparingOrders;
+        this.prepP50Ms = prepP50Ms;
+        this.prepP95Ms = prepP95Ms;
+        this.dbCallsPerMinute = dbCallsPerMinute;
+        this.dbAverageMs = dbAverageMs;
+        this.dbMaxMs = dbMaxMs;
+        this.payments = List.copyOf(payments);
+        this.admission = admission;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public long getOrdersPlacedPerMinute() {
+        return ordersPlacedPerMinute;
+    }
+
+    public long getOrdersReadyPerMinute() {
+        return ordersReadyPerMinute;
+    }
+
+    public int getNewOrders() {
+        return newOrders;
+    }
+
+    public int getPreparingOrders() {
+        return preparingOrders;
+    }
+
+    /**
+     * NEW plus PREPARING orders.
+     */
+    public int getQueueDepth() {
+        return newOrders + preparingOrders;
+    }
+
+    public long getPrepP50Ms() {
+        return prepP50Ms;
+    }
+
+    public long getPrepP95Ms() {
+        return prepP95Ms;
+    }
+
+    public long getDbCallsPerMinute() {
+        return dbCallsPerMinute;
+    }
+
+    public double getDbAverageMs() {
+        return dbAverageMs;
+    }
+
+    public double getDbMaxMs() {
+        return dbMaxMs;
+    }
+
+    public List<PaymentMethodStats> getPayments() {
+        return payments;
+    }
+
+    /**
+     * Order admission counters, or null when admission control is off.
+     */
+    public AdmissionMetrics getAdmission() {
+        return admission;
+    }
+}
@@ -0,0 +1,57 @@
+package Values;
+
+import Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order status transition as published by the order status feed. The id is unique
+ * within the feed's lifetime ("epoch:sequence"), so a client can resume after it.
+ */
+public class OrderStatusEvent {
+    private final String id;
+    private final long sequence;
+    private final String orderCode;
+    private final String studentCode;
+    private final OrderStatus status;
+    private final LocalDateTime at;
+
+    public OrderStatusEvent(String id, long sequence, String orderCode, String studentCode,
+                            OrderStatus status, LocalDateTime at) {
+        this.id = id;
+        this.sequence = sequence;
+        this.orderCode = orderCode;
+        this.studentCode = studentCode;
+        this.status = status;
+        this.at = at;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getOrderCode() {
+        return orderCode;
+    }
+
+    public String getStudentCode() {
+        return studentCode;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatusEvent{" + id + " " + orderCode + " -> " + status + '}';
+    }
+}
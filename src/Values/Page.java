@@ -0,0 +1,42 @@
+package Values;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query plus the cursor for the following page.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final KeysetCursor nextCursor;
+
+    public Page(List<T> items, KeysetCursor nextCursor) {
+        this.items = items != null ? new ArrayList<>(items) : new ArrayList<>();
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Cursor to pass back for the next page, or null when this is the last page.
+     */
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{items=" + items.size() + ", hasMore=" + hasMore() + '}';
+    }
+}
@@ -0,0 +1,96 @@
+package Values;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * What a paged table shows: the sort column, a search text and exact-match filters.
+ * Sort keys and filter names are the ones the data source offers; the source ignores
+ * any it does not know. Immutable; the with* methods return a changed copy.
+ */
+public class PageRequest {
+    private final String sortKey;
+    private final boolean ascending;
+    private final String search;
+    private final Map<String, String> filters;
+
+    public PageRequest(String sortKey, boolean ascending, String search, Map<String, String> filters) {
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.search = search != null && !search.isBlank() ? search.trim() : null;
+        this.filters = filters != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(filters))
+                : Collections.emptyMap();
+    }
+
+    /**
+     * The source's default order, no search and no filters.
+     */
+    public static PageRequest defaults() {
+        return new PageRequest(null, false, null, null);
+    }
+
+    /**
+     * @param sortKey null for the source's default order
+     */
+    public PageRequest withSort(String sortKey, boolean ascending) {
+        return new PageRequest(sortKey, ascending, search, filters);
+    }
+
+    public PageRequest withSearch(String search) {
+        return new PageRequest(sortKey, ascending, search, filters);
+    }
+
+    /**
+     * @param value null or blank removes the filter
+     */
+    public PageRequest withFilter(String name, String value) {
+        Map<String, String> changed = new LinkedHashMap<>(filters);
+        if (value == null || value.isBlank()) {
+            changed.remove(name);
+        } else {
+            changed.put(name, value);
+        }
+        return new PageRequest(sortKey, ascending, search, changed);
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public Map<String, String> getFilters() {
+        return filters;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PageRequest other = (PageRequest) obj;
+        return ascending == other.ascending
+                && Objects.equals(sortKey, other.sortKey)
+                && Objects.equals(search, other.search)
+                && filters.equals(other.filters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortKey, ascending, search, filters);
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{sort=" + sortKey + (ascending ? " ASC" : " DESC")
+                + ", search=" + search + ", filters=" + filters + '}';
+    }
+}
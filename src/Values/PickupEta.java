@@ -0,0 +1,58 @@
+package Values;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Estimated pickup time of a pending order.
+ */
+public class PickupEta {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final String orderCode;
+    private final LocalDateTime estimatedReadyAt;
+    private final int ordersAhead;
+    private final boolean preparing;
+
+    public PickupEta(String orderCode, LocalDateTime estimatedReadyAt, int ordersAhead, boolean preparing) {
+        this.orderCode = orderCode;
+        this.estimatedReadyAt = estimatedReadyAt;
+        this.ordersAhead = ordersAhead;
+        this.preparing = preparing;
+    }
+
+    public String getOrderCode() {
+        return orderCode;
+    }
+
+    public LocalDateTime getEstimatedReadyAt() {
+        return estimatedReadyAt;
+    }
+
+    /**
+     * Orders placed earlier that are still waiting or being prepared.
+     */
+    public int getOrdersAhead() {
+        return ordersAhead;
+    }
+
+    public boolean isPreparing() {
+        return preparing;
+    }
+
+    /**
+     * Whole minutes until the estimated ready time, rounded up; 0 when it is due.
+     */
+    public long getMinutesRemaining() {
+        long seconds = Duration.between(LocalDateTime.now(), estimatedReadyAt).getSeconds();
+        return seconds <= 0 ? 0 : (seconds + 59) / 60;
+    }
+
+    @Override
+    public String toString() {
+        long minutes = getMinutesRemaining();
+        String when = minutes == 0 ? "any moment" : "~" + minutes + " min";
+        return when + " (" + estimatedReadyAt.format(TIME_FORMATTER) + ")";
+    }
+}
@@ -0,0 +1,79 @@
+package Values;
+
+import Enums.Category;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A pickup time slot with its remaining order and per-category item capacity.
+ */
+public class PickupSlot {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final int orderCapacity;
+    private final int ordersBooked;
+    private final Map<Category, Integer> itemsRemaining;
+
+    public PickupSlot(LocalDateTime start, LocalDateTime end, int orderCapacity, int ordersBooked,
+                      Map<Category, Integer> itemsRemaining) {
+        this.start = start;
+        this.end = end;
+        this.orderCapacity = orderCapacity;
+        this.ordersBooked = ordersBooked;
+        this.itemsRemaining = itemsRemaining != null
+                ? Collections.unmodifiableMap(new EnumMap<>(itemsRemaining))
+                : Collections.emptyMap();
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public int getOrderCapacity() {
+        return orderCapacity;
+    }
+
+    public int getOrdersBooked() {
+        return ordersBooked;
+    }
+
+    public int getOrdersRemaining() {
+        return Math.max(0, orderCapacity - ordersBooked);
+    }
+
+    /**
+     * Items of each category that can still be booked; categories without a limit are absent.
+     */
+    public Map<Category, Integer> getItemsRemaining() {
+        return itemsRemaining;
+    }
+
+    /**
+     * Whether one more order with the given items per category fits in this slot.
+     */
+    public boolean canFit(Map<Category, Integer> items) {
+        if (getOrdersRemaining() <= 0) return false;
+        if (items == null) return true;
+        for (Map.Entry<Category, Integer> entry : items.entrySet()) {
+            Integer remaining = itemsRemaining.get(entry.getKey());
+            if (remaining != null && entry.getValue() > remaining) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return start.format(TIME_FORMATTER) + " - " + end.format(TIME_FORMATTER)
+                + " (" + getOrdersRemaining() + " left)";
+    }
+}
@@ -0,0 +1,60 @@
+package Values;
+
+import Core.Order;
+
+/**
+ * Outcome of an admitted order placement: the order, a "busy, retry in N s" rejection,
+ * or a rejection the client has to act on first (e.g. cart prices changed).
+ */
+public class PlacementResult {
+    private final Order order;
+    private final int retryAfterSeconds;
+    private final String message;
+
+    private PlacementResult(Order order, int retryAfterSeconds, String message) {
+        this.order = order;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.message = message;
+    }
+
+    public static PlacementResult placed(Order order) {
+        return new PlacementResult(order, 0, "Order placed");
+    }
+
+    public static PlacementResult busy(int retryAfterSeconds, String reason) {
+        int seconds = Math.max(1, retryAfterSeconds);
+        return new PlacementResult(null, seconds, reason + ", please retry in " + seconds + " s");
+    }
+
+    public static PlacementResult rejected(String reason) {
+        return new PlacementResult(null, 0, reason);
+    }
+
+    public boolean isPlaced() {
+        return order != null;
+    }
+
+    /**
+     * True if the request was turned away only because the system is busy; retrying later may succeed.
+     */
+    public boolean isBusy() {
+        return order == null && retryAfterSeconds > 0;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return isPlaced() ? "PlacementResult{placed=" + order.getCode() + "}" : "PlacementResult{" + message + "}";
+    }
+}
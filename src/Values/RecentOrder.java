@@ -0,0 +1,68 @@
+package Values;
+
+import Core.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student's earlier order as offered for reordering: its code, when it was placed and
+ * its items with the names and prices they had then.
+ */
+public class RecentOrder {
+    private final String orderCode;
+    private final LocalDateTime placedAt;
+    private final List<OrderItem> items;
+
+    public RecentOrder(String orderCode, LocalDateTime placedAt, List<OrderItem> items) {
+        this.orderCode = orderCode;
+        this.placedAt = placedAt;
+        this.items = List.copyOf(items);
+    }
+
+    public String getOrderCode() {
+        return orderCode;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Whether both orders have the same items in the same quantities.
+     */
+    public boolean sameItemsAs(RecentOrder other) {
+        return other != null && quantities().equals(other.quantities());
+    }
+
+    private Map<Integer, Integer> quantities() {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getMenuItemId(), item.getQty(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * e.g. "2x Falafel, 1x Tea"
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (OrderItem item : items) {
+            if (summary.length() > 0) summary.append(", ");
+            summary.append(item.getQty()).append("x ").append(item.getNameSnapshot());
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "RecentOrder{" + orderCode + ": " + getSummary() + '}';
+    }
+}
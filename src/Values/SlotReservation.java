@@ -0,0 +1,32 @@
+package Values;
+
+import Enums.Category;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Capacity held in a pickup slot for one order, from reservation until the order is
+ * placed (which records the slot on the order) or the reservation is released.
+ */
+public class SlotReservation {
+    private final LocalDateTime slotStart;
+    private final Map<Category, Integer> items;
+
+    public SlotReservation(LocalDateTime slotStart, Map<Category, Integer> items) {
+        this.slotStart = slotStart;
+        this.items = items != null && !items.isEmpty()
+                ? Collections.unmodifiableMap(new EnumMap<>(items))
+                : Collections.emptyMap();
+    }
+
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+
+    public Map<Category, Integer> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,46 @@
+package Values;
+
+import java.util.Objects;
+
+/**
+ * Position in a table ordered by one sort column and then by id, for keyset paging on any
+ * sortable column: the next rows start strictly after (sortValue, id).
+ * The sort value is whatever the driver returned for the column (a Timestamp, BigDecimal,
+ * String, ...), so it can be bound back into the next query unchanged.
+ */
+public class SortCursor {
+    private final Object sortValue;
+    private final int id;
+
+    public SortCursor(Object sortValue, int id) {
+        if (sortValue == null) throw new IllegalArgumentException("Cursor sort value cannot be null");
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        SortCursor other = (SortCursor) obj;
+        return id == other.id && sortValue.equals(other.sortValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortValue, id);
+    }
+
+    @Override
+    public String toString() {
+        return "SortCursor{sortValue=" + sortValue + ", id=" + id + '}';
+    }
+}
@@ -0,0 +1,38 @@
+package Values;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rows read for a paged table, plus the cursor of the last row to continue after.
+ */
+public class TablePage<T> {
+    private final List<T> items;
+    private final SortCursor lastCursor;
+
+    public TablePage(List<T> items, SortCursor lastCursor) {
+        this.items = items != null ? new ArrayList<>(items) : new ArrayList<>();
+        this.lastCursor = lastCursor;
+    }
+
+    public static <T> TablePage<T> empty() {
+        return new TablePage<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Cursor of the last row, or null if the page is empty.
+     */
+    public SortCursor getLastCursor() {
+        return lastCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "TablePage{items=" + items.size() + ", lastCursor=" + lastCursor + '}';
+    }
+}
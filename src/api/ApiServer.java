@@ -0,0 +1,104 @@
+package api;
+
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import terminal.LoggerFactory;
+import terminal.ServiceContainer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP/JSON backend, so kiosks and a mobile client share one process (one
+ * service container, one set of caches and database connections) instead of each
+ * embedding its own.
+ *
+ * Every request runs on its own virtual thread; a {@link ConcurrencyLimitFilter} caps how
+ * many are in progress at once, and their calls into the shared services take turns on a
+ * {@link DatabaseLane}, because the DAOs behind them hold one connection each. Endpoints:
+ * <pre>
+ *   GET  /api/menu                      menu, with ETag / If-None-Match
+ *   ...  /api/sessions                  student login and logout (see SessionEndpoint)
+ *   ...  /api/students/{code}/...       cart, order placement, loyalty, with the student's token
+ *   GET  /api/orders/{code}             order status and pickup estimate (owner's token)
+ *   GET  /api/events/...                status event streams (see OrderEventsEndpoint)
+ * </pre>
+ * Settings (system properties): cafeteria.api.port (8080), cafeteria.api.maxConcurrent
+ * (32), cafeteria.api.maxWaitMs (500), cafeteria.api.maxStreams (500),
+ * cafeteria.api.sessionIdleMinutes (30).
+ */
+public final class ApiServer {
+    private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_MAX_CONCURRENT = 32;
+    private static final int DEFAULT_MAX_WAIT_MS = 500;
+    private static final int DEFAULT_MAX_STREAMS = 500;
+    private static final int DEFAULT_SESSION_IDLE_MINUTES = 30;
+    private static final int STOP_DELAY_SECONDS = 2;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrencyLimitFilter limit;
+
+    public ApiServer(ServiceContainer services, int port, int maxConcurrent, long maxWaitMs, int maxStreams,
+                     int sessionIdleMinutes) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.limit = new ConcurrencyLimitFilter(maxConcurrent, maxWaitMs);
+        server.setExecutor(executor);
+        // Event streams and pickup estimates follow the in-memory pending-order board
+        services.getOrderProcessor().enablePendingOrderBoard();
+
+        // The services' DAOs share one connection each, so their calls run one at a time
+        DatabaseLane lane = new DatabaseLane();
+        SessionStore sessions = new SessionStore(sessionIdleMinutes);
+        route("/api/menu", new MenuEndpoint(services.getMenuManager(), lane));
+        route("/api/sessions", new SessionEndpoint(services.getStudentDAO(), services.getCartService(), sessions, lane));
+        route("/api/students/", new StudentEndpoint(services.getStudentManager(), services.getMenuManager(),
+                services.getCartService(), services.getOrderProcessor(), services.getLoyaltyService(), sessions, lane));
+        route("/api/orders/", new OrderEndpoint(services.getOrderProcessor(), sessions, lane));
+        // Event streams stay open while idle, so they are capped by count instead of holding request slots
+        server.createContext("/api/events/",
+                new OrderEventsEndpoint(services.getOrderProcessor(), services.getStudentManager(), sessions, lane,
+                        maxStreams));
+    }
+
+    public void start() {
+        server.start();
+        logger.info("API listening on port " + server.getAddress().getPort());
+    }
+
+    /**
+     * Stop accepting requests and give the ones in progress a moment to finish.
+     */
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        logger.info("API stopped; " + limit.rejectedCount() + " request(s) were turned away as busy");
+    }
+
+    private void route(String path, HttpHandler handler) {
+        HttpContext context = server.createContext(path, handler);
+        context.getFilters().add(limit);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("cafeteria.api.port", DEFAULT_PORT);
+        int maxConcurrent = Integer.getInteger("cafeteria.api.maxConcurrent", DEFAULT_MAX_CONCURRENT);
+        long maxWaitMs = Integer.getInteger("cafeteria.api.maxWaitMs", DEFAULT_MAX_WAIT_MS);
+        int maxStreams = Integer.getInteger("cafeteria.api.maxStreams", DEFAULT_MAX_STREAMS);
+        int sessionIdleMinutes = Integer.getInteger("cafeteria.api.sessionIdleMinutes", DEFAULT_SESSION_IDLE_MINUTES);
+
+        ServiceContainer services = new ServiceContainer();
+        ApiServer api = new ApiServer(services, port, maxConcurrent, maxWaitMs, maxStreams, sessionIdleMinutes);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop();
+            services.shutdown();
+        }, "api-shutdown"));
+        api.start();
+    }
+}
@@ -0,0 +1,101 @@
+package api;
+
+import Core.Cart;
+import Core.CartLine;
+import Core.MenuItem;
+import Core.Order;
+import Core.OrderItem;
+import Values.Money;
+import Values.PickupEta;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON shapes of the domain objects the API returns. Money is an object with an exact
+ * decimal amount and a currency code, so clients never round through floating point.
+ */
+final class ApiViews {
+
+    // Private constructor to prevent instantiation
+    private ApiViews() {}
+
+    static Map<String, Object> money(Money money) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("amount", money.getAmount());
+        json.put("currency", money.getCurrency());
+        return json;
+    }
+
+    static Map<String, Object> menuItem(MenuItem item) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", item.getId());
+        json.put("name", item.getName());
+        json.put("description", item.getDescription());
+        json.put("category", item.getCategory());
+        json.put("price", money(item.getPrice()));
+        return json;
+    }
+
+    static Map<String, Object> cart(Cart cart) {
+        // One copy of the lines, so the total always matches the lines shown
+        List<CartLine> lines = cart.getLines();
+        List<Object> jsonLines = new ArrayList<>();
+        Money subtotal = Money.zero();
+        int itemCount = 0;
+        for (CartLine line : lines) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("menuItemId", line.getMenuItemId());
+            json.put("name", line.getName());
+            json.put("category", line.getCategory());
+            json.put("unitPrice", money(line.getUnitPrice()));
+            json.put("quantity", line.getQuantity());
+            json.put("lineTotal", money(line.getLineTotal()));
+            jsonLines.add(json);
+            subtotal = subtotal.add(line.getLineTotal());
+            itemCount += line.getQuantity();
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("studentCode", cart.getStudentCode());
+        json.put("lines", jsonLines);
+        json.put("itemCount", itemCount);
+        json.put("subtotal", money(subtotal));
+        return json;
+    }
+
+    /**
+     * @param eta the pickup estimate while the order is pending, or null
+     */
+    static Map<String, Object> order(Order order, PickupEta eta) {
+        List<Object> items = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("menuItemId", item.getMenuItemId());
+            json.put("name", item.getNameSnapshot());
+            json.put("unitPrice", money(item.getUnitPrice()));
+            json.put("quantity", item.getQty());
+            items.add(json);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("code", order.getCode());
+        json.put("studentCode", order.getStudentCode());
+        json.put("status", order.getStatus());
+        json.put("createdAt", order.getCreatedAt());
+        json.put("preparingAt", order.getPreparingAt());
+        json.put("readyAt", order.getReadyAt());
+        json.put("pickupSlot", order.getPickupSlot());
+        json.put("items", items);
+        json.put("total", money(order.total()));
+        json.put("paid", order.getPaymentTxId() != null);
+        if (eta != null) {
+            Map<String, Object> estimate = new LinkedHashMap<>();
+            estimate.put("estimatedReadyAt", eta.getEstimatedReadyAt());
+            estimate.put("minutesRemaining", eta.getMinutesRemaining());
+            estimate.put("ordersAhead", eta.getOrdersAhead());
+            json.put("eta", estimate);
+        }
+        return json;
+    }
+}
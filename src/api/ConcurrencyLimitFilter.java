@@ -0,0 +1,65 @@
+package api;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Caps the API requests handled at once. Every request has its own virtual thread, so
+ * threads are not what runs out under a rush: the shared services and their database
+ * connections are. A request over the cap waits briefly for a slot, then gets a 503 with
+ * Retry-After instead of queueing behind everyone else.
+ */
+final class ConcurrencyLimitFilter extends Filter {
+    private static final Logger logger = Logger.getLogger(ConcurrencyLimitFilter.class.getName());
+
+    private final Semaphore slots;
+    private final long maxWaitMs;
+    private final AtomicLong rejected = new AtomicLong();
+
+    ConcurrencyLimitFilter(int maxConcurrent, long maxWaitMs) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be positive");
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        boolean admitted;
+        try {
+            admitted = slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            long count = rejected.incrementAndGet();
+            if (count % 100 == 1) {
+                logger.warning("API busy: " + count + " request(s) turned away so far");
+            }
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            JsonHandler.sendError(exchange, 503, "Server busy, please retry");
+            exchange.close();
+            return;
+        }
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            slots.release();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Concurrency limit";
+    }
+
+    long rejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,34 @@
+package api;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs the API's calls into the shared services one at a time.
+ *
+ * Each DAO behind the services holds a single JDBC connection, and the transactional ones
+ * (orders, loyalty, carts, pickup slots) take that connection out of auto-commit for the
+ * length of a transaction. Two requests using one DAO at once would therefore share a
+ * transaction, and one request's rollback would undo the other's reported writes. Requests
+ * still read their bodies and send their responses in parallel; only the service calls
+ * queue here, in arrival order, so a slow client never holds the lane.
+ */
+final class DatabaseLane {
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    <T> T call(Supplier<T> work) {
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,245 @@
+package api;
+
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON for the HTTP API and its clients, so neither needs a library beyond the
+ * JDBC driver.
+ *
+ * Writing handles maps (objects, in iteration order), collections, strings, numbers,
+ * booleans, enums, java.time values (ISO text) and null. Parsing returns LinkedHashMap,
+ * ArrayList, String, BigDecimal, Boolean or null, and rejects malformed input with an
+ * IllegalArgumentException.
+ */
+public final class Json {
+    // Request bodies are small; deeper nesting than this is refused rather than recursed into
+    private static final int MAX_DEPTH = 16;
+
+    // Private constructor to prevent instantiation
+    private Json() {}
+
+    public static String write(Object value) {
+        StringBuilder out = new StringBuilder(256);
+        write(out, value);
+        return out.toString();
+    }
+
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        Object value = parser.value(0);
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) throw parser.error("Unexpected trailing text");
+        return value;
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String || value instanceof Enum || value instanceof TemporalAccessor) {
+            quote(out, value.toString());
+        } else if (value instanceof BigDecimal) {
+            out.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                quote(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                write(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) out.append(',');
+                first = false;
+                write(out, element);
+            }
+            out.append(']');
+        } else {
+            quote(out, value.toString());
+        }
+    }
+
+    private static void quote(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value(int depth) {
+            if (depth > MAX_DEPTH) throw error("Nested too deeply");
+            skipWhitespace();
+            if (pos >= text.length()) throw error("Unexpected end of input");
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return object(depth);
+                case '[':
+                    return array(depth);
+                case '"':
+                    return string();
+                case 't':
+                    return literal("true", Boolean.TRUE);
+                case 'f':
+                    return literal("false", Boolean.FALSE);
+                case 'n':
+                    return literal("null", null);
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) return number();
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> object(int depth) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek('}')) {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (!peek('"')) throw error("Expected a field name");
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                map.put(key, value(depth + 1));
+                skipWhitespace();
+                if (peek(',')) {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array(int depth) {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek(']')) {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value(depth + 1));
+                skipWhitespace();
+                if (peek(',')) {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        private String string() {
+            StringBuilder out = new StringBuilder();
+            pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') return out.toString();
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) break;
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw error("Bad unicode escape");
+                        try {
+                            out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad unicode escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Bad escape '\\" + escaped + "'");
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private BigDecimal number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            try {
+                return new BigDecimal(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Bad number");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) throw error("Unexpected token");
+            pos += word.length();
+            return value;
+        }
+
+        private boolean peek(char c) {
+            return pos < text.length() && text.charAt(pos) == c;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) throw error("Expected '" + c + "'");
+            pos++;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
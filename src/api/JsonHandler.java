@@ -0,0 +1,149 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Base of the API's endpoints: splits the path below the endpoint's context into
+ * segments, turns {@link ApiError}s and malformed JSON into error responses, and logs
+ * anything else as a 500. Every response, errors included, is a JSON document.
+ */
+abstract class JsonHandler implements HttpHandler {
+    private static final Logger logger = Logger.getLogger(JsonHandler.class.getName());
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    /**
+     * A request the endpoint turns away with this status and message.
+     */
+    static final class ApiError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Handle a request; path holds the non-empty segments after the context path.
+     */
+    protected abstract void handle(HttpExchange exchange, List<String> path) throws IOException;
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try {
+            handle(exchange, segments(exchange));
+        } catch (ApiError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // Client went away mid-response; nothing left to tell it
+            logger.fine("Connection closed during " + exchange.getRequestURI() + ": " + e.getMessage());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Request failed: " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static ApiError notFound(String message) {
+        return new ApiError(404, message);
+    }
+
+    static ApiError methodNotAllowed(HttpExchange exchange, String allowed) {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        return new ApiError(405, exchange.getRequestMethod() + " is not supported here");
+    }
+
+    static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, Json.write(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : body.length == 0 ? -1 : body.length);
+        if (!head && body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static void sendError(HttpExchange exchange, int status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message != null ? message : "Error " + status);
+        try {
+            sendJson(exchange, status, body);
+        } catch (IOException | IllegalStateException e) {
+            // Headers were already sent, or the client is gone
+            logger.fine("Could not send error " + status + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The request body as a JSON object; an empty body is an empty object.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readJsonObject(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) throw new ApiError(413, "Request body too large");
+        String text = new String(bytes, StandardCharsets.UTF_8).trim();
+        if (text.isEmpty()) return new LinkedHashMap<>();
+        Object value = Json.parse(text);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    static int intField(Map<String, Object> body, String name, Integer defaultValue) {
+        Object value = body.get(name);
+        if (value == null) {
+            if (defaultValue == null) throw new IllegalArgumentException("Missing field: " + name);
+            return defaultValue;
+        }
+        if (!(value instanceof BigDecimal)) throw new IllegalArgumentException(name + " must be a number");
+        try {
+            return ((BigDecimal) value).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+
+    static int parseId(String segment, String what) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw notFound("No such " + what + ": " + segment);
+        }
+    }
+
+    private static List<String> segments(HttpExchange exchange) {
+        String context = exchange.getHttpContext().getPath();
+        String path = exchange.getRequestURI().getPath();
+        String rest = path.length() > context.length() ? path.substring(context.length()) : "";
+        List<String> segments = new ArrayList<>();
+        for (String segment : rest.split("/")) {
+            if (!segment.isEmpty()) segments.add(segment);
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,118 @@
+package api;
+
+import Core.MenuItem;
+import Services.MenuManager;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * GET /api/menu: the available menu items.
+ *
+ * The serialized menu and its ETag (a hash of the body) are kept for
+ * {@link #MAX_AGE_MS}, so a crowd of kiosks refreshing at once costs one menu query.
+ * Only one request reloads an expired menu; the others are served the previous one
+ * meanwhile. Clients revalidate with If-None-Match and get a bodyless 304 while the
+ * menu is unchanged.
+ */
+final class MenuEndpoint extends JsonHandler {
+    private static final long MAX_AGE_MS = 2000;
+
+    private final MenuManager menuManager;
+    private final DatabaseLane lane;
+    private final ReentrantLock reload = new ReentrantLock();
+    private volatile Snapshot current;
+
+    private static final class Snapshot {
+        final byte[] body;
+        final String etag;
+        final long loadedAt = System.currentTimeMillis();
+
+        Snapshot(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+
+    MenuEndpoint(MenuManager menuManager, DatabaseLane lane) {
+        this.menuManager = menuManager;
+        this.lane = lane;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, List<String> path) throws IOException {
+        if (!path.isEmpty()) throw notFound("No such resource");
+        String method = exchange.getRequestMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) throw methodNotAllowed(exchange, "GET, HEAD");
+
+        Snapshot menu = snapshot();
+        exchange.getResponseHeaders().set("ETag", menu.etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), menu.etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, menu.body);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot menu = current;
+        if (menu != null && System.currentTimeMillis() - menu.loadedAt < MAX_AGE_MS) return menu;
+        if (menu != null && !reload.tryLock()) return menu;
+        if (menu == null) reload.lock();
+        try {
+            Snapshot latest = current;
+            if (latest != null && latest != menu) return latest;
+            latest = load(latest);
+            current = latest;
+            return latest;
+        } finally {
+            reload.unlock();
+        }
+    }
+
+    private Snapshot load(Snapshot previous) {
+        List<Object> items = new ArrayList<>();
+        for (MenuItem item : lane.call(menuManager::getAvailableItems)) {
+            items.add(ApiViews.menuItem(item));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("items", items);
+        byte[] body = Json.write(json).getBytes(StandardCharsets.UTF_8);
+        String etag = etag(body);
+        // Unchanged menu: keep the old body and only restart the clock
+        return new Snapshot(previous != null && previous.etag.equals(etag) ? previous.body : body, etag);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header names this ETag (weak comparison, as for GET).
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
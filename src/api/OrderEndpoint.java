@@ -0,0 +1,41 @@
+package api;
+
+import Core.Order;
+import Enums.OrderStatus;
+import Services.OrderProcessor;
+import Values.PickupEta;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * GET /api/orders/{code}: an order's status and items, with the pickup estimate while it
+ * is still being prepared. Only for the student who placed it (their session token).
+ */
+final class OrderEndpoint extends JsonHandler {
+    private final OrderProcessor orderProcessor;
+    private final SessionStore sessions;
+    private final DatabaseLane lane;
+
+    OrderEndpoint(OrderProcessor orderProcessor, SessionStore sessions, DatabaseLane lane) {
+        this.orderProcessor = orderProcessor;
+        this.sessions = sessions;
+        this.lane = lane;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, List<String> path) throws IOException {
+        if (path.size() != 1) throw notFound("No such resource");
+        if (!"GET".equals(exchange.getRequestMethod())) throw methodNotAllowed(exchange, "GET");
+
+        Order order = lane.call(() -> orderProcessor.findOrder(path.get(0)));
+        if (order == null) throw notFound("No such order: " + path.get(0));
+        // Items and student code are the student's own business
+        sessions.require(exchange, order.getStudentCode());
+        PickupEta eta = order.getStatus() != OrderStatus.READY
+                ? lane.call(() -> orderProcessor.estimateReadyTime(order.getCode()))
+                : null;
+        sendJson(exchange, 200, ApiViews.order(order, eta));
+    }
+}
@@ -0,0 +1,167 @@
+package api;
+
+import Enums.OrderStatus;
+import Services.OrderProcessor;
+import Services.OrderStatusFeed;
+import Services.StudentManager;
+import Values.OrderStatusEvent;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Server-sent event streams of order status transitions, pushed from
+ * {@link OrderStatusFeed} instead of polled:
+ * <pre>
+ *   GET /api/events/ready              every order that becomes READY
+ *   GET /api/events/orders             every transition of every order (for the pickup display)
+ *   GET /api/events/students/{code}    every transition of one student's orders
+ * </pre>
+ * A stream opens with {@code event: snapshot}, whose data is {@code {"orders": [...]}}:
+ * every order of the stream that is still NEW or PREPARING plus those made READY in the
+ * last minutes, one entry per order in the same form as a status event. The client
+ * replaces whatever it showed with it. Each later transition is an {@code event: status}
+ * with the feed's id, so a reconnecting EventSource sends Last-Event-ID and is replayed
+ * what it missed; when the feed no longer has that id (too old, or the server restarted)
+ * the client gets a fresh snapshot instead. The ready and orders streams leave out
+ * student codes, as they are meant for public screens; a student's own stream needs that
+ * student's session token ({@link SessionEndpoint}) in an "Authorization: Bearer" header.
+ *
+ * A comment line every {@link #HEARTBEAT_SECONDS} s keeps proxies from closing an idle
+ * stream and notices clients that went away. Streams hold no request slot (they are
+ * mostly idle) but are capped in number; a stream whose client falls
+ * {@link #BUFFER_EVENTS} events behind is ended and resumes on reconnect.
+ */
+final class OrderEventsEndpoint extends JsonHandler {
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int BUFFER_EVENTS = 64;
+    private static final int RETRY_MS = 3000;
+
+    private final OrderProcessor orderProcessor;
+    private final StudentManager studentManager;
+    private final SessionStore sessions;
+    private final DatabaseLane lane;
+    private final int maxStreams;
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    OrderEventsEndpoint(OrderProcessor orderProcessor, StudentManager studentManager, SessionStore sessions,
+                        DatabaseLane lane, int maxStreams) {
+        this.orderProcessor = orderProcessor;
+        this.studentManager = studentManager;
+        this.sessions = sessions;
+        this.lane = lane;
+        this.maxStreams = Math.max(1, maxStreams);
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, List<String> path) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) throw methodNotAllowed(exchange, "GET");
+        Predicate<OrderStatusEvent> filter;
+        boolean includeStudent;
+        if (path.size() == 1 && path.get(0).equals("ready")) {
+            filter = event -> event.getStatus() == OrderStatus.READY;
+            includeStudent = false;
+        } else if (path.size() == 1 && path.get(0).equals("orders")) {
+            filter = event -> true;
+            includeStudent = false;
+        } else if (path.size() == 2 && path.get(0).equals("students")) {
+            sessions.require(exchange, path.get(1));
+            if (lane.call(() -> studentManager.findByCode(path.get(1))) == null) {
+                throw notFound("Unknown student: " + path.get(1));
+            }
+            String code = path.get(1);
+            filter = event -> code.equals(event.getStudentCode());
+            includeStudent = true;
+        } else {
+            throw notFound("No such resource");
+        }
+
+        if (openStreams.incrementAndGet() > maxStreams) {
+            openStreams.decrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            throw new ApiError(503, "Too many open event streams, please retry");
+        }
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        try (OrderStatusFeed.Subscription subscription =
+                     orderProcessor.getOrderStatusFeed().subscribe(filter, lastEventId, BUFFER_EVENTS)) {
+            stream(exchange, subscription, includeStudent);
+        } finally {
+            openStreams.decrementAndGet();
+        }
+    }
+
+    private void stream(HttpExchange exchange, OrderStatusFeed.Subscription subscription, boolean includeStudent)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        StringBuilder chunk = new StringBuilder("retry: " + RETRY_MS + "\n\n");
+        if (subscription.getSnapshot() != null) {
+            List<Map<String, Object>> orders = new ArrayList<>();
+            for (OrderStatusEvent event : subscription.getSnapshot()) {
+                orders.add(data(event, includeStudent));
+            }
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("orders", orders);
+            chunk.append("id: ").append(subscription.getSnapshotId()).append('\n')
+                 .append("event: snapshot\n")
+                 .append("data: ").append(Json.write(snapshot)).append("\n\n");
+        }
+        for (OrderStatusEvent event : subscription.getReplay()) {
+            appendEvent(chunk, event, includeStudent);
+        }
+        write(out, chunk);
+
+        try {
+            while (true) {
+                OrderStatusEvent event = subscription.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    // Dropped for falling behind: end the stream, the client resumes from its last id
+                    if (subscription.isClosed()) return;
+                    chunk.append(": heartbeat\n\n");
+                } else {
+                    // Send whatever else is already buffered in the same write
+                    while (event != null) {
+                        appendEvent(chunk, event, includeStudent);
+                        event = subscription.poll(0, TimeUnit.SECONDS);
+                    }
+                }
+                write(out, chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void appendEvent(StringBuilder chunk, OrderStatusEvent event, boolean includeStudent) {
+        chunk.append("id: ").append(event.getId()).append('\n')
+             .append("event: status\n")
+             .append("data: ").append(Json.write(data(event, includeStudent))).append("\n\n");
+    }
+
+    private static Map<String, Object> data(OrderStatusEvent event, boolean includeStudent) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("orderCode", event.getOrderCode());
+        if (includeStudent) data.put("studentCode", event.getStudentCode());
+        data.put("status", event.getStatus());
+        data.put("at", event.getAt());
+        return data;
+    }
+
+    private static void write(OutputStream out, StringBuilder chunk) throws IOException {
+        out.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        chunk.setLength(0);
+    }
+}
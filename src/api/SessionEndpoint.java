@@ -0,0 +1,78 @@
+package api;
+
+import Core.Student;
+import Interfaces.IStudentRepository;
+import Services.CartService;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Student login for the API, with the same code and password as at the kiosks:
+ * <pre>
+ *   POST   /api/sessions    {"studentCode": "...", "password": "..."} -> {"token": "..."}
+ *   DELETE /api/sessions    end the session named by the Authorization header
+ * </pre>
+ * The token goes in an "Authorization: Bearer" header on every /api/students/{code} request
+ * and on the student's event stream. A wrong code or password answers 401 without saying
+ * which; repeated failures for one code answer 429 with Retry-After. Logging in reloads the
+ * student's saved cart, so it shows what was done at a kiosk since this server last saw it.
+ */
+final class SessionEndpoint extends JsonHandler {
+    private final IStudentRepository students;
+    private final CartService cartService;
+    private final SessionStore sessions;
+    private final DatabaseLane lane;
+
+    SessionEndpoint(IStudentRepository students, CartService cartService, SessionStore sessions, DatabaseLane lane) {
+        this.students = students;
+        this.cartService = cartService;
+        this.sessions = sessions;
+        this.lane = lane;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, List<String> path) throws IOException {
+        if (!path.isEmpty()) throw notFound("No such resource");
+        switch (exchange.getRequestMethod()) {
+            case "POST" -> login(exchange);
+            case "DELETE" -> {
+                sessions.logout(exchange.getRequestHeaders().getFirst("Authorization"));
+                send(exchange, 204, new byte[0]);
+            }
+            default -> throw methodNotAllowed(exchange, "POST, DELETE");
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readJsonObject(exchange);
+        String code = textField(body, "studentCode");
+        String password = textField(body, "password");
+        if (!sessions.loginAllowed(code)) {
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(sessions.retryAfterSeconds(code)));
+            throw new ApiError(429, "Too many failed logins, please wait");
+        }
+        Student student = lane.call(() -> students.authenticateStudent(code, password));
+        if (student == null) {
+            sessions.loginFailed(code);
+            throw new ApiError(401, "Wrong student code or password");
+        }
+        lane.run(() -> cartService.refresh(student.getStudentCode()));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("token", sessions.open(student.getStudentCode()));
+        json.put("studentCode", student.getStudentCode());
+        json.put("name", student.getName());
+        sendJson(exchange, 201, json);
+    }
+
+    private static String textField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        return ((String) value).trim();
+    }
+}
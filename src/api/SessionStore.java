@@ -0,0 +1,156 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student sessions of the API: an opaque random token per login, valid until it has been
+ * idle for the configured time or is ended by logging out. Sessions live in memory only,
+ * so a restarted server asks everyone to log in again.
+ *
+ * Failed logins are counted per student code; after {@link #MAX_FAILURES} within
+ * {@link #FAILURE_WINDOW_MINUTES} minutes further attempts for that code are refused until
+ * the window has passed, so passwords cannot be guessed at request speed.
+ */
+final class SessionStore {
+    private static final String BEARER = "Bearer ";
+    private static final int TOKEN_BYTES = 32;
+    private static final int MAX_FAILURES = 5;
+    private static final long FAILURE_WINDOW_MINUTES = 5;
+    private static final int PURGE_EVERY = 256;
+
+    private static final class Session {
+        final String studentCode;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Session(String studentCode) {
+            this.studentCode = studentCode;
+        }
+    }
+
+    private static final class Failures {
+        final long windowStart = System.currentTimeMillis();
+        int count;
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Failures> failures = new ConcurrentHashMap<>();
+    private final long idleMs;
+    private int sinceLastPurge;
+
+    SessionStore(long idleMinutes) {
+        this.idleMs = TimeUnit.MINUTES.toMillis(Math.max(1, idleMinutes));
+    }
+
+    /**
+     * Start a session for a student who has just authenticated; returns its token.
+     */
+    String open(String studentCode) {
+        purgeOccasionally();
+        failures.remove(studentCode);
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(studentCode));
+        return token;
+    }
+
+    /**
+     * The student code of the session named by a request's "Authorization: Bearer" header,
+     * or null when there is none or it is unknown or expired.
+     */
+    String authenticate(String authorization) {
+        return studentCode(token(authorization));
+    }
+
+    /**
+     * End the session named by a request's Authorization header, if any.
+     */
+    void logout(String authorization) {
+        String token = token(authorization);
+        if (token != null) sessions.remove(token);
+    }
+
+    /**
+     * Turn the request away unless it carries a live session of this student: 401 without
+     * one (so the client logs in), 403 for another student's session.
+     */
+    void require(HttpExchange exchange, String studentCode) {
+        String owner = authenticate(exchange.getRequestHeaders().getFirst("Authorization"));
+        if (owner == null) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            throw new JsonHandler.ApiError(401, "Log in first (POST /api/sessions)");
+        }
+        if (!owner.equals(studentCode)) throw new JsonHandler.ApiError(403, "Not your account");
+    }
+
+    /**
+     * The student code of a live session, or null for an unknown or expired token.
+     */
+    String studentCode(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (now - session.lastUsed > idleMs) {
+            sessions.remove(token);
+            return null;
+        }
+        session.lastUsed = now;
+        return session.studentCode;
+    }
+
+    /**
+     * Whether another login attempt for this code is allowed right now.
+     */
+    boolean loginAllowed(String studentCode) {
+        Failures f = failures.get(studentCode);
+        if (f == null) return true;
+        synchronized (f) {
+            if (System.currentTimeMillis() - f.windowStart > TimeUnit.MINUTES.toMillis(FAILURE_WINDOW_MINUTES)) {
+                failures.remove(studentCode, f);
+                return true;
+            }
+            return f.count < MAX_FAILURES;
+        }
+    }
+
+    void loginFailed(String studentCode) {
+        purgeOccasionally();
+        Failures f = failures.computeIfAbsent(studentCode, c -> new Failures());
+        synchronized (f) {
+            f.count++;
+        }
+    }
+
+    /**
+     * Seconds until a refused code may try again.
+     */
+    long retryAfterSeconds(String studentCode) {
+        Failures f = failures.get(studentCode);
+        if (f == null) return 0;
+        long waitMs = f.windowStart + TimeUnit.MINUTES.toMillis(FAILURE_WINDOW_MINUTES) - System.currentTimeMillis();
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMs) + 1);
+    }
+
+    private static String token(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) return null;
+        return authorization.substring(BEARER.length()).trim();
+    }
+
+    private void purgeOccasionally() {
+        synchronized (this) {
+            if (++sinceLastPurge < PURGE_EVERY) return;
+            sinceLastPurge = 0;
+        }
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> now - session.lastUsed > idleMs);
+        failures.values().removeIf(f -> now - f.windowStart > TimeUnit.MINUTES.toMillis(FAILURE_WINDOW_MINUTES));
+    }
+}
@@ -0,0 +1,162 @@
+package api;
+
+import Core.Cart;
+import Core.MenuItem;
+import Core.Student;
+import Services.CartService;
+import Services.LoyaltyProgramService;
+import Services.MenuManager;
+import Services.OrderProcessor;
+import Services.StudentManager;
+import Values.PickupEta;
+import Values.PlacementResult;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student's cart, order placement and loyalty balance, under /api/students/{code}:
+ * <pre>
+ *   GET    /cart                     the cart
+ *   DELETE /cart                     empty the cart
+ *   POST   /cart/items               add {"menuItemId": 3, "quantity": 2}
+ *   PUT    /cart/items/{menuItemId}  set {"quantity": 1}; 0 removes the line
+ *   DELETE /cart/items/{menuItemId}  remove the line
+ *   POST   /orders                   place the cart as an order (Idempotency-Key header)
+ *   GET    /loyalty                  loyalty points balance
+ * </pre>
+ * Every request needs the student's own session token from {@link SessionEndpoint} in an
+ * "Authorization: Bearer" header; it is checked before anything about the student is
+ * looked up, so unknown codes and other students' codes cannot be told apart. Placement goes through
+ * {@link CartService#checkout}: admission control answers 429 with Retry-After, a cart
+ * that had to be brought in line with the menu answers 409 so the new total can be shown,
+ * and a retry with the same Idempotency-Key returns the same order. Orders are placed for
+ * pickup as soon as possible; the cart is kept until the client empties it. Calls into
+ * the services go through the {@link DatabaseLane}.
+ */
+final class StudentEndpoint extends JsonHandler {
+    private final StudentManager studentManager;
+    private final MenuManager menuManager;
+    private final CartService cartService;
+    private final OrderProcessor orderProcessor;
+    private final LoyaltyProgramService loyaltyService;
+    private final SessionStore sessions;
+    private final DatabaseLane lane;
+
+    StudentEndpoint(StudentManager studentManager, MenuManager menuManager, CartService cartService,
+                    OrderProcessor orderProcessor, LoyaltyProgramService loyaltyService, SessionStore sessions,
+                    DatabaseLane lane) {
+        this.studentManager = studentManager;
+        this.menuManager = menuManager;
+        this.cartService = cartService;
+        this.orderProcessor = orderProcessor;
+        this.loyaltyService = loyaltyService;
+        this.sessions = sessions;
+        this.lane = lane;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, List<String> path) throws IOException {
+        if (path.size() < 2) throw notFound("No such resource");
+        sessions.require(exchange, path.get(0));
+        Student student = lane.call(() -> studentManager.findByCode(path.get(0)));
+        if (student == null) throw notFound("Unknown student: " + path.get(0));
+        String code = student.getStudentCode();
+        String method = exchange.getRequestMethod();
+
+        switch (path.get(1)) {
+            case "cart" -> {
+                if (path.size() == 2) {
+                    cart(exchange, code, method);
+                } else if (path.get(2).equals("items") && path.size() <= 4) {
+                    cartItems(exchange, code, method, path.size() == 4 ? path.get(3) : null);
+                } else {
+                    throw notFound("No such resource");
+                }
+            }
+            case "orders" -> {
+                if (path.size() != 2) throw notFound("No such resource");
+                if (!"POST".equals(method)) throw methodNotAllowed(exchange, "POST");
+                placeOrder(exchange, student);
+            }
+            case "loyalty" -> {
+                if (path.size() != 2) throw notFound("No such resource");
+                if (!"GET".equals(method)) throw methodNotAllowed(exchange, "GET");
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("studentCode", code);
+                json.put("points", student.getAccount() != null ? lane.call(() -> loyaltyService.getBalance(student)) : 0);
+                sendJson(exchange, 200, json);
+            }
+            default -> throw notFound("No such resource");
+        }
+    }
+
+    private void cart(HttpExchange exchange, String code, String method) throws IOException {
+        switch (method) {
+            case "GET" -> sendJson(exchange, 200, ApiViews.cart(lane.call(() -> cartService.getCart(code))));
+            case "DELETE" -> {
+                Cart cart = lane.call(() -> {
+                    cartService.clear(code);
+                    return cartService.getCart(code);
+                });
+                sendJson(exchange, 200, ApiViews.cart(cart));
+            }
+            default -> throw methodNotAllowed(exchange, "GET, DELETE");
+        }
+    }
+
+    private void cartItems(HttpExchange exchange, String code, String method, String itemSegment) throws IOException {
+        Cart cart;
+        if (itemSegment == null) {
+            if (!"POST".equals(method)) throw methodNotAllowed(exchange, "POST");
+            Map<String, Object> body = readJsonObject(exchange);
+            int quantity = intField(body, "quantity", 1);
+            if (quantity < 1) throw new IllegalArgumentException("quantity must be at least 1");
+            int menuItemId = intField(body, "menuItemId", null);
+            cart = lane.call(() -> cartService.addItem(code, availableItem(menuItemId), quantity));
+        } else {
+            int menuItemId = parseId(itemSegment, "menu item");
+            switch (method) {
+                case "PUT" -> {
+                    int quantity = intField(readJsonObject(exchange), "quantity", null);
+                    cart = lane.call(() -> cartService.setQuantity(code, menuItemId, quantity));
+                }
+                case "DELETE" -> cart = lane.call(() -> cartService.removeItem(code, menuItemId));
+                default -> throw methodNotAllowed(exchange, "PUT, DELETE");
+            }
+        }
+        sendJson(exchange, 200, ApiViews.cart(cart));
+    }
+
+    private void placeOrder(HttpExchange exchange, Student student) throws IOException {
+        String requestKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        if (requestKey != null && (requestKey.isBlank() || requestKey.length() > 64)) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to 64 characters");
+        }
+        PlacementResult result = lane.call(() -> cartService.checkout(student, null, requestKey));
+        if (result.isPlaced()) {
+            String orderCode = result.getOrder().getCode();
+            PickupEta eta = lane.call(() -> orderProcessor.estimateReadyTime(orderCode));
+            exchange.getResponseHeaders().set("Location", "/api/orders/" + orderCode);
+            sendJson(exchange, 201, ApiViews.order(result.getOrder(), eta));
+            return;
+        }
+        if (result.isBusy()) {
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(result.getRetryAfterSeconds()));
+            throw new ApiError(429, result.getMessage());
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("error", result.getMessage());
+        json.put("cart", ApiViews.cart(lane.call(() -> cartService.getCart(student.getStudentCode()))));
+        sendJson(exchange, 409, json);
+    }
+
+    private MenuItem availableItem(int menuItemId) {
+        MenuItem item = menuManager.findMenuItem(menuItemId);
+        if (item == null || !item.isActive()) throw notFound("No such menu item: " + menuItemId);
+        return item;
+    }
+}
@@ -22,6 +22,7 @@ public class Terminal {
         ServiceContainer container = new ServiceContainer();
         seedDemoMenu(container.getMenuManager());
         new MainConsole(container, scanner).run();
+        container.shutdown();
         scanner.close();
     }
 
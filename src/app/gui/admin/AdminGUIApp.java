@@ -1,12 +1,14 @@
 package app.gui.admin;
 
 import javafx.application.Application;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import javafx.stage.Screen;
 import javafx.geometry.Rectangle2D;
 import terminal.ServiceContainer;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.AppStartup;
+import app.gui.shared.BackgroundTasks;
+import app.gui.shared.ImageAssets;
 
 import java.util.logging.Logger;
 
@@ -22,17 +24,38 @@ public class AdminGUIApp extends Application {
 
     @Override
     public void start(Stage stage) {
+        logger.info("Starting Administrative Portal Application...");
+        primaryStage = stage;
+
+        // The splash shows at once; the services connect to the database off the FX thread
+        AppStartup startup = new AppStartup("Administrative Portal");
+        startup.start(AdminGUIApp::createServices,
+            services -> showFirstScreen(stage, services, startup),
+            e -> AlertHelper.showError("Startup Error", "Failed to start the Administrative Portal: " + e.getMessage()));
+    }
+
+    /**
+     * Create the services on the startup thread, including the ones the login screen uses
+     * that the container otherwise creates on first use.
+     */
+    private static ServiceContainer createServices() {
+        ServiceContainer services = new ServiceContainer();
+        // The order, kitchen and live operations views follow the in-memory pending-order board
+        services.getOrderProcessor().enablePendingOrderBoard();
+        services.getAdminAuthService();
+        services.getRoleAuthService();
+        return services;
+    }
+
+    /**
+     * Show the login screen once the services are ready (FX thread).
+     */
+    private void showFirstScreen(Stage stage, ServiceContainer services, AppStartup startup) {
         try {
-            logger.info("Starting Administrative Portal Application...");
-            
-            primaryStage = stage;
-            
-            // Initialize the service container with all business services
-            logger.info("Initializing service container...");
-            serviceContainer = new ServiceContainer();
-            
+            serviceContainer = services;
+
             // Initialize the navigation service with stage and services
-            AdminNavigationService.initialize(stage, serviceContainer);
+            AdminNavigationService.initialize(stage, services);
             
             // Get screen bounds for optimal sizing
             Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
@@ -62,9 +85,12 @@ public class AdminGUIApp extends Application {
             
             logger.info("Administrative Portal Application started successfully in fullscreen mode.");
 
-            //
-            Image icon = new Image("file:D:\\inteljii  ULTIMATE\\IdeaProjects\\CafeteriaSystem1\\icon2.png"); // file:CopyPathOfImage
-            stage.getIcons().add(icon);
+            // Window icon, decoded at icon sizes from the bundled image
+            ImageAssets.applyIcons(stage, "icons/admin-icon.png");
+            startup.firstScreenShown();
+
+            // Read the screens likely to follow login while the user types their credentials
+            AdminNavigationService.preload("service-dashboard", "admin-dashboard", "student-manager-dashboard", "menu-manager-dashboard");
         } catch (Exception e) {
             logger.severe("Failed to start application: " + e.getMessage());
             e.printStackTrace();
@@ -76,7 +102,10 @@ public class AdminGUIApp extends Application {
     @Override
     public void stop() {
         logger.info("Shutting down Administrative Portal Application...");
-        // Cleanup resources if needed
+        BackgroundTasks.shutdown();
+        if (serviceContainer != null) {
+            serviceContainer.shutdown();
+        }
     }
 
     /**
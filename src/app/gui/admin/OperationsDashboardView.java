@@ -0,0 +1,228 @@
+package app.gui.admin;
+
+import Services.OrderProcessor;
+import Values.AdmissionMetrics;
+import Values.LatencyPercentiles;
+import Values.OperationsSnapshot;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Live operations figures (orders per minute, queue depth, prep time, payment success per
+ * method, database latency, order admission) that follow the in-process metrics as orders
+ * move, without querying the database for them.
+ *
+ * Metric events only mark the view dirty. A sampler thread reads one snapshot at most every
+ * {@link #SAMPLE_MILLIS} ms when something changed (and every {@link #IDLE_SAMPLE_MILLIS} ms
+ * otherwise, as the one-minute windows slide), and hands it to the FX thread with at most
+ * one redraw pending, so a rush of events costs a few redraws a second. Labels are only
+ * touched when their text changes.
+ *
+ * Call {@link #start()} when shown and {@link #stop()} when taken off screen.
+ */
+public final class OperationsDashboardView extends VBox {
+    private static final Logger logger = Logger.getLogger(OperationsDashboardView.class.getName());
+    private static final long SAMPLE_MILLIS = 500;
+    private static final long IDLE_SAMPLE_MILLIS = 5_000;
+    // Queue depth samples drawn in the sparkline
+    private static final int HISTORY = 120;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final OrderProcessor orderProcessor;
+    private final Runnable onChange = this::markDirty;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final AtomicBoolean redrawPending = new AtomicBoolean();
+    private volatile OperationsSnapshot latest;
+    private volatile long lastSampleMillis;
+    private ScheduledExecutorService sampler;
+
+    private final Map<String, Label> values = new HashMap<>();
+    private final GridPane figures = new GridPane();
+    private final GridPane paymentGrid = new GridPane();
+    private final Label updatedLabel = new Label("Waiting for data...");
+    private final Canvas queueChart = new Canvas(480, 80);
+    private final int[] queueHistory = new int[HISTORY];
+    private int historySize;
+    private int historyNext;
+
+    public OperationsDashboardView(OrderProcessor orderProcessor) {
+        super(15);
+        this.orderProcessor = orderProcessor;
+
+        figures.setHgap(30);
+        figures.setVgap(10);
+        figures.setPadding(new Insets(10));
+        addFigure("Orders placed / min", 0);
+        addFigure("Orders ready / min", 1);
+        addFigure("Queue (new / preparing)", 2);
+        addFigure("Prep time p50 / p95", 3);
+        addFigure("Database calls / min", 4);
+        addFigure("Database latency avg / max", 5);
+        addFigure("Order admission", 6);
+
+        paymentGrid.setHgap(30);
+        paymentGrid.setVgap(6);
+        paymentGrid.setPadding(new Insets(10));
+
+        Label paymentsTitle = new Label("Payments by method (all terminals, today)");
+        paymentsTitle.setStyle("-fx-font-weight: bold;");
+        Label chartTitle = new Label("Queue depth");
+        chartTitle.setStyle("-fx-font-weight: bold;");
+        updatedLabel.setStyle("-fx-text-fill: gray;");
+
+        getChildren().addAll(updatedLabel, figures, chartTitle, queueChart, paymentsTitle, paymentGrid);
+    }
+
+    public void start() {
+        if (sampler != null) return;
+        orderProcessor.getOperationsMetrics().addChangeListener(onChange);
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "operations-dashboard");
+            t.setDaemon(true);
+            return t;
+        });
+        dirty.set(true);
+        sampler.scheduleWithFixedDelay(this::sample, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        orderProcessor.getOperationsMetrics().removeChangeListener(onChange);
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    private void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Sampler thread: read a snapshot if due and schedule a redraw unless one is pending.
+     */
+    private void sample() {
+        long now = System.currentTimeMillis();
+        if (!dirty.getAndSet(false) && now - lastSampleMillis < IDLE_SAMPLE_MILLIS) return;
+        lastSampleMillis = now;
+        try {
+            latest = orderProcessor.operationsSnapshot();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to read operations metrics", e);
+            return;
+        }
+        if (redrawPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                redrawPending.set(false);
+                redraw(latest);
+            });
+        }
+    }
+
+    private void redraw(OperationsSnapshot s) {
+        set(updatedLabel, "Updated " + TIME.format(s.getTakenAt()));
+        setFigure("Orders placed / min", String.valueOf(s.getOrdersPlacedPerMinute()));
+        setFigure("Orders ready / min", String.valueOf(s.getOrdersReadyPerMinute()));
+        setFigure("Queue (new / preparing)", s.getQueueDepth() + "  (" + s.getNewOrders() + " / " + s.getPreparingOrders() + ")");
+        setFigure("Prep time p50 / p95", s.getPrepP50Ms() < 0 ? "n/a"
+                : LatencyPercentiles.formatMillis(s.getPrepP50Ms()) + " / " + LatencyPercentiles.formatMillis(s.getPrepP95Ms()));
+        setFigure("Database calls / min", String.valueOf(s.getDbCallsPerMinute()));
+        setFigure("Database latency avg / max", s.getDbCallsPerMinute() == 0 ? "n/a"
+                : String.format("%.1f ms / %.1f ms", s.getDbAverageMs(), s.getDbMaxMs()));
+        AdmissionMetrics admission = s.getAdmission();
+        setFigure("Order admission", admission == null ? "off"
+                : admission.getInFlight() + " in flight, " + admission.getWaiting() + " waiting, "
+                  + (admission.getRejectedRateLimited() + admission.getRejectedBusy()) + " rejected");
+
+        redrawPayments(s);
+
+        queueHistory[historyNext] = s.getQueueDepth();
+        historyNext = (historyNext + 1) % HISTORY;
+        historySize = Math.min(historySize + 1, HISTORY);
+        drawQueueChart();
+    }
+
+    private void redrawPayments(OperationsSnapshot s) {
+        if (s.getPayments().isEmpty()) {
+            if (paymentGrid.getChildren().isEmpty()) paymentGrid.add(new Label("No payments yet"), 0, 0);
+            return;
+        }
+        // Rows are rebuilt only when a method appears; otherwise only changed texts are set
+        if (paymentGrid.getChildren().size() != s.getPayments().size() * 2) {
+            paymentGrid.getChildren().clear();
+            int row = 0;
+            for (OperationsSnapshot.PaymentMethodStats method : s.getPayments()) {
+                paymentGrid.add(new Label(method.getMethod() + ":"), 0, row);
+                paymentGrid.add(new Label(), 1, row);
+                row++;
+            }
+        }
+        for (int i = 0; i < s.getPayments().size(); i++) {
+            OperationsSnapshot.PaymentMethodStats method = s.getPayments().get(i);
+            Label value = (Label) paymentGrid.getChildren().get(i * 2 + 1);
+            set(value, String.format("%.1f%% succeeded  (%d of %d)",
+                    method.getSuccessRate() * 100, method.getSuccesses(), method.getAttempts()));
+        }
+    }
+
+    private void drawQueueChart() {
+        GraphicsContext g = queueChart.getGraphicsContext2D();
+        double w = queueChart.getWidth();
+        double h = queueChart.getHeight();
+        g.clearRect(0, 0, w, h);
+        g.setStroke(Color.LIGHTGRAY);
+        g.strokeRect(0.5, 0.5, w - 1, h - 1);
+        if (historySize < 2) return;
+
+        int max = 1;
+        for (int i = 0; i < historySize; i++) {
+            max = Math.max(max, queueHistory[i]);
+        }
+        g.setStroke(Color.web("#2980b9"));
+        g.setLineWidth(2);
+        g.beginPath();
+        int oldest = historySize < HISTORY ? 0 : historyNext;
+        for (int i = 0; i < historySize; i++) {
+            int value = queueHistory[(oldest + i) % HISTORY];
+            double x = 2 + (w - 4) * i / (HISTORY - 1);
+            double y = h - 4 - (h - 8) * value / max;
+            if (i == 0) g.moveTo(x, y); else g.lineTo(x, y);
+        }
+        g.stroke();
+        g.setFill(Color.GRAY);
+        g.fillText("max " + max, 6, 14);
+    }
+
+    private void addFigure(String name, int row) {
+        Label key = new Label(name + ":");
+        key.setStyle("-fx-font-weight: bold;");
+        Label value = new Label("-");
+        value.setStyle("-fx-font-size: 16px;");
+        values.put(name, value);
+        figures.add(key, 0, row);
+        figures.add(value, 1, row);
+    }
+
+    private void setFigure(String name, String text) {
+        set(values.get(name), text);
+    }
+
+    private static void set(Label label, String text) {
+        if (!text.equals(label.getText())) label.setText(text);
+    }
+}
@@ -5,7 +5,11 @@ import Core.OrderItem;
 import Services.OrderProcessor;
 import ServiceManagers.OrderManagement;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
 import app.gui.admin.AdminNavigationService;
+import Interfaces.IPendingOrderListener;
+import Values.KitchenItemTotal;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.collections.FXCollections;
@@ -13,7 +17,11 @@ import javafx.collections.ObservableList;
 import terminal.ServiceContainer;
 import Enums.OrderStatus;
 
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -22,6 +30,7 @@ import java.util.logging.Logger;
  */
 public class OrderManagerDashboardController {
     private static final Logger logger = Logger.getLogger(OrderManagerDashboardController.class.getName());
+    private static final DateTimeFormatter PICKUP_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     
     @FXML private Label welcomeLabel;
     @FXML private TableView<Order> ordersTable;
@@ -30,9 +39,17 @@ public class OrderManagerDashboardController {
     @FXML private TableColumn<Order, Double> totalColumn;
     @FXML private TableColumn<Order, String> statusColumn;
     @FXML private TableColumn<Order, String> dateColumn;
+    @FXML private TableColumn<Order, String> pickupColumn;
+    
+    @FXML private TableView<KitchenItemTotal> kitchenTotalsTable;
+    @FXML private TableColumn<KitchenItemTotal, String> kitchenItemColumn;
+    @FXML private TableColumn<KitchenItemTotal, Integer> kitchenNewColumn;
+    @FXML private TableColumn<KitchenItemTotal, Integer> kitchenPreparingColumn;
+    @FXML private TableColumn<KitchenItemTotal, Integer> kitchenTotalColumn;
     
     @FXML private TextArea orderDetailsArea;
     @FXML private ComboBox<OrderStatus> statusComboBox;
+    @FXML private Label selectionCountLabel;
     
     private OrderManagement manager;
     private ServiceContainer services;
@@ -40,6 +57,38 @@ public class OrderManagerDashboardController {
     private ObservableList<Order> ordersList;
     private Order selectedOrder;
     
+    // Applies the pending-order board's change feed to the table on the FX thread
+    private final IPendingOrderListener boardListener = new IPendingOrderListener() {
+        @Override
+        public void orderAdded(Order order) {
+            Platform.runLater(() -> {
+                if (indexOfOrder(order.getCode()) < 0) ordersList.add(order);
+                refreshKitchenTotals();
+            });
+        }
+        
+        @Override
+        public void orderUpdated(Order order) {
+            Platform.runLater(() -> {
+                int index = indexOfOrder(order.getCode());
+                if (index >= 0) ordersList.set(index, order);
+                if (selectedOrder != null && order.getCode().equals(selectedOrder.getCode())) {
+                    selectedOrder = order;
+                    displayOrderDetails(order);
+                }
+                refreshKitchenTotals();
+            });
+        }
+        
+        @Override
+        public void orderRemoved(Order order) {
+            Platform.runLater(() -> {
+                ordersList.removeIf(o -> order.getCode().equals(o.getCode()));
+                refreshKitchenTotals();
+            });
+        }
+    };
+    
     @FXML
     public void initialize() {
         services = AdminNavigationService.getServiceContainer();
@@ -51,13 +100,26 @@ public class OrderManagerDashboardController {
         totalColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleDoubleProperty(data.getValue().total().getAmount().doubleValue()).asObject());
         statusColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus().toString()));
         dateColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getCode() != null ? data.getValue().getCode() : "N/A"));
+        pickupColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+                data.getValue().getPickupSlot() != null ? data.getValue().getPickupSlot().format(PICKUP_FORMATTER) : "ASAP"));
         
         ordersList = FXCollections.observableArrayList();
         ordersTable.setItems(ordersList);
         
+        // Kitchen totals: quantity per menu item across all open orders
+        kitchenItemColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getName()));
+        kitchenNewColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().getNewQty()).asObject());
+        kitchenPreparingColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().getPreparingQty()).asObject());
+        kitchenTotalColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().getTotalQty()).asObject());
+        
         // Setup status combo box
         statusComboBox.setItems(FXCollections.observableArrayList(OrderStatus.values()));
         
+        // Several orders can be selected and updated together (Ctrl/Shift+click)
+        ordersTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        ordersTable.getSelectionModel().getSelectedItems().addListener(
+                (javafx.collections.ListChangeListener<Order>) change -> updateSelectionCount());
+        
         // Load order details on selection
         ordersTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null) {
@@ -67,9 +129,17 @@ public class OrderManagerDashboardController {
             }
         });
         
+        // Subscribe before the first snapshot so no change is missed; events are applied idempotently
+        orderProcessor.getPendingOrderBoard().addListener(boardListener);
+        
         logger.info("OrderManagerDashboardController initialized");
     }
     
+    private void updateSelectionCount() {
+        int count = ordersTable.getSelectionModel().getSelectedItems().size();
+        selectionCountLabel.setText(count <= 1 ? "" : count + " orders selected");
+    }
+    
     public void setManagerData(OrderManagement manager) {
         this.manager = manager;
         welcomeLabel.setText("Welcome, " + manager.getName() + " - Order Manager");
@@ -78,14 +148,19 @@ public class OrderManagerDashboardController {
     
     @FXML
     private void handleLoadOrders() {
+        // Pull changes from other terminals now instead of waiting for the next poll
+        orderProcessor.getPendingOrderBoard().refreshNow();
         loadPendingOrders();
     }
     
+    /**
+     * Reload the table from the in-memory board snapshot (no database query).
+     */
     private void loadPendingOrders() {
         try {
             List<Order> orders = orderProcessor.trackPendingOrders();
-            ordersList.clear();
-            ordersList.addAll(orders);
+            ordersList.setAll(orders);
+            refreshKitchenTotals();
             logger.info("Loaded " + orders.size() + " pending orders");
         } catch (Exception e) {
             logger.severe("Error loading orders: " + e.getMessage());
@@ -93,6 +168,20 @@ public class OrderManagerDashboardController {
         }
     }
     
+    /**
+     * Show the incrementally maintained per-item totals (no scan over the orders).
+     */
+    private void refreshKitchenTotals() {
+        kitchenTotalsTable.getItems().setAll(orderProcessor.getKitchenTotals());
+    }
+    
+    private int indexOfOrder(String code) {
+        for (int i = 0; i < ordersList.size(); i++) {
+            if (code.equals(ordersList.get(i).getCode())) return i;
+        }
+        return -1;
+    }
+    
     private void displayOrderDetails(Order order) {
         StringBuilder details = new StringBuilder();
         details.append("Order ID: ").append(order.getId()).append("\n");
@@ -133,51 +222,83 @@ public class OrderManagerDashboardController {
         }
     }
     
+    /**
+     * Move every selected order to the new status in one bulk operation.
+     */
     private void updateOrderStatus(OrderStatus newStatus) {
-        if (selectedOrder == null) {
-            AlertHelper.showError("Selection Error", "Please select an order first");
+        List<Order> selected = new ArrayList<>(ordersTable.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) {
+            AlertHelper.showError("Selection Error", "Please select one or more orders first");
             return;
         }
         
-        try {
-            // Use advanceStatus method from OrderProcessor
-            orderProcessor.advanceStatus(selectedOrder.getId(), newStatus);
+        List<String> codes = new ArrayList<>();
+        for (Order order : selected) {
+            codes.add(order.getCode());
+        }
+        
+        // The transition and the notification inserts are database work
+        BackgroundTasks.task("Updating orders", progress -> {
+            // Conditional transition; orders another manager already moved are skipped
+            List<String> moved = orderProcessor.advanceStatusBulk(codes, newStatus);
             
-            // Send notification if status is PREPARING
-            if (newStatus == OrderStatus.PREPARING) {
-                sendOrderPreparingNotification(selectedOrder);
+            // Send notifications if status is PREPARING
+            if (newStatus == OrderStatus.PREPARING && !moved.isEmpty()) {
+                sendOrderPreparingNotifications(selected, moved);
             }
-            
-            AlertHelper.showSuccess("Success", "Order status updated to " + newStatus);
-            loadPendingOrders();
-            orderDetailsArea.clear();
-            selectedOrder = null;
-        } catch (Exception e) {
-            logger.severe("Error updating order status: " + e.getMessage());
-            AlertHelper.showError("Error", "Failed to update order: " + e.getMessage());
+            return moved;
+        })
+            .owner(this).key("status")
+            .overlay(ordersTable)
+            .onSuccess(moved -> showStatusUpdate(newStatus, codes, moved))
+            .onFailure(e -> {
+                logger.severe("Error updating order status: " + e.getMessage());
+                AlertHelper.showError("Error", "Failed to update order: " + e.getMessage());
+            })
+            .start();
+    }
+    
+    /**
+     * FX thread: report which of the selected orders moved and reload the list.
+     */
+    private void showStatusUpdate(OrderStatus newStatus, List<String> codes, List<String> moved) {
+        String rule = "orders move NEW -> PREPARING -> READY";
+        if (moved.isEmpty()) {
+            AlertHelper.showError("Update Rejected", "No selected order is "
+                    + (newStatus.previous() != null ? newStatus.previous() : "eligible") + "; " + rule);
+        } else if (moved.size() < codes.size()) {
+            List<String> skipped = new ArrayList<>(codes);
+            skipped.removeAll(moved);
+            AlertHelper.showWarning("Partially Updated", moved.size() + " of " + codes.size()
+                    + " orders updated to " + newStatus + ". Skipped: " + String.join(", ", skipped) + " (" + rule + ")");
+        } else {
+            AlertHelper.showSuccess("Success", moved.size() == 1
+                    ? "Order status updated to " + newStatus
+                    : moved.size() + " orders updated to " + newStatus);
         }
+        loadPendingOrders();
+        orderDetailsArea.clear();
+        selectedOrder = null;
     }
     
     /**
-     * Send a gold notification to student when their order is being prepared
+     * Send a gold notification to each student whose order is now being prepared
      */
-    private void sendOrderPreparingNotification(Order order) {
+    private void sendOrderPreparingNotifications(List<Order> selected, List<String> moved) {
         try {
             Services.NotificationHistoryService notificationService = services.getNotificationHistoryService();
             if (notificationService != null) {
-                String message = String.format("Your order %s is now being prepared",
-                    order.getCode() != null ? order.getCode() : "#" + order.getId());
-                
-                notificationService.sendNotification(
-                    order.getStudentCode(),
-                    message,
-                    "ORDER_PREPARING" // Using ORDER_READY type for special styling
-                );
-                
-                logger.info("Sent preparing notification for order: " + order.getCode() + " to student: " + order.getStudentCode());
+                Map<String, String> studentByOrder = new LinkedHashMap<>();
+                for (Order order : selected) {
+                    if (moved.contains(order.getCode())) {
+                        studentByOrder.put(order.getCode(), order.getStudentCode());
+                    }
+                }
+                notificationService.sendOrderPreparingNotifications(studentByOrder);
+                logger.info("Sent preparing notifications for " + studentByOrder.size() + " order(s)");
             }
         } catch (Exception e) {
-            logger.warning("Failed to send preparing notification: " + e.getMessage());
+            logger.warning("Failed to send preparing notifications: " + e.getMessage());
             // Don't fail the status update if notification fails
         }
     }
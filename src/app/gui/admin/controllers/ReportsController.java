@@ -4,9 +4,11 @@ import Core.Admin;
 import Enums.ManagerType;
 import Services.AdminManagement_Services;
 import Services.ReportService;
+import Values.LatencyPercentiles;
 import Values.Money;
 import app.gui.admin.AdminNavigationService;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -48,6 +50,27 @@ public class ReportsController {
     @FXML
     private TableColumn<ManagerStatistic, Number> managerCountColumn;
     
+    @FXML
+    private TableView<LatencyPercentiles> latencyTable;
+    
+    @FXML
+    private TableColumn<LatencyPercentiles, String> latencyScopeColumn;
+    
+    @FXML
+    private TableColumn<LatencyPercentiles, String> latencyMetricColumn;
+    
+    @FXML
+    private TableColumn<LatencyPercentiles, Number> latencyCountColumn;
+    
+    @FXML
+    private TableColumn<LatencyPercentiles, String> latencyP50Column;
+    
+    @FXML
+    private TableColumn<LatencyPercentiles, String> latencyP95Column;
+    
+    @FXML
+    private TableColumn<LatencyPercentiles, String> latencyP99Column;
+    
     @FXML
     private Button backButton;
     
@@ -69,10 +92,20 @@ public class ReportsController {
         // Set up table columns
         managerTypeColumn.setCellValueFactory(cellData -> cellData.getValue().typeProperty());
         managerCountColumn.setCellValueFactory(cellData -> cellData.getValue().countProperty());
+        latencyScopeColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getScope()));
+        latencyMetricColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getMetric()));
+        latencyCountColumn.setCellValueFactory(cellData -> new SimpleLongProperty(cellData.getValue().getCount()));
+        latencyP50Column.setCellValueFactory(cellData ->
+                new SimpleStringProperty(LatencyPercentiles.formatMillis(cellData.getValue().getP50Ms())));
+        latencyP95Column.setCellValueFactory(cellData ->
+                new SimpleStringProperty(LatencyPercentiles.formatMillis(cellData.getValue().getP95Ms())));
+        latencyP99Column.setCellValueFactory(cellData ->
+                new SimpleStringProperty(LatencyPercentiles.formatMillis(cellData.getValue().getP99Ms())));
         
         // Load data
         loadSummaryMetrics();
         loadManagerStatistics();
+        loadLatencyPercentiles();
         
         logger.info("ReportsController initialized.");
     }
@@ -142,6 +175,18 @@ public class ReportsController {
         }
     }
     
+    /**
+     * Load queue / prep time percentiles (overall, per hour, per item) into the SLA table.
+     */
+    private void loadLatencyPercentiles() {
+        try {
+            latencyTable.setItems(FXCollections.observableArrayList(reportService.latencyPercentiles()));
+            logger.info("Latency percentiles loaded successfully.");
+        } catch (Exception e) {
+            logger.severe("Failed to load latency percentiles: " + e.getMessage());
+        }
+    }
+    
     /**
      * Format manager type enum to display-friendly string.
      * 
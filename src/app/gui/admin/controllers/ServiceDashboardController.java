@@ -8,7 +8,10 @@ import javafx.geometry.Insets;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
+import app.gui.shared.PagedTableModel;
 import app.gui.admin.AdminNavigationService;
+import app.gui.admin.OperationsDashboardView;
 import terminal.ServiceContainer;
 import Enums.ManagerType;
 import Enums.Category;
@@ -16,8 +19,11 @@ import Enums.OrderStatus;
 import ServiceManagers.ServicesManager;
 import Services.*;
 import Core.*;
+import Values.LatencyPercentiles;
+import Values.PageRequest;
 import app.gui.admin.controllers.UnifiedLoginController.ServiceManagerData;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +32,8 @@ import java.util.Map;
  * Dynamically displays actions based on the manager type.
  */
 public class ServiceDashboardController {
+    private static final int NOTIFICATION_PAGE_SIZE = 50;
+    private static final String ALL = "ALL";
     
     @FXML
     private Label managerNameLabel;
@@ -42,12 +50,48 @@ public class ServiceDashboardController {
     private ServiceContainer services;
     private ServicesManager currentManager;
     private ManagerType currentType;
+    // Paged rows of the table currently in the content area, if any
+    private PagedTableModel<?> contentModel;
+    // Live operations figures currently in the content area, if any
+    private OperationsDashboardView liveView;
     
     @FXML
     public void initialize() {
         services = AdminNavigationService.getServiceContainer();
     }
     
+    /**
+     * Empty the content area, stopping the paged table or live figures shown there.
+     */
+    private void clearContent() {
+        if (contentModel != null) {
+            contentModel.dispose();
+            contentModel = null;
+        }
+        if (liveView != null) {
+            liveView.stop();
+            liveView = null;
+        }
+        contentArea.getChildren().clear();
+    }
+    
+    /**
+     * Search box (applied on Enter) and a row count for a paged table, plus any filters.
+     */
+    private HBox searchBar(PagedTableModel<?> model, String prompt, javafx.scene.Node... filters) {
+        TextField search = new TextField();
+        search.setPromptText(prompt);
+        search.setPrefWidth(260);
+        search.setOnAction(e -> model.setRequest(model.getRequest().withSearch(search.getText())));
+        Label count = new Label();
+        count.textProperty().bind(model.rowCountProperty().asString("%,d rows"));
+        HBox bar = new HBox(10, search);
+        bar.getChildren().addAll(filters);
+        bar.getChildren().add(count);
+        bar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        return bar;
+    }
+    
     /**
      * Set manager data received from unified login screen
      */
@@ -85,11 +129,13 @@ public class ServiceDashboardController {
                 addActionButton("View Orders", this::handleViewOrders);
                 addActionButton("Update Order Status", this::handleUpdateOrderStatus);
                 addActionButton("Process Orders", this::handleProcessOrders);
+                addActionButton("Live Operations", this::handleViewAnalytics);
                 break;
                 
             case PAYMENT:
                 addActionButton("View Payments", this::handleViewPayments);
                 addActionButton("Manage Payment Methods", this::handleManagePaymentMethods);
+                addActionButton("Live Operations", this::handleViewAnalytics);
                 break;
                 
             case NOTIFICATION:
@@ -123,7 +169,7 @@ public class ServiceDashboardController {
     // ==================== MENU MANAGER ACTIONS ====================
     
     private void handleViewMenu() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Menu Items");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -148,14 +194,17 @@ public class ServiceDashboardController {
         table.getColumns().addAll(idCol, nameCol, descCol, priceCol, categoryCol);
         
         MenuManager menuManager = services.getMenuManager();
-        ObservableList<MenuItem> items = FXCollections.observableArrayList(menuManager.getAvailableItems());
-        table.setItems(items);
+        table.setPlaceholder(new Label("Loading menu..."));
+        BackgroundTasks.task("Loading menu", progress -> menuManager.getAvailableItems())
+            .owner(this).key("content")
+            .onSuccess(items -> table.setItems(FXCollections.observableArrayList(items)))
+            .start();
         
         contentArea.getChildren().addAll(title, table);
     }
     
     private void handleAddMenuItem() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Add Menu Item");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -207,7 +256,7 @@ public class ServiceDashboardController {
     }
     
     private void handleUpdateMenuItem() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Update Menu Item");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -283,7 +332,7 @@ public class ServiceDashboardController {
     }
     
     private void handleRemoveMenuItem() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Remove Menu Item");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -315,7 +364,7 @@ public class ServiceDashboardController {
     // ==================== ORDER MANAGER ACTIONS ====================
     
     private void handleViewOrders() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("All Orders");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -334,17 +383,38 @@ public class ServiceDashboardController {
         TableColumn<Order, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus().toString()));
         
-        table.getColumns().addAll(codeCol, studentCol, totalCol, statusCol);
-        
-        DataBase.OrderDAO orderDAO = new DataBase.OrderDAO();
-        ObservableList<Order> orders = FXCollections.observableArrayList(orderDAO.findAll());
-        table.setItems(orders);
+        TableColumn<Order, String> placedCol = new TableColumn<>("Placed");
+        placedCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+            data.getValue().getCreatedAt() != null ? data.getValue().getCreatedAt().toString() : ""));
+        
+        table.getColumns().addAll(codeCol, studentCol, totalCol, statusCol, placedCol);
+        
+        // Read from the database a page at a time as rows scroll into view, sorted and filtered there
+        PagedTableModel<Order> model = new PagedTableModel<>(services.getAdminTableService().orders(), this);
+        Map<TableColumn<Order, ?>, String> sortKeys = new LinkedHashMap<>();
+        sortKeys.put(codeCol, "code");
+        sortKeys.put(studentCol, "student_code");
+        sortKeys.put(totalCol, "total");
+        sortKeys.put(statusCol, "status");
+        sortKeys.put(placedCol, "created_at");
+        model.bind(table, sortKeys);
+        contentModel = model;
+        
+        ComboBox<String> statusFilter = new ComboBox<>(FXCollections.observableArrayList(ALL));
+        for (OrderStatus status : OrderStatus.values()) {
+            statusFilter.getItems().add(status.name());
+        }
+        statusFilter.setValue(ALL);
+        statusFilter.setOnAction(e -> model.setRequest(model.getRequest()
+            .withFilter("status", ALL.equals(statusFilter.getValue()) ? null : statusFilter.getValue())));
         
-        contentArea.getChildren().addAll(title, table);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        contentArea.getChildren().addAll(title,
+            searchBar(model, "Order or student code", new Label("Status:"), statusFilter), table);
     }
     
     private void handleUpdateOrderStatus() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Update Order Status");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -371,7 +441,11 @@ public class ServiceDashboardController {
                     return;
                 }
                 
-                services.getOrderProcessor().advanceStatusByCode(orderCode, newStatus);
+                if (!services.getOrderProcessor().advanceStatusByCode(orderCode, newStatus)) {
+                    AlertHelper.showError("Update Rejected", "Order " + orderCode + " was not found or is not "
+                            + (newStatus.previous() != null ? newStatus.previous() : "eligible") + "; orders move NEW -> PREPARING -> READY");
+                    return;
+                }
                 AlertHelper.showSuccess("Success", "Order status updated successfully");
                 handleViewOrders();
             } catch (Exception ex) {
@@ -389,7 +463,7 @@ public class ServiceDashboardController {
     }
     
     private void handleProcessOrders() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Pending Orders");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -410,9 +484,11 @@ public class ServiceDashboardController {
         
         table.getColumns().addAll(codeCol, studentCol, totalCol, statusCol);
         
-        List<Order> pendingOrders = services.getOrderProcessor().trackPendingOrders();
-        ObservableList<Order> orders = FXCollections.observableArrayList(pendingOrders);
-        table.setItems(orders);
+        table.setPlaceholder(new Label("Loading pending orders..."));
+        BackgroundTasks.task("Loading pending orders", progress -> services.getOrderProcessor().trackPendingOrders())
+            .owner(this).key("content")
+            .onSuccess(pendingOrders -> table.setItems(FXCollections.observableArrayList(pendingOrders)))
+            .start();
         
         contentArea.getChildren().addAll(title, table);
     }
@@ -420,7 +496,7 @@ public class ServiceDashboardController {
     // ==================== PAYMENT MANAGER ACTIONS ====================
     
     private void handleViewPayments() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Payment Information");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -431,7 +507,7 @@ public class ServiceDashboardController {
     }
     
     private void handleManagePaymentMethods() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Payment Methods");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -446,7 +522,7 @@ public class ServiceDashboardController {
     // ==================== NOTIFICATION MANAGER ACTIONS ====================
     
     private void handleSendNotification() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Send Notification");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -499,10 +575,14 @@ public class ServiceDashboardController {
     }
     
     private void handleViewNotifications() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("All Notifications");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
+        ComboBox<String> typeFilter = new ComboBox<>(FXCollections.observableArrayList(
+            "ALL", "ORDER_READY", "ORDER_PREPARING", "SALE", "GENERAL"));
+        typeFilter.setValue(ALL);
+        
         TableView<NotificationHistory> table = new TableView<>();
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         
@@ -520,30 +600,55 @@ public class ServiceDashboardController {
         
         table.getColumns().addAll(studentCol, messageCol, typeCol, dateCol);
         
-        List<NotificationHistory> notifications = services.getNotificationHistoryService().getAllNotificationHistory();
-        ObservableList<NotificationHistory> items = FXCollections.observableArrayList(notifications);
-        table.setItems(items);
-        
-        contentArea.getChildren().addAll(title, table);
+        PagedTableModel<NotificationHistory> model = new PagedTableModel<>(
+            services.getAdminTableService().notifications(), this, NOTIFICATION_PAGE_SIZE);
+        Map<TableColumn<NotificationHistory, ?>, String> sortKeys = new LinkedHashMap<>();
+        sortKeys.put(dateCol, "created_at");
+        model.bind(table, sortKeys);
+        contentModel = model;
+        typeFilter.setOnAction(e -> model.setRequest(model.getRequest()
+            .withFilter("message_type", ALL.equals(typeFilter.getValue()) ? null : typeFilter.getValue())));
+        
+        VBox.setVgrow(table, Priority.ALWAYS);
+        contentArea.getChildren().addAll(title, searchBar(model, "Student code", new Label("Type:"), typeFilter), table);
     }
     
     // ==================== REPORT MANAGER ACTIONS ====================
     
     private void handleGenerateReports() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("System Reports");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
-        ReportService reportService = services.getReportService();
-        Map<String, Object> metrics = reportService.summaryMetrics();
-        
         GridPane grid = new GridPane();
         grid.setHgap(20);
         grid.setVgap(15);
         grid.setPadding(new Insets(20));
+        grid.add(new Label("Loading reports..."), 0, 0);
+        contentArea.getChildren().addAll(title, grid);
+        
+        ReportService reportService = services.getReportService();
+        BackgroundTasks.task("Generating reports",
+                progress -> new ReportSnapshot(reportService.summaryMetrics(), reportService.overallLatencyPercentiles()))
+            .owner(this).key("content")
+            .onSuccess(report -> showReport(grid, report))
+            .start();
+    }
+    
+    private static final class ReportSnapshot {
+        final Map<String, Object> metrics;
+        final List<LatencyPercentiles> latency;
         
+        ReportSnapshot(Map<String, Object> metrics, List<LatencyPercentiles> latency) {
+            this.metrics = metrics;
+            this.latency = latency;
+        }
+    }
+    
+    private void showReport(GridPane grid, ReportSnapshot report) {
+        grid.getChildren().clear();
         int row = 0;
-        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+        for (Map.Entry<String, Object> entry : report.metrics.entrySet()) {
             Label keyLabel = new Label(entry.getKey() + ":");
             keyLabel.setStyle("-fx-font-weight: bold;");
             Label valueLabel = new Label(entry.getValue().toString());
@@ -552,24 +657,37 @@ public class ServiceDashboardController {
             row++;
         }
         
-        contentArea.getChildren().addAll(title, grid);
+        // Overall queue / prep time SLA; per-hour and per-item breakdowns are on the Reports screen
+        for (LatencyPercentiles p : report.latency) {
+            Label keyLabel = new Label(p.getMetric() + " p50 / p95 / p99:");
+            keyLabel.setStyle("-fx-font-weight: bold;");
+            Label valueLabel = new Label(LatencyPercentiles.formatMillis(p.getP50Ms()) + " / "
+                    + LatencyPercentiles.formatMillis(p.getP95Ms()) + " / "
+                    + LatencyPercentiles.formatMillis(p.getP99Ms()) + "  (" + p.getCount() + " orders)");
+            grid.add(keyLabel, 0, row);
+            grid.add(valueLabel, 1, row);
+            row++;
+        }
     }
     
     private void handleViewAnalytics() {
-        contentArea.getChildren().clear();
-        Label title = new Label("Analytics Dashboard");
+        clearContent();
+        Label title = new Label("Live Operations");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
-        Label info = new Label("Detailed analytics and charts coming soon...");
-        info.setStyle("-fx-text-fill: gray;");
+        liveView = new OperationsDashboardView(services.getOrderProcessor());
+        liveView.start();
         
-        contentArea.getChildren().addAll(title, info);
+        ScrollPane scroll = new ScrollPane(liveView);
+        scroll.setFitToWidth(true);
+        VBox.setVgrow(scroll, Priority.ALWAYS);
+        contentArea.getChildren().addAll(title, scroll);
     }
     
     // ==================== STUDENT MANAGER ACTIONS ====================
     
     private void handleViewStudents() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("All Students");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -594,15 +712,20 @@ public class ServiceDashboardController {
         
         table.getColumns().addAll(codeCol, nameCol, phoneCol, pointsCol);
         
-        List<Student> students = services.getStudentManager().listAll();
-        ObservableList<Student> items = FXCollections.observableArrayList(students);
-        table.setItems(items);
+        PagedTableModel<Student> model = new PagedTableModel<>(services.getAdminTableService().students(), this);
+        Map<TableColumn<Student, ?>, String> sortKeys = new LinkedHashMap<>();
+        sortKeys.put(codeCol, "code");
+        sortKeys.put(nameCol, "name");
+        sortKeys.put(pointsCol, "points");
+        model.bind(table, sortKeys);
+        contentModel = model;
         
-        contentArea.getChildren().addAll(title, table);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        contentArea.getChildren().addAll(title, searchBar(model, "Student code or name"), table);
     }
     
     private void handleManageStudents() {
-        contentArea.getChildren().clear();
+        clearContent();
         Label title = new Label("Manage Students");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
@@ -614,6 +737,7 @@ public class ServiceDashboardController {
     
     @FXML
     private void handleLogout() {
+        clearContent();
         AdminNavigationService.navigateTo("unified-login");
     }
 }
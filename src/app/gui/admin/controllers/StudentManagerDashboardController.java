@@ -5,14 +5,15 @@ import Services.StudentManager;
 import Services.LoyaltyProgramService;
 import ServiceManagers.StudentManagement;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.PagedTableModel;
 import app.gui.admin.AdminNavigationService;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import terminal.ServiceContainer;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -37,12 +38,14 @@ public class StudentManagerDashboardController {
     @FXML private TextField pointsField;
     @FXML private TextField studentIdField;
     @FXML private TextField broadcastPointsField;
+    @FXML private TextField searchField;
+    @FXML private Label studentCountLabel;
     
     private StudentManagement manager;
     private ServiceContainer services;
     private StudentManager studentManager;
     private LoyaltyProgramService loyaltyService;
-    private ObservableList<Student> studentsList;
+    private PagedTableModel<Student> studentsModel;
     
     @FXML
     public void initialize() {
@@ -57,9 +60,6 @@ public class StudentManagerDashboardController {
         phoneColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getPhoneNumber()));
         pointsColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().getAccount().balance()).asObject());
         
-        studentsList = FXCollections.observableArrayList();
-        studentsTable.setItems(studentsList);
-        
         // Load students on selection
         studentsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null) {
@@ -81,15 +81,31 @@ public class StudentManagerDashboardController {
         loadStudents();
     }
     
+    @FXML
+    private void handleSearch() {
+        if (studentsModel != null) {
+            studentsModel.setRequest(studentsModel.getRequest().withSearch(searchField.getText()));
+        }
+    }
+    
+    /**
+     * Show the students a page at a time as they scroll into view (sorted and searched by
+     * the database), or re-read them if the table is already shown.
+     */
     private void loadStudents() {
-        try {
-            List<Student> students = studentManager.listAll();
-            studentsList.clear();
-            studentsList.addAll(students);
-            logger.info("Loaded " + students.size() + " students");
-        } catch (Exception e) {
-            logger.severe("Error loading students: " + e.getMessage());
-            AlertHelper.showError("Load Error", "Failed to load students: " + e.getMessage());
+        if (studentsModel != null) {
+            studentsModel.reload();
+            return;
+        }
+        studentsModel = new PagedTableModel<>(services.getAdminTableService().students(), this);
+        Map<TableColumn<Student, ?>, String> sortKeys = new LinkedHashMap<>();
+        sortKeys.put(idColumn, "id");
+        sortKeys.put(nameColumn, "name");
+        sortKeys.put(emailColumn, "code");
+        sortKeys.put(pointsColumn, "points");
+        studentsModel.bind(studentsTable, sortKeys);
+        if (studentCountLabel != null) {
+            studentCountLabel.textProperty().bind(studentsModel.rowCountProperty().asString("%,d students"));
         }
     }
     
@@ -5,12 +5,14 @@ import Core.Admin;
 import Services.AdminLIN_Out;
 import Services.RoleAuthService;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.ImageAssets;
 import app.gui.admin.AdminNavigationService;
 import app.gui.admin.UserRole;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
+import javafx.scene.image.ImageView;
 import terminal.ServiceContainer;
 import Enums.ManagerType;
 import ServiceManagers.*;
@@ -35,6 +37,9 @@ public class UnifiedLoginController {
     @FXML
     private Button loginButton;
     
+    @FXML
+    private ImageView backgroundImage;
+    
     private ServiceContainer services;
     private AdminLIN_Out adminAuthService;
     private RoleAuthService roleAuthService;
@@ -69,6 +74,11 @@ public class UnifiedLoginController {
         services = AdminNavigationService.getServiceContainer();
         adminAuthService = services.getAdminAuthService();
         roleAuthService = services.getRoleAuthService();
+
+        // Decoded in the background at the size it is shown at
+        if (backgroundImage != null) {
+            ImageAssets.show(backgroundImage, "AdminLogin.jpg");
+        }
         
         // Clear login fields on initialization (for logout)
         if (usernameField != null) {
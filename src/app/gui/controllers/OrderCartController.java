@@ -5,6 +5,7 @@ import Services.OrderProcessor;
 import Services.PaymentRegistry;
 import Services.LoyaltyProgramService;
 import Interfaces.IPaymentProcessor;
+import Values.PlacementResult;
 import Values.Selection;
 import app.gui.shared.AlertHelper;
 import app.gui.NavigationService;
@@ -189,7 +190,15 @@ public class OrderCartController {
             }
             
             // Place order
-            Order order = orderProcessor.placeOrder(orderData.student, selections);
+            PlacementResult placement = orderProcessor.tryPlaceOrder(orderData.student, selections, null);
+            if (!placement.isPlaced()) {
+                AlertHelper.showWarning("Busy", placement.getMessage());
+                if (orderData.redeemedPoints > 0) {
+                    loyaltyService.addPoints(orderData.student, orderData.redeemedPoints);
+                }
+                return;
+            }
+            Order order = placement.getOrder();
             
             if (order == null || order.getCode() == null) {
                 AlertHelper.showError("Error", "Failed to create order");
@@ -371,7 +371,11 @@ public class ServiceDashboardController {
                     return;
                 }
                 
-                services.getOrderProcessor().advanceStatusByCode(orderCode, newStatus);
+                if (!services.getOrderProcessor().advanceStatusByCode(orderCode, newStatus)) {
+                    AlertHelper.showError("Update Rejected", "Order " + orderCode + " was not found or is not "
+                            + (newStatus.previous() != null ? newStatus.previous() : "eligible") + "; orders move NEW -> PREPARING -> READY");
+                    return;
+                }
                 AlertHelper.showSuccess("Success", "Order status updated successfully");
                 handleViewOrders();
             } catch (Exception ex) {
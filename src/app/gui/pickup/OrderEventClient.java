@@ -0,0 +1,226 @@
+package app.gui.pickup;
+
+import Enums.OrderStatus;
+import api.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Server-sent events client for the API's order status stream, on one daemon thread.
+ *
+ * Every stream starts from the server's snapshot of the orders it covers, which replaces
+ * the listener's state, so the client never depends on how far back the server's history
+ * goes. It reconnects on its own, sending the id of the last event it saw so the server
+ * replays what was missed (or sends a new snapshot when it no longer can); the wait
+ * between attempts starts at the server's retry hint and doubles while the server stays
+ * unreachable. The server sends a heartbeat every 15 s, so a
+ * stream silent for {@link #SILENCE_TIMEOUT_SECONDS} s is treated as dead and reopened.
+ * Listener callbacks run on the client's thread.
+ */
+final class OrderEventClient {
+    private static final Logger logger = Logger.getLogger(OrderEventClient.class.getName());
+    private static final long SILENCE_TIMEOUT_SECONDS = 45;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    /** The latest status of one order. */
+    static final class OrderState {
+        final String orderCode;
+        final OrderStatus status;
+        final LocalDateTime at;
+
+        OrderState(String orderCode, OrderStatus status, LocalDateTime at) {
+            this.orderCode = orderCode;
+            this.status = status;
+            this.at = at;
+        }
+    }
+
+    interface Listener {
+        void connectionChanged(boolean connected);
+
+        /** Every order the stream covers right now; replaces all state. */
+        void snapshot(List<OrderState> orders);
+
+        void statusChanged(String orderCode, OrderStatus status, LocalDateTime at);
+    }
+
+    private final URI uri;
+    private final Listener listener;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "order-events-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean stopped;
+    private volatile InputStream current;
+    private volatile long lastReceived;
+    private String lastEventId;
+    private long retryMs = 3000;
+    private Thread reader;
+
+    OrderEventClient(URI uri, Listener listener) {
+        this.uri = uri;
+        this.listener = listener;
+    }
+
+    void start() {
+        reader = new Thread(this::run, "order-events");
+        reader.setDaemon(true);
+        reader.start();
+        watchdog.scheduleWithFixedDelay(this::checkSilence, SILENCE_TIMEOUT_SECONDS, 5, TimeUnit.SECONDS);
+    }
+
+    void stop() {
+        stopped = true;
+        watchdog.shutdownNow();
+        closeCurrent();
+        if (reader != null) reader.interrupt();
+    }
+
+    private void run() {
+        long backoffMs = 0;
+        while (!stopped) {
+            if (backoffMs > 0) {
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            boolean received = false;
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(uri).header("Accept", "text/event-stream").GET();
+                if (lastEventId != null) request.header("Last-Event-ID", lastEventId);
+                HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+                if (response.statusCode() != 200) {
+                    response.body().close();
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+                current = response.body();
+                lastReceived = System.currentTimeMillis();
+                listener.connectionChanged(true);
+                received = read(response.body());
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                if (!stopped) logger.fine("Order event stream failed: " + e.getMessage());
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Order event stream failed", e);
+            } finally {
+                closeCurrent();
+                if (!stopped) listener.connectionChanged(false);
+            }
+            // A stream that delivered something was healthy: retry at the server's pace
+            backoffMs = received ? retryMs : Math.min(MAX_BACKOFF_MS, Math.max(retryMs, backoffMs * 2));
+        }
+    }
+
+    /**
+     * Dispatch events until the stream ends; returns whether anything arrived.
+     */
+    private boolean read(InputStream body) throws IOException {
+        boolean received = false;
+        BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String id = null;
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            lastReceived = System.currentTimeMillis();
+            received = true;
+            if (line.isEmpty()) {
+                if (id != null) lastEventId = id;
+                if (event != null) dispatch(event, data.toString());
+                id = null;
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith(":")) {
+                // Heartbeat
+            } else if (line.startsWith("id:")) {
+                id = field(line);
+            } else if (line.startsWith("event:")) {
+                event = field(line);
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) data.append('\n');
+                data.append(field(line));
+            } else if (line.startsWith("retry:")) {
+                try {
+                    retryMs = Long.parseLong(field(line));
+                } catch (NumberFormatException e) {
+                    // Keep the previous hint
+                }
+            }
+        }
+        return received;
+    }
+
+    private void dispatch(String event, String data) {
+        try {
+            if (event.equals("snapshot")) {
+                List<OrderState> orders = new ArrayList<>();
+                for (Object order : (List<?>) ((Map<?, ?>) Json.parse(data)).get("orders")) {
+                    OrderState state = state((Map<?, ?>) order);
+                    if (state != null) orders.add(state);
+                }
+                listener.snapshot(orders);
+            } else if (event.equals("status")) {
+                OrderState state = state((Map<?, ?>) Json.parse(data));
+                if (state != null) listener.statusChanged(state.orderCode, state.status, state.at);
+            }
+        } catch (ClassCastException | IllegalArgumentException | NullPointerException | DateTimeParseException e) {
+            logger.warning("Ignoring malformed order event: " + data);
+        }
+    }
+
+    private static OrderState state(Map<?, ?> json) {
+        String orderCode = (String) json.get("orderCode");
+        OrderStatus status = OrderStatus.valueOf((String) json.get("status"));
+        LocalDateTime at = json.get("at") != null ? LocalDateTime.parse((String) json.get("at")) : LocalDateTime.now();
+        return orderCode != null ? new OrderState(orderCode, status, at) : null;
+    }
+
+    private void checkSilence() {
+        if (current != null && System.currentTimeMillis() - lastReceived > TimeUnit.SECONDS.toMillis(SILENCE_TIMEOUT_SECONDS)) {
+            logger.info("Order event stream silent for " + SILENCE_TIMEOUT_SECONDS + " s; reconnecting");
+            closeCurrent();
+        }
+    }
+
+    private void closeCurrent() {
+        InputStream stream = current;
+        current = null;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    private static String field(String line) {
+        int colon = line.indexOf(':');
+        String value = line.substring(colon + 1);
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+}
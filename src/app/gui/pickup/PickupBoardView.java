@@ -0,0 +1,297 @@
+package app.gui.pickup;
+
+import Enums.OrderStatus;
+import javafx.animation.FadeTransition;
+import javafx.animation.KeyFrame;
+import javafx.animation.ScaleTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * "Now Preparing / Ready for Pickup" board for the counter screen, kept up to date from
+ * status events rather than by reloading the pending orders.
+ *
+ * Its state comes from the server: each snapshot (sent when the display connects, and
+ * again whenever the server can no longer replay what a reconnect missed) replaces it,
+ * removing tiles the snapshot does not have and adding or restyling the rest without
+ * animation, so the screen does not flash. Status events then move it along.
+ *
+ * Events arrive on the event client's thread and are coalesced per order (the latest
+ * status wins) until the FX thread drains them, with at most one drain pending, so a
+ * burst costs one pass. Each pass is applied as a diff: a tile is added, restyled, moved
+ * to the other column or removed, and nothing else is touched. New READY tiles fade in,
+ * within a budget: a pass with more than {@link #ANIMATED_CHANGES_PER_PASS} changes (a
+ * replay after reconnecting) and tiles beyond {@link #MAX_RUNNING_ANIMATIONS} running at
+ * once are shown without animation.
+ *
+ * Both columns are bounded. READY tiles leave after the configured number of minutes
+ * (there is no "collected" status, so time stands in for pickup) or when the column is
+ * full, oldest first. As a last resort, preparing tiles older than
+ * {@link #STALE_PREPARING_HOURS} hours leave too.
+ */
+public final class PickupBoardView extends BorderPane implements OrderEventClient.Listener {
+    private static final int MAX_READY = 20;
+    private static final int MAX_PREPARING = 60;
+    private static final long STALE_PREPARING_HOURS = 3;
+    private static final int ANIMATED_CHANGES_PER_PASS = 8;
+    private static final int MAX_RUNNING_ANIMATIONS = 4;
+    private static final Duration FADE_IN = Duration.millis(400);
+    private static final Duration EXPIRY_CHECK = Duration.seconds(15);
+    private static final PseudoClass OFFLINE = PseudoClass.getPseudoClass("offline");
+
+    /** Latest status of an order since the last drain. */
+    private static final class Change {
+        final OrderStatus status;
+        final LocalDateTime at;
+
+        Change(OrderStatus status, LocalDateTime at) {
+            this.status = status;
+            this.at = at;
+        }
+    }
+
+    /** A code on the board and when it entered its column. */
+    private static final class Tile {
+        final Label node;
+        final LocalDateTime since;
+
+        Tile(Label node, LocalDateTime since) {
+            this.node = node;
+            this.since = since;
+        }
+    }
+
+    // Written by the event thread, drained on the FX thread
+    private final Object lock = new Object();
+    private LinkedHashMap<String, Change> pending = new LinkedHashMap<>();
+    private Map<String, Change> snapshotPending;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // FX thread only; insertion order is oldest first
+    private final LinkedHashMap<String, Tile> preparing = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Tile> ready = new LinkedHashMap<>();
+    private final FlowPane preparingPane = new FlowPane();
+    private final FlowPane readyPane = new FlowPane();
+    private final Label connectionLabel = new Label("Connecting...");
+    private final long readyMinutes;
+    private final Timeline expiry;
+    private int runningAnimations;
+
+    public PickupBoardView(int readyMinutes) {
+        this.readyMinutes = Math.max(1, readyMinutes);
+        getStyleClass().add("pickup-board");
+
+        HBox columns = new HBox(column("Now Preparing", preparingPane, "pickup-column-preparing"),
+                column("Ready for Pickup", readyPane, "pickup-column-ready"));
+        columns.getStyleClass().add("pickup-columns");
+        setCenter(columns);
+
+        connectionLabel.getStyleClass().add("pickup-connection");
+        setBottom(connectionLabel);
+        BorderPane.setAlignment(connectionLabel, Pos.CENTER_RIGHT);
+
+        expiry = new Timeline(new KeyFrame(EXPIRY_CHECK, e -> expire()));
+        expiry.setCycleCount(Timeline.INDEFINITE);
+        expiry.play();
+    }
+
+    public void stop() {
+        expiry.stop();
+    }
+
+    @Override
+    public void connectionChanged(boolean connected) {
+        Platform.runLater(() -> {
+            connectionLabel.setText(connected ? "Live" : "Reconnecting...");
+            connectionLabel.pseudoClassStateChanged(OFFLINE, !connected);
+        });
+    }
+
+    @Override
+    public void snapshot(List<OrderEventClient.OrderState> orders) {
+        Map<String, Change> snapshot = new LinkedHashMap<>();
+        for (OrderEventClient.OrderState order : orders) {
+            snapshot.put(order.orderCode, new Change(order.status, order.at));
+        }
+        synchronized (lock) {
+            // Changes received before the snapshot are already in it
+            pending.clear();
+            snapshotPending = snapshot;
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void statusChanged(String orderCode, OrderStatus status, LocalDateTime at) {
+        synchronized (lock) {
+            // Re-insert so the map keeps the order of the latest changes
+            pending.remove(orderCode);
+            pending.put(orderCode, new Change(status, at));
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    /**
+     * FX thread: apply everything that arrived since the last pass.
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        Map<String, Change> changes;
+        Map<String, Change> snapshot;
+        synchronized (lock) {
+            changes = pending;
+            snapshot = snapshotPending;
+            pending = new LinkedHashMap<>();
+            snapshotPending = null;
+        }
+        LocalDateTime readySince = LocalDateTime.now().minusMinutes(readyMinutes);
+        if (snapshot != null) replaceWith(snapshot, readySince);
+        boolean animate = changes.size() <= ANIMATED_CHANGES_PER_PASS;
+        for (Map.Entry<String, Change> entry : changes.entrySet()) {
+            apply(entry.getKey(), entry.getValue(), animate, readySince);
+        }
+    }
+
+    /**
+     * Make the board show exactly the snapshot, touching only the tiles that differ.
+     */
+    private void replaceWith(Map<String, Change> snapshot, LocalDateTime readySince) {
+        preparing.keySet().removeIf(code -> {
+            Change change = snapshot.get(code);
+            boolean gone = change == null || change.status == OrderStatus.READY;
+            if (gone) preparingPane.getChildren().remove(preparing.get(code).node);
+            return gone;
+        });
+        ready.keySet().removeIf(code -> {
+            Change change = snapshot.get(code);
+            boolean gone = change == null || change.status != OrderStatus.READY;
+            if (gone) readyPane.getChildren().remove(ready.get(code).node);
+            return gone;
+        });
+        for (Map.Entry<String, Change> entry : snapshot.entrySet()) {
+            apply(entry.getKey(), entry.getValue(), false, readySince);
+        }
+    }
+
+    private void apply(String code, Change change, boolean animate, LocalDateTime readySince) {
+        if (change.status == OrderStatus.READY) {
+            removeFrom(preparing, preparingPane, code);
+            // Replayed orders made ready long ago are already collected
+            if (ready.containsKey(code) || change.at.isBefore(readySince)) return;
+            Label node = tile(code, "pickup-tile-ready");
+            ready.put(code, new Tile(node, min(change.at, LocalDateTime.now())));
+            readyPane.getChildren().add(0, node);
+            if (animate) fadeIn(node);
+            trim(ready, readyPane, MAX_READY);
+            return;
+        }
+
+        // NEW or PREPARING: queued orders are shown dimmed until the kitchen starts them
+        String styleClass = change.status == OrderStatus.NEW ? "pickup-tile-queued" : "pickup-tile-preparing";
+        Tile existing = preparing.get(code);
+        if (existing != null) {
+            existing.node.getStyleClass().setAll("label", "pickup-tile", styleClass);
+            return;
+        }
+        if (ready.containsKey(code)) return;
+        Label node = tile(code, styleClass);
+        preparing.put(code, new Tile(node, change.at));
+        preparingPane.getChildren().add(node);
+        trim(preparing, preparingPane, MAX_PREPARING);
+    }
+
+    private void expire() {
+        LocalDateTime now = LocalDateTime.now();
+        removeOlderThan(ready, readyPane, now.minusMinutes(readyMinutes));
+        removeOlderThan(preparing, preparingPane, now.minusHours(STALE_PREPARING_HOURS));
+    }
+
+    private static void removeOlderThan(LinkedHashMap<String, Tile> tiles, FlowPane pane, LocalDateTime cutoff) {
+        Iterator<Tile> it = tiles.values().iterator();
+        while (it.hasNext()) {
+            Tile tile = it.next();
+            if (tile.since.isBefore(cutoff)) {
+                pane.getChildren().remove(tile.node);
+                it.remove();
+            }
+        }
+    }
+
+    private static void trim(LinkedHashMap<String, Tile> tiles, FlowPane pane, int max) {
+        Iterator<Tile> it = tiles.values().iterator();
+        while (tiles.size() > max && it.hasNext()) {
+            Tile oldest = it.next();
+            pane.getChildren().remove(oldest.node);
+            it.remove();
+        }
+    }
+
+    private static void removeFrom(LinkedHashMap<String, Tile> tiles, FlowPane pane, String code) {
+        Tile tile = tiles.remove(code);
+        if (tile != null) pane.getChildren().remove(tile.node);
+    }
+
+    private void fadeIn(Node node) {
+        if (runningAnimations >= MAX_RUNNING_ANIMATIONS) return;
+        runningAnimations++;
+        node.setOpacity(0);
+        FadeTransition fade = new FadeTransition(FADE_IN, node);
+        fade.setToValue(1);
+        ScaleTransition grow = new ScaleTransition(FADE_IN, node);
+        grow.setFromX(0.8);
+        grow.setFromY(0.8);
+        grow.setToX(1);
+        grow.setToY(1);
+        fade.setOnFinished(e -> {
+            runningAnimations--;
+            node.setOpacity(1);
+        });
+        fade.play();
+        grow.play();
+    }
+
+    private static Label tile(String code, String styleClass) {
+        Label label = new Label(code);
+        label.getStyleClass().setAll("label", "pickup-tile", styleClass);
+        return label;
+    }
+
+    private static VBox column(String title, FlowPane pane, String styleClass) {
+        Label heading = new Label(title);
+        heading.getStyleClass().add("pickup-heading");
+        pane.getStyleClass().add("pickup-tiles");
+        VBox column = new VBox(heading, pane);
+        column.getStyleClass().addAll("pickup-column", styleClass);
+        HBox.setHgrow(column, Priority.ALWAYS);
+        VBox.setVgrow(pane, Priority.ALWAYS);
+        column.setMaxWidth(Double.MAX_VALUE);
+        return column;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,65 @@
+package app.gui.pickup;
+
+import app.gui.shared.ImageAssets;
+import javafx.application.Application;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.stage.Stage;
+
+import java.net.URI;
+import java.util.logging.Logger;
+
+/**
+ * Fullscreen "Now Preparing / Ready for Pickup" board for the counter TV.
+ *
+ * The display holds no service container and no database connection: it follows the
+ * API server's order status event stream, so it stays light enough to run for days on a
+ * small PC. Settings (system properties): cafeteria.pickup.api, the API server's base URL
+ * (http://localhost:8080), and cafeteria.pickup.readyMinutes, how long a READY order
+ * stays on the board (10).
+ */
+public class PickupDisplayApp extends Application {
+    private static final Logger logger = Logger.getLogger(PickupDisplayApp.class.getName());
+    private static final String DEFAULT_API = "http://localhost:8080";
+    private static final int DEFAULT_READY_MINUTES = 10;
+
+    private PickupBoardView board;
+    private OrderEventClient events;
+
+    @Override
+    public void start(Stage stage) {
+        String api = System.getProperty("cafeteria.pickup.api", DEFAULT_API);
+        int readyMinutes = Integer.getInteger("cafeteria.pickup.readyMinutes", DEFAULT_READY_MINUTES);
+        logger.info("Starting Pickup Display against " + api + "...");
+
+        board = new PickupBoardView(readyMinutes);
+        Scene scene = new Scene(board, 1280, 720);
+        scene.getStylesheets().add(PickupDisplayApp.class
+                .getResource("/app/resources/css/themes/pickup-display-theme.css").toExternalForm());
+        // F11 toggles fullscreen for setting the screen up
+        scene.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.F11) stage.setFullScreen(!stage.isFullScreen());
+        });
+
+        stage.setTitle("Cafeteria - Pickup Display");
+        stage.setScene(scene);
+        stage.setFullScreen(true);
+        stage.setFullScreenExitHint("");
+        stage.show();
+        ImageAssets.applyIcons(stage, "icons/student-icon.png");
+
+        events = new OrderEventClient(URI.create(api.replaceAll("/+$", "") + "/api/events/orders"), board);
+        events.start();
+    }
+
+    @Override
+    public void stop() {
+        logger.info("Shutting down Pickup Display...");
+        if (events != null) events.stop();
+        if (board != null) board.stop();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,81 @@
+package app.gui.shared;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Startup sequence shared by the GUI applications: show a splash at once, build the
+ * services (and their database connections) on a background thread so the FX thread keeps
+ * painting, then show the first screen and log the startup timeline.
+ *
+ * <pre>
+ *   AppStartup startup = new AppStartup("Student Portal");
+ *   startup.start(ServiceContainer::new, services -> {
+ *       ... show the login screen ...
+ *       startup.firstScreenShown();
+ *   }, error -> AlertHelper.showError("Startup Error", error.getMessage()));
+ * </pre>
+ */
+public final class AppStartup {
+    private static final Logger logger = Logger.getLogger(AppStartup.class.getName());
+
+    private final StartupTimeline timeline;
+    private final StartupSplash splash;
+
+    public AppStartup(String appName) {
+        this.timeline = new StartupTimeline(appName);
+        this.splash = new StartupSplash(appName);
+    }
+
+    public StartupTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * FX thread: show the splash and create the services off the FX thread; then
+     * {@code onReady} (or {@code onFailure}) is called on the FX thread.
+     */
+    public <S> void start(Callable<S> createServices, Consumer<S> onReady, Consumer<Throwable> onFailure) {
+        timeline.mark("FX start");
+        splash.show();
+        timeline.mark("splash shown");
+        splash.setStatus("Connecting to the database...");
+
+        Thread thread = new Thread(() -> {
+            try {
+                S services = createServices.call();
+                timeline.mark("services ready");
+                splash.setStatus("Opening...");
+                Platform.runLater(() -> {
+                    try {
+                        onReady.accept(services);
+                    } finally {
+                        // Also when the first screen failed to open
+                        splash.close();
+                    }
+                });
+            } catch (Throwable e) {
+                logger.log(Level.SEVERE, "Startup failed", e);
+                Platform.runLater(() -> {
+                    splash.close();
+                    onFailure.accept(e);
+                });
+            }
+        }, "startup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * FX thread: the first screen is showing and accepts input.
+     */
+    public void firstScreenShown() {
+        timeline.mark("first screen interactive");
+        splash.close();
+        timeline.log();
+    }
+}
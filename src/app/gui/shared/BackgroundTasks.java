@@ -0,0 +1,146 @@
+package app.gui.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs controller work (database calls, payments) off the JavaFX application thread.
+ *
+ * Usage from a controller, on the FX thread:
+ * <pre>
+ *   BackgroundTasks.task("Loading orders", progress -> orderRepository.findAll())
+ *       .owner(this).key("orders").overlay(table)
+ *       .onSuccess(orders -> table.setItems(FXCollections.observableArrayList(orders)))
+ *       .start();
+ * </pre>
+ * Callbacks run on the FX thread. A task's result is dropped instead of delivered when
+ * the task was cancelled, when a newer task with the same owner and key was started, or
+ * when its owner was left ({@link #cancelAll}, called by the navigation services when the
+ * screen changes).
+ *
+ * Work runs on one daemon worker by default: the services share one JDBC connection per
+ * DAO, so work is kept in submission order as it was on the FX thread. The queue is
+ * bounded; a task that does not fit fails with a "busy" error instead of piling up.
+ */
+public final class BackgroundTasks {
+    private static final Logger logger = Logger.getLogger(BackgroundTasks.class.getName());
+    private static final int WORKERS = 1;
+    private static final int MAX_QUEUED = 32;
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            WORKERS, WORKERS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED), r -> {
+                Thread t = new Thread(r, "ui-background-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    // FX thread only: a generation per owner (bumped when the owner is left) and its running tasks
+    private static final Map<Object, Long> generations = new WeakHashMap<>();
+    private static final Map<Object, List<UiTask<?>>> running = new WeakHashMap<>();
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Private constructor to prevent instantiation
+    private BackgroundTasks() {}
+
+    /**
+     * Create a task; configure it and call {@link UiTask#start()} on the FX thread.
+     *
+     * @param name shown on the loading overlay and in error messages
+     */
+    public static <T> UiTask<T> task(String name, UiTask.Work<T> work) {
+        return new UiTask<>(name, work);
+    }
+
+    /**
+     * Cancel the owner's tasks and drop results still on their way, e.g. when its screen is left.
+     */
+    public static void cancelAll(Object owner) {
+        if (owner == null) return;
+        generations.merge(owner, 1L, Long::sum);
+        List<UiTask<?>> tasks = running.remove(owner);
+        if (tasks != null) {
+            for (UiTask<?> task : new ArrayList<>(tasks)) {
+                task.cancel();
+            }
+        }
+    }
+
+    /**
+     * Number of tasks waiting for a worker.
+     */
+    public static int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stop accepting work and give work already queued a few seconds to finish, so that it
+     * does not lose its database connections halfway through when the services shut down.
+     */
+    public static void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Background tasks still running at shutdown: " + executor.getActiveCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record a starting task; an older task of the same owner and key is superseded.
+     *
+     * @return the owner's current generation
+     */
+    static long register(UiTask<?> task) {
+        Object owner = task.getOwner();
+        if (owner == null) return 0;
+        List<UiTask<?>> tasks = running.computeIfAbsent(owner, o -> new ArrayList<>());
+        if (task.getKey() != null) {
+            for (UiTask<?> other : new ArrayList<>(tasks)) {
+                if (task.getKey().equals(other.getKey())) {
+                    logger.fine("Superseding task: " + other.getName());
+                    other.cancel();
+                    tasks.remove(other);
+                }
+            }
+        }
+        tasks.add(task);
+        return generations.getOrDefault(owner, 0L);
+    }
+
+    static void unregister(UiTask<?> task) {
+        Object owner = task.getOwner();
+        if (owner == null) return;
+        List<UiTask<?>> tasks = running.get(owner);
+        if (tasks != null) {
+            tasks.remove(task);
+            if (tasks.isEmpty()) running.remove(owner);
+        }
+    }
+
+    /**
+     * Whether the task's owner is still on the generation the task started in.
+     */
+    static boolean isCurrent(UiTask<?> task) {
+        Object owner = task.getOwner();
+        return owner == null || generations.getOrDefault(owner, 0L) == task.getGeneration();
+    }
+
+    static Future<?> submit(Runnable work) {
+        return executor.submit(work);
+    }
+}
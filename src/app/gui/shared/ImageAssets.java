@@ -0,0 +1,274 @@
+package app.gui.shared;
+
+import Core.MenuItem;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Images from /app/resources/images, decoded at the size they are shown at instead of at
+ * full resolution.
+ *
+ * Images load in the background (an ImageView shows nothing until its image is ready).
+ * Each size of an image is kept in memory through a soft reference, so the garbage
+ * collector can reclaim it under memory pressure, and written to a disk cache in the
+ * user's home directory, so later starts read a small file instead of decoding the
+ * original again. A cached file older than its original is replaced.
+ *
+ * Sizes are in pixels of the primary screen, i.e. already multiplied by its output scale.
+ * Images are never scaled up: a request at or above the original's size loads the
+ * original as it is, and only variants smaller than the original are cached on disk.
+ */
+public final class ImageAssets {
+    private static final Logger logger = Logger.getLogger(ImageAssets.class.getName());
+    private static final String ROOT = "/app/resources/images/";
+    private static final Path DISK_CACHE = Paths.get(System.getProperty("user.home"), ".cafeteria", "image-cache");
+    private static final String[] MENU_IMAGE_TYPES = { ".png", ".jpg" };
+    // Window icon sizes; the platform picks the ones it needs
+    private static final int[] ICON_SIZES = { 16, 32, 48, 64, 128 };
+
+    // FX thread only
+    private static final Map<String, SoftReference<Image>> memory = new HashMap<>();
+    private static final Map<String, Optional<URL>> resources = new HashMap<>();
+    private static final Map<String, Optional<int[]>> sourceSizes = new HashMap<>();
+
+    private static final ExecutorService diskWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "image-cache-writer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    // Private constructor to prevent instantiation
+    private ImageAssets() {}
+
+    /**
+     * The image scaled to fit in width x height (keeping its aspect ratio), loading in the
+     * background; null if there is no such image.
+     *
+     * @param name path under /app/resources/images, e.g. "CafeteriaLogin.jpg"
+     */
+    public static Image get(String name, double width, double height) {
+        URL source = resource(name).orElse(null);
+        if (source == null) {
+            logger.warning("Image not found: " + ROOT + name);
+            return null;
+        }
+        double scale = Screen.getPrimary().getOutputScaleX();
+        int w = (int) Math.ceil(width * scale);
+        int h = (int) Math.ceil(height * scale);
+
+        // Fit the original into the box; when that would not make it smaller, use it as it is
+        int[] size = sourceSize(name, source);
+        boolean original = false;
+        if (size != null) {
+            double ratio = Math.min((double) w / size[0], (double) h / size[1]);
+            original = ratio >= 1;
+            w = original ? size[0] : Math.max(1, (int) Math.round(size[0] * ratio));
+            h = original ? size[1] : Math.max(1, (int) Math.round(size[1] * ratio));
+        }
+        String key = original ? name : name + "@" + w + "x" + h;
+
+        SoftReference<Image> cached = memory.get(key);
+        Image image = cached != null ? cached.get() : null;
+        if (image != null && !image.isError()) return image;
+        purgeCleared();
+
+        if (original) {
+            image = new Image(source.toExternalForm(), true);
+        } else {
+            Path file = DISK_CACHE.resolve(cacheFileName(name, w, h));
+            if (isFresh(file, source)) {
+                image = new Image(file.toUri().toString(), w, h, true, true, true);
+            } else {
+                image = new Image(source.toExternalForm(), w, h, true, true, true);
+                // Without the original's size the variant may not be smaller, so it is not cached
+                if (size != null) writeToDisk(source, file, w, h);
+            }
+        }
+        memory.put(key, new SoftReference<>(image));
+        return image;
+    }
+
+    /**
+     * Show the image in the view at the view's fit size.
+     */
+    public static void show(ImageView view, String name) {
+        view.setImage(get(name, view.getFitWidth(), view.getFitHeight()));
+    }
+
+    /**
+     * Set the window icon from one image, scaled to the usual icon sizes. Each size is added
+     * once it has loaded.
+     */
+    public static void applyIcons(Stage stage, String name) {
+        for (int size : ICON_SIZES) {
+            Image icon = get(name, size, size);
+            if (icon == null) return;
+            if (icon.getProgress() >= 1) {
+                if (!icon.isError()) stage.getIcons().add(icon);
+            } else {
+                icon.progressProperty().addListener((obs, old, progress) -> {
+                    if (progress.doubleValue() >= 1 && !icon.isError()) stage.getIcons().add(icon);
+                });
+            }
+        }
+    }
+
+    /**
+     * A square thumbnail for a menu item: images/menu/&lt;id&gt;.png (or .jpg), else the
+     * category's picture images/menu/&lt;category&gt;.png; null if neither exists.
+     */
+    public static Image menuThumbnail(MenuItem item, double size) {
+        if (item == null) return null;
+        String name = menuImage(String.valueOf(item.getId()));
+        if (name == null && item.getCategory() != null) {
+            name = menuImage(item.getCategory().name().toLowerCase(Locale.ROOT));
+        }
+        return name != null ? get(name, size, size) : null;
+    }
+
+    /**
+     * Drop the in-memory variants, e.g. after the menu pictures were replaced.
+     */
+    public static void clearMemoryCache() {
+        memory.clear();
+        resources.clear();
+        sourceSizes.clear();
+    }
+
+    private static String menuImage(String baseName) {
+        for (String type : MENU_IMAGE_TYPES) {
+            String name = "menu/" + baseName + type;
+            if (resource(name).isPresent()) return name;
+        }
+        return null;
+    }
+
+    private static Optional<URL> resource(String name) {
+        return resources.computeIfAbsent(name, n -> Optional.ofNullable(ImageAssets.class.getResource(ROOT + n)));
+    }
+
+    /**
+     * Width and height of the original, read from its header without decoding it; null if
+     * no reader understands it.
+     */
+    private static int[] sourceSize(String name, URL source) {
+        return sourceSizes.computeIfAbsent(name, n -> {
+            try (InputStream in = source.openStream();
+                 ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+                Iterator<ImageReader> readers = stream != null ? ImageIO.getImageReaders(stream) : null;
+                if (readers == null || !readers.hasNext()) return Optional.empty();
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(stream, true, true);
+                    return Optional.of(new int[] { reader.getWidth(0), reader.getHeight(0) });
+                } finally {
+                    reader.dispose();
+                }
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Could not read the size of " + n, e);
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static void purgeCleared() {
+        Iterator<SoftReference<Image>> it = memory.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().get() == null) it.remove();
+        }
+    }
+
+    private static String cacheFileName(String name, int w, int h) {
+        String type = name.toLowerCase(Locale.ROOT).endsWith(".png") ? "png" : "jpg";
+        String base = name.replaceAll("\\.[^./]*$", "").replaceAll("[^A-Za-z0-9_-]", "_");
+        return base + "-" + w + "x" + h + "." + type;
+    }
+
+    private static boolean isFresh(Path file, URL source) {
+        try {
+            if (!Files.isRegularFile(file)) return false;
+            long sourceModified = lastModified(source);
+            return sourceModified <= 0 || Files.getLastModifiedTime(file).toMillis() >= sourceModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long lastModified(URL source) throws IOException {
+        URLConnection connection = source.openConnection();
+        connection.setUseCaches(false);
+        long modified = connection.getLastModified();
+        connection.getInputStream().close();
+        return modified;
+    }
+
+    /**
+     * Write the scaled variant to the disk cache in the background; a failure only means
+     * the original is decoded again next time.
+     */
+    private static void writeToDisk(URL source, Path file, int maxWidth, int maxHeight) {
+        diskWriter.execute(() -> {
+            try {
+                BufferedImage original = ImageIO.read(source);
+                if (original == null) return;
+                // Only variants smaller than the original are worth a lossy copy
+                if (maxWidth >= original.getWidth() && maxHeight >= original.getHeight()) return;
+                double ratio = Math.min((double) maxWidth / original.getWidth(),
+                                        (double) maxHeight / original.getHeight());
+                int w = Math.max(1, (int) Math.round(original.getWidth() * ratio));
+                int h = Math.max(1, (int) Math.round(original.getHeight() * ratio));
+                boolean png = file.getFileName().toString().endsWith(".png");
+                BufferedImage scaled = new BufferedImage(w, h, png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = scaled.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                    g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    g.drawImage(original, 0, 0, w, h, null);
+                } finally {
+                    g.dispose();
+                }
+
+                // Write to a temporary file first so a reader never sees half an image
+                Files.createDirectories(file.getParent());
+                Path temp = Files.createTempFile(file.getParent(), "scaling", ".tmp");
+                try {
+                    ImageIO.write(scaled, png ? "png" : "jpg", temp.toFile());
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                logger.fine("Cached " + file.getFileName());
+            } catch (Exception e) {
+                logger.log(Level.FINE, "Could not cache " + file.getFileName(), e);
+            }
+        });
+    }
+}
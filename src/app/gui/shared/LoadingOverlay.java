@@ -0,0 +1,75 @@
+package app.gui.shared;
+
+import javafx.beans.value.ObservableDoubleValue;
+import javafx.beans.value.ObservableStringValue;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+/**
+ * Semi-transparent "working..." layer over a whole scene, blocking input while a
+ * background task runs. The scene's root is wrapped in a StackPane with the overlay on
+ * top and restored when the last task using the scene finishes; tasks overlapping on
+ * one scene share the overlay, which shows the most recent task's progress.
+ */
+final class LoadingOverlay {
+    private static final String SCENE_KEY = LoadingOverlay.class.getName();
+
+    private final Scene scene;
+    private final Parent originalRoot;
+    private final StackPane wrapper;
+    private final ProgressIndicator indicator = new ProgressIndicator();
+    private final Label label = new Label();
+    private int users;
+
+    private LoadingOverlay(Scene scene) {
+        this.scene = scene;
+        this.originalRoot = scene.getRoot();
+
+        VBox layer = new VBox(12, indicator, label);
+        layer.setAlignment(Pos.CENTER);
+        layer.setStyle("-fx-background-color: rgba(255, 255, 255, 0.6);");
+        label.setStyle("-fx-font-size: 14px;");
+        indicator.setMaxSize(64, 64);
+
+        wrapper = new StackPane();
+        scene.setRoot(wrapper);
+        wrapper.getChildren().addAll(originalRoot, layer);
+        wrapper.setCursor(Cursor.WAIT);
+    }
+
+    /**
+     * Show the overlay on the node's scene; returns null if the node is not in a scene.
+     */
+    static LoadingOverlay show(Node node, ObservableDoubleValue progress, ObservableStringValue message) {
+        Scene scene = node.getScene();
+        if (scene == null) return null;
+        LoadingOverlay overlay = (LoadingOverlay) scene.getProperties().get(SCENE_KEY);
+        if (overlay == null) {
+            overlay = new LoadingOverlay(scene);
+            scene.getProperties().put(SCENE_KEY, overlay);
+        }
+        overlay.users++;
+        overlay.indicator.progressProperty().unbind();
+        overlay.indicator.progressProperty().bind(progress);
+        overlay.label.textProperty().unbind();
+        overlay.label.textProperty().bind(message);
+        return overlay;
+    }
+
+    void hide() {
+        if (users == 0) return;
+        if (--users > 0) return;
+        indicator.progressProperty().unbind();
+        label.textProperty().unbind();
+        scene.getProperties().remove(SCENE_KEY);
+        wrapper.getChildren().clear();
+        scene.setRoot(originalRoot);
+    }
+}
@@ -0,0 +1,318 @@
+package app.gui.shared;
+
+import Interfaces.IPagedSource;
+import Values.PageRequest;
+import Values.SortCursor;
+import Values.TablePage;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Rows for a TableView that are read from an {@link IPagedSource} a page at a time as
+ * they scroll into view, so a table of any size opens at once and holds a bounded number
+ * of rows in memory.
+ *
+ * The table's item list has one entry per matching row, but only the pages the table asks
+ * for are read: an unread row is null (shown as an empty row) until its page arrives.
+ * After a page is read the next one is prefetched. At most {@link #MAX_CACHED_PAGES} pages
+ * are kept, least recently used first out; an evicted page is read again if it scrolls back
+ * into view. Each page's start cursor is remembered so any page already passed is one
+ * keyset query away; a page further on is reached with an index-only seek from the nearest
+ * known cursor.
+ *
+ * Sorting by a column header and {@link #setRequest changing the filter} re-query the
+ * source (the database sorts and filters); columns without a sort key are not sortable.
+ * Use from the FX thread only; reads run on {@link BackgroundTasks}.
+ */
+public final class PagedTableModel<T> {
+    private static final Logger logger = Logger.getLogger(PagedTableModel.class.getName());
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 20;
+    // Loads of pages this far from the latest requested page are dropped (e.g. while dragging the scrollbar)
+    private static final int MAX_PAGE_DISTANCE = 2;
+
+    private final IPagedSource<T> source;
+    private final Object owner;
+    private final int pageSize;
+    private final Rows rows = new Rows();
+    private final ReadOnlyIntegerWrapper rowCount = new ReadOnlyIntegerWrapper();
+
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    // Cursor of the row before each page whose start is known; page 0 starts at null
+    private final TreeMap<Integer, SortCursor> pageStarts = new TreeMap<>();
+    private final Map<Integer, UiTask<?>> loading = new HashMap<>();
+    private PageRequest request = PageRequest.defaults();
+    private long generation;
+    private int size;
+    private boolean disposed;
+
+    /**
+     * @param owner the controller showing the table; its loads are dropped when it is left
+     */
+    public PagedTableModel(IPagedSource<T> source, Object owner) {
+        this(source, owner, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedTableModel(IPagedSource<T> source, Object owner, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+        this.source = source;
+        this.owner = owner;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Show the rows in the table, with header sorting done by the source. Call after the
+     * columns' cell value factories are set: they are wrapped to skip unread rows.
+     *
+     * @param sortKeys the source's sort key for each sortable column
+     */
+    public void bind(TableView<T> table, Map<TableColumn<T, ?>, String> sortKeys) {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(sortKeys.containsKey(column));
+            skipUnreadRows(column);
+        }
+        table.setSortPolicy(t -> {
+            if (t.getSortOrder().isEmpty()) {
+                setRequest(request.withSort(null, false));
+                return true;
+            }
+            TableColumn<T, ?> column = t.getSortOrder().get(0);
+            String key = sortKeys.get(column);
+            if (key == null) return false;
+            setRequest(request.withSort(key, column.getSortType() == TableColumn.SortType.ASCENDING));
+            return true;
+        });
+        table.setItems(rows);
+        reload();
+    }
+
+    /**
+     * Show the rows matching another request, e.g. {@code model.getRequest().withSearch(text)}.
+     */
+    public void setRequest(PageRequest request) {
+        if (request.equals(this.request)) return;
+        this.request = request;
+        reload();
+    }
+
+    public PageRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Read everything again, e.g. after rows were added or edited.
+     */
+    public void reload() {
+        if (disposed) return;
+        resetPages();
+        // Rows of the previous query must not stay on screen (or be asked for) meanwhile
+        rows.resize(0);
+        long expected = generation;
+        PageRequest query = request;
+        BackgroundTasks.task("Loading rows", progress -> {
+                int count = source.count(query);
+                TablePage<T> first = count > 0 ? source.fetch(query, null, pageSize) : TablePage.<T>empty();
+                return new Loaded<>(count, null, first);
+            })
+            .owner(owner).key(taskKey("count"))
+            .onSuccess(loaded -> {
+                if (expected != generation) return;
+                rows.resize(loaded.count);
+                rowCount.set(loaded.count);
+                if (loaded.count > 0) pageLoaded(0, loaded);
+            })
+            .onFailure(e -> {
+                logger.warning("Failed to load table rows: " + e.getMessage());
+                AlertHelper.showError("Error", "Failed to load rows: " + e.getMessage());
+            })
+            .start();
+    }
+
+    /**
+     * Stop loading and drop the cached pages, e.g. when the table is taken off screen.
+     */
+    public void dispose() {
+        disposed = true;
+        resetPages();
+    }
+
+    public ObservableList<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * Number of rows matching the current request (not the number read).
+     */
+    public ReadOnlyIntegerProperty rowCountProperty() {
+        return rowCount.getReadOnlyProperty();
+    }
+
+    private void resetPages() {
+        generation++;
+        List<UiTask<?>> running = new ArrayList<>(loading.values());
+        loading.clear();
+        for (UiTask<?> task : running) {
+            task.cancel();
+        }
+        pages.clear();
+        pageStarts.clear();
+        pageStarts.put(0, null);
+    }
+
+    /**
+     * Called from the table's reads of an unread row.
+     */
+    private void requestPage(int page) {
+        if (disposed || loading.containsKey(page)) return;
+        // Forget loads the user has scrolled far away from before they reach the worker
+        List<UiTask<?>> abandoned = new ArrayList<>();
+        Iterator<Map.Entry<Integer, UiTask<?>>> it = loading.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, UiTask<?>> entry = it.next();
+            if (Math.abs(entry.getKey() - page) > MAX_PAGE_DISTANCE) {
+                abandoned.add(entry.getValue());
+                it.remove();
+            }
+        }
+        for (UiTask<?> task : abandoned) {
+            task.cancel();
+        }
+
+        Map.Entry<Integer, SortCursor> anchor = pageStarts.floorEntry(page);
+        int skip = (page - anchor.getKey()) * pageSize;
+        SortCursor anchorCursor = anchor.getValue();
+        long expected = generation;
+        PageRequest query = request;
+        UiTask<Loaded<T>> task = BackgroundTasks.task("Loading rows", progress -> {
+                if (progress.isCancelled()) return null;
+                SortCursor start = skip == 0 ? anchorCursor : source.seek(query, anchorCursor, skip);
+                if (skip > 0 && start == null) return new Loaded<>(-1, null, TablePage.<T>empty());
+                return new Loaded<>(-1, start, source.fetch(query, start, pageSize));
+            })
+            .owner(owner).key(taskKey("page-" + page));
+        task.onSuccess(loaded -> {
+                loading.remove(page, task);
+                if (expected == generation && loaded != null) pageLoaded(page, loaded);
+            })
+            .onFailure(e -> {
+                // The page is asked for again when its rows are next drawn
+                loading.remove(page, task);
+                logger.warning("Failed to load rows " + page * pageSize + "+: " + e.getMessage());
+            })
+            .onCancelled(() -> loading.remove(page, task));
+        loading.put(page, task);
+        task.start();
+    }
+
+    private void pageLoaded(int page, Loaded<T> loaded) {
+        List<T> items = new ArrayList<>(loaded.page.getItems());
+        if (page > 0 && loaded.start != null) pageStarts.put(page, loaded.start);
+        if (items.size() == pageSize && loaded.page.getLastCursor() != null) {
+            pageStarts.put(page + 1, loaded.page.getLastCursor());
+        }
+        pages.put(page, items);
+        Iterator<Integer> eldest = pages.keySet().iterator();
+        while (pages.size() > MAX_CACHED_PAGES && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+
+        int from = page * pageSize;
+        int to = Math.min(size, from + items.size());
+        if (from < to) rows.rowsLoaded(from, to);
+
+        // Prefetch the next page so scrolling on does not wait for it
+        int next = page + 1;
+        if (next * pageSize < size && !pages.containsKey(next)) {
+            requestPage(next);
+        }
+    }
+
+    private String taskKey(String name) {
+        return "paged-" + System.identityHashCode(this) + "-" + name;
+    }
+
+    private static <S, V> void skipUnreadRows(TableColumn<S, V> column) {
+        Callback<TableColumn.CellDataFeatures<S, V>, ObservableValue<V>> factory = column.getCellValueFactory();
+        if (factory != null) {
+            column.setCellValueFactory(data -> data.getValue() == null ? null : factory.call(data));
+        }
+        for (TableColumn<S, ?> nested : column.getColumns()) {
+            skipUnreadRows(nested);
+        }
+    }
+
+    /**
+     * What one background read produced; count is -1 for page reads.
+     */
+    private static final class Loaded<T> {
+        final int count;
+        final SortCursor start;
+        final TablePage<T> page;
+
+        Loaded(int count, SortCursor start, TablePage<T> page) {
+            this.count = count;
+            this.start = start;
+            this.page = page;
+        }
+    }
+
+    /**
+     * The table's view: one slot per matching row, filled from the cached pages.
+     */
+    private final class Rows extends ObservableListBase<T> {
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            int page = index / pageSize;
+            List<T> items = pages.get(page);
+            if (items == null) {
+                requestPage(page);
+                return null;
+            }
+            int offset = index - page * pageSize;
+            return offset < items.size() ? items.get(offset) : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void resize(int newSize) {
+            beginChange();
+            if (size > 0) {
+                int old = size;
+                size = 0;
+                nextRemove(0, Collections.nCopies(old, (T) null));
+            }
+            size = newSize;
+            if (newSize > 0) nextAdd(0, newSize);
+            endChange();
+        }
+
+        void rowsLoaded(int from, int to) {
+            beginChange();
+            for (int i = from; i < to; i++) {
+                nextSet(i, null);
+            }
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package app.gui.shared;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+/**
+ * Small undecorated window shown while an application starts, so something is on screen
+ * at once instead of after the services have connected to the database.
+ */
+public final class StartupSplash {
+    private static final double WIDTH = 420;
+    private static final double HEIGHT = 220;
+
+    private final Stage stage = new Stage(StageStyle.UNDECORATED);
+    private final Label status = new Label("Starting...");
+
+    public StartupSplash(String title) {
+        Label heading = new Label(title);
+        heading.setStyle("-fx-font-size: 24px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
+        status.setStyle("-fx-font-size: 13px; -fx-text-fill: #7f8c8d;");
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(48, 48);
+
+        VBox root = new VBox(18, heading, indicator, status);
+        root.setAlignment(Pos.CENTER);
+        root.setPadding(new Insets(24));
+        root.setStyle("-fx-background-color: white; -fx-border-color: #dfe6e9; -fx-border-width: 1;");
+
+        stage.setScene(new Scene(root, WIDTH, HEIGHT));
+        stage.setTitle(title);
+    }
+
+    public void show() {
+        Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
+        stage.setX(bounds.getMinX() + (bounds.getWidth() - WIDTH) / 2);
+        stage.setY(bounds.getMinY() + (bounds.getHeight() - HEIGHT) / 2);
+        stage.show();
+    }
+
+    /**
+     * Show what startup is doing; may be called from any thread.
+     */
+    public void setStatus(String text) {
+        if (Platform.isFxApplicationThread()) {
+            status.setText(text);
+        } else {
+            Platform.runLater(() -> status.setText(text));
+        }
+    }
+
+    public void close() {
+        stage.close();
+    }
+}
@@ -0,0 +1,57 @@
+package app.gui.shared;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Named points in an application's startup, timed from the start of the process, logged as
+ * one summary so time-to-first-interaction can be tracked from release to release:
+ * <pre>
+ *   Student Portal startup: 412 ms FX start, 430 ms splash shown, 1,870 ms services ready, ...
+ * </pre>
+ * Marks may be added from any thread.
+ */
+public final class StartupTimeline {
+    private static final Logger logger = Logger.getLogger(StartupTimeline.class.getName());
+
+    private final String appName;
+    private final long processStartMillis;
+    private final List<String> events = new ArrayList<>();
+    private final List<Long> times = new ArrayList<>();
+
+    public StartupTimeline(String appName) {
+        this.appName = appName;
+        this.processStartMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(System.currentTimeMillis());
+    }
+
+    public synchronized void mark(String event) {
+        events.add(event);
+        times.add(System.currentTimeMillis() - processStartMillis);
+    }
+
+    /**
+     * Milliseconds from process start to the event, or -1 if it was not marked.
+     */
+    public synchronized long millisTo(String event) {
+        int index = events.indexOf(event);
+        return index >= 0 ? times.get(index) : -1;
+    }
+
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder(appName).append(" startup:");
+        for (int i = 0; i < events.size(); i++) {
+            summary.append(i == 0 ? " " : ", ")
+                   .append(String.format("%,d ms ", times.get(i)))
+                   .append(events.get(i));
+        }
+        return summary.toString();
+    }
+
+    public void log() {
+        logger.info(summary());
+    }
+}
@@ -0,0 +1,277 @@
+package app.gui.shared;
+
+import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One piece of controller work run by {@link BackgroundTasks}. Configure it on the FX
+ * thread, then {@link #start()} it; callbacks are delivered on the FX thread.
+ *
+ * Cancelling never interrupts work already running (a half-done database write is worse
+ * than a late one); it stops work that has not started yet, lets work poll
+ * {@link Progress#isCancelled()}, and drops the result.
+ */
+public final class UiTask<T> {
+    private static final Logger logger = Logger.getLogger(UiTask.class.getName());
+
+    /** The work itself; runs on a background thread and must not touch the scene graph. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    /** Progress reporting from the work; safe to call from the background thread. */
+    public interface Progress {
+        void update(long done, long total);
+
+        void message(String text);
+
+        boolean isCancelled();
+    }
+
+    private final String name;
+    private final Work<T> work;
+    private Object owner;
+    private String key;
+    private Consumer<? super T> onSuccess = result -> {};
+    private Consumer<Throwable> onFailure;
+    private Runnable onCancelled;
+    private Node overlayTarget;
+    private final List<Node> disabledWhileRunning = new ArrayList<>();
+
+    private final DoubleProperty progress = new SimpleDoubleProperty(ProgressIndicator.INDETERMINATE_PROGRESS);
+    private final StringProperty message = new SimpleStringProperty();
+    private final AtomicBoolean progressPending = new AtomicBoolean();
+    private volatile double latestProgress = ProgressIndicator.INDETERMINATE_PROGRESS;
+    private volatile String latestMessage;
+
+    private volatile boolean cancelled;
+    private boolean started;
+    private boolean finished;
+    private long generation;
+    private Future<?> future;
+    private LoadingOverlay overlay;
+    private final List<Node> disabledByThis = new ArrayList<>();
+
+    UiTask(String name, Work<T> work) {
+        this.name = name;
+        this.work = work;
+        this.message.set(name);
+        this.latestMessage = name;
+    }
+
+    /**
+     * The controller the task belongs to; its results are dropped once the owner is left.
+     */
+    public UiTask<T> owner(Object owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    /**
+     * Starting a task with the same owner and key supersedes this one (e.g. "reload table").
+     */
+    public UiTask<T> key(String key) {
+        this.key = key;
+        return this;
+    }
+
+    public UiTask<T> onSuccess(Consumer<? super T> onSuccess) {
+        this.onSuccess = onSuccess != null ? onSuccess : result -> {};
+        return this;
+    }
+
+    /**
+     * Called with the failure; by default it is logged and shown in an error dialog.
+     */
+    public UiTask<T> onFailure(Consumer<Throwable> onFailure) {
+        this.onFailure = onFailure;
+        return this;
+    }
+
+    /**
+     * Called (on the FX thread) if the task is cancelled before it delivers its result.
+     */
+    public UiTask<T> onCancelled(Runnable onCancelled) {
+        this.onCancelled = onCancelled;
+        return this;
+    }
+
+    /**
+     * Cover the scene of this node with a progress overlay while the task runs.
+     */
+    public UiTask<T> overlay(Node node) {
+        this.overlayTarget = node;
+        return this;
+    }
+
+    /**
+     * Disable these controls while the task runs (e.g. the button that started it).
+     */
+    public UiTask<T> disable(Node... nodes) {
+        for (Node node : nodes) {
+            if (node != null) disabledWhileRunning.add(node);
+        }
+        return this;
+    }
+
+    /**
+     * Submit the task. Must be called on the FX thread, once.
+     */
+    public UiTask<T> start() {
+        if (started) throw new IllegalStateException("Task already started: " + name);
+        started = true;
+        generation = BackgroundTasks.register(this);
+        for (Node node : disabledWhileRunning) {
+            if (!node.isDisable()) {
+                node.setDisable(true);
+                disabledByThis.add(node);
+            }
+        }
+        if (overlayTarget != null) {
+            overlay = LoadingOverlay.show(overlayTarget, progress, message);
+        }
+        try {
+            future = BackgroundTasks.submit(this::runWork);
+        } catch (RejectedExecutionException e) {
+            complete(null, new IllegalStateException("Too many tasks are running, please try again", e));
+        }
+        return this;
+    }
+
+    /**
+     * Cancel the task: its result will not be delivered. Safe to call more than once.
+     */
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        if (future != null) future.cancel(false);
+        if (Platform.isFxApplicationThread()) {
+            complete(null, null);
+        } else {
+            Platform.runLater(() -> complete(null, null));
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isRunning() {
+        return started && !finished;
+    }
+
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress;
+    }
+
+    public ReadOnlyStringProperty messageProperty() {
+        return message;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Object getOwner() {
+        return owner;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    private void runWork() {
+        if (cancelled) return;
+        T result = null;
+        Throwable error = null;
+        try {
+            result = work.run(new Progress() {
+                @Override
+                public void update(long done, long total) {
+                    latestProgress = total > 0 ? Math.min(1.0, (double) done / total) : ProgressIndicator.INDETERMINATE_PROGRESS;
+                    publishProgress();
+                }
+
+                @Override
+                public void message(String text) {
+                    latestMessage = text;
+                    publishProgress();
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return cancelled;
+                }
+            });
+        } catch (Throwable t) {
+            error = t;
+        }
+        T value = result;
+        Throwable failure = error;
+        Platform.runLater(() -> complete(value, failure));
+    }
+
+    /**
+     * Coalesce progress updates: at most one pending runLater, carrying the latest values.
+     */
+    private void publishProgress() {
+        if (progressPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                progressPending.set(false);
+                progress.set(latestProgress);
+                message.set(latestMessage);
+            });
+        }
+    }
+
+    /**
+     * FX thread: tear down the overlay and deliver the outcome unless the task is stale.
+     */
+    private void complete(T result, Throwable error) {
+        if (finished) return;
+        finished = true;
+        BackgroundTasks.unregister(this);
+        if (overlay != null) overlay.hide();
+        for (Node node : disabledByThis) {
+            node.setDisable(false);
+        }
+        disabledByThis.clear();
+
+        if (cancelled || !BackgroundTasks.isCurrent(this)) {
+            logger.fine("Dropped result of " + name + " (cancelled or left)");
+            if (onCancelled != null) onCancelled.run();
+            return;
+        }
+        if (error != null) {
+            if (onFailure != null) {
+                onFailure.accept(error);
+            } else {
+                logger.log(Level.SEVERE, name + " failed", error);
+                AlertHelper.showError("Error", name + " failed: " + error.getMessage());
+            }
+            return;
+        }
+        onSuccess.accept(result);
+    }
+}
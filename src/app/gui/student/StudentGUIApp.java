@@ -1,12 +1,14 @@
 package app.gui.student;
 
 import javafx.application.Application;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import javafx.stage.Screen;
 import javafx.geometry.Rectangle2D;
 import terminal.ServiceContainer;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.AppStartup;
+import app.gui.shared.BackgroundTasks;
+import app.gui.shared.ImageAssets;
 
 import java.util.logging.Logger;
 
@@ -22,17 +24,25 @@ public class StudentGUIApp extends Application {
 
     @Override
     public void start(Stage stage) {
+        logger.info("Starting Student Portal Application...");
+        primaryStage = stage;
+
+        // The splash shows at once; the services connect to the database off the FX thread
+        AppStartup startup = new AppStartup("Student Portal");
+        startup.start(ServiceContainer::new,
+            services -> showFirstScreen(stage, services, startup),
+            e -> AlertHelper.showError("Startup Error", "Failed to start the Student Portal: " + e.getMessage()));
+    }
+
+    /**
+     * Show the login screen once the services are ready (FX thread).
+     */
+    private void showFirstScreen(Stage stage, ServiceContainer services, AppStartup startup) {
         try {
-            logger.info("Starting Student Portal Application...");
-            
-            primaryStage = stage;
-            
-            // Initialize the service container with all business services
-            logger.info("Initializing service container...");
-            serviceContainer = new ServiceContainer();
-            
+            serviceContainer = services;
+
             // Initialize the navigation service with stage and services
-            StudentNavigationService.initialize(stage, serviceContainer);
+            StudentNavigationService.initialize(stage, services);
             
             // Get screen bounds for optimal sizing
             Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
@@ -61,8 +71,12 @@ public class StudentGUIApp extends Application {
             stage.show();
             
             logger.info("Student Portal Application started successfully.");
-            Image icon = new Image("file:D:\\inteljii  ULTIMATE\\IdeaProjects\\CafeteriaSystem1\\icon.png"); // file:CopyPathOfImage
-            stage.getIcons().add(icon);
+            // Window icon, decoded at icon sizes from the bundled image
+            ImageAssets.applyIcons(stage, "icons/student-icon.png");
+            startup.firstScreenShown();
+
+            // Read the screens likely to follow login while the user types their credentials
+            StudentNavigationService.preload("menu-dashboard", "order-payment", "notifications", "order-history");
         } catch (Exception e) {
             logger.severe("Failed to start application: " + e.getMessage());
             e.printStackTrace();
@@ -74,7 +88,10 @@ public class StudentGUIApp extends Application {
     @Override
     public void stop() {
         logger.info("Shutting down Student Portal Application...");
-        // Cleanup resources if needed
+        BackgroundTasks.shutdown();
+        if (serviceContainer != null) {
+            serviceContainer.shutdown();
+        }
     }
 
     /**
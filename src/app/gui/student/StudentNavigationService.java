@@ -1,5 +1,6 @@
 package app.gui.student;
 
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -8,6 +9,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import terminal.ServiceContainer;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -26,6 +28,7 @@ public class StudentNavigationService {
     private static ServiceContainer serviceContainer;
     private static Map<String, Scene> sceneCache = new HashMap<>();
     private static Map<String, Object> controllerCache = new HashMap<>();
+    private static String currentSceneName;
     
     // Private constructor to prevent instantiation
     private StudentNavigationService() {}
@@ -64,14 +67,6 @@ public class StudentNavigationService {
             // Load the scene (either from cache or create new)
             Scene scene = loadScene(sceneName);
             
-            // Setup ESC key handler to exit fullscreen (without hint message)
-            scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
-                if (event.getCode() == KeyCode.ESCAPE && stage.isFullScreen()) {
-                    stage.setFullScreen(false);
-                    event.consume();
-                }
-            });
-
             // Get the controller and pass data if available
             Object controller = controllerCache.get(sceneName);
             if (controller != null && data != null) {
@@ -84,6 +79,12 @@ public class StudentNavigationService {
                 refreshController(controller, sceneName);
             }
             
+            // Results of the screen being left are no longer wanted
+            if (currentSceneName != null && !currentSceneName.equals(sceneName)) {
+                BackgroundTasks.cancelAll(controllerCache.get(currentSceneName));
+            }
+            currentSceneName = sceneName;
+
             // Set the scene on the stage
             stage.setScene(scene);
 
@@ -115,15 +116,38 @@ public class StudentNavigationService {
             return sceneCache.get(sceneName);
         }
         
-        // Load from FXML file in student directory
+        long started = System.nanoTime();
+        Scene scene = cacheScene(sceneName, loadFxml(sceneName));
+        logger.info("Loaded scene " + sceneName + " in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+        return scene;
+    }
+
+    /**
+     * Load an FXML file from the student directory. Creates the controller, so the
+     * service container must be initialized; may run off the FX thread.
+     */
+    private static FXMLLoader loadFxml(String sceneName) throws IOException {
         String fxmlPath = "/app/resources/fxml/student/" + sceneName + ".fxml";
         logger.info("Loading FXML from: " + fxmlPath);
         
         FXMLLoader loader = new FXMLLoader(StudentNavigationService.class.getResource(fxmlPath));
-        Parent root = loader.load();
-        
-        // Create scene and cache it
-        Scene scene = new Scene(root);
+        loader.load();
+        return loader;
+    }
+
+    /**
+     * Create the scene for a loaded FXML file and cache it with its controller (FX thread).
+     */
+    private static Scene cacheScene(String sceneName, FXMLLoader loader) {
+        Scene scene = new Scene(loader.<Parent>getRoot());
+
+        // Setup ESC key handler to exit fullscreen (without hint message), once per scene
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.ESCAPE && stage.isFullScreen()) {
+                stage.setFullScreen(false);
+                event.consume();
+            }
+        });
         sceneCache.put(sceneName, scene);
         
         // Cache the controller
@@ -134,6 +158,43 @@ public class StudentNavigationService {
         
         return scene;
     }
+
+    /**
+     * Load scenes in the background so that the first visit to them does not wait for FXML
+     * parsing, e.g. the screens likely to follow login while the user types. Call on the FX
+     * thread after {@link #initialize}; scenes already cached are skipped.
+     *
+     * The FXML is read on a background worker and only the Scene is made on the FX thread.
+     * A file whose controls must be created on the FX thread (e.g. tooltips) is loaded there
+     * instead, one scene per pulse so the screen keeps responding.
+     *
+     * @param sceneNames The names of the FXML files (without .fxml extension)
+     */
+    public static void preload(String... sceneNames) {
+        for (String sceneName : sceneNames) {
+            if (sceneCache.containsKey(sceneName)) continue;
+            long started = System.nanoTime();
+            BackgroundTasks.task("Preloading " + sceneName, progress -> loadFxml(sceneName))
+                .onSuccess(loader -> {
+                    if (sceneCache.containsKey(sceneName)) return; // visited meanwhile
+                    cacheScene(sceneName, loader);
+                    logger.info("Preloaded scene " + sceneName + " in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+                })
+                .onFailure(e -> {
+                    logger.fine("Preloading " + sceneName + " off the FX thread failed (" + e + "), loading it on the FX thread");
+                    Platform.runLater(() -> {
+                        if (sceneCache.containsKey(sceneName)) return;
+                        try {
+                            loadScene(sceneName);
+                        } catch (Exception ex) {
+                            // Not fatal: the scene is loaded again when it is first visited
+                            logger.warning("Could not preload scene " + sceneName + ": " + ex.getMessage());
+                        }
+                    });
+                })
+                .start();
+        }
+    }
     
     /**
      * Pass data to a controller using reflection or specific methods
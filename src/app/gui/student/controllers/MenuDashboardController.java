@@ -1,27 +1,48 @@
 package app.gui.student.controllers;
 
+import Core.CartLine;
 import Core.MenuItem;
 import Core.Student;
+import Services.CartService;
 import Services.MenuManager;
 import Services.NotificationHistoryService;
+import Services.ReorderService;
 import Services.LoyaltyProgramService;
+import Services.MenuSearchIndex;
+import Values.CartValidation;
+import Values.RecentOrder;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
+import app.gui.shared.ImageAssets;
 import app.gui.student.StudentNavigationService;
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import javafx.util.Duration;
 import terminal.ServiceContainer;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.logging.Logger;
 
 /**
@@ -31,6 +52,12 @@ import java.util.logging.Logger;
  */
 public class MenuDashboardController {
     private static final Logger logger = Logger.getLogger(MenuDashboardController.class.getName());
+    // Menu pictures are read from images/menu at this size (see ImageAssets.menuThumbnail)
+    private static final double THUMBNAIL_SIZE = 40;
+    // Typing pauses shorter than this are one search
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(150);
+    // Words as MenuSearchIndex splits them
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
     
     @FXML private Label studentInfoLabel;
     @FXML private Label loyaltyPointsLabel;
@@ -42,6 +69,8 @@ public class MenuDashboardController {
     @FXML private Label welcomeTitle;
     @FXML private Label welcomeMessage;
 
+    @FXML private TextField menuSearchField;
+    @FXML private Label menuMatchLabel;
     @FXML private TableView<MenuItem> menuTableView;
     @FXML private TableColumn<MenuItem, Integer> idColumn;
     @FXML private TableColumn<MenuItem, String> nameColumn;
@@ -56,15 +85,18 @@ public class MenuDashboardController {
     @FXML private Label discountLabel;
     @FXML private Label totalLabel;
     @FXML private Button checkoutButton;
+    @FXML private Button reorderButton;
     
     private Student currentStudent;
     private ServiceContainer services;
     private MenuManager menuManager;
     private NotificationHistoryService notificationService;
     private LoyaltyProgramService loyaltyService;
+    private CartService cartService;
+    private ReorderService reorderService;
     
-    // Cart data structures
-    private Map<Integer, CartItem> cart = new HashMap<>();
+    // Cart data structures (a view of the student's cart held by CartService)
+    private Map<Integer, CartItem> cart = new LinkedHashMap<>();
     private Map<Integer, Spinner<Integer>> quantitySpinners = new HashMap<>();
     private double subtotal = 0.0;
     private double discount = 0.0;
@@ -72,6 +104,14 @@ public class MenuDashboardController {
     // Flag to track if this is a new registration
     private boolean isNewRegistration = false;
 
+    // The loaded menu, filtered in memory as the student types in the search field
+    private final ObservableList<MenuItem> menuItems = FXCollections.observableArrayList();
+    private final FilteredList<MenuItem> filteredMenu = new FilteredList<>(menuItems);
+    private MenuSearchIndex menuIndex = new MenuSearchIndex(List.of());
+    private List<String> searchWords = List.of();
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private String menuSubtitle;
+
     /**
      * Initialize the controller.
      * Called automatically by JavaFX after FXML loading.
@@ -85,9 +125,12 @@ public class MenuDashboardController {
             menuManager = services.getMenuManager();
             notificationService = services.getNotificationHistoryService();
             loyaltyService = services.getLoyaltyService();
+            cartService = services.getCartService();
+            reorderService = services.getReorderService();
         }
         
         setupTableColumns();
+        setupMenuSearch();
     }
     
     /**
@@ -121,6 +164,8 @@ public class MenuDashboardController {
         updateStudentInfo();
         updateLoyaltyPoints();
         loadMenuItems();
+        reloadCart();
+        updateReorderButton();
         updateNotificationBadge();
 
         // Show welcome banner ONLY if this is a new registration
@@ -163,13 +208,46 @@ public class MenuDashboardController {
         idColumn.setCellValueFactory(cellData -> 
             new SimpleIntegerProperty(cellData.getValue().getId()).asObject());
         
-        // Name column
+        // Name column, with the item's picture when there is one
         nameColumn.setCellValueFactory(cellData -> 
             new SimpleStringProperty(cellData.getValue().getName()));
+        nameColumn.setCellFactory(col -> new TableCell<MenuItem, String>() {
+            private final ImageView thumbnail = new ImageView();
+
+            {
+                thumbnail.setFitWidth(THUMBNAIL_SIZE);
+                thumbnail.setFitHeight(THUMBNAIL_SIZE);
+                thumbnail.setPreserveRatio(true);
+            }
+
+            @Override
+            protected void updateItem(String name, boolean empty) {
+                super.updateItem(name, empty);
+                MenuItem menuItem = empty || getTableRow() == null ? null : getTableRow().getItem();
+                if (menuItem == null) {
+                    setText(null);
+                    setGraphic(null);
+                    return;
+                }
+                setText(null);
+                Image image = ImageAssets.menuThumbnail(menuItem, THUMBNAIL_SIZE);
+                thumbnail.setImage(image);
+                TextFlow text = highlightMatches(name);
+                setGraphic(image != null ? new HBox(8, thumbnail, text) : text);
+            }
+        });
         
         // Description column
         descriptionColumn.setCellValueFactory(cellData -> 
             new SimpleStringProperty(cellData.getValue().getDescription()));
+        descriptionColumn.setCellFactory(col -> new TableCell<MenuItem, String>() {
+            @Override
+            protected void updateItem(String description, boolean empty) {
+                super.updateItem(description, empty);
+                setText(null);
+                setGraphic(empty || description == null ? null : highlightMatches(description));
+            }
+        });
         
         // Price column
         priceColumn.setCellValueFactory(cellData -> {
@@ -305,11 +383,24 @@ public class MenuDashboardController {
                 return;
             }
             
-            List<MenuItem> items = menuManager.getAvailableItems();
-            ObservableList<MenuItem> menuItems = FXCollections.observableArrayList(items);
-            menuTableView.setItems(menuItems);
-            
-            logger.info("Loaded " + items.size() + " menu items");
+            menuTableView.setPlaceholder(new Label("Loading menu..."));
+            BackgroundTasks.task("Loading menu", progress -> {
+                    // The search index is built here too, off the FX thread
+                    List<MenuItem> items = menuManager.getAvailableItems();
+                    return new MenuSnapshot(items, new MenuSearchIndex(items));
+                })
+                .owner(this).key("menu")
+                .onSuccess(snapshot -> {
+                    menuIndex = snapshot.index;
+                    menuItems.setAll(snapshot.items);
+                    applySearch();
+                    logger.info("Loaded " + snapshot.items.size() + " menu items");
+                })
+                .onFailure(e -> {
+                    logger.severe("Error loading menu items: " + e.getMessage());
+                    AlertHelper.showError("Error", "Failed to load menu items: " + e.getMessage());
+                })
+                .start();
             
         } catch (Exception e) {
             logger.severe("Error loading menu items: " + e.getMessage());
@@ -318,6 +409,84 @@ public class MenuDashboardController {
         }
     }
     
+    /**
+     * Filter the menu as the student types: the search runs once typing pauses for
+     * {@link #SEARCH_DEBOUNCE} (or at once on Enter) and only swaps the filtered list's
+     * predicate, using the in-memory index, so no keystroke reaches the database.
+     */
+    private void setupMenuSearch() {
+        SortedList<MenuItem> sortedMenu = new SortedList<>(filteredMenu);
+        sortedMenu.comparatorProperty().bind(menuTableView.comparatorProperty());
+        menuTableView.setItems(sortedMenu);
+        if (menuMatchLabel != null) menuSubtitle = menuMatchLabel.getText();
+        if (menuSearchField == null) return;
+
+        searchDebounce.setOnFinished(event -> applySearch());
+        menuSearchField.textProperty().addListener((obs, oldText, newText) -> searchDebounce.playFromStart());
+        menuSearchField.setOnAction(event -> {
+            searchDebounce.stop();
+            applySearch();
+        });
+        menuSearchField.setOnKeyPressed(event -> {
+            // ESC clears the search first; with an empty field it leaves fullscreen as elsewhere
+            if (event.getCode() == KeyCode.ESCAPE && !menuSearchField.getText().isEmpty()) {
+                menuSearchField.clear();
+                searchDebounce.stop();
+                applySearch();
+                event.consume();
+            }
+        });
+    }
+
+    private void applySearch() {
+        String query = menuSearchField != null ? menuSearchField.getText() : null;
+        long started = System.nanoTime();
+        searchWords = MenuSearchIndex.words(query);
+        filteredMenu.setPredicate(searchWords.isEmpty() ? null : menuIndex.matcher(query));
+        // Rows that still match keep their cells; redraw them for the new highlights
+        menuTableView.refresh();
+        logger.fine("Menu search '" + query + "': " + filteredMenu.size() + " of " + menuItems.size()
+                + " items in " + (System.nanoTime() - started) / 1_000 + " us");
+
+        if (searchWords.isEmpty()) {
+            menuTableView.setPlaceholder(new Label("No menu items available"));
+            if (menuMatchLabel != null) menuMatchLabel.setText(menuSubtitle);
+        } else {
+            menuTableView.setPlaceholder(new Label("No menu items match \"" + query.trim() + "\""));
+            if (menuMatchLabel != null) {
+                menuMatchLabel.setText(filteredMenu.size() + " of " + menuItems.size() + " items");
+            }
+        }
+    }
+
+    /**
+     * The text with the parts of words that start with a search word highlighted.
+     */
+    private TextFlow highlightMatches(String text) {
+        TextFlow flow = new TextFlow();
+        if (searchWords.isEmpty()) {
+            flow.getChildren().add(new Text(text));
+            return flow;
+        }
+        Matcher words = WORD.matcher(text);
+        int plainFrom = 0;
+        while (words.find()) {
+            String word = words.group().toLowerCase(Locale.ROOT);
+            int length = 0;
+            for (String searchWord : searchWords) {
+                if (word.startsWith(searchWord)) length = Math.max(length, searchWord.length());
+            }
+            if (length == 0) continue;
+            if (words.start() > plainFrom) flow.getChildren().add(new Text(text.substring(plainFrom, words.start())));
+            Text match = new Text(text.substring(words.start(), words.start() + length));
+            match.getStyleClass().add("search-match");
+            flow.getChildren().add(match);
+            plainFrom = words.start() + length;
+        }
+        if (plainFrom < text.length()) flow.getChildren().add(new Text(text.substring(plainFrom)));
+        return flow;
+    }
+
     /**
      * Get the count of unread notifications for the current student.
      * This method queries the NotificationHistoryService for the unread count.
@@ -384,19 +553,16 @@ public class MenuDashboardController {
      */
     private void handleAddToCart(MenuItem menuItem) {
         try {
+            if (cartService == null || currentStudent == null) {
+                AlertHelper.showError("Error", "Cart service not available");
+                return;
+            }
             Spinner<Integer> spinner = quantitySpinners.get(menuItem.getId());
             int quantity = spinner != null ? spinner.getValue() : 1;
             
-            if (cart.containsKey(menuItem.getId())) {
-                // Update existing cart item
-                CartItem cartItem = cart.get(menuItem.getId());
-                cartItem.quantity += quantity;
-            } else {
-                // Add new cart item
-                cart.put(menuItem.getId(), new CartItem(menuItem, quantity));
-            }
-            
-            updateCartDisplay();
+            // Existing lines keep their quantity and price snapshot; the service saves the change
+            cartService.addItem(currentStudent.getStudentCode(), menuItem, quantity);
+            reloadCart();
             
             logger.info("Added to cart: " + menuItem.getName() + " x" + quantity);
             
@@ -412,11 +578,51 @@ public class MenuDashboardController {
      * @param menuItemId The ID of the menu item to remove
      */
     private void handleRemoveFromCart(int menuItemId) {
-        cart.remove(menuItemId);
-        updateCartDisplay();
+        if (cartService != null && currentStudent != null) {
+            cartService.removeItem(currentStudent.getStudentCode(), menuItemId);
+        }
+        reloadCart();
         logger.info("Removed item from cart: " + menuItemId);
     }
     
+    /**
+     * Rebuild the cart view from the student's cart in CartService.
+     */
+    private void reloadCart() {
+        reloadCart(null);
+    }
+    
+    /**
+     * Rebuild the cart view from the student's cart in CartService, then run {@code then}
+     * (if not null). A cart not cached yet is restored from the database, so the lines are
+     * fetched in the background.
+     */
+    private void reloadCart(Runnable then) {
+        if (cartService == null || currentStudent == null) {
+            cart.clear();
+            updateCartDisplay();
+            if (then != null) then.run();
+            return;
+        }
+        String studentCode = currentStudent.getStudentCode();
+        BackgroundTasks.task("Loading cart", progress -> cartService.getCart(studentCode).getLines())
+                .owner(this).key("cart")
+                .onSuccess(lines -> {
+                    cart.clear();
+                    for (CartLine line : lines) {
+                        cart.put(line.getMenuItemId(), new CartItem(line.toMenuItem(), line.getQuantity()));
+                    }
+                    updateCartDisplay();
+                    if (then != null) then.run();
+                })
+                .onFailure(e -> {
+                    logger.warning("Error loading cart: " + e.getMessage());
+                    cart.clear();
+                    updateCartDisplay();
+                })
+                .start();
+    }
+    
     /**
      * Update the cart display with current items and totals.
      */
@@ -502,6 +708,22 @@ public class MenuDashboardController {
         }
         
         try {
+            // Prices are snapshotted when items are added; make sure they still hold
+            if (cartService != null) {
+                CartValidation validation = cartService.validate(currentStudent.getStudentCode());
+                if (!validation.isUnchanged()) {
+                    reloadCart();
+                    AlertHelper.showWarning("Cart Updated",
+                        "Some items changed since you added them:\n" + String.join("\n", validation.getChanges())
+                        + "\n\nPlease review your cart before checking out.");
+                    return;
+                }
+                if (validation.isEmpty()) {
+                    reloadCart();
+                    return;
+                }
+            }
+            
             // Prepare order data
             OrderData orderData = new OrderData();
             orderData.student = currentStudent;
@@ -520,6 +742,72 @@ public class MenuDashboardController {
         }
     }
     
+    /**
+     * Offer the student's last order again on the reorder button.
+     */
+    private void updateReorderButton() {
+        if (reorderButton == null) return;
+        RecentOrder last = null;
+        try {
+            if (reorderService != null && currentStudent != null) {
+                last = reorderService.lastOrder(currentStudent.getStudentCode());
+            }
+        } catch (Exception e) {
+            logger.warning("Error loading last order: " + e.getMessage());
+        }
+        reorderButton.setDisable(last == null);
+        reorderButton.setTooltip(last != null ? new Tooltip(last.getSummary()) : null);
+    }
+    
+    /**
+     * Handle Reorder Last button click.
+     * Put the student's last order (as it is on the menu now) in the cart and go to checkout.
+     */
+    @FXML
+    private void handleReorderLast() {
+        logger.info("Reorder last order button clicked");
+        
+        if (currentStudent == null || reorderService == null || cartService == null) {
+            AlertHelper.showError("Error", "Reorder not available");
+            return;
+        }
+        
+        try {
+            String studentCode = currentStudent.getStudentCode();
+            RecentOrder last = reorderService.lastOrder(studentCode);
+            CartValidation preview = last != null ? reorderService.preview(studentCode, last.getOrderCode()) : null;
+            if (preview == null) {
+                AlertHelper.showInfo("Reorder", "You have no previous orders yet");
+                return;
+            }
+            if (preview.isEmpty()) {
+                AlertHelper.showWarning("Reorder", "None of the items of your last order are available right now");
+                return;
+            }
+            
+            StringBuilder message = new StringBuilder("Order again: " + last.getSummary());
+            if (!preview.isUnchanged()) {
+                message.append("\n\nChanged since then:\n").append(String.join("\n", preview.getChanges()));
+            }
+            if (!cart.isEmpty()) {
+                message.append("\n\nThis replaces the items currently in your cart.");
+            }
+            if (!AlertHelper.showConfirmation("Reorder Last Order", message.toString())) {
+                return;
+            }
+            
+            cartService.clear(studentCode);
+            for (Map.Entry<MenuItem, Integer> entry : preview.getItems().entrySet()) {
+                cartService.addItem(studentCode, entry.getKey(), entry.getValue());
+            }
+            reloadCart(this::handleCheckout);
+            
+        } catch (Exception e) {
+            logger.severe("Error reordering last order: " + e.getMessage());
+            AlertHelper.showError("Reorder Error", "Failed to reorder: " + e.getMessage());
+        }
+    }
+    
     /**
      * Handle Refresh button click.
      * Refresh notification badge and loyalty points from database.
@@ -636,4 +924,17 @@ public class MenuDashboardController {
         public double discount;
         public double total;
     }
+
+    /**
+     * The menu as loaded, with its search index.
+     */
+    private static final class MenuSnapshot {
+        final List<MenuItem> items;
+        final MenuSearchIndex index;
+
+        MenuSnapshot(List<MenuItem> items, MenuSearchIndex index) {
+            this.items = items;
+            this.index = index;
+        }
+    }
 }
@@ -3,7 +3,9 @@ package app.gui.student.controllers;
 import Core.NotificationHistory;
 import Core.Student;
 import Services.NotificationHistoryService;
+import Values.KeysetCursor;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
 import app.gui.student.StudentNavigationService;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -16,7 +18,6 @@ import javafx.geometry.Insets;
 import terminal.ServiceContainer;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -26,6 +27,7 @@ import java.util.logging.Logger;
 public class NotificationsController {
     private static final Logger logger = Logger.getLogger(NotificationsController.class.getName());
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final int PAGE_SIZE = 20;
     
     @FXML private ListView<NotificationHistory> notificationsListView;
     @FXML private Button markAllReadButton;
@@ -35,6 +37,11 @@ public class NotificationsController {
     private ServiceContainer services;
     private NotificationHistoryService notificationService;
     
+    // Keyset paging state: cursor for the next page, null once the last page is loaded
+    private KeysetCursor nextCursor;
+    private boolean hasMore;
+    private boolean loading;
+    
     /**
      * Initialize the controller.
      * Called automatically by JavaFX after FXML loading.
@@ -78,6 +85,10 @@ public class NotificationsController {
                     setText(null);
                 } else {
                     setGraphic(createNotificationCell(notification));
+                    // Lazily fetch the next page once the last loaded row scrolls into view
+                    if (hasMore && !loading && getIndex() == getListView().getItems().size() - 1) {
+                        loadNextPage();
+                    }
                 }
             }
         });
@@ -166,7 +177,7 @@ TASK 9: Point Redemption Validation*/
     }
     
     /**
-     * Load notifications for the current student.
+     * Load the first page of notifications for the current student.
      */
     private void loadNotifications() {
         if (currentStudent == null) {
@@ -174,40 +185,49 @@ TASK 9: Point Redemption Validation*/
             return;
         }
         
-        try {
-            logger.info("Loading notifications for student: " + currentStudent.getStudentCode());
-            
-            if (notificationService == null) {
-                logger.warning("NotificationHistoryService is not available");
-                AlertHelper.showWarning("Service Unavailable", 
-                    "Notification service is not available at this time.");
-                return;
-            }
-            
-            // Get all notifications for the student
-            List<NotificationHistory> notifications = 
-                notificationService.getNotificationHistoryForStudent(currentStudent.getStudentCode());
-            
-            // Clear and populate the list view
-            notificationsListView.getItems().clear();
-            
-            if (notifications == null || notifications.isEmpty()) {
-                logger.info("No notifications found for student");
-                // Show a message in the list
-                Label emptyLabel = new Label("📭 No notifications yet");
-                emptyLabel.getStyleClass().add("empty-message");
-                // We can't add a Label directly to ListView, so we'll just leave it empty
-                // The user will see an empty list
-            } else {
-                notificationsListView.getItems().addAll(notifications);
-                logger.info("Loaded " + notifications.size() + " notifications");
-            }
-            
-        } catch (Exception e) {
-            logger.severe("Error loading notifications: " + e.getMessage());
-            e.printStackTrace();
-            AlertHelper.showError("Error", "Failed to load notifications: " + e.getMessage());
+        if (notificationService == null) {
+            logger.warning("NotificationHistoryService is not available");
+            AlertHelper.showWarning("Service Unavailable", 
+                "Notification service is not available at this time.");
+            return;
+        }
+        
+        logger.info("Loading notifications for student: " + currentStudent.getStudentCode());
+        notificationsListView.getItems().clear();
+        nextCursor = null;
+        hasMore = true;
+        loading = false; // a page still loading for the old list is superseded below
+        loadNextPage();
+    }
+    
+    /**
+     * Append the next page of notifications, if there is one, fetched in the background.
+     */
+    private void loadNextPage() {
+        if (!hasMore || loading || currentStudent == null || notificationService == null) {
+            return;
         }
+        
+        loading = true;
+        String studentCode = currentStudent.getStudentCode();
+        KeysetCursor cursor = nextCursor;
+        BackgroundTasks.task("Loading notifications",
+                progress -> notificationService.getNotificationPage(studentCode, null, cursor, PAGE_SIZE))
+            .owner(this).key("page")
+            .onSuccess(page -> {
+                loading = false;
+                nextCursor = page.getNextCursor();
+                hasMore = page.hasMore();
+                notificationsListView.getItems().addAll(page.getItems());
+                logger.info("Loaded " + page.getItems().size() + " notifications (more: " + hasMore + ")");
+            })
+            .onFailure(e -> {
+                loading = false;
+                hasMore = false;
+                logger.severe("Error loading notifications: " + e.getMessage());
+                AlertHelper.showError("Error", "Failed to load notifications: " + e.getMessage());
+            })
+            .start();
     }
     
     /**
@@ -231,10 +251,9 @@ TASK 9: Point Redemption Validation*/
             }
             
             // Check if there are any unread notifications
-            List<NotificationHistory> unreadNotifications = 
-                notificationService.getUnreadNotificationsForStudent(currentStudent.getStudentCode());
+            int unreadCount = notificationService.getUnreadNotificationCount(currentStudent.getStudentCode());
             
-            if (unreadNotifications == null || unreadNotifications.isEmpty()) {
+            if (unreadCount == 0) {
                 AlertHelper.showInfo("No Unread Notifications", 
                     "All notifications are already marked as read.");
                 return;
@@ -3,8 +3,13 @@ package app.gui.student.controllers;
 import Core.OrderHistory;
 import Core.Student;
 import Services.OrderHistoryService;
+import Services.OrderProcessor;
+import Values.PickupEta;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
 import app.gui.student.StudentNavigationService;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -12,11 +17,15 @@ import javafx.scene.control.Button;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 import terminal.ServiceContainer;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -26,6 +35,7 @@ import java.util.logging.Logger;
 public class OrderHistoryController {
     private static final Logger logger = Logger.getLogger(OrderHistoryController.class.getName());
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int ETA_REFRESH_SECONDS = 15;
     
     @FXML private TableView<OrderHistory> orderHistoryTable;
     @FXML private TableColumn<OrderHistory, String> orderCodeColumn;
@@ -33,11 +43,16 @@ public class OrderHistoryController {
     @FXML private TableColumn<OrderHistory, String> totalAmountColumn;
     @FXML private TableColumn<OrderHistory, String> paymentMethodColumn;
     @FXML private TableColumn<OrderHistory, String> statusColumn;
+    @FXML private TableColumn<OrderHistory, String> etaColumn;
     @FXML private Button backButton;
     
     private Student currentStudent;
     private ServiceContainer services;
     private OrderHistoryService orderHistoryService;
+    private OrderProcessor orderProcessor;
+    private Timeline etaRefresh;
+    // FX thread only: latest estimate text per pending order code
+    private Map<String, String> etaText = Map.of();
     
     /**
      * Initialize the controller.
@@ -51,6 +66,7 @@ public class OrderHistoryController {
         
         if (services != null) {
             orderHistoryService = services.getOrderHistoryService();
+            orderProcessor = services.getOrderProcessor();
         }
         
         // Set up table columns
@@ -84,6 +100,10 @@ public class OrderHistoryController {
         // Status column
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("orderStatus"));
         
+        // ETA column - estimated pickup time for orders still in the queue
+        etaColumn.setCellValueFactory(cellData ->
+            new javafx.beans.property.SimpleStringProperty(formatEta(cellData.getValue())));
+        
         logger.info("Table columns configured successfully");
     }
     
@@ -134,6 +154,7 @@ public class OrderHistoryController {
             // Convert to ObservableList and populate table
             ObservableList<OrderHistory> observableList = FXCollections.observableArrayList(orderHistoryList);
             orderHistoryTable.setItems(observableList);
+            startEtaRefresh();
             
             logger.info("Loaded " + orderHistoryList.size() + " order history records");
             
@@ -144,6 +165,70 @@ public class OrderHistoryController {
         }
     }
     
+    /**
+     * Estimated pickup time for an order that is still NEW / PREPARING, from the last
+     * background estimate (blank until the first one arrives).
+     */
+    private String formatEta(OrderHistory history) {
+        String status = history.getOrderStatus();
+        if ("READY".equalsIgnoreCase(status)) {
+            return "Ready";
+        }
+        if (!("NEW".equalsIgnoreCase(status) || "PREPARING".equalsIgnoreCase(status))) {
+            return "";
+        }
+        return etaText.getOrDefault(history.getOrderCode(), "");
+    }
+    
+    /**
+     * Re-estimate the pending orders off the FX thread and re-render the ETA column.
+     * Estimates may read the order queue, so they never run while a cell is drawn.
+     */
+    private void refreshEtas() {
+        if (orderProcessor == null || orderHistoryTable.getItems() == null) return;
+        List<String> pendingCodes = new ArrayList<>();
+        for (OrderHistory history : orderHistoryTable.getItems()) {
+            String status = history.getOrderStatus();
+            if ("NEW".equalsIgnoreCase(status) || "PREPARING".equalsIgnoreCase(status)) {
+                pendingCodes.add(history.getOrderCode());
+            }
+        }
+        if (pendingCodes.isEmpty()) return;
+        BackgroundTasks.task("Estimating pickup times", progress -> {
+                Map<String, String> estimates = new HashMap<>();
+                for (String code : pendingCodes) {
+                    PickupEta eta = orderProcessor.estimateReadyTime(code);
+                    estimates.put(code, eta != null ? eta.toString() : "Ready");
+                }
+                return estimates;
+            })
+            .owner(this).key("eta")
+            .onSuccess(estimates -> {
+                etaText = estimates;
+                orderHistoryTable.refresh();
+            })
+            .onFailure(e -> logger.warning("Could not estimate ready times: " + e.getMessage()))
+            .start();
+    }
+    
+    /**
+     * Re-estimate periodically so the ETA column follows the queue.
+     */
+    private void startEtaRefresh() {
+        stopEtaRefresh();
+        refreshEtas();
+        etaRefresh = new Timeline(new KeyFrame(Duration.seconds(ETA_REFRESH_SECONDS), e -> refreshEtas()));
+        etaRefresh.setCycleCount(Timeline.INDEFINITE);
+        etaRefresh.play();
+    }
+    
+    private void stopEtaRefresh() {
+        if (etaRefresh != null) {
+            etaRefresh.stop();
+            etaRefresh = null;
+        }
+    }
+    
     /**
      * Handle Back button click.
      * Return to the menu dashboard (not student-dashboard).
@@ -151,6 +236,7 @@ public class OrderHistoryController {
     @FXML
     private void handleBack() {
         logger.info("Back button clicked");
+        stopEtaRefresh();
         
         if (currentStudent == null) {
             logger.warning("Student data not available, navigating to student login");
@@ -6,14 +6,22 @@ import Services.PaymentRegistry;
 import Services.LoyaltyProgramService;
 import Services.FreeProductCalculator;
 import Services.MenuManager;
+import Services.PickupSlotService;
+import Services.CartService;
+import Values.PickupSlot;
+import Values.PlacementResult;
+import Values.SlotReservation;
+import Enums.Category;
 import Interfaces.IPaymentProcessor;
 import Values.Selection;
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
 import app.gui.student.StudentNavigationService;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
@@ -22,8 +30,13 @@ import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.layout.VBox;
 import terminal.ServiceContainer;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 /**
@@ -40,6 +53,7 @@ public class OrderPaymentController {
     @FXML private Label discountLabel;
     @FXML private Label totalLabel;
     @FXML private ComboBox<String> paymentMethodComboBox;
+    @FXML private ComboBox<String> pickupSlotComboBox;
     @FXML private Label availablePointsLabel;
     @FXML private Label maxRedeemablePointsLabel;
     @FXML private Label pointsToEarnLabel;
@@ -49,12 +63,24 @@ public class OrderPaymentController {
     @FXML private VBox freeProductsSection;
     @FXML private Label freeProductsInfoLabel;
     @FXML private ListView<String> freeProductsListView;
+    @FXML private Button confirmPaymentButton;
     
     private ServiceContainer services;
     private OrderProcessor orderProcessor;
     private PaymentRegistry paymentRegistry;
     private LoyaltyProgramService loyaltyService;
     private FreeProductCalculator freeProductCalculator;
+    private PickupSlotService pickupSlotService;
+    private CartService cartService;
+    private final List<PickupSlot> offeredSlots = new ArrayList<>(); // index + 1 in the combo box
+    
+    // Idempotency key of the current checkout attempt. Repeated or retried confirms reuse it
+    // (and the slot / points already held for it) until the attempt definitely fails.
+    private String checkoutKey = UUID.randomUUID().toString();
+    private SlotReservation heldSlot;
+    private int heldPoints;
+    private String heldOrderCode; // placed by an attempt whose payment outcome is unknown
+    private boolean confirming;
     
     private MenuDashboardController.OrderData orderData;
     private int availablePoints = 0;
@@ -73,6 +99,8 @@ public class OrderPaymentController {
             orderProcessor = services.getOrderProcessor();
             paymentRegistry = services.getPaymentRegistry();
             loyaltyService = services.getLoyaltyService();
+            pickupSlotService = services.getPickupSlotService();
+            cartService = services.getCartService();
             
             // Initialize FreeProductCalculator
             MenuManager menuManager = services.getMenuManager();
@@ -93,9 +121,16 @@ public class OrderPaymentController {
      */
     public void setData(Object data) {
         if (data instanceof MenuDashboardController.OrderData) {
+            releaseUnsettledCheckout();
             this.orderData = (MenuDashboardController.OrderData) data;
+            // A new cart is a new checkout request
+            checkoutKey = UUID.randomUUID().toString();
+            heldSlot = null;
+            heldPoints = 0;
+            heldOrderCode = null;
             populateOrderSummary();
             loadLoyaltyPoints();
+            loadPickupSlots();
         } else {
             logger.warning("Invalid data type passed to OrderPaymentController");
             AlertHelper.showError("Error", "Invalid order data");
@@ -129,6 +164,37 @@ public class OrderPaymentController {
         }
     }
     
+    /**
+     * Offer "as soon as possible" plus the upcoming pickup slots that can take this cart.
+     */
+    private void loadPickupSlots() {
+        offeredSlots.clear();
+        ObservableList<String> options = FXCollections.observableArrayList("As soon as possible");
+        try {
+            if (pickupSlotService != null && orderData != null) {
+                Map<Category, Integer> demand = cartItemsByCategory();
+                for (PickupSlot slot : pickupSlotService.upcomingSlots()) {
+                    if (slot.canFit(demand)) {
+                        offeredSlots.add(slot);
+                        options.add(slot.toString());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warning("Could not load pickup slots: " + e.getMessage());
+        }
+        pickupSlotComboBox.setItems(options);
+        pickupSlotComboBox.getSelectionModel().selectFirst();
+    }
+    
+    private Map<Category, Integer> cartItemsByCategory() {
+        Map<MenuItem, Integer> quantities = new HashMap<>();
+        for (MenuDashboardController.CartItem cartItem : orderData.cartItems) {
+            quantities.merge(cartItem.menuItem, cartItem.quantity, Integer::sum);
+        }
+        return PickupSlotService.itemsByCategory(quantities);
+    }
+    
     /**
      * Setup listener for points redemption spinner to update discount in real-time.
      */
@@ -482,18 +548,36 @@ public class OrderPaymentController {
      */
     @FXML
     private void handleConfirmPayment() {
+        // Alerts run nested event loops, so a second click can arrive mid-confirm
+        if (confirming) return;
+        confirming = true;
+        boolean started = false;
+        try {
+            started = confirmPayment();
+        } finally {
+            // A started checkout clears the flag when it finishes
+            if (!started) confirming = false;
+        }
+    }
+    
+    /**
+     * Validate the form and start the checkout in the background.
+     *
+     * @return whether a checkout task was started (it resets {@code confirming} when done)
+     */
+    private boolean confirmPayment() {
         logger.info("Confirm Payment button clicked");
         
         if (orderData == null) {
             AlertHelper.showError("Error", "Order data not available");
-            return;
+            return false;
         }
         
         // Validate payment method selection
         String selectedMethod = paymentMethodComboBox.getValue();
         if (selectedMethod == null || selectedMethod.isEmpty()) {
             AlertHelper.showWarning("Validation Error", "Please select a payment method");
-            return;
+            return false;
         }
         
         // Get redeemed points
@@ -501,48 +585,121 @@ public class OrderPaymentController {
         
         // Validate point redemption
         if (!validatePointRedemption(redeemedPoints)) {
-            return; // Validation failed, error message already shown
+            return false; // Validation failed, error message already shown
         }
         
+        // Get payment processor
+        IPaymentProcessor processor = paymentRegistry.get(selectedMethod);
+        if (processor == null) {
+            AlertHelper.showError("Error", "Payment method not available");
+            return false;
+        }
+        
+        int slotIndex = pickupSlotComboBox.getSelectionModel().getSelectedIndex();
+        PickupSlot slot = slotIndex > 0 ? offeredSlots.get(slotIndex - 1) : null;
+        Map<Category, Integer> slotItems = slot != null ? cartItemsByCategory() : null;
+        double finalAmount = Math.max(0, orderData.total - pointsDiscount);
+        
+        // Reserving, redeeming, placing and paying are all database work
+        BackgroundTasks.task("Processing payment",
+                progress -> checkout(slot, slotItems, redeemedPoints, finalAmount, processor))
+            .owner(this).key("checkout")
+            .overlay(orderItemsListView)
+            .disable(confirmPaymentButton)
+            .onSuccess(outcome -> {
+                confirming = false;
+                showCheckoutOutcome(outcome, redeemedPoints, finalAmount, selectedMethod);
+            })
+            .onFailure(e -> {
+                confirming = false;
+                logger.severe("Error processing payment: " + e.getMessage());
+                AlertHelper.showError("Payment Error", "Failed to process payment: " + e.getMessage());
+            })
+            .onCancelled(() -> confirming = false)
+            .start();
+        return true;
+    }
+    
+    /**
+     * What a checkout attempt came to, for the FX thread to report.
+     */
+    private static final class CheckoutOutcome {
+        enum Kind { SLOT_FULL, POINTS_FAILED, BUSY, CART_CHANGED, CREATE_FAILED, PAID, PAYMENT_FAILED, ERROR }
+        
+        final Kind kind;
+        final String message;
+        final Order order;
+        final PaymentResult payment;
+        
+        CheckoutOutcome(Kind kind, String message, Order order, PaymentResult payment) {
+            this.kind = kind;
+            this.message = message;
+            this.order = order;
+            this.payment = payment;
+        }
+        
+        static CheckoutOutcome of(Kind kind, String message) {
+            return new CheckoutOutcome(kind, message, null, null);
+        }
+    }
+    
+    /**
+     * Background thread: hold the slot, redeem points, place the order and pay for it.
+     * Must not touch the scene graph; the outcome is shown by {@link #showCheckoutOutcome}.
+     */
+    private CheckoutOutcome checkout(PickupSlot slot, Map<Category, Integer> slotItems, int redeemedPoints,
+                                     double finalAmount, IPaymentProcessor processor) {
+        String placedOrderCode = null;
         try {
-            // Get payment processor
-            IPaymentProcessor processor = paymentRegistry.get(selectedMethod);
-            if (processor == null) {
-                AlertHelper.showError("Error", "Payment method not available");
-                return;
+            // Hold the chosen pickup slot before anything is charged
+            if (heldSlot == null && slot != null && pickupSlotService != null) {
+                heldSlot = pickupSlotService.reserve(slot.getStart(), slotItems);
+                if (heldSlot == null) {
+                    return CheckoutOutcome.of(CheckoutOutcome.Kind.SLOT_FULL, null);
+                }
             }
             
-            // Redeem loyalty points if any
-            if (redeemedPoints > 0) {
+            // Redeem loyalty points if any (once per checkout attempt)
+            if (redeemedPoints > 0 && heldPoints == 0) {
                 try {
                     loyaltyService.redeem(orderData.student, redeemedPoints);
+                    heldPoints = redeemedPoints;
                     logger.info("Redeemed " + redeemedPoints + " loyalty points");
                 } catch (Exception e) {
                     logger.warning("Failed to redeem points: " + e.getMessage());
-                    AlertHelper.showError("Error", "Failed to redeem loyalty points: " + e.getMessage());
-                    return;
+                    abandonCheckout(null);
+                    return CheckoutOutcome.of(CheckoutOutcome.Kind.POINTS_FAILED, e.getMessage());
                 }
             }
             
-            // Create selections list for order
-            List<Selection> selections = new ArrayList<>();
-            for (MenuDashboardController.CartItem cartItem : orderData.cartItems) {
-                selections.add(new Selection(cartItem.menuItem.getId(), cartItem.quantity));
+            // Place order straight from the saved cart (validated against the current menu)
+            LocalDateTime pickupSlot = heldSlot != null ? heldSlot.getSlotStart() : null;
+            PlacementResult placement;
+            if (cartService != null) {
+                placement = cartService.checkout(orderData.student, pickupSlot, checkoutKey);
+            } else {
+                List<Selection> selections = new ArrayList<>();
+                for (MenuDashboardController.CartItem cartItem : orderData.cartItems) {
+                    selections.add(new Selection(cartItem.menuItem.getId(), cartItem.quantity));
+                }
+                placement = orderProcessor.tryPlaceOrder(orderData.student, selections, pickupSlot, checkoutKey);
             }
-            
-            // Place order
-            Order order = orderProcessor.placeOrder(orderData.student, selections);
+            if (!placement.isPlaced()) {
+                // Nothing was created, so undo the holds
+                abandonCheckout(null);
+                return CheckoutOutcome.of(placement.isBusy() ? CheckoutOutcome.Kind.BUSY : CheckoutOutcome.Kind.CART_CHANGED,
+                        placement.getMessage());
+            }
+            Order order = placement.getOrder();
             
             if (order == null || order.getCode() == null) {
-                AlertHelper.showError("Error", "Failed to create order");
-                return;
+                abandonCheckout(null);
+                return CheckoutOutcome.of(CheckoutOutcome.Kind.CREATE_FAILED, null);
             }
+            placedOrderCode = order.getCode();
             
             logger.info("Order created: " + order.getCode());
             
-            // Calculate final payment amount (after points discount)
-            double finalAmount = Math.max(0, orderData.total - pointsDiscount);
-            
             PaymentResult result;
             
             // Handle FREE order (fully paid with points)
@@ -562,104 +719,222 @@ public class OrderPaymentController {
                 Payment payment = new Payment(paymentId, finalAmount, processor);
                 
                 // Complete order with loyalty points
-                result = orderProcessor.completeOrderWithLoyalty(order.getCode(), payment);
+                result = orderProcessor.completeOrderWithLoyalty(order.getCode(), payment, checkoutKey);
             }
             
-            // Display result
             if (result.isSuccess()) {
-                String successMessage;
-                
-                // Check if order was FREE
-                if (finalAmount <= 0.01) {
-                    successMessage = String.format(
-                        "🎉 Order placed successfully! 🎉\n\n" +
-                        "Order Code: %s\n" +
-                        "Payment ID: %s\n" +
-                        "Subtotal: %.2f EGP\n" +
-                        "Points Redeemed: %d (%.2f EGP)\n" +
-                        "Total Paid: FREE (0.00 EGP)\n\n" +
-                        "✨ Your order is completely FREE! ✨\n" +
-                        "Paid entirely with loyalty points!\n\n" +
-                        "Thank you for your order!",
-                        order.getCode(),
-                        result.getTxId(),
-                        orderData.total,
-                        redeemedPoints,
-                        pointsDiscount
-                    );
-                } else if (redeemedPoints > 0) {
-                    // Partial redemption
-                    successMessage = String.format(
-                        "Order placed successfully!\n\n" +
-                        "Order Code: %s\n" +
-                        "Payment ID: %s\n" +
-                        "Subtotal: %.2f EGP\n" +
-                        "Points Redeemed: %d (%.2f EGP discount)\n" +
-                        "Total Paid: %.2f EGP\n" +
-                        "Payment Method: %s\n\n" +
-                        "Thank you for your order!",
-                        order.getCode(),
-                        result.getTxId(),
-                        orderData.total,
-                        redeemedPoints,
-                        pointsDiscount,
-                        finalAmount,
-                        selectedMethod
-                    );
-                } else {
-                    // No redemption
-                    successMessage = String.format(
-                        "Order placed successfully!\n\n" +
-                        "Order Code: %s\n" +
-                        "Payment ID: %s\n" +
-                        "Total Paid: %.2f EGP\n" +
-                        "Payment Method: %s\n\n" +
-                        "Thank you for your order!",
-                        order.getCode(),
-                        result.getTxId(),
-                        finalAmount,
-                        selectedMethod
-                    );
+                // The order keeps its slot and points; the next checkout is a new request
+                heldSlot = null;
+                heldPoints = 0;
+                heldOrderCode = null;
+                checkoutKey = UUID.randomUUID().toString();
+                if (cartService != null) {
+                    cartService.clear(orderData.student.getStudentCode());
                 }
-                
-                AlertHelper.showSuccess("Payment Successful", successMessage);
-                
-                // Navigate back to menu dashboard
-                StudentNavigationService.navigateToWithData("menu-dashboard", orderData.student);
-                
-                // Trigger loyalty points refresh on the menu dashboard
-                try {
-                    Object controller = StudentNavigationService.getController("menu-dashboard");
-                    if (controller instanceof MenuDashboardController) {
-                        ((MenuDashboardController) controller).refreshLoyaltyPoints();
-                        logger.info("Triggered loyalty points refresh on menu dashboard");
-                    }
-                } catch (Exception e) {
-                    logger.warning("Could not refresh loyalty points: " + e.getMessage());
-                }
-                
+                return new CheckoutOutcome(CheckoutOutcome.Kind.PAID, null, order, result);
+            }
+            // Refund loyalty points and release the slot if payment failed
+            abandonCheckout(order.getCode());
+            return new CheckoutOutcome(CheckoutOutcome.Kind.PAYMENT_FAILED, null, order, result);
+            
+        } catch (Exception e) {
+            logger.severe("Error processing payment: " + e.getMessage());
+            e.printStackTrace();
+            if (placedOrderCode == null) {
+                abandonCheckout(null);
             } else {
+                heldOrderCode = placedOrderCode;
+            }
+            // Otherwise the outcome is unknown: keep the key and holds so that confirming
+            // again returns the original order and payment instead of creating new ones
+            return CheckoutOutcome.of(CheckoutOutcome.Kind.ERROR, e.getMessage());
+        }
+    }
+    
+    /**
+     * FX thread: report a checkout attempt and move on from it.
+     */
+    private void showCheckoutOutcome(CheckoutOutcome outcome, int redeemedPoints, double finalAmount, String selectedMethod) {
+        switch (outcome.kind) {
+            case SLOT_FULL:
+                AlertHelper.showWarning("Pickup Slot Full",
+                    "The selected pickup time has just filled up.\nPlease choose another time.");
+                loadPickupSlots();
+                return;
+            case POINTS_FAILED:
+                AlertHelper.showError("Error", "Failed to redeem loyalty points: " + outcome.message);
+                return;
+            case BUSY:
+                AlertHelper.showWarning("Busy", outcome.message);
+                return;
+            case CART_CHANGED:
+                // The cart no longer matches what was confirmed: review it on the menu screen
+                AlertHelper.showWarning("Cart Updated", outcome.message);
+                StudentNavigationService.navigateToWithData("menu-dashboard", orderData.student);
+                return;
+            case CREATE_FAILED:
+                AlertHelper.showError("Error", "Failed to create order");
+                return;
+            case ERROR:
+                AlertHelper.showError("Payment Error", "Failed to process payment: " + outcome.message);
+                return;
+            case PAYMENT_FAILED: {
                 String errorMessage = "Payment failed. Please try again.";
-                if (result.getTxId() != null && !result.getTxId().isEmpty()) {
-                    errorMessage += "\nReason: " + result.getTxId();
+                if (outcome.payment.getTxId() != null && !outcome.payment.getTxId().isEmpty()) {
+                    errorMessage += "\nReason: " + outcome.payment.getTxId();
                 }
                 AlertHelper.showError("Payment Failed", errorMessage);
-                
-                // Refund loyalty points if payment failed
-                if (redeemedPoints > 0) {
-                    try {
-                        loyaltyService.addPoints(orderData.student, redeemedPoints);
-                        logger.info("Refunded " + redeemedPoints + " loyalty points due to payment failure");
-                    } catch (Exception e) {
-                        logger.severe("Failed to refund points: " + e.getMessage());
-                    }
-                }
+                return;
+            }
+            default:
+                break;
+        }
+        
+        Order order = outcome.order;
+        PaymentResult result = outcome.payment;
+        String successMessage;
+        
+        // Check if order was FREE
+        if (finalAmount <= 0.01) {
+            successMessage = String.format(
+                "🎉 Order placed successfully! 🎉\n\n" +
+                "Order Code: %s\n" +
+                "Payment ID: %s\n" +
+                "Subtotal: %.2f EGP\n" +
+                "Points Redeemed: %d (%.2f EGP)\n" +
+                "Total Paid: FREE (0.00 EGP)\n\n" +
+                "✨ Your order is completely FREE! ✨\n" +
+                "Paid entirely with loyalty points!\n\n" +
+                "Thank you for your order!",
+                order.getCode(),
+                result.getTxId(),
+                orderData.total,
+                redeemedPoints,
+                pointsDiscount
+            );
+        } else if (redeemedPoints > 0) {
+            // Partial redemption
+            successMessage = String.format(
+                "Order placed successfully!\n\n" +
+                "Order Code: %s\n" +
+                "Payment ID: %s\n" +
+                "Subtotal: %.2f EGP\n" +
+                "Points Redeemed: %d (%.2f EGP discount)\n" +
+                "Total Paid: %.2f EGP\n" +
+                "Payment Method: %s\n\n" +
+                "Thank you for your order!",
+                order.getCode(),
+                result.getTxId(),
+                orderData.total,
+                redeemedPoints,
+                pointsDiscount,
+                finalAmount,
+                selectedMethod
+            );
+        } else {
+            // No redemption
+            successMessage = String.format(
+                "Order placed successfully!\n\n" +
+                "Order Code: %s\n" +
+                "Payment ID: %s\n" +
+                "Total Paid: %.2f EGP\n" +
+                "Payment Method: %s\n\n" +
+                "Thank you for your order!",
+                order.getCode(),
+                result.getTxId(),
+                finalAmount,
+                selectedMethod
+            );
+        }
+        
+        if (order.getPickupSlot() != null) {
+            successMessage += "\n\nPickup slot: "
+                + order.getPickupSlot().format(DateTimeFormatter.ofPattern("HH:mm"));
+        } else if (order.getEstimatedReadyAt() != null) {
+            successMessage += "\n\nEstimated ready at: "
+                + order.getEstimatedReadyAt().format(DateTimeFormatter.ofPattern("HH:mm"));
+        }
+        
+        AlertHelper.showSuccess("Payment Successful", successMessage);
+        
+        // Navigate back to menu dashboard
+        StudentNavigationService.navigateToWithData("menu-dashboard", orderData.student);
+        
+        // Trigger loyalty points refresh on the menu dashboard
+        try {
+            Object controller = StudentNavigationService.getController("menu-dashboard");
+            if (controller instanceof MenuDashboardController) {
+                ((MenuDashboardController) controller).refreshLoyaltyPoints();
+                logger.info("Triggered loyalty points refresh on menu dashboard");
             }
-            
         } catch (Exception e) {
-            logger.severe("Error processing payment: " + e.getMessage());
-            e.printStackTrace();
-            AlertHelper.showError("Payment Error", "Failed to process payment: " + e.getMessage());
+            logger.warning("Could not refresh loyalty points: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Undo the holds of a checkout attempt that definitely failed and start a fresh attempt.
+     */
+    private void abandonCheckout(String orderCode) {
+        refundRedeemedPoints(orderData.student, heldPoints);
+        releasePickupSlot(heldSlot, orderCode);
+        heldPoints = 0;
+        heldSlot = null;
+        heldOrderCode = null;
+        checkoutKey = UUID.randomUUID().toString();
+    }
+    
+    /**
+     * Settle the holds an earlier attempt kept after an unknown outcome (see {@link #checkout})
+     * before a new cart starts over, so its pickup slot and points are not held forever.
+     * An order that did get paid keeps them. Orders cannot be cancelled yet, so an unpaid
+     * order itself stays as it is; only its slot and points are given back.
+     */
+    private void releaseUnsettledCheckout() {
+        if (heldSlot == null && heldPoints == 0) return;
+        Student student = orderData.student;
+        SlotReservation slot = heldSlot;
+        int points = heldPoints;
+        String orderCode = heldOrderCode;
+        // No owner: the release must run even if this screen is left straight away
+        BackgroundTasks.task("Releasing the previous checkout", progress -> {
+            Order order = orderCode != null ? orderProcessor.findOrder(orderCode) : null;
+            if (order != null && order.getPaymentTxId() != null) {
+                return false;
+            }
+            refundRedeemedPoints(student, points);
+            releasePickupSlot(slot, orderCode);
+            return true;
+        })
+            .onSuccess(released -> {
+                if (released && points > 0) loadLoyaltyPoints();
+            })
+            .onFailure(e -> logger.warning("Could not release the previous checkout: " + e.getMessage()))
+            .start();
+    }
+    
+    /**
+     * Give back loyalty points redeemed for an order that did not go through.
+     */
+    private void refundRedeemedPoints(Student student, int redeemedPoints) {
+        if (redeemedPoints <= 0) return;
+        try {
+            loyaltyService.addPoints(student, redeemedPoints);
+            logger.info("Refunded " + redeemedPoints + " loyalty points for an order that did not go through");
+        } catch (Exception e) {
+            logger.severe("Failed to refund points: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Give back a pickup slot held for an order that did not go through.
+     */
+    private void releasePickupSlot(SlotReservation reservation, String orderCode) {
+        if (reservation == null || pickupSlotService == null) return;
+        if (orderCode != null) {
+            pickupSlotService.releaseOrder(orderCode);
+        } else {
+            pickupSlotService.release(reservation);
         }
     }
     
@@ -1,6 +1,8 @@
 package app.gui.student.controllers;
 
 import app.gui.shared.AlertHelper;
+import app.gui.shared.BackgroundTasks;
+import app.gui.shared.ImageAssets;
 import app.gui.student.StudentNavigationService;
 import Core.Student;
 import Services.StudentManager;
@@ -8,6 +10,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TextField;
+import javafx.scene.image.ImageView;
 import terminal.ServiceContainer;
 
 import java.util.logging.Logger;
@@ -33,6 +36,8 @@ public class StudentLoginController {
     @FXML private javafx.scene.control.PasswordField registerConfirmPasswordField;
     @FXML private Button registerButton;
     
+    @FXML private ImageView backgroundImage;
+    
     private ServiceContainer services;
     private StudentManager studentManager;
     
@@ -44,6 +49,11 @@ public class StudentLoginController {
         logger.info("StudentLoginController initialized");
         services = StudentNavigationService.getServiceContainer();
         studentManager = services.getStudentManager();
+
+        // Decoded in the background at the size it is shown at
+        if (backgroundImage != null) {
+            ImageAssets.show(backgroundImage, "CafeteriaLogin.jpg");
+        }
         
         // Clear login fields on initialization (for logout)
         if (loginStudentCodeField != null) {
@@ -113,30 +123,41 @@ public class StudentLoginController {
             return;
         }
         
-        try {
+        String code = studentCode.trim();
+        BackgroundTasks.task("Signing in", progress -> {
             // Attempt login with password authentication
-            Student student = services.getStudentDAO().authenticateStudent(studentCode.trim(), password.trim());
-            
-            if (student == null) {
-                AlertHelper.showError("Login Failed", 
-                    "Invalid student code or password. Please check your credentials and try again.");
-                logger.warning("Login failed for code: " + studentCode);
-                return;
+            Student student = services.getStudentDAO().authenticateStudent(code, password.trim());
+            if (student != null) {
+                // The cart may have changed at another kiosk since this one last saw it
+                services.getCartService().refresh(student.getStudentCode());
             }
-            
-            // Login successful
-            logger.info("Login successful for student: " + student.getCode());
-//            AlertHelper.showSuccess("Login Successful",
-//                "Welcome back, " + student.getName() + "!");
+            return student;
+        })
+            .owner(this).key("login")
+            .overlay(loginCard)
+            .disable(loginButton)
+            .onSuccess(student -> {
+                if (student == null) {
+                    AlertHelper.showError("Login Failed", 
+                        "Invalid student code or password. Please check your credentials and try again.");
+                    logger.warning("Login failed for code: " + studentCode);
+                    return;
+                }
+                
+                // Login successful
+                logger.info("Login successful for student: " + student.getCode());
+//                AlertHelper.showSuccess("Login Successful",
+//                    "Welcome back, " + student.getName() + "!");
 
-            // Navigate to menu-dashboard
-            StudentNavigationService.navigateToWithData("menu-dashboard", student);
-            
-        } catch (Exception e) {
-            logger.severe("Login error: " + e.getMessage());
-            AlertHelper.showError("Login Error", 
-                "An error occurred during login: " + e.getMessage());
-        }
+                // Navigate to menu-dashboard
+                StudentNavigationService.navigateToWithData("menu-dashboard", student);
+            })
+            .onFailure(e -> {
+                logger.severe("Login error: " + e.getMessage());
+                AlertHelper.showError("Login Error", 
+                    "An error occurred during login: " + e.getMessage());
+            })
+            .start();
     }
     
     /**
@@ -192,50 +213,56 @@ public class StudentLoginController {
             return;
         }
         
-        try {
-            // Create student object with password
-            Student student = new Student();
-            student.setName(name.trim());
-            student.setPhoneNumber(phoneNumber.trim());
-            student.setPassword(password.trim());
-            
+        // Create student object with password
+        Student student = new Student();
+        student.setName(name.trim());
+        student.setPhoneNumber(phoneNumber.trim());
+        student.setPassword(password.trim());
+        
+        BackgroundTasks.task("Creating account", progress -> {
             // Generate student code
-            String studentCode = generateStudentCode();
-            student.setCode(studentCode);
+            student.setCode(generateStudentCode());
             
             // Save to database
-            boolean saved = services.getStudentDAO().Save(student);
-            
-            if (!saved) {
-                AlertHelper.showError("Registration Failed", 
-                    "Failed to create student account. Please try again.");
-                logger.warning("Registration failed for name: " + name);
-                return;
-            }
-            
-            // Registration successful - Show student code
-            logger.info("Registration successful for student: " + student.getCode());
-            
-            AlertHelper.showInfo("Registration Successful", 
-                "Your account has been created!\n\n" +
-                "Your Student Code is: " + studentCode + "\n\n" +
-                "Please save this code for future logins.");
-
-            // Navigate to menu-dashboard with new registration flag
-            navigateToMenuDashboardWithWelcome(student);
+            return services.getStudentDAO().Save(student);
+        })
+            .owner(this).key("register")
+            .overlay(registerCard)
+            .disable(registerButton)
+            .onSuccess(saved -> {
+                if (!saved) {
+                    AlertHelper.showError("Registration Failed", 
+                        "Failed to create student account. Please try again.");
+                    logger.warning("Registration failed for name: " + name);
+                    return;
+                }
+                
+                // Registration successful - Show student code
+                logger.info("Registration successful for student: " + student.getCode());
+                
+                AlertHelper.showInfo("Registration Successful", 
+                    "Your account has been created!\n\n" +
+                    "Your Student Code is: " + student.getCode() + "\n\n" +
+                    "Please save this code for future logins.");
 
-        } catch (IllegalArgumentException e) {
-            logger.warning("Registration validation error: " + e.getMessage());
-            AlertHelper.showError("Validation Error", e.getMessage());
-        } catch (Exception e) {
-            logger.severe("Registration error: " + e.getMessage());
-            AlertHelper.showError("Registration Error", 
-                "An error occurred during registration: " + e.getMessage());
-        }
+                // Navigate to menu-dashboard with new registration flag
+                navigateToMenuDashboardWithWelcome(student);
+            })
+            .onFailure(e -> {
+                if (e instanceof IllegalArgumentException) {
+                    logger.warning("Registration validation error: " + e.getMessage());
+                    AlertHelper.showError("Validation Error", e.getMessage());
+                    return;
+                }
+                logger.severe("Registration error: " + e.getMessage());
+                AlertHelper.showError("Registration Error", 
+                    "An error occurred during registration: " + e.getMessage());
+            })
+            .start();
     }
     
     /**
-     * Generate a unique student code
+     * Generate a unique student code (background thread: counts the students)
      */
     private String generateStudentCode() {
         int count = services.getStudentDAO().countStudents();
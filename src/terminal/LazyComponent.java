@@ -0,0 +1,41 @@
+package terminal;
+
+import java.util.function.Supplier;
+
+/**
+ * A container component created on first use (once, from any thread), for services only
+ * one of the applications needs.
+ */
+final class LazyComponent<T> {
+    private final String name;
+    private final Supplier<T> factory;
+    private final StartupReport report;
+    private volatile T value;
+
+    LazyComponent(String name, Supplier<T> factory, StartupReport report) {
+        this.name = name;
+        this.factory = factory;
+        this.report = report;
+    }
+
+    T get() {
+        T current = value;
+        if (current == null) {
+            synchronized (this) {
+                current = value;
+                if (current == null) {
+                    current = report.time(name, factory);
+                    value = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The component, or null if it was never used.
+     */
+    T getIfCreated() {
+        return value;
+    }
+}
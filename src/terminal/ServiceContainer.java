@@ -4,6 +4,14 @@ import Services.*;
 import DataBase.*;
 import Interfaces.*;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
@@ -13,6 +21,13 @@ import java.util.logging.Logger;
  */
 public class ServiceContainer {
     private static final Logger logger = Logger.getLogger(ServiceContainer.class.getName());
+    private static final long UNREAD_RECONCILE_MINUTES = 10;
+    private static final long NOTIFICATION_RETENTION_MINUTES = 60;
+    private static final Path NOTIFICATION_ARCHIVE_DIR = Paths.get("archive", "notifications");
+    // Startup is mostly waiting for MySQL connections, so a few threads go a long way
+    private static final int STARTUP_THREADS = 4;
+    private static final String DEFAULT_MANAGERS_TASK = "default-service-managers";
+    private static final AtomicInteger startupThreads = new AtomicInteger();
 
     // Repositories (use interfaces for dependency inversion)
     private final IStudentRepository studentsRepo;
@@ -27,61 +42,217 @@ public class ServiceContainer {
     private final LoyaltyProgramService loyaltyService;
     private final OrderHistoryService orderHistoryService;
     private final NotificationHistoryService notificationHistoryService;
-    private final AdminManager adminManager;
-    private final AdminLIN_Out adminAuthService;
     private final NotificationService notificationService;
-    private final ReportService reportService;
-    private final RoleAuthService roleAuthService;
     private final PaymentRegistry paymentRegistry;
-    private final AdminManagement_Services adminManagementServices;
+    private final NotificationRetentionService notificationRetentionService;
+    private final OrderStatusNotificationBuffer statusNotificationBuffer;
+    private final OrderLatencyTracker orderLatencyTracker;
+    private final PickupSlotService pickupSlotService;
+    private final CartService cartService;
+    private final ReorderService reorderService;
+    private final AdminTableService adminTableService;
 
+    // Administration services, created on first use (the student application never uses them)
+    private final LazyComponent<AdminManager> adminManager;
+    private final LazyComponent<AdminLIN_Out> adminAuthService;
+    private final LazyComponent<ReportService> reportService;
+    private final LazyComponent<RoleAuthService> roleAuthService;
+    private final LazyComponent<AdminManagement_Services> adminManagementServices;
+
+    private final StartupReport startupReport = new StartupReport();
+
+    /**
+     * Components that open database connections are created in parallel on a startup
+     * executor, each as soon as the components it needs exist; the constructor returns
+     * when all of them are ready. Administration services are created on first use.
+     *
+     * Startup tasks and lazy components only capture local variables, never the container
+     * itself, so nothing reaches a half-built container.
+     */
     public ServiceContainer() {
         logger.info("Initializing service container with database storage only...");
+        StartupReport report = this.startupReport;
 
-        // Initialize repositories with database storage only - no more in-memory fallbacks
+        LazyComponent<AdminManager> admins = new LazyComponent<>("AdminManager", AdminManager::new, report);
+        LazyComponent<AdminManagement_Services> managementServices =
+                new LazyComponent<>("AdminManagement_Services", AdminManagement_Services::new, report);
+        this.adminManager = admins;
+        this.adminAuthService = new LazyComponent<>("AdminLIN_Out", () -> new AdminLIN_Out(admins.get()), report);
+        this.roleAuthService = new LazyComponent<>("RoleAuthService", RoleAuthService::new, report);
+        this.adminManagementServices = managementServices;
+
+        ExecutorService startup = Executors.newFixedThreadPool(STARTUP_THREADS, r -> {
+            Thread t = new Thread(r, "container-startup-" + startupThreads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
         try {
-            this.studentsRepo = new StudentDAO();
-            this.menuRepo = new MenuDAO();
-            this.orderRepo = new OrderDAO();
-            this.loyaltyRepo = new LoyaltyDAO();
-            logger.info("All repositories initialized with database storage.");
-        } catch (Exception e) {
-            logger.severe("Failed to initialize database repositories: " + e.getMessage());
-            throw new RuntimeException("Database initialization failed. Cannot start application without database connection.", e);
+            // Initialize repositories with database storage only - no more in-memory fallbacks
+            CompletableFuture<StudentDAO> students = component(startup, report, "StudentDAO", StudentDAO::new);
+            CompletableFuture<MenuDAO> menu = component(startup, report, "MenuDAO", MenuDAO::new);
+            CompletableFuture<OrderDAO> orders = component(startup, report, "OrderDAO", OrderDAO::new);
+            CompletableFuture<LoyaltyDAO> loyalty = component(startup, report, "LoyaltyDAO", LoyaltyDAO::new);
+
+            CompletableFuture<OrderHistoryService> orderHistory =
+                    component(startup, report, "OrderHistoryService", OrderHistoryService::new);
+            CompletableFuture<NotificationHistoryService> notificationHistory =
+                    component(startup, report, "NotificationHistoryService", NotificationHistoryService::new);
+            CompletableFuture<NotificationService> notifications =
+                    component(startup, report, "NotificationService", NotificationService::new);
+            CompletableFuture<PickupSlotService> pickupSlots =
+                    component(startup, report, "PickupSlotService", PickupSlotService::new);
+            // Order status notifications are coalesced and written in batches
+            CompletableFuture<OrderStatusNotificationBuffer> statusBuffer =
+                    component(startup, report, "OrderStatusNotificationBuffer", OrderStatusNotificationBuffer::new);
+            // Create default service managers (idempotent, skipped once recorded as done)
+            CompletableFuture<Void> bootstrap = CompletableFuture.runAsync(
+                    () -> report.time("default managers", () -> ensureDefaultManagers(managementServices)), startup);
+
+            IStudentRepository studentDAO;
+            IMenuProvider menuDAO;
+            IOrderRepository orderDAO;
+            try {
+                studentDAO = await(students);
+                menuDAO = await(menu);
+                orderDAO = await(orders);
+                this.studentsRepo = studentDAO;
+                this.menuRepo = menuDAO;
+                this.orderRepo = orderDAO;
+                this.loyaltyRepo = await(loyalty);
+                logger.info("All repositories initialized with database storage.");
+            } catch (Exception e) {
+                logger.severe("Failed to initialize database repositories: " + e.getMessage());
+                throw new RuntimeException("Database initialization failed. Cannot start application without database connection.", e);
+            }
+
+            // Initialize core services (Business Layer)
+            this.studentManager = new StudentManager(studentsRepo, loyaltyRepo);
+            this.menuManager = new MenuManager(menuRepo);
+            LoyaltyProgramService loyaltyPrograms = new LoyaltyProgramService(studentsRepo, loyaltyRepo);
+            this.loyaltyService = loyaltyPrograms;
+            // Queue / prep time histograms; seeded from the orders table on first use
+            OrderLatencyTracker latencyTracker = new OrderLatencyTracker();
+            this.orderLatencyTracker = latencyTracker;
+            this.paymentRegistry = new PaymentRegistry();
+            this.notificationRetentionService = new NotificationRetentionService();
+            OrderHistoryService orderHistoryRepo = await(orderHistory);
+            NotificationHistoryService notificationHistoryRepo = await(notificationHistory);
+            OrderStatusNotificationBuffer statusNotifications = await(statusBuffer);
+            statusNotifications.start();
+            this.orderHistoryService = orderHistoryRepo;
+            this.notificationHistoryService = notificationHistoryRepo;
+            this.notificationService = await(notifications);
+            this.pickupSlotService = await(pickupSlots);
+            this.statusNotificationBuffer = statusNotifications;
+            this.reportService = new LazyComponent<>("ReportService",
+                    () -> new ReportService(orderDAO, menuDAO, studentDAO, latencyTracker), report);
+
+            // Initialize order processor with all dependencies including order and notification history
+            OrderProcessor processor = report.time("OrderProcessor", () -> {
+                OrderProcessor created = new OrderProcessor(
+                        orderDAO,
+                        menuDAO,
+                        loyaltyPrograms,
+                        orderHistoryRepo,
+                        notificationHistoryRepo,
+                        statusNotifications
+                );
+
+                // Rate limit and cap concurrent order placement so a rush degrades gracefully.
+                // Limits are per process, and placements here run one at a time, so only the rate limit engages
+                created.setAdmissionController(new AdmissionController());
+
+                // Pickup ETAs learn per-item prep times from orders the latency tracker sees complete
+                created.getEtaEstimator().learnFrom(latencyTracker);
+
+                // The live operations dashboard reports prep times from the same tracker
+                created.getOperationsMetrics().setLatencyTracker(latencyTracker);
+                return created;
+            });
+            this.orderProcessor = processor;
+
+            // Carts are cached in memory and written behind to the carts tables
+            CompletableFuture<CartService> carts =
+                    component(startup, report, "CartService", () -> new CartService(menuDAO, processor));
+
+            // Students' recent orders, for one-click reordering
+            CompletableFuture<ReorderService> reorders =
+                    component(startup, report, "ReorderService", () -> new ReorderService(menuDAO, processor));
+
+            this.cartService = await(carts);
+            cartService.start();
+            this.reorderService = await(reorders);
+            await(bootstrap);
+        } finally {
+            startup.shutdown();
+        }
+
+        // Admin tables page through the database instead of loading whole tables
+        this.adminTableService = new AdminTableService();
+
+        // Periodically rebuild the materialised unread-notification counters
+        UnreadCounterCache.getInstance().startReconciler(UNREAD_RECONCILE_MINUTES);
+
+        // Purge expired notifications in the background, archiving them first
+        notificationRetentionService.setArchiveDirectory(NOTIFICATION_ARCHIVE_DIR);
+        notificationRetentionService.start(NOTIFICATION_RETENTION_MINUTES);
+
+        report.ready();
+        logger.info("Service container initialization completed successfully.");
+    }
+
+    private static <T> CompletableFuture<T> component(ExecutorService startup, StartupReport report,
+                                                      String name, Supplier<T> create) {
+        return CompletableFuture.supplyAsync(() -> report.time(name, create), startup);
+    }
+
+    /**
+     * Wait for a component, rethrowing its failure as it was thrown on the startup thread.
+     */
+    private static <T> T await(CompletableFuture<T> component) {
+        try {
+            return component.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw e;
         }
+    }
 
-        // Initialize core services (Business Layer)
-        this.studentManager = new StudentManager(studentsRepo, loyaltyRepo);
-        this.menuManager = new MenuManager(menuRepo);
-        this.loyaltyService = new LoyaltyProgramService(studentsRepo, loyaltyRepo);
-        this.orderHistoryService = new OrderHistoryService();
-        this.notificationHistoryService = new NotificationHistoryService();
-        this.adminManager = new AdminManager();
-        this.adminAuthService = new AdminLIN_Out(adminManager);
-        this.notificationService = new NotificationService();
-        this.reportService = new ReportService(orderRepo, menuRepo, studentsRepo);
-        this.roleAuthService = new RoleAuthService();
-        this.paymentRegistry = new PaymentRegistry();
-        this.adminManagementServices = new AdminManagement_Services();
-
-        // Create default service managers (idempotent)
+    private static void ensureDefaultManagers(LazyComponent<AdminManagement_Services> managementServices) {
+        DBconnection db = null;
         try {
-            this.adminManagementServices.createDefaultManagers();
+            db = new DBconnection();
+            BootstrapMarkerDAO markers = new BootstrapMarkerDAO(db.getConnection());
+            if (markers.isDone(DEFAULT_MANAGERS_TASK)) {
+                logger.info("Default service managers already created, skipped.");
+                return;
+            }
+            managementServices.get().createDefaultManagers();
+            markers.markDone(DEFAULT_MANAGERS_TASK);
             logger.info("Default service managers ensured.");
         } catch (Exception e) {
             logger.warning("Default service manager creation skipped: " + e.getMessage());
+        } finally {
+            if (db != null) db.close();
         }
+    }
 
-        // Initialize order processor with all dependencies including order and notification history
-        this.orderProcessor = new OrderProcessor(
-                orderRepo,
-                menuRepo,
-                loyaltyService,
-                orderHistoryService,
-                notificationHistoryService
-        );
-
-        logger.info("Service container initialization completed successfully.");
+    /**
+     * Stop background jobs started by the container.
+     */
+    public void shutdown() {
+        logger.info("Shutting down service container...");
+        if (orderProcessor.getAdmissionController() != null) {
+            logger.info("Order admission: " + orderProcessor.getAdmissionController().metrics());
+        }
+        cartService.close();
+        orderProcessor.shutdown();
+        orderLatencyTracker.shutdown();
+        statusNotificationBuffer.close();
+        notificationRetentionService.shutdown();
+        UnreadCounterCache.getInstance().shutdown();
     }
 
     // Getters following Interface Segregation Principle
@@ -91,12 +262,20 @@ public class ServiceContainer {
     public LoyaltyProgramService getLoyaltyService() { return loyaltyService; }
     public OrderHistoryService getOrderHistoryService() { return orderHistoryService; }
     public NotificationHistoryService getNotificationHistoryService() { return notificationHistoryService; }
-    public AdminManager getAdminManager() { return adminManager; }
-    public AdminLIN_Out getAdminAuthService() { return adminAuthService; }
+    public AdminManager getAdminManager() { return adminManager.get(); }
+    public AdminLIN_Out getAdminAuthService() { return adminAuthService.get(); }
     public NotificationService getNotificationService() { return notificationService; }
-    public ReportService getReportService() { return reportService; }
-    public RoleAuthService getRoleAuthService() { return roleAuthService; }
+    public ReportService getReportService() { return reportService.get(); }
+    public RoleAuthService getRoleAuthService() { return roleAuthService.get(); }
     public PaymentRegistry getPaymentRegistry() { return paymentRegistry; }
-    public AdminManagement_Services getAdminManagementServices() { return adminManagementServices; }
+    public AdminManagement_Services getAdminManagementServices() { return adminManagementServices.get(); }
+    public NotificationRetentionService getNotificationRetentionService() { return notificationRetentionService; }
+    public OrderLatencyTracker getOrderLatencyTracker() { return orderLatencyTracker; }
+    public PickupSlotService getPickupSlotService() { return pickupSlotService; }
+    public CartService getCartService() { return cartService; }
+    public ReorderService getReorderService() { return reorderService; }
+    public AdminTableService getAdminTableService() { return adminTableService; }
     public IStudentRepository getStudentDAO() { return studentsRepo; }
+    public IOrderRepository getOrderRepository() { return orderRepo; }
+    public StartupReport getStartupReport() { return startupReport; }
 }
@@ -6,6 +6,7 @@ import Interfaces.IPaymentProcessor;
 import Services.*;
 import Values.Discount;
 import Values.Money;
+import Values.PlacementResult;
 import Values.Selection;
 
 import java.util.ArrayList;
@@ -152,8 +153,13 @@ public class StudentPortalConsole {
             selections.add(new Selection(id, qty));
         }
         if (selections.isEmpty()) { ConsoleUI.warn("No items selected."); return; }
-        Order order = orderProcessor.placeOrder(current, selections);
+        PlacementResult placement = orderProcessor.tryPlaceOrder(current, selections, null);
+        if (!placement.isPlaced()) { ConsoleUI.warn(placement.getMessage()); return; }
+        Order order = placement.getOrder();
         ConsoleUI.info("Order ID: " + order.getId() + " | Total: " + order.total() + " | Status: " + order.getStatus());
+        if (order.getEstimatedReadyAt() != null) {
+            ConsoleUI.info("Estimated ready at: " + order.getEstimatedReadyAt().toLocalTime().withNano(0));
+        }
 
         // Ask for loyalty points redemption before payment
         Money finalTotal = order.total();
@@ -228,8 +234,9 @@ public class StudentPortalConsole {
                 }
                 ConsoleUI.info("Loyalty points updated. New balance: " + current.getAccount().balance());
                 if (order.getStatus() == OrderStatus.NEW) {
-                    orderProcessor.advanceStatus(order.getId(), OrderStatus.PREPARING);
-                    ConsoleUI.info("Order moved to PREPARING.");
+                    if (orderProcessor.advanceStatusByCode(order.getCode(), OrderStatus.PREPARING)) {
+                        ConsoleUI.info("Order moved to PREPARING.");
+                    }
                 }
             } else {
                 ConsoleUI.error("Payment failed.");